@@ -0,0 +1,722 @@
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * B+ tree offering the same operations as our 2-3+ tree. Every
+ * key is stored in a leaf, and the inner nodes only hold
+ * separators guiding the search down to the right leaf. The
+ * leaves are linked to their right neighbours, so a range search
+ * descends once, to the first key in range, and then simply
+ * walks along the leaves until it passes the upper bound.
+ *
+ * The fanout of the tree is configurable: an inner node has at
+ * most fanout children, and a leaf at most fanout - 1 keys. Keys
+ * and children are kept in arrays and every node is searched
+ * with a binary search. A full node is split in half on its way
+ * up, and a node left less than half full by a removal borrows
+ * from or merges with a sibling. A fanout of 3 gives a 2-3 B+
+ * tree, and larger fanouts make a far shallower tree.
+ *
+ * Equal keys may be inserted several times, in which case they
+ * may spread over neighbouring leaves; separators only guarantee
+ * that keys to their left are no greater and keys to their right
+ * no smaller.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ * @param <Key>
+ *            -- generic reference for comparable
+ */
+public class BPlusTree<Key extends Comparable<? super Key>>
+        implements SearchTree<Key> {
+
+    // ---------------- PRIVATE VARIABLES ----------------
+
+    private static final int DEFAULT_FANOUT = 64;
+
+    private int fanout; // most children of an inner node
+    private int minLeafKeys; // fewest keys in a leaf but the root
+    private int minInnerKeys; // fewest separators likewise
+    private Node root; // null when the tree is empty
+    private int height;
+    private int size;
+
+    // ---------------- CONSTRUCTOR ---------------------
+
+    /**
+     * Default constructor for a B+ tree with a fanout of 64
+     */
+    public BPlusTree() {
+        this(DEFAULT_FANOUT);
+    }
+
+    /**
+     * Constructor for a B+ tree with the specified fanout
+     *
+     * @param treeFanout
+     *            -- most children of an inner node, at least 3
+     */
+    public BPlusTree(int treeFanout) {
+        if (treeFanout < 3) {
+            throw new IllegalArgumentException(
+                    "fanout must be at least 3: " + treeFanout);
+        }
+        fanout = treeFanout;
+        minLeafKeys = fanout / 2;
+        minInnerKeys = (fanout - 1) / 2;
+        this.clear();
+    } // end constructor
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Inserts a key after any equal keys, splitting full nodes
+     * on the way back up to the root
+     *
+     * @param k
+     *            -- key to insert
+     */
+    @Override
+    public void insert(Key k) {
+        size++;
+        if (root == null) {
+            root = new Node(fanout, true);
+            root.keys[0] = k;
+            root.count = 1;
+            height = 1;
+            return;
+        }
+
+        Node[] path = new Node[height];
+        int[] index = new int[height];
+        Node node = root;
+        for (int depth = 0; depth < height - 1; depth++) {
+            int child = this.upperBound(node, k);
+            path[depth] = node;
+            index[depth] = child;
+            node = node.children[child];
+        }
+
+        int pos = this.upperBound(node, k);
+        System.arraycopy(node.keys, pos, node.keys, pos + 1,
+                node.count - pos);
+        node.keys[pos] = k;
+        node.count++;
+        if (node.count < fanout) {
+            return;
+        }
+
+        // split our way up until a parent has room
+        Node right = this.splitLeaf(node);
+        Object separator = right.keys[0];
+        for (int depth = height - 2; depth >= 0; depth--) {
+            Node parent = path[depth];
+            int child = index[depth];
+            System.arraycopy(parent.keys, child, parent.keys,
+                    child + 1, parent.count - child);
+            System.arraycopy(parent.children, child + 1,
+                    parent.children, child + 2, parent.count - child);
+            parent.keys[child] = separator;
+            parent.children[child + 1] = right;
+            parent.count++;
+            if (parent.count < fanout) {
+                return;
+            }
+            separator = parent.keys[fanout / 2];
+            right = this.splitInner(parent);
+        } // end for
+
+        // the root itself was split
+        Node newRoot = new Node(fanout, false);
+        newRoot.keys[0] = separator;
+        newRoot.children[0] = root;
+        newRoot.children[1] = right;
+        newRoot.count = 1;
+        root = newRoot;
+        height++;
+    } // end insert
+
+    /**
+     * Removes the first key equal to the specified key, letting
+     * every node left less than half full borrow from or merge
+     * with a sibling on the way back up to the root
+     *
+     * @param k
+     *            -- key we wish to remove
+     * @return reference to the removed key, null if not found
+     */
+    @Override
+    public Key remove(Key k) {
+        if (root == null) {
+            return null;
+        }
+
+        Node[] path = new Node[height];
+        int[] index = new int[height];
+        Node node = root;
+        for (int depth = 0; depth < height - 1; depth++) {
+            int child = this.lowerBound(node, k);
+            path[depth] = node;
+            index[depth] = child;
+            node = node.children[child];
+        }
+
+        int pos = this.lowerBound(node, k);
+        if (pos == node.count) {
+            // the first key not below k starts the next leaf,
+            // which we reach through the path to keep it
+            // rebalanceable
+            int depth = height - 2;
+            while (depth >= 0 && index[depth] == path[depth].count) {
+                depth--;
+            }
+            if (depth < 0) {
+                return null;
+            }
+            index[depth]++;
+            node = path[depth].children[index[depth]];
+            for (depth++; depth < height - 1; depth++) {
+                path[depth] = node;
+                index[depth] = 0;
+                node = node.children[0];
+            }
+            pos = 0;
+        } // end if
+        Key toRet = this.keyAt(node, pos);
+        if (toRet.compareTo(k) != 0) {
+            return null;
+        }
+
+        System.arraycopy(node.keys, pos + 1, node.keys, pos,
+                node.count - pos - 1);
+        node.keys[--node.count] = null;
+        size--;
+
+        for (int depth = height - 2; depth >= 0; depth--) {
+            int min = node.isLeaf() ? minLeafKeys : minInnerKeys;
+            if (node.count >= min) {
+                break;
+            }
+            this.rebalance(path[depth], index[depth]);
+            node = path[depth];
+        }
+
+        if (root.count == 0) {
+            // the root ran out of keys, so its only child (if
+            // any) takes its place
+            root = root.isLeaf() ? null : root.children[0];
+            height--;
+        }
+        return toRet;
+    } // end remove
+
+    /**
+     * Searches the tree for a key equal to the specified key
+     *
+     * @param toFind
+     *            -- key we wish to search for
+     * @return reference to key if in tree, null otherwise
+     */
+    @Override
+    public Key search(Key toFind) {
+        Node leaf = this.seek(toFind);
+        if (leaf == null) {
+            return null;
+        }
+        Key found = this.keyAt(leaf, this.lowerBound(leaf, toFind));
+        return found.compareTo(toFind) == 0 ? found : null;
+    } // end search
+
+    /**
+     * Inclusively searches the tree given a range of keys, by
+     * walking the leaves from the first key in range
+     *
+     * @param low
+     *            -- the low key
+     * @param high
+     *            -- the high key
+     * @return list of the matching tree keys, in order
+     */
+    @Override
+    public List<Key> rangeSearch(Key low, Key high) {
+        LinkedList<Key> toRet = new LinkedList<Key>();
+        Iterator<Key> it = this.rangeIterator(low, high);
+        while (it.hasNext()) {
+            toRet.add(it.next());
+        }
+        return toRet;
+    }
+
+    /**
+     * Lazily walks the keys within a range of keys (inclusive)
+     * along the leaves
+     *
+     * @param low
+     *            -- the low key
+     * @param high
+     *            -- the high key
+     * @return iterator over the matching tree keys
+     */
+    @Override
+    public Iterator<Key> rangeIterator(Key low, Key high) {
+        return new LeafIterator(low, high);
+    }
+
+    /**
+     * Gives the keys within a range of keys (inclusive) so that
+     * they can be walked by a for-each loop
+     *
+     * @param low
+     *            -- the low key
+     * @param high
+     *            -- the high key
+     * @return the matching tree keys, found as they are walked
+     */
+    @Override
+    public Iterable<Key> range(final Key low, final Key high) {
+        return new Iterable<Key>() {
+            @Override
+            public Iterator<Key> iterator() {
+                return BPlusTree.this.rangeIterator(low, high);
+            }
+        };
+    } // end range
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        height = 0;
+        size = 0;
+    }
+
+    /**
+     * Accessor method for the fanout of the tree
+     *
+     * @return most children of an inner node
+     */
+    public int fanout() {
+        return fanout;
+    }
+
+    /**
+     * Gets the String representation of this tree: every node
+     * in preorder, one per line and indented by its depth, with
+     * the separators of inner nodes and the keys of leaves
+     *
+     * @return A String.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        if (root != null) {
+            this.printPreOrder(root, 0, builder);
+        }
+        return builder.toString();
+    }
+
+    // ---------------- PRIVATE METHODS -------------------
+
+    /**
+     * Gives a key of a node
+     *
+     * @param node
+     *            -- node holding the key
+     * @param i
+     *            -- position of the key
+     * @return the key
+     */
+    @SuppressWarnings("unchecked")
+    private Key keyAt(Node node, int i) {
+        return (Key) node.keys[i];
+    }
+
+    /**
+     * Binary searches a node for the first key not below k
+     *
+     * @param node
+     *            -- node to search
+     * @param k
+     *            -- key to search for
+     * @return number of keys of the node below k
+     */
+    private int lowerBound(Node node, Key k) {
+        int low = 0;
+        int high = node.count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.keyAt(node, mid).compareTo(k) < 0) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        } // end while
+        return low;
+    } // end lowerBound
+
+    /**
+     * Binary searches a node for the first key above k
+     *
+     * @param node
+     *            -- node to search
+     * @param k
+     *            -- key to search for
+     * @return number of keys of the node no greater than k
+     */
+    private int upperBound(Node node, Key k) {
+        int low = 0;
+        int high = node.count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.keyAt(node, mid).compareTo(k) <= 0) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        } // end while
+        return low;
+    } // end upperBound
+
+    /**
+     * Finds the leaf holding the first key not below k
+     *
+     * @param k
+     *            -- key to search for
+     * @return leaf holding the key, null if every key is below k
+     */
+    private Node seek(Key k) {
+        if (root == null) {
+            return null;
+        }
+        Node node = root;
+        while (!node.isLeaf()) {
+            node = node.children[this.lowerBound(node, k)];
+        }
+        if (this.lowerBound(node, k) == node.count) {
+            // the key can only be at the start of the next leaf
+            node = node.next;
+        }
+        return node;
+    } // end seek
+
+    /**
+     * Moves the upper half of a full leaf into a new leaf
+     * following it
+     *
+     * @param leaf
+     *            -- leaf holding fanout keys
+     * @return new right half
+     */
+    private Node splitLeaf(Node leaf) {
+        int keep = fanout / 2;
+        Node right = new Node(fanout, true);
+        right.count = leaf.count - keep;
+        System.arraycopy(leaf.keys, keep, right.keys, 0, right.count);
+        for (int i = keep; i < leaf.count; i++) {
+            leaf.keys[i] = null;
+        }
+        leaf.count = keep;
+        right.next = leaf.next;
+        leaf.next = right;
+        return right;
+    } // end splitLeaf
+
+    /**
+     * Moves the separators and children above the middle
+     * separator of a full inner node into a new node. The middle
+     * separator itself goes up to the parent and must be read
+     * before the split.
+     *
+     * @param node
+     *            -- inner node holding fanout separators
+     * @return new right half
+     */
+    private Node splitInner(Node node) {
+        int keep = fanout / 2;
+        Node right = new Node(fanout, false);
+        right.count = node.count - keep - 1;
+        System.arraycopy(node.keys, keep + 1, right.keys, 0,
+                right.count);
+        System.arraycopy(node.children, keep + 1, right.children, 0,
+                right.count + 1);
+        for (int i = keep; i < node.count; i++) {
+            node.keys[i] = null;
+            node.children[i + 1] = null;
+        }
+        node.count = keep;
+        return right;
+    } // end splitInner
+
+    /**
+     * Fixes a child left less than half full by moving a key
+     * over from a sibling with keys to spare, or else by merging
+     * it with a sibling
+     *
+     * @param parent
+     *            -- parent of the child
+     * @param child
+     *            -- position of the child in the parent
+     */
+    private void rebalance(Node parent, int child) {
+        Node node = parent.children[child];
+        int min = node.isLeaf() ? minLeafKeys : minInnerKeys;
+        Node left = child > 0 ? parent.children[child - 1] : null;
+        Node right = child < parent.count
+                ? parent.children[child + 1] : null;
+
+        if (left != null && left.count > min) {
+            this.borrowFromLeft(parent, child - 1, left, node);
+        }
+        else if (right != null && right.count > min) {
+            this.borrowFromRight(parent, child, node, right);
+        }
+        else if (left != null) {
+            this.merge(parent, child - 1, left, node);
+        }
+        else {
+            this.merge(parent, child, node, right);
+        }
+    } // end rebalance
+
+    /**
+     * Moves the last key of a node into its right sibling
+     *
+     * @param parent
+     *            -- parent of both nodes
+     * @param sep
+     *            -- position of the separator between them
+     * @param left
+     *            -- node giving up a key
+     * @param node
+     *            -- right sibling receiving it
+     */
+    private void borrowFromLeft(Node parent, int sep, Node left,
+            Node node) {
+        System.arraycopy(node.keys, 0, node.keys, 1, node.count);
+        if (node.isLeaf()) {
+            node.keys[0] = left.keys[left.count - 1];
+            parent.keys[sep] = node.keys[0];
+        }
+        else {
+            System.arraycopy(node.children, 0, node.children, 1,
+                    node.count + 1);
+            node.keys[0] = parent.keys[sep];
+            node.children[0] = left.children[left.count];
+            parent.keys[sep] = left.keys[left.count - 1];
+            left.children[left.count] = null;
+        }
+        left.keys[--left.count] = null;
+        node.count++;
+    } // end borrowFromLeft
+
+    /**
+     * Moves the first key of a node into its left sibling
+     *
+     * @param parent
+     *            -- parent of both nodes
+     * @param sep
+     *            -- position of the separator between them
+     * @param node
+     *            -- left sibling receiving a key
+     * @param right
+     *            -- node giving it up
+     */
+    private void borrowFromRight(Node parent, int sep, Node node,
+            Node right) {
+        if (node.isLeaf()) {
+            node.keys[node.count] = right.keys[0];
+            System.arraycopy(right.keys, 1, right.keys, 0,
+                    right.count - 1);
+            parent.keys[sep] = right.keys[0];
+        }
+        else {
+            node.keys[node.count] = parent.keys[sep];
+            node.children[node.count + 1] = right.children[0];
+            parent.keys[sep] = right.keys[0];
+            System.arraycopy(right.keys, 1, right.keys, 0,
+                    right.count - 1);
+            System.arraycopy(right.children, 1, right.children, 0,
+                    right.count);
+            right.children[right.count] = null;
+        }
+        right.keys[--right.count] = null;
+        node.count++;
+    } // end borrowFromRight
+
+    /**
+     * Merges a node into its left sibling and removes it, along
+     * with the separator between them, from their parent
+     *
+     * @param parent
+     *            -- parent of both nodes
+     * @param sep
+     *            -- position of the separator between them
+     * @param left
+     *            -- node receiving the keys
+     * @param right
+     *            -- node being merged away
+     */
+    private void merge(Node parent, int sep, Node left, Node right) {
+        if (left.isLeaf()) {
+            System.arraycopy(right.keys, 0, left.keys, left.count,
+                    right.count);
+            left.count += right.count;
+            left.next = right.next;
+        }
+        else {
+            left.keys[left.count] = parent.keys[sep];
+            System.arraycopy(right.keys, 0, left.keys,
+                    left.count + 1, right.count);
+            System.arraycopy(right.children, 0, left.children,
+                    left.count + 1, right.count + 1);
+            left.count += right.count + 1;
+        }
+
+        System.arraycopy(parent.keys, sep + 1, parent.keys, sep,
+                parent.count - sep - 1);
+        System.arraycopy(parent.children, sep + 2, parent.children,
+                sep + 1, parent.count - sep - 1);
+        parent.count--;
+        parent.keys[parent.count] = null;
+        parent.children[parent.count + 1] = null;
+    } // end merge
+
+    /**
+     * Prints a subtree in preorder
+     *
+     * @param node
+     *            -- root of the subtree
+     * @param level
+     *            -- depth of the node, for indentation
+     * @param builder
+     *            -- receives the representation
+     */
+    private void printPreOrder(Node node, int level,
+            StringBuilder builder) {
+        for (int i = 0; i < 2 * level; i++) {
+            builder.append(" ");
+        }
+        for (int i = 0; i < node.count; i++) {
+            builder.append(i == 0 ? "" : " ");
+            builder.append(node.keys[i]);
+        }
+        builder.append("\n");
+        if (!node.isLeaf()) {
+            for (int i = 0; i <= node.count; i++) {
+                this.printPreOrder(node.children[i], level + 1,
+                        builder);
+            }
+        }
+    } // end printPreOrder
+
+    /**
+     * Node of the tree. A leaf holds keys and a link to the next
+     * leaf, an inner node separators and one more child than it
+     * has separators. Both have room for one key (and child)
+     * more than they may keep, so that a node can be split after
+     * it overflows.
+     */
+    private static class Node {
+        private Object[] keys; // keys or separators, in order
+        private Node[] children; // null for a leaf
+        private Node next; // leaf to the right, null if last
+        private int count; // keys in use
+
+        /**
+         * Constructor for an empty node
+         *
+         * @param fanout
+         *            -- fanout of the tree
+         * @param leaf
+         *            -- True for a leaf, false for an inner node
+         */
+        Node(int fanout, boolean leaf) {
+            keys = new Object[fanout];
+            children = leaf ? null : new Node[fanout + 1];
+        }
+
+        /**
+         * Indicates whether the node is a leaf
+         *
+         * @return True if the node is a leaf
+         */
+        boolean isLeaf() {
+            return children == null;
+        }
+    } // end Node
+
+    /**
+     * Walks the keys of a range along the linked leaves, from
+     * the first key not below the lower bound until the first
+     * key above the upper bound
+     */
+    private class LeafIterator implements Iterator<Key> {
+        private Key higher; // upper bound of range
+        private Node leaf; // leaf of the next key, null when done
+        private int pos; // position of the next key in leaf
+
+        /**
+         * Constructor which finds the first key in range
+         *
+         * @param low
+         *            -- lower bound of range
+         * @param high
+         *            -- upper bound of range
+         */
+        LeafIterator(Key low, Key high) {
+            higher = high;
+            leaf = BPlusTree.this.seek(low);
+            pos = leaf == null ? 0
+                    : BPlusTree.this.lowerBound(leaf, low);
+            this.check();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return leaf != null;
+        }
+
+        @Override
+        public Key next() {
+            if (leaf == null) {
+                throw new NoSuchElementException();
+            }
+            Key toRet = BPlusTree.this.keyAt(leaf, pos++);
+            if (pos == leaf.count) {
+                leaf = leaf.next;
+                pos = 0;
+            }
+            this.check();
+            return toRet;
+        } // end next
+
+        /**
+         * Ends the walk once the next key is above the upper
+         * bound
+         */
+        private void check() {
+            if (leaf != null && BPlusTree.this.keyAt(leaf, pos)
+                    .compareTo(higher) > 0) {
+                leaf = null;
+            }
+        }
+    } // end LeafIterator
+} // end BPlusTree
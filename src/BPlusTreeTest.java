@@ -0,0 +1,162 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import student.TestCase;
+
+/**
+ * Tests the functionality of the B+ tree against a sorted list
+ * holding the same keys, for small and large fanouts, including
+ * splits and merges all the way up to the root
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ */
+public class BPlusTreeTest extends TestCase {
+
+    // ------------------- PRIVATE VARIABLES -------------------
+
+    private BPlusTree<Integer> tree;
+
+    // ------------------- PUBLIC METHODS ----------------------
+
+    @Override
+    public void setUp() {
+        tree = new BPlusTree<Integer>(3);
+    }
+
+    /**
+     * Tests an empty tree and the smallest fanout allowed
+     */
+    public void testEmpty() {
+        assertTrue(tree.isEmpty());
+        assertEquals(0, tree.height());
+        assertNull(tree.search(1));
+        assertNull(tree.remove(1));
+        assertEquals("[]", tree.rangeSearch(0, 10).toString());
+        assertEquals("", tree.toString());
+        assertEquals(64, new BPlusTree<Integer>().fanout());
+
+        Exception thrown = null;
+        try {
+            new BPlusTree<Integer>(2);
+        }
+        catch (IllegalArgumentException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+    } // end testEmpty
+
+    /**
+     * Tests that splits keep keys in the leaves and copy the
+     * first key of each new leaf up as a separator
+     */
+    public void testSplit() {
+        for (int i = 1; i <= 5; i++) {
+            tree.insert(10 * i);
+        }
+        assertEquals(5, tree.size());
+        assertEquals(3, tree.height());
+        assertEquals("30\n  20\n    10\n    20\n  40\n    30\n"
+                + "    40 50\n", tree.toString());
+        assertEquals("[20, 30, 40]",
+                tree.rangeSearch(15, 45).toString());
+
+        assertEquals(50, (int) tree.remove(50));
+        assertEquals(40, (int) tree.remove(40));
+        assertEquals(2, tree.height());
+        assertEquals("20 30\n  10\n  20\n  30\n",
+                tree.toString());
+        assertNull(tree.remove(40));
+        assertEquals(10, (int) tree.remove(10));
+        assertEquals(20, (int) tree.remove(20));
+        assertEquals(30, (int) tree.remove(30));
+        assertTrue(tree.isEmpty());
+        assertEquals(0, tree.height());
+    } // end testSplit
+
+    /**
+     * Tests random inserts and removes of keys which repeat,
+     * under several fanouts
+     */
+    public void testRandom() {
+        int[] fanouts = {3, 4, 5, 8, 64};
+        Random random = new Random(3);
+        for (int fanout : fanouts) {
+            tree = new BPlusTree<Integer>(fanout);
+            List<Integer> expected = new ArrayList<Integer>();
+            for (int i = 0; i < 3000; i++) {
+                int k = random.nextInt(500);
+                if (random.nextInt(3) == 0) {
+                    Integer removed = tree.remove(k);
+                    assertEquals(expected.remove((Integer) k),
+                            removed != null);
+                }
+                else {
+                    tree.insert(k);
+                    expected.add(k);
+                }
+            } // end for
+            Collections.sort(expected);
+            assertEquals(expected.size(), tree.size());
+            assertEquals(expected, tree.rangeSearch(-1, 500));
+
+            for (int k = 0; k < 500; k++) {
+                assertEquals(expected.contains(k),
+                        tree.search(k) != null);
+            }
+            for (int i = 0; i < 50; i++) {
+                int low = random.nextInt(500);
+                int high = low + random.nextInt(40);
+                List<Integer> walked = new ArrayList<Integer>();
+                for (Integer k : tree.range(low, high)) {
+                    walked.add(k);
+                }
+                assertEquals(expected.subList(
+                        lowerBound(expected, low),
+                        lowerBound(expected, high + 1)), walked);
+            }
+
+            // empty the tree again
+            for (Integer k : expected) {
+                assertEquals(k, tree.remove(k));
+            }
+            assertTrue(tree.isEmpty());
+        } // end for
+    } // end testRandom
+
+    /**
+     * Tests that a large fanout keeps the tree shallow
+     */
+    public void testHeight() {
+        tree = new BPlusTree<Integer>(64);
+        for (int i = 0; i < 100000; i++) {
+            tree.insert(i);
+        }
+        assertEquals(4, tree.height());
+        Iterator<Integer> it = tree.rangeIterator(99998, 200000);
+        assertEquals(99998, (int) it.next());
+        assertEquals(99999, (int) it.next());
+        assertFalse(it.hasNext());
+    } // end testHeight
+
+    // ------------------- PRIVATE METHODS ----------------------
+
+    /**
+     * Finds the first position of a sorted list not below k
+     *
+     * @param list
+     *            -- sorted list
+     * @param k
+     *            -- key to look for
+     * @return number of keys below k
+     */
+    private static int lowerBound(List<Integer> list, int k) {
+        int i = 0;
+        while (i < list.size() && list.get(i) < k) {
+            i++;
+        }
+        return i;
+    }
+} // end BPlusTreeTest
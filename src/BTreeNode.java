@@ -0,0 +1,863 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Node of a B-tree of configurable order, which a TTTree can be
+ * built from in place of 2-3+ nodes. Like a TTNode it holds keys
+ * as well as children, but up to order - 1 keys and order
+ * children instead of two and three, kept in arrays and searched
+ * with a binary search. With an order of 32 to 128 a tree of
+ * millions of keys is only a handful of levels deep, so a lookup
+ * touches a handful of nodes rather than one node per level of
+ * a 2-3+ tree.
+ *
+ * As with TTNode, every operation works on the subtree of the
+ * node it is called on. Insert splits full nodes on the way back
+ * up and returns the new root of the subtree, while remove
+ * leaves a root without keys behind for the tree to replace by
+ * its only child. Both walk down without recursion and keep the
+ * nodes they pass on a stack. Every node but the root is kept at
+ * least half full.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ * @param <Key>
+ *            -- generic reference for comparable
+ */
+public class BTreeNode<Key extends Comparable<? super Key>> {
+
+    // -------------------PRIVATE VARIABLES------------------
+
+    // every node has at least two children, so a tree of at most
+    // Integer.MAX_VALUE keys is never taller than this
+    private static final int MAX_HEIGHT = 32;
+
+    // one more slot than the node may keep, so that a full node
+    // can take a key before it is split
+    private Object[] keys; // keys in ascending order
+    private BTreeNode<Key>[] children; // null for a leaf
+    private int count; // keys in use
+
+    // -------------------CONSTRUCTOR------------------
+
+    /**
+     * Constructor for a leaf holding a single key
+     *
+     * @param order
+     *            -- most children of a node, at least 3
+     * @param k
+     *            -- key of the leaf
+     */
+    public BTreeNode(int order, Key k) {
+        this(order, true);
+        keys[0] = k;
+        count = 1;
+    }
+
+    /**
+     * Constructor for an empty node
+     *
+     * @param order
+     *            -- most children of a node
+     * @param leaf
+     *            -- True for a leaf, false for an inner node
+     */
+    @SuppressWarnings("unchecked")
+    private BTreeNode(int order, boolean leaf) {
+        keys = new Object[order];
+        children = leaf ? null
+                : (BTreeNode<Key>[]) new BTreeNode<?>[order + 1];
+    }
+
+    // -------------------PUBLIC METHODS------------------
+
+    /**
+     * Indicates whether our node is a leaf
+     *
+     * @return True if node is a leaf
+     */
+    public boolean isLeaf() {
+        return children == null;
+    }
+
+    /**
+     * Accessor method for the number of keys of the node
+     *
+     * @return number of keys
+     */
+    public int keyCount() {
+        return count;
+    }
+
+    /**
+     * Accessor method for a key of the node
+     *
+     * @param i
+     *            -- position of the key
+     * @return the key
+     */
+    @SuppressWarnings("unchecked")
+    public Key key(int i) {
+        return (Key) keys[i];
+    }
+
+    /**
+     * Accessor method for a child of the node
+     *
+     * @param i
+     *            -- position of the child, up to keyCount
+     * @return the child, null for a leaf
+     */
+    public BTreeNode<Key> child(int i) {
+        return children == null ? null : children[i];
+    }
+
+    /**
+     * Accessor method for the order of the node
+     *
+     * @return most children of a node
+     */
+    public int order() {
+        return keys.length;
+    }
+
+    /**
+     * Inserts a key into the subtree, after any equal keys
+     *
+     * @param k
+     *            -- key to insert
+     * @return reference to the root of the subtree after the key
+     *         is inserted, a new node if the root was split
+     */
+    public BTreeNode<Key> insert(Key k) {
+        BTreeNode<Key>[] path = newStack();
+        int[] index = new int[MAX_HEIGHT];
+        int depth = 0;
+        BTreeNode<Key> node = this;
+        while (!node.isLeaf()) {
+            int child = node.upperBound(k);
+            path[depth] = node;
+            index[depth++] = child;
+            node = node.children[child];
+        }
+        node.insertAt(node.upperBound(k), k, null);
+
+        // split our way up until a node has room
+        while (node.count == keys.length) {
+            int middle = node.count / 2;
+            Object up = node.keys[middle];
+            BTreeNode<Key> right = node.split(middle);
+            if (depth == 0) {
+                BTreeNode<Key> newRoot =
+                        new BTreeNode<Key>(keys.length, false);
+                newRoot.keys[0] = up;
+                newRoot.children[0] = node;
+                newRoot.children[1] = right;
+                newRoot.count = 1;
+                return newRoot;
+            }
+            node = path[--depth];
+            node.insertAt(index[depth], up, right);
+        } // end while
+        return this;
+    } // end insert
+
+    /**
+     * Removes a key equal to the specified key from the subtree.
+     * A key of an inner node is first swapped with its successor
+     * in a leaf, and every node left less than half full borrows
+     * a key from a sibling or is merged with one on the way back
+     * up. If the root of the subtree is left without keys, its
+     * only child should take its place.
+     *
+     * @param k
+     *            -- key to remove
+     * @return reference to the removed key, null if not found
+     */
+    public Key remove(Key k) {
+        BTreeNode<Key>[] path = newStack();
+        int[] index = new int[MAX_HEIGHT];
+        int depth = 0;
+        BTreeNode<Key> node = this;
+        int pos = node.lowerBound(k);
+        while (pos == node.count || node.key(pos).compareTo(k) != 0) {
+            if (node.isLeaf()) {
+                return null;
+            }
+            path[depth] = node;
+            index[depth++] = pos;
+            node = node.children[pos];
+            pos = node.lowerBound(k);
+        }
+        Key toRet = node.key(pos);
+
+        if (!node.isLeaf()) {
+            // swap with the successor, so that we only ever
+            // remove from a leaf
+            path[depth] = node;
+            index[depth++] = pos + 1;
+            BTreeNode<Key> successor = node.children[pos + 1];
+            while (!successor.isLeaf()) {
+                path[depth] = successor;
+                index[depth++] = 0;
+                successor = successor.children[0];
+            }
+            node.keys[pos] = successor.keys[0];
+            node = successor;
+            pos = 0;
+        } // end if
+        node.removeAt(pos);
+
+        int min = (keys.length - 1) / 2;
+        while (depth > 0 && node.count < min) {
+            node = path[--depth];
+            node.rebalance(index[depth]);
+        }
+        return toRet;
+    } // end remove
+
+    /**
+     * Searches the subtree for a key equal to the specified key
+     *
+     * @param toFind
+     *            -- key to search tree for
+     * @return reference to key if found, null otherwise
+     */
+    public Key search(Key toFind) {
+        BTreeNode<Key> node = this;
+        while (true) {
+            int pos = node.lowerBound(toFind);
+            if (pos < node.count
+                    && node.key(pos).compareTo(toFind) == 0) {
+                return node.key(pos);
+            }
+            else if (node.isLeaf()) {
+                return null;
+            }
+            node = node.children[pos];
+        } // end while
+    } // end search
+
+    /**
+     * Collects the keys of the subtree within the range of lower
+     * and higher (inclusive), in order
+     *
+     * @param lower
+     *            -- lower bound of range
+     * @param higher
+     *            -- upper bound of range
+     * @param list
+     *            -- list of elements that fall within range
+     */
+    public void rangeSearch(Key lower, Key higher, List<Key> list) {
+        Iterator<Key> it = this.rangeIterator(lower, higher);
+        while (it.hasNext()) {
+            list.add(it.next());
+        }
+    }
+
+    /**
+     * Lazily walks the keys of the subtree within the range of
+     * lower and higher (inclusive), in order. The subtree must
+     * not be modified while its keys are being walked.
+     *
+     * @param lower
+     *            -- lower bound of range
+     * @param higher
+     *            -- upper bound of range
+     * @return iterator over the keys in range
+     */
+    public Iterator<Key> rangeIterator(Key lower, Key higher) {
+        return new NodeIterator(lower, higher);
+    }
+
+    /**
+     * Finds the height of the subtree, every leaf being on the
+     * same level
+     *
+     * @return integer representing the distance from the root +
+     *         1 (since the root is considered as height 1).
+     */
+    public int height() {
+        int height = 1;
+        for (BTreeNode<Key> node = this; !node.isLeaf();
+                node = node.children[0]) {
+            height++;
+        }
+        return height;
+    } // end height
+
+    /**
+     * Prints the subtree along a preorder traversal
+     *
+     * @param level
+     *            - represents the current level we are printing
+     *            from in order to keep track of indentation
+     *
+     * @return string representation of the subtree
+     */
+    public String printPreOrder(int level) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 2 * level; i++) {
+            builder.append(" ");
+        }
+        builder.append(this.toString());
+        builder.append("\n");
+        if (!this.isLeaf()) {
+            for (int i = 0; i <= count; i++) {
+                builder.append(children[i].printPreOrder(level + 1));
+            }
+        }
+        return builder.toString();
+    } // end printPreOrder
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(i == 0 ? "" : " ");
+            builder.append(keys[i]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Builds a tree bottom-up out of sorted, distinct keys, in
+     * linear time. Leaves are filled as far as they go, with a
+     * single key between neighbouring leaves, and every level
+     * above groups the nodes below under as few parents as hold
+     * them, taking the keys between them. Keys and children are
+     * spread evenly over the nodes of a level, so every node but
+     * the root is at least half full. Used by TTTree.bulkLoad.
+     *
+     * @param <Key>
+     *            -- generic reference for comparable
+     * @param order
+     *            -- most children of a node
+     * @param sorted
+     *            -- keys in ascending order, without duplicates
+     * @param size
+     *            -- number of keys to take from sorted, at least
+     *            one
+     * @return root of the tree
+     */
+    static <Key extends Comparable<? super Key>> BTreeNode<Key>
+            build(int order, List<? extends Key> sorted, int size) {
+        // a leaf of k keys and the key following it take up
+        // k + 1 of the size + 1 gaps around the keys
+        int gaps = size + 1;
+        int leaves = (gaps + order - 1) / order;
+        List<BTreeNode<Key>> level =
+                new ArrayList<BTreeNode<Key>>(leaves);
+        List<Key> between = new ArrayList<Key>(leaves);
+        int next = 0;
+        for (int i = 0; i < leaves; i++) {
+            if (i > 0) {
+                between.add(sorted.get(next++));
+            }
+            BTreeNode<Key> leaf = new BTreeNode<Key>(order, true);
+            leaf.count = share(gaps, leaves, i) - 1;
+            for (int k = 0; k < leaf.count; k++) {
+                leaf.keys[k] = sorted.get(next++);
+            }
+            level.add(leaf);
+        } // end for
+
+        while (level.size() > 1) {
+            int nodes = level.size();
+            int parents = (nodes + order - 1) / order;
+            List<BTreeNode<Key>> above =
+                    new ArrayList<BTreeNode<Key>>(parents);
+            List<Key> keys = new ArrayList<Key>(between);
+            between.clear();
+            int child = 0;
+            int key = 0;
+            for (int i = 0; i < parents; i++) {
+                if (i > 0) {
+                    between.add(keys.get(key++));
+                }
+                BTreeNode<Key> parent =
+                        new BTreeNode<Key>(order, false);
+                parent.children[0] = level.get(child++);
+                for (int c = 1; c < share(nodes, parents, i); c++) {
+                    parent.keys[parent.count++] = keys.get(key++);
+                    parent.children[c] = level.get(child++);
+                }
+                above.add(parent);
+            } // end for
+            level = above;
+        } // end while
+        return level.get(0);
+    } // end build
+
+    /**
+     * Adds the keys of the subtree to a list in order. Used by
+     * TTTree.
+     *
+     * @param list
+     *            -- list to add the keys to
+     */
+    void collect(List<Key> list) {
+        for (int i = 0; i <= count; i++) {
+            if (!this.isLeaf()) {
+                children[i].collect(list);
+            }
+            if (i < count) {
+                list.add(this.key(i));
+            }
+        }
+    } // end collect
+
+    /**
+     * Joins two B-trees and a key between them, i.e. every key
+     * of left is no greater than k and every key of right no
+     * less. The shorter tree is hung off the spine of the taller
+     * one facing it, at the level where their heights match; its
+     * root may be less than half full, as the root of a piece
+     * cut out of a tree, so it is first topped up from its new
+     * sibling, and full nodes are then split on the way back up
+     * as in insert. Used by TTTree.
+     *
+     * @param <Key>
+     *            -- generic reference for comparable
+     * @param left
+     *            -- root of the left tree, null if empty
+     * @param k
+     *            -- key between the trees
+     * @param right
+     *            -- root of the right tree, null if empty
+     * @param order
+     *            -- order of the trees
+     * @return root of the joined tree
+     */
+    static <Key extends Comparable<? super Key>> BTreeNode<Key>
+            join(BTreeNode<Key> left, Key k, BTreeNode<Key> right,
+                    int order) {
+        int min = (order - 1) / 2;
+        int leftHeight = left == null ? 0 : left.height();
+        int rightHeight = right == null ? 0 : right.height();
+        if (leftHeight == rightHeight) {
+            BTreeNode<Key> root =
+                    new BTreeNode<Key>(order, leftHeight == 0);
+            root.keys[0] = k;
+            root.count = 1;
+            if (leftHeight == 0) {
+                return root;
+            }
+            root.children[0] = left;
+            root.children[1] = right;
+
+            // both children may be roots less than half full
+            while (root.count > 0 && left.count < min) {
+                root.rebalance(0);
+            }
+            while (root.count > 0 && right.count < min) {
+                root.rebalance(1);
+            }
+            return root.count == 0 ? root.children[0] : root;
+        }
+
+        BTreeNode<Key>[] path = newStack();
+        int[] index = new int[MAX_HEIGHT];
+        int depth = 0;
+        BTreeNode<Key> toRet;
+        BTreeNode<Key> node;
+        if (leftHeight > rightHeight) {
+            toRet = left;
+            node = left;
+            for (int h = leftHeight; h > rightHeight + 1; h--) {
+                path[depth] = node;
+                index[depth++] = node.count;
+                node = node.children[node.count];
+            }
+            node.insertAt(node.count, k, right);
+            while (right != null
+                    && node.children[node.count].count < min) {
+                node.rebalance(node.count);
+            }
+        }
+        else {
+            toRet = right;
+            node = right;
+            for (int h = rightHeight; h > leftHeight + 1; h--) {
+                path[depth] = node;
+                index[depth++] = 0;
+                node = node.children[0];
+            }
+            node.insertFirst(k, left);
+            while (left != null && node.children[0].count < min) {
+                node.rebalance(0);
+            }
+        } // end if
+
+        // split our way up until a node has room
+        while (node.count == order) {
+            int middle = node.count / 2;
+            Object up = node.keys[middle];
+            BTreeNode<Key> half = node.split(middle);
+            if (depth == 0) {
+                BTreeNode<Key> newRoot =
+                        new BTreeNode<Key>(order, false);
+                newRoot.keys[0] = up;
+                newRoot.children[0] = node;
+                newRoot.children[1] = half;
+                newRoot.count = 1;
+                return newRoot;
+            }
+            node = path[--depth];
+            node.insertAt(index[depth], up, half);
+        } // end while
+        return toRet;
+    } // end join
+
+    /**
+     * Joins two B-trees, every key of left being no greater than
+     * any key of right, by taking the smallest key of right out
+     * to go between them. Used by TTTree.
+     *
+     * @param <Key>
+     *            -- generic reference for comparable
+     * @param left
+     *            -- root of the left tree, null if empty
+     * @param right
+     *            -- root of the right tree, null if empty
+     * @return root of the joined tree, null if both are empty
+     */
+    static <Key extends Comparable<? super Key>> BTreeNode<Key>
+            join(BTreeNode<Key> left, BTreeNode<Key> right) {
+        if (left == null) {
+            return right;
+        }
+        else if (right == null) {
+            return left;
+        }
+        BTreeNode<Key> first = right;
+        while (!first.isLeaf()) {
+            first = first.children[0];
+        }
+        Key k = first.key(0);
+        right.remove(k);
+        if (right.count == 0) {
+            right = right.isLeaf() ? null : right.children[0];
+        }
+        return join(left, k, right, left.order());
+    } // end join
+
+    // -------------------PRIVATE METHODS------------------------
+
+    /**
+     * Creates a stack deep enough to hold a path from the root
+     * of any B-tree to one of its leaves
+     *
+     * @param <Key>
+     *            -- generic reference for comparable
+     * @return empty stack of nodes
+     */
+    @SuppressWarnings("unchecked")
+    private static <Key extends Comparable<? super Key>>
+            BTreeNode<Key>[] newStack() {
+        return (BTreeNode<Key>[]) new BTreeNode<?>[MAX_HEIGHT];
+    }
+
+    /**
+     * Splits a total as evenly as possible into parts, the first
+     * parts taking one more than the others
+     *
+     * @param total
+     *            -- amount to split
+     * @param parts
+     *            -- number of parts
+     * @param i
+     *            -- position of the part
+     * @return size of part i
+     */
+    private static int share(int total, int parts, int i) {
+        return total / parts + (i < total % parts ? 1 : 0);
+    }
+
+    /**
+     * Binary searches the node for the first key not below k
+     *
+     * @param k
+     *            -- key to search for
+     * @return number of keys below k
+     */
+    private int lowerBound(Key k) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.key(mid).compareTo(k) < 0) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        } // end while
+        return low;
+    } // end lowerBound
+
+    /**
+     * Binary searches the node for the first key above k
+     *
+     * @param k
+     *            -- key to search for
+     * @return number of keys no greater than k
+     */
+    private int upperBound(Key k) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.key(mid).compareTo(k) <= 0) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        } // end while
+        return low;
+    } // end upperBound
+
+    /**
+     * Places a key, and the child preceding it, at the front of
+     * the node
+     *
+     * @param k
+     *            -- key to place
+     * @param left
+     *            -- child to the left of the key, null in a leaf
+     */
+    private void insertFirst(Object k, BTreeNode<Key> left) {
+        System.arraycopy(keys, 0, keys, 1, count);
+        keys[0] = k;
+        if (left != null) {
+            System.arraycopy(children, 0, children, 1, count + 1);
+            children[0] = left;
+        }
+        count++;
+    } // end insertFirst
+
+    /**
+     * Places a key, and the child following it, into the node
+     *
+     * @param pos
+     *            -- position of the key
+     * @param k
+     *            -- key to place
+     * @param right
+     *            -- child to the right of the key, null in a leaf
+     */
+    private void insertAt(int pos, Object k, BTreeNode<Key> right) {
+        System.arraycopy(keys, pos, keys, pos + 1, count - pos);
+        keys[pos] = k;
+        if (right != null) {
+            System.arraycopy(children, pos + 1, children, pos + 2,
+                    count - pos);
+            children[pos + 1] = right;
+        }
+        count++;
+    } // end insertAt
+
+    /**
+     * Takes a key, and the child following it, out of the node
+     *
+     * @param pos
+     *            -- position of the key
+     */
+    private void removeAt(int pos) {
+        System.arraycopy(keys, pos + 1, keys, pos, count - pos - 1);
+        keys[count - 1] = null;
+        if (children != null) {
+            System.arraycopy(children, pos + 2, children, pos + 1,
+                    count - pos - 1);
+            children[count] = null;
+        }
+        count--;
+    } // end removeAt
+
+    /**
+     * Moves the keys and children above a middle key into a new
+     * node. The middle key itself must be moved up by the caller.
+     *
+     * @param middle
+     *            -- position of the middle key
+     * @return new right half
+     */
+    private BTreeNode<Key> split(int middle) {
+        BTreeNode<Key> right =
+                new BTreeNode<Key>(keys.length, this.isLeaf());
+        right.count = count - middle - 1;
+        System.arraycopy(keys, middle + 1, right.keys, 0,
+                right.count);
+        if (children != null) {
+            System.arraycopy(children, middle + 1, right.children, 0,
+                    right.count + 1);
+        }
+        for (int i = middle; i < count; i++) {
+            keys[i] = null;
+            if (children != null) {
+                children[i + 1] = null;
+            }
+        }
+        count = middle;
+        return right;
+    } // end split
+
+    /**
+     * Fixes a child left less than half full by rotating a key
+     * over from a sibling with keys to spare, or else by merging
+     * it with a sibling and the key between them
+     *
+     * @param child
+     *            -- position of the child
+     */
+    private void rebalance(int child) {
+        int min = (keys.length - 1) / 2;
+        BTreeNode<Key> node = children[child];
+        BTreeNode<Key> left = child > 0 ? children[child - 1] : null;
+        BTreeNode<Key> right =
+                child < count ? children[child + 1] : null;
+
+        if (left != null && left.count > min) {
+            // rotate clockwise through the key between them
+            BTreeNode<Key> moved = left.isLeaf() ? null
+                    : left.children[left.count];
+            node.insertAt(0, keys[child - 1], null);
+            if (moved != null) {
+                System.arraycopy(node.children, 0, node.children, 1,
+                        node.count);
+                node.children[0] = moved;
+            }
+            keys[child - 1] = left.keys[left.count - 1];
+            left.removeAt(left.count - 1);
+        }
+        else if (right != null && right.count > min) {
+            // rotate counter-clockwise
+            BTreeNode<Key> moved =
+                    right.isLeaf() ? null : right.children[0];
+            node.insertAt(node.count, keys[child], moved);
+            keys[child] = right.keys[0];
+            if (moved != null) {
+                System.arraycopy(right.children, 1, right.children,
+                        0, right.count);
+                right.children[right.count] = null;
+                System.arraycopy(right.keys, 1, right.keys, 0,
+                        right.count - 1);
+                right.keys[--right.count] = null;
+            }
+            else {
+                right.removeAt(0);
+            }
+        }
+        else if (left != null) {
+            this.merge(child - 1);
+        }
+        else {
+            this.merge(child);
+        }
+    } // end rebalance
+
+    /**
+     * Merges two neighbouring children, along with the key
+     * between them, into the left one
+     *
+     * @param sep
+     *            -- position of the key between them
+     */
+    private void merge(int sep) {
+        BTreeNode<Key> left = children[sep];
+        BTreeNode<Key> right = children[sep + 1];
+        left.keys[left.count] = keys[sep];
+        System.arraycopy(right.keys, 0, left.keys, left.count + 1,
+                right.count);
+        if (!left.isLeaf()) {
+            System.arraycopy(right.children, 0, left.children,
+                    left.count + 1, right.count + 1);
+        }
+        left.count += right.count + 1;
+        this.removeAt(sep);
+    } // end merge
+
+    /**
+     * Walks the keys of a range in order. The stack holds the
+     * path down to the next key, each node along with the
+     * position of the key to return once the child before it has
+     * been walked.
+     */
+    private class NodeIterator implements Iterator<Key> {
+        private Key higher; // upper bound of range
+        private BTreeNode<Key>[] path = newStack();
+        private int[] index = new int[MAX_HEIGHT];
+        private int top; // index of the current node, -1 if done
+        private Key next; // next key to return, null when done
+
+        /**
+         * Constructor which walks down to the first key not
+         * below the lower bound
+         *
+         * @param lower
+         *            -- lower bound of range
+         * @param high
+         *            -- upper bound of range
+         */
+        NodeIterator(Key lower, Key high) {
+            higher = high;
+            top = -1;
+            BTreeNode<Key> node = BTreeNode.this;
+            while (node != null) {
+                path[++top] = node;
+                index[top] = node.lowerBound(lower);
+                node = node.child(index[top]);
+            }
+            this.advance();
+        } // end constructor
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Key next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Key toRet = next;
+            this.advance();
+            return toRet;
+        } // end next
+
+        /**
+         * Moves on to the next key of the walk, which is the key
+         * at the top of the stack unless that node is used up
+         */
+        private void advance() {
+            next = null;
+            while (top >= 0 && index[top] == path[top].count) {
+                top--;
+            }
+            if (top < 0) {
+                return;
+            }
+            BTreeNode<Key> node = path[top];
+            Key k = node.key(index[top]++);
+            if (k.compareTo(higher) > 0) {
+                top = -1;
+                return;
+            }
+            next = k;
+
+            // the key is followed by the leftmost path of the
+            // child to its right
+            BTreeNode<Key> child = node.child(index[top]);
+            while (child != null) {
+                path[++top] = child;
+                index[top] = 0;
+                child = child.child(0);
+            }
+        } // end advance
+    } // end NodeIterator
+} // end BTreeNode
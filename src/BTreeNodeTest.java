@@ -0,0 +1,225 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import student.TestCase;
+
+/**
+ * Tests the B-tree nodes on their own: splits and merges of a
+ * small order, and random inserts and removes checked against a
+ * sorted list under several orders
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ */
+public class BTreeNodeTest extends TestCase {
+
+    // ------------------- PRIVATE VARIABLES -------------------
+
+    private BTreeNode<Integer> root;
+
+    // ------------------- PUBLIC METHODS ----------------------
+
+    @Override
+    public void setUp() {
+        root = new BTreeNode<Integer>(4, 10);
+    }
+
+    /**
+     * Tests the accessor methods of a single leaf
+     */
+    public void testAccessor() {
+        assertTrue(root.isLeaf());
+        assertEquals(1, root.keyCount());
+        assertEquals(10, (int) root.key(0));
+        assertNull(root.child(0));
+        assertEquals(4, root.order());
+        assertEquals(1, root.height());
+        assertEquals("10", root.toString());
+    }
+
+    /**
+     * Tests that a full node is split around its middle key and
+     * that removals merge nodes back together
+     */
+    public void testSplitAndMerge() {
+        root = root.insert(20);
+        root = root.insert(30);
+        assertTrue(root.isLeaf());
+        root = root.insert(40);
+        assertEquals("30\n  10 20\n  40\n", root.printPreOrder(0));
+
+        root = root.insert(25);
+        assertEquals(25, (int) root.search(25));
+        assertNull(root.search(26));
+
+        // borrows from the left sibling
+        assertEquals(40, (int) root.remove(40));
+        assertEquals("25\n  10 20\n  30\n", root.printPreOrder(0));
+
+        // the root key is swapped with its successor
+        assertEquals(25, (int) root.remove(25));
+        assertEquals("20\n  10\n  30\n", root.printPreOrder(0));
+
+        // merging leaves the root without keys
+        assertEquals(30, (int) root.remove(30));
+        assertEquals(0, root.keyCount());
+        root = root.child(0);
+        assertEquals("10 20\n", root.printPreOrder(0));
+        assertNull(root.remove(30));
+    } // end testSplitAndMerge
+
+    /**
+     * Tests random inserts and removes of repeating keys under
+     * several orders, along with searches and range walks
+     */
+    public void testRandom() {
+        int[] orders = {3, 4, 5, 32};
+        Random random = new Random(5);
+        for (int order : orders) {
+            root = null;
+            List<Integer> expected = new ArrayList<Integer>();
+            for (int i = 0; i < 3000; i++) {
+                int k = random.nextInt(400);
+                if (root != null && random.nextInt(3) == 0) {
+                    Integer removed = root.remove(k);
+                    assertEquals(expected.remove((Integer) k),
+                            removed != null);
+                    if (root.keyCount() == 0) {
+                        root = root.child(0);
+                    }
+                }
+                else {
+                    root = root == null
+                            ? new BTreeNode<Integer>(order, k)
+                            : root.insert(k);
+                    expected.add(k);
+                }
+            } // end for
+            Collections.sort(expected);
+
+            List<Integer> all = new ArrayList<Integer>();
+            root.rangeSearch(-1, 400, all);
+            assertEquals(expected, all);
+            for (int k = 0; k < 400; k++) {
+                assertEquals(expected.contains(k),
+                        root.search(k) != null);
+            }
+            for (int i = 0; i < 50; i++) {
+                int low = random.nextInt(400);
+                int high = low + random.nextInt(40);
+                List<Integer> walked = new ArrayList<Integer>();
+                root.rangeSearch(low, high, walked);
+                List<Integer> inRange = new ArrayList<Integer>();
+                for (Integer k : expected) {
+                    if (k >= low && k <= high) {
+                        inRange.add(k);
+                    }
+                }
+                assertEquals(inRange, walked);
+            }
+        } // end for
+    } // end testRandom
+
+    /**
+     * Tests that the range iterator stops at the upper bound
+     */
+    public void testRangeIterator() {
+        for (int i = 1; i < 100; i++) {
+            root = root.insert(10 + i);
+        }
+        Iterator<Integer> it = root.rangeIterator(107, 108);
+        assertEquals(107, (int) it.next());
+        assertEquals(108, (int) it.next());
+        assertFalse(it.hasNext());
+        Exception thrown = null;
+        try {
+            it.next();
+        }
+        catch (NoSuchElementException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+        assertEquals(4, root.height());
+    } // end testRangeIterator
+
+    /**
+     * Tests joining trees of every height, with and without a
+     * key between them, under several orders. Trees built by
+     * inserts may have a root less than half full, as the pieces
+     * of a cut tree may.
+     */
+    public void testJoin() {
+        int[] orders = {3, 4, 5, 32};
+        Random random = new Random(23);
+        for (int order : orders) {
+            for (int round = 0; round < 60; round++) {
+                int leftSize = random.nextInt(400);
+                int rightSize = random.nextInt(400);
+                BTreeNode<Integer> left = null;
+                BTreeNode<Integer> right = null;
+                List<Integer> expected = new ArrayList<Integer>();
+                for (int i = 0; i < leftSize; i++) {
+                    left = left == null
+                            ? new BTreeNode<Integer>(order, i)
+                            : left.insert(i);
+                    expected.add(i);
+                }
+                boolean between = random.nextBoolean();
+                if (between) {
+                    expected.add(leftSize);
+                }
+                for (int i = 1; i <= rightSize; i++) {
+                    int k = leftSize + i;
+                    right = right == null
+                            ? new BTreeNode<Integer>(order, k)
+                            : right.insert(k);
+                    expected.add(k);
+                }
+
+                root = between
+                        ? BTreeNode.join(left, leftSize, right,
+                                order)
+                        : BTreeNode.join(left, right);
+                if (expected.isEmpty()) {
+                    assertNull(root);
+                    continue;
+                }
+                checkShape(root, order, true);
+                List<Integer> all = new ArrayList<Integer>();
+                root.collect(all);
+                assertEquals(expected, all);
+            } // end for
+        } // end for
+    } // end testJoin
+
+    /**
+     * Checks that every node of a subtree but its root holds at
+     * least half as many keys as a full node, that no node is
+     * too full, and that every leaf is equally deep
+     *
+     * @param node
+     *            -- root of the subtree
+     * @param order
+     *            -- order of the tree
+     * @param isRoot
+     *            -- whether the node is the root of the tree
+     * @return height of the subtree
+     */
+    private int checkShape(BTreeNode<Integer> node, int order,
+            boolean isRoot) {
+        assertTrue(node.keyCount() < order);
+        assertTrue(node.keyCount() >= (isRoot ? 1 : (order - 1) / 2));
+        if (node.isLeaf()) {
+            return 1;
+        }
+        int height = checkShape(node.child(0), order, false);
+        for (int i = 1; i <= node.keyCount(); i++) {
+            assertEquals(height,
+                    checkShape(node.child(i), order, false));
+        }
+        return height + 1;
+    } // end checkShape
+} // end BTreeNodeTest
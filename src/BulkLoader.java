@@ -0,0 +1,91 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Imports a whole catalog of artist-song pairs into an empty song
+ * database in one pass. Memory and both hash tables are sized up
+ * front for every name of the catalog, so neither has to expand
+ * while the names are stored, and the tree is built bottom-up by
+ * TTTree.bulkLoad from the sorted pairs instead of inserting them
+ * one at a time. The result holds the same records and pairs as
+ * inserting the catalog through SongSearch, though records may be
+ * placed at different slots.
+ *
+ * SongSearch does not use the loader: its command files mix
+ * inserts with print tree commands, whose output follows the
+ * shape that inserting one pair at a time gives the tree. A
+ * bulk-loaded tree holds the same pairs in a different shape.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ */
+public final class BulkLoader {
+
+    // ---------------- CONSTRUCTOR ---------------------
+
+    /**
+     * Only holds static methods
+     */
+    private BulkLoader() {
+    }
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Stores every artist and song of the catalog, and both
+     * pairs of each artist-song combination, counting the degree
+     * of every record as SongSearch does
+     *
+     * @param artists
+     *            -- artist of every pair
+     * @param songs
+     *            -- song of every pair
+     * @param memory
+     *            -- byte array to store the names in
+     * @param artistTable
+     *            -- table of artists, linked to memory
+     * @param songTable
+     *            -- table of songs, linked to memory
+     * @param tree
+     *            -- empty tree to store the packed pairs in
+     * @return number of pairs stored in the tree
+     * @throws IllegalStateException
+     *             if the tree is not empty
+     */
+    public static int load(List<String> artists, List<String> songs,
+            DynamicByteArray memory, HashTable artistTable,
+            HashTable songTable, TTTree<Long> tree) {
+        if (!tree.isEmpty()) {
+            throw new IllegalStateException(
+                    "bulk load needs an empty tree");
+        }
+
+        // size everything for the case that no name repeats
+        int bytes = 0;
+        for (int i = 0; i < artists.size(); i++) {
+            bytes += artists.get(i).getBytes().length
+                    + songs.get(i).getBytes().length + 6;
+        }
+        memory.reserve(bytes);
+        artistTable.reserve(artistTable.size() + artists.size());
+        songTable.reserve(songTable.size() + songs.size());
+
+        List<Long> pairs = new ArrayList<Long>(2 * artists.size());
+        for (int i = 0; i < artists.size(); i++) {
+            // insert returns the stored record for repeated names
+            int artist = memory.insertRecord(artists.get(i), true);
+            int song = memory.insertRecord(songs.get(i), false);
+            pairs.add(PackedPairTree.pack(artist, song));
+            pairs.add(PackedPairTree.pack(song, artist));
+        }
+
+        tree.bulkLoad(pairs);
+
+        // a repeated pair is only stored once, so count the
+        // degrees off the tree rather than the catalog
+        for (long pair : tree.range(0L, Long.MAX_VALUE)) {
+            memory.addDegree(PackedPairTree.keyOf(pair), 1);
+        }
+        return tree.size();
+    } // end load
+} // end BulkLoader
@@ -0,0 +1,133 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import student.TestCase;
+
+/**
+ * Tests that a bulk loaded catalog holds the same records and
+ * pairs as inserting it one pair at a time
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ */
+public class BulkLoaderTest extends TestCase {
+
+    // ---------------- PRIVATE VARIABLES ----------------
+
+    private DynamicByteArray memory;
+    private HashTable artistTable;
+    private HashTable songTable;
+    private TTTree<Long> tree;
+    private List<String> artists;
+    private List<String> songs;
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    @Override
+    public void setUp() {
+        artistTable = new HashTable(4, new FoldHash());
+        songTable = new HashTable(4, new FoldHash());
+        memory = new DynamicByteArray(32, artistTable, songTable);
+        tree = new TTTree<Long>();
+        artists = Arrays.asList("Nickelback", "Linkin Park",
+                "Nickelback", "Pearl Jam", "Linkin Park",
+                "Nickelback");
+        songs = Arrays.asList("Rockstar", "Numb", "Animals",
+                "Animals", "Faint", "Rockstar");
+    }
+
+    /**
+     * Tests bulk loading against inserting the same catalog
+     */
+    public void testLoad() {
+        assertEquals(10, BulkLoader.load(artists, songs, memory,
+                artistTable, songTable, tree));
+
+        HashTable artistsByInsert = new HashTable(4, new FoldHash());
+        HashTable songsByInsert = new HashTable(4, new FoldHash());
+        DynamicByteArray byInsert = new DynamicByteArray(32,
+                artistsByInsert, songsByInsert);
+        TTTree<Long> treeByInsert = new TTTree<Long>();
+        for (int i = 0; i < artists.size(); i++) {
+            Handle artist = byInsert.insert(artists.get(i), true);
+            Handle song = byInsert.insert(songs.get(i), false);
+            long pair = this.pair(artist, song);
+            if (treeByInsert.search(pair) == null) {
+                treeByInsert.insert(pair);
+                treeByInsert.insert(this.pair(song, artist));
+            }
+        } // end for
+
+        assertEquals(byInsert.toString(), memory.toString());
+        assertEquals(artistsByInsert.size(), artistTable.size());
+        assertEquals(songsByInsert.size(), songTable.size());
+        assertEquals(treeByInsert.size(), tree.size());
+        assertEquals(this.pairs(treeByInsert, byInsert),
+                this.pairs(tree, memory));
+        // sized up front, memory never had to expand
+        assertEquals(137, memory.capacity());
+        assertEquals(16, artistTable.capacity());
+
+        Handle numb = songTable.search("Numb");
+        assertNotNull(tree.search(this.pair(numb,
+                artistTable.search("Linkin Park"))));
+
+        // the repeated pair only counts once
+        assertEquals(2, memory.degree(
+                artistTable.search("Nickelback")));
+        assertEquals(2, memory.degree(songTable.search("Animals")));
+        assertEquals(1, memory.degree(numb));
+    }
+
+    /**
+     * Tests that only an empty tree is bulk loaded
+     */
+    public void testNonEmptyTree() {
+        tree.insert(this.pair(memory.insert("Numb", false),
+                memory.insert("Linkin Park", true)));
+        try {
+            BulkLoader.load(artists, songs, memory, artistTable,
+                    songTable, tree);
+            fail("expected an IllegalStateException");
+        }
+        catch (IllegalStateException e) {
+            assertEquals(1, tree.size());
+        }
+    }
+
+    // ---------------- PRIVATE METHODS -------------------
+
+    /**
+     * Lists the pairs of a tree by name, in order
+     *
+     * @param pairs
+     *            -- tree to list
+     * @param records
+     *            -- byte array holding the records of the pairs
+     * @return names of every pair
+     */
+    private List<String> pairs(TTTree<Long> pairs,
+            DynamicByteArray records) {
+        List<String> toRet = new ArrayList<String>();
+        for (long pair : pairs.rangeSearch(0L, Long.MAX_VALUE)) {
+            toRet.add(records.handle(PackedPairTree.keyOf(pair))
+                    .getStringAt() + "|"
+                    + records.handle(PackedPairTree.valueOf(pair))
+                            .getStringAt());
+        }
+        return toRet;
+    }
+
+    /**
+     * Packs the pair of two records, as SongSearch does
+     *
+     * @param key
+     *            -- handle of the key record
+     * @param value
+     *            -- handle of the value record
+     * @return packed pair of their ids
+     */
+    private long pair(Handle key, Handle value) {
+        return PackedPairTree.pack(key.getId(), value.getId());
+    }
+} // end BulkLoaderTest
@@ -0,0 +1,56 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Keeps the records of our DynamicByteArray outside of the heap
+ * in direct buffers. The record bytes then never add to the heap
+ * the garbage collector has to trace or copy, no matter how many
+ * names are stored, and moving records into a larger buffer does
+ * not allocate a large array on the heap. Handles read their
+ * records straight from the direct buffer.
+ *
+ * A buffer given up after the records move is released once the
+ * garbage collector finds it unreachable, and the total size of
+ * direct buffers is bounded by -XX:MaxDirectMemorySize.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/30/2017
+ */
+public class DirectStorage implements PoolStorage {
+
+    /**
+     * Nothing is ever stored between runs
+     *
+     * @return null
+     */
+    @Override
+    public ByteBuffer reopen() {
+        return null;
+    }
+
+    @Override
+    public int used() {
+        return 0;
+    }
+
+    /**
+     * Allocates a zeroed direct buffer
+     *
+     * @param length
+     *            -- size of the buffer
+     * @return new buffer
+     */
+    @Override
+    public ByteBuffer allocate(int length) {
+        return ByteBuffer.allocateDirect(length);
+    }
+
+    @Override
+    public void commit(ByteBuffer buffer, int usedBytes) {
+        // the buffer already holds every change
+    }
+
+    @Override
+    public void flush() {
+        // nothing to write
+    }
+} // end DirectStorage
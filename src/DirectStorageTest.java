@@ -0,0 +1,29 @@
+import java.nio.ByteBuffer;
+import student.TestCase;
+
+/**
+ * Tests that our direct storage hands out zeroed buffers outside
+ * of the heap
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/30/2017
+ */
+public class DirectStorageTest extends TestCase {
+
+    /**
+     * Tests allocation and reopening
+     */
+    public void testAllocate() {
+        DirectStorage storage = new DirectStorage();
+        assertNull(storage.reopen());
+        assertEquals(0, storage.used());
+
+        ByteBuffer buffer = storage.allocate(32);
+        assertEquals(32, buffer.capacity());
+        assertTrue(buffer.isDirect());
+        assertEquals(0, buffer.get(31));
+        storage.commit(buffer, 10);
+        storage.flush();
+        assertNull(storage.reopen());
+    }
+} // end DirectStorageTest
@@ -1,12 +1,35 @@
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
 /**
  * Represents our dynamic byte array which holds all records of
- * songs and artists in main memory.
+ * songs and artists in main memory. By default new records are
+ * appended and the space of deleted records is only reclaimed
+ * when memory expands. Optionally, a FreeList of deleted records
+ * lets insertions reuse that space right away. How much memory
+ * grows by, and whether it shrinks again, is decided by a
+ * GrowthPolicy.
+ * 
+ * Every record is given a stable id when it is written, counting
+ * up from 0, and its offset, length, and hash are kept by id in
+ * our HandleTable. The tables and trees of our callers hold the
+ * ids themselves (see insertRecord), and the handles we hand out
+ * are only views of that table, ordered by id (see Handle), so
+ * nobody notices where records sit or in which order they are
+ * moved.
+ * 
+ * The flag of an active record (see RecordFormat) tells whether
+ * it is an artist or a song, and the ids of our records are kept
+ * in order of offset. Moving records into a new array is
+ * therefore a single pass over memory which updates the offset
+ * of each id in the table, without creating any handle or
+ * searching the hash tables.
+ * 
+ * Records are kept in a buffer handed out by a PoolStorage: byte
+ * arrays on the heap by default, or e.g. a memory-mapped file
+ * whose records are reopened by the next run.
  * 
  * @author Chris Dare (cdare77@vt.edu)
  * @version 11/29/2017
@@ -15,21 +38,28 @@ public class DynamicByteArray {
 
     // ---------------- PRIVATE VARIABLES ----------------
 
-    private byte[] memory; // actual array storing records
-    private int blockSize; // initial size of array; will
-                           // affect how much we expand the
-                           // table by
+    private ByteBuffer memory; // actual buffer storing records
+    private PoolStorage storage; // provides our buffers
+    private GrowthPolicy growth; // decides new array sizes
     private int offset;
+    private int liveBytes; // bytes held by active records
     // references to the hash tables we will be affecting
-    private HashTable artistTable;
-    private HashTable songTable;
+    private NameTable artistTable;
+    private NameTable songTable;
+    private FreeList freeList; // null unless reuse is enabled
+    private HandleTable handles; // location of each record by id
+    // ids of our records, sorted by offset. May still hold ids
+    // of records deleted since memory last moved
+    private int[] order;
+    private int orderCount;
 
     // ---------------- CONSTRUCTOR ---------------------
 
     /**
      * Default constructor for DynamicByteArray. Specifies the
-     * initial blockSize which will ultimately affect the amount
-     * by which we expand the table for insertions. Requires
+     * initial blockSize which, under the default FixedGrowth
+     * policy, is also the amount by which we expand the table
+     * for insertions. Requires
      * references to an artist table and song table for clean
      * insertions and deletions/
      * 
@@ -40,14 +70,49 @@ public class DynamicByteArray {
      * @param sTable
      *            -- reference to song hash table
      */
-    public DynamicByteArray(int initialSize, HashTable aTable,
-            HashTable sTable) {
-        blockSize = initialSize;
-        memory = new byte[initialSize];
-        offset = 0;
+    public DynamicByteArray(int initialSize, NameTable aTable,
+            NameTable sTable) {
+        this(initialSize, aTable, sTable, new HeapStorage());
+    }
+
+    /**
+     * Constructor for a DynamicByteArray keeping its records in
+     * the given storage. If the storage still holds the records
+     * of a previous run, they are reopened and their handles
+     * are inserted into the (empty) artist and song tables.
+     * 
+     * @param initialSize
+     *            -- initial size of array
+     * @param aTable
+     *            -- reference to artist hash table
+     * @param sTable
+     *            -- reference to song hash table
+     * @param pool
+     *            -- storage providing our memory
+     */
+    public DynamicByteArray(int initialSize, NameTable aTable,
+            NameTable sTable, PoolStorage pool) {
+        growth = new FixedGrowth(initialSize);
+        storage = pool;
+        liveBytes = 0;
+        order = new int[16];
+        orderCount = 0;
         artistTable = aTable;
         songTable = sTable;
-    }
+
+        memory = storage.reopen();
+        if (memory == null) {
+            memory = storage.allocate(initialSize);
+            offset = 0;
+            handles = new HandleTable(memory);
+            storage.commit(memory, offset);
+        }
+        else {
+            offset = storage.used();
+            handles = new HandleTable(memory);
+            this.reload(true, null);
+        }
+    } // end constructor
 
     // ---------------- PUBLIC METHODS -------------------
 
@@ -67,20 +132,36 @@ public class DynamicByteArray {
      *         inserted
      */
     public Handle insert(String name, boolean isArtist) {
+        return handles.handle(this.insertRecord(name, isArtist));
+    }
+
+    /**
+     * Inserts a given string into our byte array exactly as
+     * insert does, but gives the id of the record instead of a
+     * handle, so that no handle is created for it
+     * 
+     * @param name
+     *            -- string to insert into memory
+     * @param isArtist
+     *            -- flag which indicates whether current record
+     *            being inserted is an artist
+     * @return id of the record holding the name
+     */
+    public int insertRecord(String name, boolean isArtist) {
 
-        Handle toRet;
+        int toRet;
 
         // To prevent inserting duplicates, we check
         // if the element is already in the hash table
         if (isArtist) {
             // look in artist table
-            toRet = artistTable.search(name);
+            toRet = artistTable.find(name);
         }
         else {
             // look in song table
-            toRet = songTable.search(name);
+            toRet = songTable.find(name);
         }
-        if (toRet != null) {
+        if (toRet >= 0) {
             // the current name is in our table, and thus
             // in memory as well. Return a reference to this
             // element
@@ -90,35 +171,40 @@ public class DynamicByteArray {
         // find number of bytes to insert into memory
         byte[] nameArr = name.getBytes();
         short length = (short) nameArr.length;
-        // Expand memory whenever current array size is not
-        // enough
-        if (offset + length + 3 >= memory.length) {
-            this.expandMemory();
-        }
-        // mark flag as active since we just inserted it
-        memory[offset++] = 0x01;
-        // store length in little endian order
-        memory[offset++] = (byte) (length & 0xff);
-        memory[offset++] = (byte) ((length >> 8) & 0xff);
-        // copy string into next 'length' bytes
-        System.arraycopy(nameArr, 0, memory, offset,
-                length);
 
-        // place our new handle into respective hash table
-        toRet = new Handle(memory, offset, length);
-        if (isArtist) {
-            artistTable.insert(toRet);
-        }
-        else {
-            songTable.insert(toRet);
+        if (freeList != null) {
+            // reuse the space of a deleted record if possible
+            int start = freeList.allocate(length + 3);
+            if (start >= 0) {
+                int rest = freeList.blockSize(start + length + 3);
+                if (rest > 0) {
+                    // the leftover bytes form a free block
+                    RecordFormat.writeHeader(memory,
+                            start + length + 3, RecordFormat.FREE,
+                            rest - 3);
+                }
+                liveBytes += length + 3;
+                return this.writeRecord(start, nameArr, isArtist);
+            }
+        } // end if
+
+        // Expand memory whenever current array size is not
+        // enough. As before, memory is kept at least one byte
+        // larger than the records it holds
+        if (offset + length + 3 >= memory.capacity()) {
+            this.resizeMemory(growth.grow(memory.capacity(),
+                    liveBytes + length + 4));
         }
+        toRet = this.writeRecord(offset, nameArr, isArtist);
 
         // update pointer to offset
-        offset += length;
+        offset += length + 3;
+        liveBytes += length + 3;
+        storage.commit(memory, offset);
 
-        // return new handle pointing to record just inserted
+        // return id of the record just inserted
         return toRet;
-    } // end insert
+    } // end insertRecord
 
     /**
      * Marks the flag of the record we are searching for as 0x00
@@ -131,10 +217,12 @@ public class DynamicByteArray {
      *            removing is an artist
      */
     public void delete(Handle handle, boolean isArtist) {
-        // make corresponding marks to memory (null
-        // out the flag)
-        int handleOff = handle.getOffset();
-        memory[handleOff - 3] = 0x00;
+        // handles of records deleted before memory moved keep
+        // their old location
+        if (this.locate(handle.getId()) == handle.getOffset()) {
+            this.deleteRecord(handle.getId(), isArtist);
+            return;
+        }
 
         if (isArtist) {
             // handle points to an artist; thus remove from
@@ -146,28 +234,348 @@ public class DynamicByteArray {
             // table
             songTable.delete(handle);
         }
+        this.shrink();
     } // end delete from memory
 
+    /**
+     * Marks the flag of the record with the given id as 0x00 in
+     * our byte array and removes it from its hash table, by id
+     * 
+     * @param recordId
+     *            -- id of the record we wish to remove
+     * @param isArtist
+     *            -- flag which indicates whether record we are
+     *            removing is an artist
+     */
+    public void deleteRecord(int recordId, boolean isArtist) {
+        if (!handles.isLive(recordId)) {
+            return;
+        }
+        // make corresponding marks to memory (null
+        // out the flag)
+        int handleOff = handles.offset(recordId);
+        int length = handles.length(recordId);
+        liveBytes -= length + 3;
+        if (freeList != null) {
+            // merge the record with its free neighbours and
+            // record the size of the merged block
+            int start = freeList.release(handleOff - 3,
+                    length + 3);
+            RecordFormat.writeHeader(memory, start,
+                    RecordFormat.FREE, freeList.blockSize(start) - 3);
+        }
+        memory.put(handleOff - 3, RecordFormat.FREE);
+
+        if (isArtist) {
+            artistTable.delete(handles, recordId);
+        }
+        else {
+            songTable.delete(handles, recordId);
+        }
+        // a view keeps reading the deleted name until its
+        // bytes are reused
+        handles.remove(recordId);
+        this.shrink();
+    } // end deleteRecord
+
+    /**
+     * Turns reuse of the space of deleted records on or off.
+     * While on, every deletion adds its record to a free list
+     * (merging it with adjacent free records) and insertions take
+     * the best fitting free record before appending.
+     * 
+     * @param enabled
+     *            -- True to reuse freed space
+     */
+    public void setFreeList(boolean enabled) {
+        if (!enabled) {
+            freeList = null;
+        }
+        else if (freeList == null) {
+            // records deleted before this point are still only
+            // reclaimed by the next expansion
+            freeList = new FreeList(Short.MAX_VALUE + 3);
+        }
+    }
+
+    /**
+     * Accessor method for the number of free bytes available for
+     * reuse
+     * 
+     * @return free bytes, 0 if reuse is disabled
+     */
+    public int freeBytes() {
+        return freeList == null ? 0 : freeList.freeBytes();
+    }
+
+    /**
+     * Replaces the policy deciding how memory grows and shrinks.
+     * Takes effect at the next expansion or deletion.
+     * 
+     * @param policy
+     *            -- new growth policy
+     */
+    public void setGrowthPolicy(GrowthPolicy policy) {
+        growth = policy;
+    }
+
+    /**
+     * Expands memory at once so that records of the given total
+     * size fit before it has to expand again, e.g. ahead of a
+     * bulk load. Does nothing if memory is large enough already.
+     * 
+     * @param bytes
+     *            -- total size of the records to come, headers
+     *            included
+     */
+    public void reserve(int bytes) {
+        if (offset + bytes >= memory.capacity()) {
+            this.resizeMemory(liveBytes + bytes + 1);
+        }
+    }
+
+    /**
+     * Looks up where the record with the given id currently
+     * sits
+     * 
+     * @param recordId
+     *            -- id of a record
+     * @return offset of the bytes of the record, -1 if it was
+     *         deleted or never written
+     */
+    public int locate(int recordId) {
+        if (!handles.isLive(recordId)) {
+            return -1;
+        }
+        return handles.offset(recordId);
+    }
+
+    /**
+     * Gives the handle of the record with the given id
+     * 
+     * @param recordId
+     *            -- id of a record
+     * @return view of the record, null if it was deleted or
+     *         never written
+     */
+    public Handle handle(int recordId) {
+        return handles.handle(recordId);
+    }
+
+    /**
+     * Reads the name held by the record with the given id
+     * without creating a handle
+     * 
+     * @param recordId
+     *            -- id of a record
+     * @return name of the record, null if it was deleted or
+     *         never written
+     */
+    public String nameOf(int recordId) {
+        return handles.name(recordId);
+    }
+
+    /**
+     * Gives the degree of a record, i.e. the number of pairs
+     * which index it as their key
+     * 
+     * @param handle
+     *            -- pointer to the record
+     * @return degree of the record, 0 if it was deleted
+     */
+    public int degree(Handle handle) {
+        if (this.locate(handle.getId()) != handle.getOffset()) {
+            return 0;
+        }
+        return handles.degree(handle.getId());
+    }
+
+    /**
+     * Gives the degree of the record with the given id
+     * 
+     * @param recordId
+     *            -- id of a record
+     * @return degree of the record, 0 if it was deleted
+     */
+    public int degree(int recordId) {
+        if (!handles.isLive(recordId)) {
+            return 0;
+        }
+        return handles.degree(recordId);
+    }
+
+    /**
+     * Adds to the degree of a record. Callers indexing pairs of
+     * records call this with 1 for the key of every pair they
+     * add and -1 for the key of every pair they remove.
+     * 
+     * @param handle
+     *            -- pointer to the record
+     * @param delta
+     *            -- change of the degree
+     * @return new degree of the record
+     */
+    public int addDegree(Handle handle, int delta) {
+        if (this.locate(handle.getId()) != handle.getOffset()) {
+            throw new IllegalArgumentException(
+                    "record is not in memory: " + handle);
+        }
+        return handles.addDegree(handle.getId(), delta);
+    }
+
+    /**
+     * Adds to the degree of the record with the given id
+     * 
+     * @param recordId
+     *            -- id of a record
+     * @param delta
+     *            -- change of the degree
+     * @return new degree of the record
+     */
+    public int addDegree(int recordId, int delta) {
+        if (!handles.isLive(recordId)) {
+            throw new IllegalArgumentException(
+                    "record is not in memory: " + recordId);
+        }
+        return handles.addDegree(recordId, delta);
+    }
+
+    /**
+     * Accessor method for the size of our byte array
+     * 
+     * @return number of bytes currently allocated for memory
+     */
+    public int capacity() {
+        return memory.capacity();
+    }
+
+    /**
+     * Writes every record to durable storage, if our storage
+     * has any
+     */
+    public void flush() {
+        storage.flush();
+    }
+
+    /**
+     * Gives a read-only view of our records, from the first byte
+     * up to the end of the last record. Used by Snapshot.
+     * 
+     * @return view of the records
+     */
+    ByteBuffer records() {
+        ByteBuffer toRet = memory.asReadOnlyBuffer();
+        toRet.position(0);
+        toRet.limit(offset);
+        return toRet;
+    }
+
+    /**
+     * Gives the id of every active record, in order of offset.
+     * Used by Snapshot.
+     * 
+     * @return ids of the records
+     */
+    int[] recordIds() {
+        int[] toRet = new int[orderCount];
+        int count = 0;
+        short length;
+        for (int i = 0; i < offset; i += length + 3) {
+            length = RecordFormat.lengthAt(memory, i);
+            if (memory.get(i) != 0x00) {
+                toRet[count++] = order[this.ownerPosition(i + 3)];
+            }
+        }
+        return Arrays.copyOf(toRet, count);
+    } // end recordIds
+
+    /**
+     * Accessor method for the id the next record will be given.
+     * Used by Snapshot.
+     * 
+     * @return next id
+     */
+    int nextId() {
+        return handles.nextId();
+    }
+
+    /**
+     * Replaces our records with those saved in a snapshot,
+     * keeping every record at its offset and id. The handles of
+     * the records are rebuilt but not inserted into the tables,
+     * whose slots are restored separately. Used by Snapshot.
+     * 
+     * @param records
+     *            -- buffer holding the records from position 0
+     *            up to its limit
+     * @param length
+     *            -- size of memory when the snapshot was taken
+     * @param ids
+     *            -- id of every active record, in order of
+     *            offset
+     * @param next
+     *            -- id the next record will be given
+     */
+    void restore(ByteBuffer records, int length, int[] ids,
+            int next) {
+        memory = storage.allocate(length);
+        offset = records.limit();
+        RecordFormat.copy(records, 0, memory, 0, offset);
+        liveBytes = 0;
+        handles = new HandleTable(memory);
+        order = new int[16];
+        orderCount = 0;
+        if (freeList != null) {
+            // deleted records are reclaimed by the next
+            // expansion instead
+            freeList.clear();
+        }
+        this.reload(false, ids);
+        handles.skipTo(next);
+        storage.commit(memory, offset);
+    } // end restore
+
+    /**
+     * Looks up the id of the active record whose bytes start at
+     * the given offset. Used by Snapshot.
+     * 
+     * @param handleOffset
+     *            -- offset of the bytes of a record
+     * @return id of the record, -1 if there is none
+     */
+    int idAt(int handleOffset) {
+        int pos = this.ownerPosition(handleOffset);
+        if (pos == orderCount
+                || handles.offset(order[pos]) != handleOffset
+                || !handles.isLive(order[pos])) {
+            return -1;
+        }
+        return order[pos];
+    }
+
+    /**
+     * Accessor method for the table resolving the ids of our
+     * records. Used by Snapshot.
+     * 
+     * @return table of our records
+     */
+    HandleTable handleTable() {
+        return handles;
+    }
+
     @Override
     public String toString() {
         short length;
         List<String> stringList = new LinkedList<String>();
 
-        for (int i = 0; i < memory.length - 2; i += length + 3) {
+        // every record lies before offset
+        for (int i = 0; i < offset; i += length + 3) {
 
-            // get length from second and third byte after offset
-            ByteBuffer bb = ByteBuffer.allocate(2);
-            bb.order(ByteOrder.LITTLE_ENDIAN);
-            bb.put(memory[i + 1]);
-            bb.put(memory[i + 2]);
-            length = bb.getShort(0);
+            length = RecordFormat.lengthAt(memory, i);
 
-            if (memory[i] != 0x00) {
+            if (memory.get(i) != 0x00) {
                 // is a valid element
-                String searchString = new String(
-                        Arrays.copyOfRange(memory, i + 3,
-                                i + 3 + length));
-                stringList.add(searchString);
+                stringList.add(RecordFormat.nameAt(memory, i));
             } // end if
         } // end for loop
 
@@ -176,65 +584,213 @@ public class DynamicByteArray {
 
     // ---------------- PRIVATE METHODS -------------------
 
+    /**
+     * Stores a name as an active record at the given position and
+     * places its id into the respective hash table
+     * 
+     * @param start
+     *            -- position of the flag of the record
+     * @param nameArr
+     *            -- bytes of the name
+     * @param isArtist
+     *            -- flag which indicates whether current record
+     *            being inserted is an artist
+     * @return id of the new record
+     */
+    private int writeRecord(int start, byte[] nameArr,
+            boolean isArtist) {
+        // mark flag as active since we just inserted it, and
+        // tag the record with the table owning it
+        RecordFormat.writeHeader(memory, start,
+                isArtist ? RecordFormat.ARTIST : RecordFormat.SONG,
+                nameArr.length);
+        // copy string into next 'length' bytes
+        RecordFormat.copy(ByteBuffer.wrap(nameArr), 0, memory,
+                start + 3, nameArr.length);
+
+        // place our new id into respective hash table
+        int id = handles.add(start + 3, nameArr.length);
+        this.register(id);
+        if (isArtist) {
+            artistTable.insert(handles, id);
+        }
+        else {
+            songTable.insert(handles, id);
+        }
+        return id;
+    } // end writeRecord
+
+    /**
+     * Gives memory back if our growth policy asks for it
+     */
+    private void shrink() {
+        int newLength = growth.shrink(memory.capacity(),
+                liveBytes + 1);
+        if (newLength < memory.capacity()) {
+            this.resizeMemory(newLength);
+        }
+    } // end shrink
+
+    /**
+     * Adds the id of a new record to our order, keeping it
+     * sorted by offset. Appended records simply go at the end; a
+     * record placed in a free block replaces the id of a deleted
+     * record at the same offset, if there is one.
+     * 
+     * @param id
+     *            -- id of the new record
+     */
+    private void register(int id) {
+        int handleOffset = handles.offset(id);
+        int pos = this.ownerPosition(handleOffset);
+        if (pos < orderCount
+                && handles.offset(order[pos]) == handleOffset) {
+            order[pos] = id;
+            return;
+        }
+        if (orderCount == order.length) {
+            order = Arrays.copyOf(order, order.length * 2);
+        }
+        System.arraycopy(order, pos, order, pos + 1,
+                orderCount - pos);
+        order[pos] = id;
+        orderCount++;
+    } // end register
+
+    /**
+     * Binary searches our order for the first id of a record at
+     * or after the given offset
+     * 
+     * @param handleOffset
+     *            -- offset of the bytes of a record
+     * @return position of that id, orderCount if there is none
+     */
+    private int ownerPosition(int handleOffset) {
+        int pos = orderCount;
+        int low = 0;
+        while (low < pos) {
+            int mid = (low + pos) >>> 1;
+            if (handles.offset(order[mid]) < handleOffset) {
+                low = mid + 1;
+            }
+            else {
+                pos = mid;
+            }
+        } // end while
+        return pos;
+    } // end ownerPosition
+
+    /**
+     * Rebuilds the handles of the records reopened from our
+     * storage or restored from a snapshot
+     * 
+     * @param intoTables
+     *            -- True to insert each handle into the table
+     *            named by its flag
+     * @param ids
+     *            -- id of every active record in order of
+     *            offset, or null to hand out new ids
+     */
+    private void reload(boolean intoTables, int[] ids) {
+        short length;
+        int count = 0; // active records so far
+        for (int i = 0; i < offset; i += length + 3) {
+            length = RecordFormat.lengthAt(memory, i);
+            byte flag = memory.get(i);
+            if (flag != 0x00) {
+                int id;
+                if (ids == null) {
+                    id = handles.add(i + 3, length);
+                }
+                else {
+                    id = ids[count];
+                    handles.put(id, i + 3, length);
+                }
+                count++;
+                this.register(id);
+                if (intoTables && flag == RecordFormat.ARTIST) {
+                    artistTable.insert(handles, id);
+                }
+                else if (intoTables) {
+                    songTable.insert(handles, id);
+                }
+                liveBytes += length + 3;
+            } // end if
+        } // end for
+    } // end reload
+
     /**
      * Private helper method which lets our 'memory' byte array
-     * to be dynamic, expanding whenever there is not enough
-     * space to insert. We expand by the initial size of our
-     * memory, and copy over valid elements (ones with nonzero
-     * flag)
+     * to be dynamic, moving into an array of the size chosen by
+     * our growth policy whenever there is not enough space to
+     * insert (or, if the policy shrinks memory, after enough
+     * deletions). Only valid elements (ones with nonzero flag)
+     * are copied over
+     * 
+     * @param newLength
+     *            -- size of the new array, large enough for
+     *            every valid element
      */
-    private void expandMemory() {
+    private void resizeMemory(int newLength) {
         // replaces our current reference to memory
-        byte[] newMemory = new byte[memory.length + blockSize];
+        ByteBuffer newMemory = storage.allocate(newLength);
         // length of every record we insert
         short length;
         // since we dont insert records with zero flag, our
         // offset and newOffset may not always coincide
         int newOffset = 0;
+        // next id to look at, and number of ids kept
+        int next = 0;
+        int kept = 0;
+        // every id now resolves into the new array
+        handles.setBuffer(newMemory);
 
-        // iterate over our current memory
-        for (int i = 0; i < memory.length - 2; i += length + 3) {
+        // iterate over the records of our current memory
+        for (int i = 0; i < offset; i += length + 3) {
 
-            // get length from second and third byte after offset
-            ByteBuffer bb = ByteBuffer.allocate(2);
-            bb.order(ByteOrder.LITTLE_ENDIAN);
-            bb.put(memory[i + 1]);
-            bb.put(memory[i + 2]);
-            length = bb.getShort(0);
+            length = RecordFormat.lengthAt(memory, i);
 
-            if (memory[i] != 0x00) {
+            if (memory.get(i) != 0x00) {
                 // Flag is nonzero which means that we should
-                // copy data over to new array
-                String searchString = new String(
-                        Arrays.copyOfRange(memory, i + 3,
-                                i + 3 + length));
-
-                // Move data over to new array, including flag
+                // copy data over to new array, including flag
                 // and length
-                System.arraycopy(memory, i, newMemory, newOffset,
+                RecordFormat.copy(memory, i, newMemory, newOffset,
                         length + 3);
 
-                // modify the handle pointing to this data
-                // so that it points to new location
-                Handle artist = artistTable.search(searchString);
-                Handle song = songTable.search(searchString);
+                // skip the ids of records deleted since memory
+                // last moved
+                while (!handles.isLive(order[next])
+                        || handles.offset(order[next]) != i + 3) {
+                    next++;
+                }
+                int id = order[next++];
+                order[kept++] = id;
 
-                if (song != null) {
-                    // data pointed to is a song
-                    song.setOffset(newOffset + 3);
-                    song.setMemory(newMemory);
+                // note the new location, and let the table
+                // tagged in the flag know about it
+                handles.move(id, newOffset + 3);
+                if (memory.get(i) == RecordFormat.ARTIST) {
+                    artistTable.relocate(handles, id, memory,
+                            i + 3);
                 }
                 else {
-                    // data pointed to is an artist
-                    artist.setOffset(newOffset + 3);
-                    artist.setMemory(newMemory);
+                    songTable.relocate(handles, id, memory,
+                            i + 3);
                 }
                 // update offset pointer
                 newOffset += length + 3;
             } // end if (valid element to copy)
         } // end for
 
+        // forget the ids of deleted records
+        orderCount = kept;
+
         memory = newMemory;
         offset = newOffset;
-    } // end expandMemory
+        storage.commit(memory, offset);
+        if (freeList != null) {
+            // deleted records were not copied over
+            freeList.clear();
+        }
+    } // end resizeMemory
 } // end dynamicByteArray
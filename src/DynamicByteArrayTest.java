@@ -1,3 +1,4 @@
+import java.io.File;
 import student.TestCase;
 
 /**
@@ -23,12 +24,33 @@ public class DynamicByteArrayTest extends TestCase {
 
     @Override
     public void setUp() {
-        artistTable = new HashTable(8);
-        songTable = new HashTable(8);
+        artistTable = new HashTable(8, new FoldHash());
+        songTable = new HashTable(8, new FoldHash());
         memory = new DynamicByteArray(32, artistTable,
                 songTable);
     }
 
+    /**
+     * Tests that reserving room expands memory once, up front
+     */
+    public void testReserve() {
+        memory.insert("Nickelback", true);
+        memory.reserve(40);
+        assertEquals(54, memory.capacity());
+        memory.reserve(20);
+        assertEquals(54, memory.capacity());
+
+        memory.insert("How You Remind Me", false);
+        memory.insert("Photograph", false);
+        memory.insert("Numb", false);
+        assertEquals(54, memory.capacity());
+        // memory is full
+        memory.reserve(10);
+        assertEquals(64, memory.capacity());
+        assertEquals("[Nickelback, How You Remind Me, Photograph, "
+                + "Numb]", memory.toString());
+    }
+
     /**
      * Tests the functionality of insert, in both successful and
      * unsucessful quadratic probes, and how they affect both our
@@ -144,4 +166,354 @@ public class DynamicByteArrayTest extends TestCase {
                         + " How You Remind Me]",
                 memory.toString());
     } // end testToString
+
+    /**
+     * Tests that with the free list enabled, insertions reuse
+     * the space of deleted records instead of expanding memory
+     */
+    public void testFreeList() {
+        memory.setFreeList(true);
+        Handle nickelback = memory.insert("Nickelback", true);
+        Handle animals = memory.insert("Animals", false);
+        memory.insert("Numb", false);
+
+        memory.delete(nickelback, true);
+        memory.delete(animals, false);
+        // deleting twice does not free the space twice
+        memory.delete(animals, false);
+        assertEquals(23, memory.freeBytes());
+
+        // takes 13 bytes of the merged 23, leaving 10 free
+        Handle photograph = memory.insert("Photograph", false);
+        assertEquals(3, photograph.getOffset());
+        assertEquals(10, memory.freeBytes());
+        assertEquals("[Photograph, Numb]", memory.toString());
+
+        // fits the leftover block exactly
+        animals = memory.insert("Animals", false);
+        assertEquals(16, animals.getOffset());
+        assertEquals(0, memory.freeBytes());
+        assertEquals(32, memory.capacity());
+        assertEquals("[Photograph, Animals, Numb]",
+                memory.toString());
+        assertEquals(animals, songTable.search("Animals"));
+
+        // nothing left to reuse, so memory expands
+        memory.insert("Savin' Me", false);
+        assertEquals(64, memory.capacity());
+        assertEquals("[Photograph, Animals, Numb, Savin' Me]",
+                memory.toString());
+    }
+
+    /**
+     * Tests that churning records with the free list enabled
+     * never grows memory, while the default allocator keeps
+     * expanding
+     */
+    public void testChurn() {
+        memory.setFreeList(true);
+        for (int i = 0; i < 100; i++) {
+            Handle song = memory.insert("Song " + i, false);
+            memory.delete(song, false);
+        }
+        assertEquals(32, memory.capacity());
+        assertEquals(0, songTable.size());
+
+        memory.setFreeList(false);
+        assertEquals(0, memory.freeBytes());
+        for (int i = 0; i < 100; i++) {
+            Handle song = memory.insert("Song " + i, false);
+            memory.delete(song, false);
+        }
+        assertTrue(memory.capacity() > 32);
+        assertEquals("[]", memory.toString());
+    }
+
+    /**
+     * Tests that a name longer than a whole block expands memory
+     * by enough blocks to hold it
+     */
+    public void testLongName() {
+        memory.insert("Nickelback", true);
+        Handle song = memory.insert(
+                "Never Gonna Be Alone (Acoustic Version)", false);
+
+        assertEquals(64, memory.capacity());
+        assertEquals(16, song.getOffset());
+        assertEquals(song, songTable.search(
+                "Never Gonna Be Alone (Acoustic Version)"));
+        assertEquals("[Nickelback, Never Gonna Be Alone"
+                + " (Acoustic Version)]", memory.toString());
+    }
+
+    /**
+     * Tests that a geometric policy doubles memory, and shrinks
+     * it again once most records have been deleted
+     */
+    public void testGrowthPolicy() {
+        memory.setGrowthPolicy(new GeometricGrowth(32, 2));
+        for (int i = 0; i < 20; i++) {
+            memory.insert("Song " + i, false);
+        }
+        // 10 songs of 9 bytes and 10 of 10 bytes
+        assertEquals(256, memory.capacity());
+        assertEquals(20, songTable.size());
+
+        for (int i = 0; i < 16; i++) {
+            memory.delete(songTable.search("Song " + i), false);
+        }
+        // 40 bytes left, so we only shrank once
+        assertEquals(128, memory.capacity());
+        memory.delete(songTable.search("Song 16"), false);
+        assertEquals(64, memory.capacity());
+        assertEquals("[Song 17, Song 18, Song 19]",
+                memory.toString());
+        assertEquals(3, songTable.search("Song 17").getOffset());
+        assertEquals(23, songTable.search("Song 19").getOffset());
+    }
+
+    /**
+     * Tests that expanding memory points the handles returned by
+     * insert at the new array, even for a name stored as both an
+     * artist and a song
+     */
+    public void testMoveHandles() {
+        Handle artist = memory.insert("Animals", true);
+        Handle song = memory.insert("Animals", false);
+        Handle deleted = memory.insert("Numb", false);
+        memory.delete(deleted, false);
+        Handle moved = memory.insert("Photograph", false);
+
+        assertEquals(3, artist.getOffset());
+        assertEquals(13, song.getOffset());
+        assertEquals(23, moved.getOffset());
+        assertTrue(artist.getMemory() == moved.getMemory());
+        assertTrue(song.getMemory() == moved.getMemory());
+        assertEquals(artist, artistTable.search("Animals"));
+        assertEquals(song, songTable.search("Animals"));
+        assertEquals("[Animals, Animals, Photograph]",
+                memory.toString());
+
+        // deleting the handle of a record no longer in memory
+        // changes nothing
+        memory.delete(deleted, false);
+        assertEquals(2, songTable.size());
+        assertEquals("[Animals, Animals, Photograph]",
+                memory.toString());
+    }
+
+    /**
+     * Tests that records placed in free blocks are moved
+     * correctly once memory expands
+     */
+    public void testMoveReused() {
+        memory.setFreeList(true);
+        Handle first = memory.insert("Nickelback", true);
+        memory.insert("Numb", false);
+        memory.delete(first, true);
+        // reuses the start of the freed block
+        Handle reused = memory.insert("Rock", true);
+        memory.insert("Far Away", false);
+        assertEquals(3, reused.getOffset());
+
+        // expands and drops the 6 free bytes behind Rock
+        memory.insert("Savin' Me", false);
+        assertEquals(3, reused.getOffset());
+        assertEquals(10, songTable.search("Numb").getOffset());
+        assertEquals(17, songTable.search("Far Away").getOffset());
+        assertEquals("[Rock, Numb, Far Away, Savin' Me]",
+                memory.toString());
+        assertEquals(reused, artistTable.search("Rock"));
+    }
+
+    /**
+     * Tests that records keep their ids when they are moved, and
+     * that ids follow the order records were written in rather
+     * than their offsets
+     */
+    public void testRecordIds() {
+        memory.setFreeList(true);
+        Handle first = memory.insert("Nickelback", true);
+        Handle numb = memory.insert("Numb", false);
+        assertEquals(0, first.getId());
+        assertEquals(1, numb.getId());
+        assertEquals(3, memory.locate(0));
+        memory.delete(first, true);
+        assertEquals(-1, memory.locate(0));
+
+        // a newer record in an older place still sorts after
+        Handle reused = memory.insert("Rock", true);
+        assertEquals(3, reused.getOffset());
+        assertEquals(2, reused.getId());
+        assertTrue(numb.compareTo(reused) < 0);
+        assertEquals(3, memory.locate(2));
+
+        // expanding moves the records but not their ids
+        memory.insert("Far Away", false);
+        memory.insert("Savin' Me", false);
+        assertEquals(1, songTable.search("Numb").getId());
+        assertEquals(numb.getOffset(), memory.locate(1));
+        assertEquals(songTable.search("Savin' Me").getOffset(),
+                memory.locate(4));
+        assertEquals(-1, memory.locate(5));
+        assertEquals(-1, memory.locate(-1));
+    }
+
+    /**
+     * Tests that the handles we hand out are views of our handle
+     * table which follow their records, and that a deleted
+     * record can still be read after memory shrinks
+     */
+    public void testViews() {
+        memory.setGrowthPolicy(new GeometricGrowth(32, 2));
+        Handle numb = memory.insert("Numb", false);
+        assertTrue(numb == memory.handle(numb.getId()));
+        assertTrue(numb == songTable.search("Numb"));
+        for (int i = 0; i < 8; i++) {
+            memory.insert("Song " + i, false);
+        }
+        assertEquals(128, memory.capacity());
+        Handle last = songTable.search("Song 7");
+        assertEquals(last.getOffset(), memory.locate(last.getId()));
+        assertEquals("Numb", numb.getStringAt());
+
+        for (int i = 0; i < 8; i++) {
+            memory.delete(songTable.search("Song " + i), false);
+        }
+        assertEquals(32, memory.capacity());
+        assertEquals("Numb", numb.getStringAt());
+        assertEquals("Song 7", last.getStringAt());
+        assertNull(memory.handle(last.getId()));
+        assertNull(memory.handle(-1));
+    }
+
+    /**
+     * Tests that the degree of a record is kept while memory
+     * moves, and that only records in memory have one
+     */
+    public void testDegree() {
+        Handle numb = memory.insert("Numb", false);
+        assertEquals(0, memory.degree(numb));
+        assertEquals(1, memory.addDegree(numb, 1));
+        for (int i = 0; i < 8; i++) {
+            memory.insert("Song " + i, false);
+        }
+        assertEquals(1, memory.degree(numb));
+
+        memory.delete(numb, false);
+        assertEquals(0, memory.degree(numb));
+        Exception thrown = null;
+        try {
+            memory.addDegree(numb, 1);
+        }
+        catch (IllegalArgumentException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+    }
+
+    /**
+     * Tests inserting, reading and deleting records by id, so
+     * that no handle is needed
+     */
+    public void testById() {
+        int numb = memory.insertRecord("Numb", false);
+        int linkin = memory.insertRecord("Linkin Park", true);
+        assertEquals(numb, memory.insertRecord("Numb", false));
+        assertEquals(numb, songTable.find("Numb"));
+        assertEquals(linkin, artistTable.find("Linkin Park"));
+        assertEquals("Numb", memory.nameOf(numb));
+        assertEquals(1, memory.addDegree(numb, 1));
+        for (int i = 0; i < 8; i++) {
+            memory.insertRecord("Song " + i, false);
+        }
+        assertEquals("Numb", memory.nameOf(numb));
+        assertEquals(1, memory.degree(numb));
+        assertEquals(memory.locate(numb),
+                songTable.search("Numb").getOffset());
+
+        memory.deleteRecord(numb, false);
+        assertEquals(-1, songTable.find("Numb"));
+        assertNull(memory.nameOf(numb));
+        assertEquals(0, memory.degree(numb));
+        assertEquals(8, songTable.size());
+        memory.deleteRecord(numb, false);
+        assertEquals(8, songTable.size());
+        Exception thrown = null;
+        try {
+            memory.addDegree(numb, 1);
+        }
+        catch (IllegalArgumentException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+    }
+
+    /**
+     * Tests that records kept in a memory-mapped file are
+     * reopened, with their tables rebuilt, by a new byte array
+     */
+    public void testMappedStorage() {
+        File file = new File(System.getProperty("java.io.tmpdir"),
+                "pool" + System.nanoTime() + ".bin");
+        memory = new DynamicByteArray(32, artistTable, songTable,
+                new MappedStorage(file));
+        memory.insert("Nickelback", true);
+        memory.insert("Animals", true);
+        memory.delete(artistTable.search("Animals"), true);
+        // expands into a new file
+        memory.insert("Animals", false);
+        Handle song = memory.insert("How You Remind Me", false);
+        assertEquals(26, song.getOffset());
+        assertNull(song.getMemory());
+        assertEquals("How You Remind Me", song.getStringAt());
+        memory.flush();
+
+        HashTable artists = new HashTable(8, new FoldHash());
+        HashTable songs = new HashTable(8, new FoldHash());
+        DynamicByteArray reopened = new DynamicByteArray(32,
+                artists, songs, new MappedStorage(file));
+        assertEquals("[Nickelback, Animals, How You Remind Me]",
+                reopened.toString());
+        assertEquals(64, reopened.capacity());
+        assertEquals(1, artists.size());
+        assertEquals(2, songs.size());
+        assertEquals(3, artists.search("Nickelback").getOffset());
+        assertNull(artists.search("Animals"));
+        // records keep their offsets but are given new ids
+        Handle reopenedSong = songs.search("How You Remind Me");
+        assertEquals(song.getOffset(), reopenedSong.getOffset());
+        assertEquals(2, reopenedSong.getId());
+
+        // the reopened pool keeps working
+        reopened.insert("Linkin Park", true);
+        assertEquals("[Nickelback, Animals, How You Remind Me,"
+                + " Linkin Park]", reopened.toString());
+        file.delete();
+    }
+
+    /**
+     * Tests that records kept off the heap are inserted, moved,
+     * and deleted just like records in a byte array
+     */
+    public void testDirectStorage() {
+        memory = new DynamicByteArray(32, artistTable, songTable,
+                new DirectStorage());
+        memory.insert("Nickelback", true);
+        Handle animals = memory.insert("Animals", false);
+        memory.insert("Savin' Me", false);
+        // forces memory to expand into a new direct buffer
+        Handle song = memory.insert("How You Remind Me", false);
+
+        assertEquals(64, memory.capacity());
+        assertTrue(song.getBuffer().isDirect());
+        assertNull(song.getMemory());
+        assertTrue(animals.getBuffer() == song.getBuffer());
+        assertEquals(song, songTable.search("How You Remind Me"));
+
+        memory.delete(animals, false);
+        assertNull(songTable.search("Animals"));
+        assertEquals("[Nickelback, Savin' Me, How You Remind Me]",
+                memory.toString());
+    }
 } // end DynamicByteArrayTest
@@ -0,0 +1,63 @@
+/**
+ * Grows memory by a constant number of bytes and never shrinks
+ * it. This is the original behavior of our DynamicByteArray and
+ * the one the reference output depends on. Loading N bytes costs
+ * O(N * N / blockSize) copying, so it is only suited to small
+ * inputs.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/29/2017
+ */
+public class FixedGrowth implements GrowthPolicy {
+
+    // ---------------- PRIVATE VARIABLES ----------------
+
+    private int blockSize; // bytes added per expansion
+
+    // ---------------- CONSTRUCTOR ---------------------
+
+    /**
+     * Constructor for a fixed growth policy
+     *
+     * @param block
+     *            -- number of bytes added per expansion
+     */
+    public FixedGrowth(int block) {
+        blockSize = block;
+    }
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Adds one block, or as many blocks as needed to hold a
+     * record larger than a block
+     *
+     * @param capacity
+     *            -- current size of the array
+     * @param required
+     *            -- number of bytes the new array must hold
+     * @return capacity plus a whole number of blocks
+     */
+    @Override
+    public int grow(int capacity, int required) {
+        int toRet = capacity + blockSize;
+        while (toRet < required) {
+            toRet += blockSize;
+        }
+        return toRet;
+    }
+
+    /**
+     * Never shrinks memory
+     *
+     * @param capacity
+     *            -- current size of the array
+     * @param required
+     *            -- number of bytes the new array must hold
+     * @return capacity
+     */
+    @Override
+    public int shrink(int capacity, int required) {
+        return capacity;
+    }
+} // end FixedGrowth
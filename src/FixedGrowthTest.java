@@ -0,0 +1,41 @@
+import student.TestCase;
+
+/**
+ * Tests that our fixed growth policy adds whole blocks and never
+ * shrinks memory
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/29/2017
+ */
+public class FixedGrowthTest extends TestCase {
+
+    // ----------------PRIVATE VARIABLES------------------
+    private FixedGrowth policy;
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Sets up the test fixture.
+     */
+    @Override
+    public void setUp() {
+        policy = new FixedGrowth(32);
+    }
+
+    /**
+     * Tests growth by one block and by several blocks
+     */
+    public void testGrow() {
+        assertEquals(64, policy.grow(32, 20));
+        assertEquals(64, policy.grow(32, 64));
+        // a record longer than a block
+        assertEquals(128, policy.grow(32, 100));
+    }
+
+    /**
+     * Tests that memory never shrinks
+     */
+    public void testShrink() {
+        assertEquals(1024, policy.shrink(1024, 1));
+    }
+} // end FixedGrowthTest
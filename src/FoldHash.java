@@ -0,0 +1,88 @@
+import java.nio.ByteBuffer;
+
+/**
+ * The string folding method provided by OpenDSA 10.03.03, which
+ * sums every group of four characters as a little endian
+ * integer. Names sharing groups of four characters (or holding
+ * the same groups in a different order) collide, so this function
+ * is only kept because the slot numbers of the reference output
+ * depend on it.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/23/2017
+ */
+public class FoldHash implements HashFunction {
+
+    /**
+     * Folds the characters of a record. A byte of an ASCII record
+     * is its character, so such a record is folded without
+     * copying it into a String; any other record is decoded
+     * first, so that it lands in the same slot as with the
+     * original character based fold.
+     *
+     * @param bytes
+     *            -- buffer containing the record we wish to hash
+     * @param start
+     *            -- offset of the first byte of the record
+     * @param len
+     *            -- number of bytes in the record
+     * @return sum of the four character groups of the record
+     */
+    @Override
+    public long hash(ByteBuffer bytes, int start, int len) {
+        long sum = 0;
+        long mult = 1;
+        for (int k = 0; k < len; k++) {
+            byte next = bytes.get(start + k);
+            if (next < 0) {
+                // part of a character beyond ASCII
+                return this.fold(bytes, start, len);
+            }
+            else if (k % 4 == 0) {
+                // start of a new four byte chunk
+                mult = 1;
+            }
+            sum += next * mult;
+            mult *= 256;
+        } // end for
+        return sum;
+    } // end hash()
+
+    @Override
+    public String toString() {
+        return "fold";
+    }
+
+    // ---------------- PRIVATE METHODS -------------------
+
+    /**
+     * Decodes a record and folds its characters
+     *
+     * @param bytes
+     *            -- buffer containing the record
+     * @param start
+     *            -- offset of the first byte of the record
+     * @param len
+     *            -- number of bytes in the record
+     * @return sum of the four character groups of the record
+     */
+    private long fold(ByteBuffer bytes, int start, int len) {
+        byte[] record = new byte[len];
+        for (int i = 0; i < len; i++) {
+            record[i] = bytes.get(start + i);
+        }
+        char[] chars = new String(record).toCharArray();
+
+        long sum = 0;
+        long mult = 1;
+        for (int k = 0; k < chars.length; k++) {
+            if (k % 4 == 0) {
+                // start of a new four character chunk
+                mult = 1;
+            }
+            sum += chars[k] * mult;
+            mult *= 256;
+        } // end for
+        return sum;
+    } // end fold
+} // end FoldHash
@@ -0,0 +1,74 @@
+import java.nio.ByteBuffer;
+import student.TestCase;
+
+/**
+ * Tests that our folding hash function matches the original
+ * character based fold
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/23/2017
+ */
+public class FoldHashTest extends TestCase {
+
+    // ----------------PRIVATE VARIABLES------------------
+    private FoldHash fold;
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Sets up the test fixture.
+     */
+    @Override
+    public void setUp() {
+        fold = new FoldHash();
+    }
+
+    /**
+     * Tests the fold of names against hand computed sums
+     */
+    public void testHash() {
+        assertEquals(3435544854L, this.hash("Nickelback", 0, 10));
+        assertEquals(0, this.hash("Nickelback", 0, 0));
+        // 'a' + 'b' * 256
+        assertEquals(97 + 98 * 256, this.hash("ab", 0, 2));
+    }
+
+    /**
+     * Tests that only the record bytes are folded, and that
+     * reordered groups of four bytes collide
+     */
+    public void testRange() {
+        assertEquals(3435544854L, this.hash("xxNickelbackxx", 2, 10));
+        assertEquals(this.hash("abcdwxyz", 0, 8),
+                this.hash("wxyzabcd", 0, 8));
+    }
+
+    /**
+     * Tests that a name beyond ASCII is folded by its characters
+     * rather than by its encoded bytes
+     */
+    public void testNonAscii() {
+        String name = "Bj\u00f6rk";
+        // 'B' + 'j' * 256 + '\u00f6' * 65536 + 'r' * 16777216 + 'k'
+        assertEquals(1928751789L,
+                this.hash(name, 0, name.getBytes().length));
+    }
+
+    // ---------------- PRIVATE METHODS -------------------
+
+    /**
+     * Folds part of the bytes of a string
+     *
+     * @param name
+     *            -- string to fold
+     * @param start
+     *            -- first byte to fold
+     * @param len
+     *            -- number of bytes to fold
+     * @return fold of the bytes
+     */
+    private long hash(String name, int start, int len) {
+        return fold.hash(ByteBuffer.wrap(name.getBytes()), start,
+                len);
+    }
+} // end FoldHashTest
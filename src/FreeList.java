@@ -0,0 +1,198 @@
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps track of the blocks of our DynamicByteArray freed by
+ * deleted records so that later insertions can reuse them. Free
+ * blocks are indexed twice: by size, so an allocation takes the
+ * smallest block which fits (best fit), and by offset, so a freed
+ * block is merged with any free block directly before or after
+ * it. The list only does the bookkeeping; writing the headers of
+ * the blocks into memory is left to the byte array.
+ *
+ * A block is only split when what remains can hold a record
+ * header of its own, since every block in memory must start with
+ * a flag and a length for the byte array to walk it.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/29/2017
+ */
+public class FreeList {
+
+    // ---------------- PRIVATE VARIABLES ----------------
+
+    private static final int HEADER = 3; // flag and length bytes
+
+    // free block offsets by block size
+    private TreeMap<Integer, LinkedList<Integer>> bySize;
+    // free block sizes by block offset
+    private TreeMap<Integer, Integer> byOffset;
+    private int maxBlock; // largest block a merge may create
+    private int freeBytes; // total size of all free blocks
+
+    // ---------------- CONSTRUCTOR ---------------------
+
+    /**
+     * Constructor for an empty free list
+     *
+     * @param max
+     *            -- largest block (header included) that merging
+     *            neighbours may produce
+     */
+    public FreeList(int max) {
+        maxBlock = max;
+        this.clear();
+    }
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Takes a block of exactly the requested size out of the
+     * list. The smallest free block which either fits exactly or
+     * leaves room for another header is chosen, and whatever is
+     * left over stays in the list directly after the allocation.
+     *
+     * @param size
+     *            -- number of bytes needed, header included
+     * @return offset of the allocated bytes, -1 if no free block
+     *         is large enough
+     */
+    public int allocate(int size) {
+        Integer blockSize = size;
+        if (!bySize.containsKey(size)) {
+            blockSize = bySize.ceilingKey(size + HEADER);
+        }
+        if (blockSize == null) {
+            return -1;
+        }
+
+        int start = bySize.get(blockSize).getFirst();
+        this.remove(start, blockSize);
+        if (blockSize > size) {
+            // keep the rest of the block free
+            this.add(start + size, blockSize - size);
+        }
+        return start;
+    } // end allocate
+
+    /**
+     * Returns a block to the list, merging it with the free
+     * blocks directly before and after it whenever the merged
+     * block does not exceed the maximum size.
+     *
+     * @param start
+     *            -- offset of the freed block
+     * @param size
+     *            -- size of the freed block, header included
+     * @return offset of the free block now containing the freed
+     *         bytes
+     */
+    public int release(int start, int size) {
+        Integer nextSize = byOffset.get(start + size);
+        if (nextSize != null && size + nextSize <= maxBlock) {
+            // absorb the following block
+            this.remove(start + size, nextSize);
+            size += nextSize;
+        }
+
+        Map.Entry<Integer, Integer> prev =
+                byOffset.lowerEntry(start);
+        if (prev != null
+                && prev.getKey() + prev.getValue() == start
+                && prev.getValue() + size <= maxBlock) {
+            // let the preceding block absorb this one
+            this.remove(prev.getKey(), prev.getValue());
+            start = prev.getKey();
+            size += prev.getValue();
+        }
+
+        this.add(start, size);
+        return start;
+    } // end release
+
+    /**
+     * Accessor method for the size of a free block
+     *
+     * @param start
+     *            -- offset of the block
+     * @return size of the block, header included, or -1 if no
+     *         free block starts at this offset
+     */
+    public int blockSize(int start) {
+        Integer size = byOffset.get(start);
+        return size == null ? -1 : size;
+    }
+
+    /**
+     * Accessor method for the total number of free bytes
+     *
+     * @return sum of the sizes of all free blocks
+     */
+    public int freeBytes() {
+        return freeBytes;
+    }
+
+    /**
+     * Accessor method for the number of free blocks
+     *
+     * @return number of free blocks
+     */
+    public int size() {
+        return byOffset.size();
+    }
+
+    /**
+     * Forgets every free block, e.g. after the byte array has
+     * been compacted
+     */
+    public void clear() {
+        bySize = new TreeMap<Integer, LinkedList<Integer>>();
+        byOffset = new TreeMap<Integer, Integer>();
+        freeBytes = 0;
+    }
+
+    @Override
+    public String toString() {
+        return byOffset.toString();
+    }
+
+    // ---------------- PRIVATE METHODS -------------------
+
+    /**
+     * Indexes a free block by both its offset and its size
+     *
+     * @param start
+     *            -- offset of the block
+     * @param size
+     *            -- size of the block
+     */
+    private void add(int start, int size) {
+        LinkedList<Integer> sameSize = bySize.get(size);
+        if (sameSize == null) {
+            sameSize = new LinkedList<Integer>();
+            bySize.put(size, sameSize);
+        }
+        sameSize.add(start);
+        byOffset.put(start, size);
+        freeBytes += size;
+    }
+
+    /**
+     * Removes a free block from both indexes
+     *
+     * @param start
+     *            -- offset of the block
+     * @param size
+     *            -- size of the block
+     */
+    private void remove(int start, int size) {
+        LinkedList<Integer> sameSize = bySize.get(size);
+        sameSize.remove(Integer.valueOf(start));
+        if (sameSize.isEmpty()) {
+            bySize.remove(size);
+        }
+        byOffset.remove(start);
+        freeBytes -= size;
+    }
+} // end FreeList
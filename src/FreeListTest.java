@@ -0,0 +1,75 @@
+import student.TestCase;
+
+/**
+ * Tests the best fit allocation, splitting, and merging of our
+ * free list
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/29/2017
+ */
+public class FreeListTest extends TestCase {
+
+    // ----------------PRIVATE VARIABLES------------------
+    private FreeList list;
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Sets up the test fixture.
+     */
+    @Override
+    public void setUp() {
+        list = new FreeList(100);
+    }
+
+    /**
+     * Tests that allocation picks the smallest block which fits
+     * and keeps the rest of a split block free
+     */
+    public void testAllocate() {
+        assertEquals(-1, list.allocate(5));
+        list.release(0, 20);
+        list.release(40, 8);
+        list.release(60, 12);
+        assertEquals(40, list.freeBytes());
+
+        // exact fit
+        assertEquals(40, list.allocate(8));
+        assertEquals(-1, list.blockSize(40));
+        // 12 would leave 2 bytes, too few for a header
+        assertEquals(0, list.allocate(10));
+        assertEquals(10, list.blockSize(10));
+        assertEquals("{10=10, 60=12}", list.toString());
+        assertEquals(22, list.freeBytes());
+        assertEquals(-1, list.allocate(30));
+    }
+
+    /**
+     * Tests that released blocks merge with the free blocks on
+     * either side, but never past the maximum size
+     */
+    public void testRelease() {
+        list.release(10, 10);
+        list.release(30, 10);
+        assertEquals(2, list.size());
+
+        // bridges both neighbours
+        assertEquals(10, list.release(20, 10));
+        assertEquals(1, list.size());
+        assertEquals(30, list.blockSize(10));
+
+        assertEquals(0, list.release(0, 10));
+        assertEquals(40, list.blockSize(0));
+
+        // merging would exceed the maximum of 100
+        list.release(40, 70);
+        assertEquals(2, list.size());
+        assertEquals(40, list.blockSize(0));
+        assertEquals(70, list.blockSize(40));
+        assertEquals(110, list.freeBytes());
+
+        list.clear();
+        assertEquals(0, list.size());
+        assertEquals(0, list.freeBytes());
+    }
+} // end FreeListTest
@@ -0,0 +1,94 @@
+/**
+ * Grows memory by a constant factor, so loading N bytes only
+ * copies O(N) bytes in total. An optional cap limits how many
+ * bytes a single expansion may add, which bounds the memory
+ * wasted by a large array at the cost of copying more often.
+ *
+ * Memory is shrunk by the same factor once the records take up
+ * less than 1 / (factor * factor) of it. The gap between the
+ * grow and shrink thresholds keeps a pool alternating between
+ * insertions and deletions from resizing on every operation.
+ * Memory never shrinks below its minimum size.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/29/2017
+ */
+public class GeometricGrowth implements GrowthPolicy {
+
+    // ---------------- PRIVATE VARIABLES ----------------
+
+    private int minimum; // smallest size memory shrinks to
+    private double factor; // growth factor, greater than 1
+    private int maxStep; // most bytes added per expansion
+
+    // ---------------- CONSTRUCTOR ---------------------
+
+    /**
+     * Constructor for an uncapped geometric growth policy
+     *
+     * @param min
+     *            -- smallest size memory shrinks to
+     * @param growthFactor
+     *            -- factor memory grows by, greater than 1
+     */
+    public GeometricGrowth(int min, double growthFactor) {
+        this(min, growthFactor, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor for a capped geometric growth policy
+     *
+     * @param min
+     *            -- smallest size memory shrinks to
+     * @param growthFactor
+     *            -- factor memory grows by, greater than 1
+     * @param cap
+     *            -- most bytes a single expansion may add
+     */
+    public GeometricGrowth(int min, double growthFactor, int cap) {
+        minimum = min;
+        factor = growthFactor;
+        maxStep = cap;
+    }
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Multiplies the size of memory by our factor, adding at
+     * most the cap (and at least one byte)
+     *
+     * @param capacity
+     *            -- current size of the array
+     * @param required
+     *            -- number of bytes the new array must hold
+     * @return new size of the array
+     */
+    @Override
+    public int grow(int capacity, int required) {
+        long step = (long) (capacity * (factor - 1));
+        step = Math.max(1, Math.min(step, maxStep));
+        long toRet = Math.max(capacity + step, required);
+        return (int) Math.min(toRet, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Divides the size of memory by our factor once the records
+     * fill less than 1 / (factor * factor) of it
+     *
+     * @param capacity
+     *            -- current size of the array
+     * @param required
+     *            -- number of bytes the new array must hold
+     * @return new size of the array, or capacity if memory
+     *         should not shrink
+     */
+    @Override
+    public int shrink(int capacity, int required) {
+        if (capacity <= minimum
+                || required * factor * factor >= capacity) {
+            return capacity;
+        }
+        int toRet = (int) (capacity / factor);
+        return Math.max(Math.max(toRet, required), minimum);
+    }
+} // end GeometricGrowth
@@ -0,0 +1,58 @@
+import student.TestCase;
+
+/**
+ * Tests the growth, cap, and shrink thresholds of our geometric
+ * growth policy
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/29/2017
+ */
+public class GeometricGrowthTest extends TestCase {
+
+    // ----------------PRIVATE VARIABLES------------------
+    private GeometricGrowth policy;
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Sets up the test fixture.
+     */
+    @Override
+    public void setUp() {
+        policy = new GeometricGrowth(32, 2);
+    }
+
+    /**
+     * Tests growth by the factor, and past it for large records
+     */
+    public void testGrow() {
+        assertEquals(64, policy.grow(32, 40));
+        assertEquals(2048, policy.grow(1024, 1100));
+        assertEquals(5000, policy.grow(1024, 5000));
+        // always adds at least one byte
+        assertEquals(2, new GeometricGrowth(1, 1.5).grow(1, 2));
+    }
+
+    /**
+     * Tests that a cap limits the bytes added per expansion
+     */
+    public void testCap() {
+        policy = new GeometricGrowth(32, 2, 100);
+        assertEquals(64, policy.grow(32, 40));
+        assertEquals(1124, policy.grow(1024, 1100));
+        assertEquals(5000, policy.grow(1024, 5000));
+    }
+
+    /**
+     * Tests that memory shrinks by the factor only below a
+     * quarter full, and never below the minimum
+     */
+    public void testShrink() {
+        assertEquals(1024, policy.shrink(1024, 300));
+        assertEquals(1024, policy.shrink(1024, 256));
+        assertEquals(512, policy.shrink(1024, 255));
+        assertEquals(64, policy.shrink(128, 1));
+        assertEquals(32, policy.shrink(48, 1));
+        assertEquals(32, policy.shrink(32, 1));
+    }
+} // end GeometricGrowthTest
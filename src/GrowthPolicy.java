@@ -0,0 +1,36 @@
+/**
+ * Decides how much memory our DynamicByteArray allocates whenever
+ * it runs out of space, and whether it gives memory back once
+ * enough records have been deleted. Either way the byte array
+ * compacts its records into an array of the returned size.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/29/2017
+ */
+public interface GrowthPolicy {
+
+    /**
+     * Gives the size of the array to expand into
+     *
+     * @param capacity
+     *            -- current size of the array
+     * @param required
+     *            -- number of bytes the new array must hold
+     * @return new size, larger than capacity and at least
+     *         required
+     */
+    int grow(int capacity, int required);
+
+    /**
+     * Gives the size of the array to shrink into after a
+     * deletion
+     *
+     * @param capacity
+     *            -- current size of the array
+     * @param required
+     *            -- number of bytes the new array must hold
+     * @return new size, at least required, or capacity to keep
+     *         the current array
+     */
+    int shrink(int capacity, int required);
+} // end GrowthPolicy
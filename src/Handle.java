@@ -1,8 +1,25 @@
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 
 /**
  * Class which represents a pointer to a record in the byte array
- * specified
+ * specified. The record may also live in a ByteBuffer which is
+ * not backed by an array, e.g. a memory-mapped file, in which
+ * case it is only reachable through getBuffer.
+ * 
+ * Every record is also given an id by the pool holding it. Ids
+ * are handed out in increasing order and never change, so
+ * handles are ordered and compared by id rather than by where
+ * their records sit: a pool may reuse freed space or move its
+ * records in any order without disturbing the trees holding
+ * them. Every handle is created with an id, so that ids and
+ * offsets are never mixed: the bounds of a range search, for
+ * instance, take the lowest and highest ids.
+ * 
+ * A handle handed out by a pool with a HandleTable is only a
+ * view of that table: its location, length and hash are read
+ * from the table on every call, so the pool moves the record by
+ * updating the table alone. Any modifier detaches the view from
+ * the table first.
  * 
  * @author Chris Dare (cdare77@vt.edu)
  * @version 11/23/2017
@@ -11,15 +28,19 @@ import java.util.Arrays;
 public class Handle implements Comparable<Handle> {
 
     // ---------------- PRIVATE VARIABLES ---------------------
+    private int id; // stable id given by the pool
     private int offset;
     private int length;
-    private byte[] memory;
+    private ByteBuffer memory; // buffer holding the record
+    private long hash; // hash of the record, cached by tables
+    private HandleTable table; // holds our fields, null unless
+                               // this is a view
 
     // ---------------- PUBLIC METHODS ---------------------
     /**
      * Standard constructor, requires byte array within which
-     * object will be pointed to, offset of pointer, and length
-     * of record
+     * object will be pointed to, offset of pointer, length of
+     * record, and the id its pool has given the record
      * 
      * @param mem
      *            -- byte array within which object is pointed to
@@ -27,11 +48,65 @@ public class Handle implements Comparable<Handle> {
      *            -- offset of start of record
      * @param len
      *            -- length of record
+     * @param recordId
+     *            -- stable id of the record
+     */
+    public Handle(byte[] mem, int start, int len, int recordId) {
+        this(ByteBuffer.wrap(mem), start, len, recordId);
+    }
+
+    /**
+     * Constructor for a handle to a record in a buffer, which its
+     * pool has given an id
+     * 
+     * @param mem
+     *            -- buffer within which object is pointed to
+     * @param start
+     *            -- offset of start of record
+     * @param len
+     *            -- length of record
+     * @param recordId
+     *            -- stable id of the record
      */
-    public Handle(byte[] mem, int start, int len) {
+    public Handle(ByteBuffer mem, int start, int len, int recordId) {
         this.memory = mem;
         this.offset = start;
         this.length = len;
+        this.id = recordId;
+    }
+
+    /**
+     * Constructor for the view of a record in a table. Used by
+     * HandleTable.
+     * 
+     * @param owner
+     *            -- table holding the record
+     * @param recordId
+     *            -- id of the record in the table
+     */
+    Handle(HandleTable owner, int recordId) {
+        this.table = owner;
+        this.id = recordId;
+    }
+
+    /**
+     * Accessor method for the table this handle is a view of.
+     * Used by HashTable.
+     * 
+     * @return table holding the record, null unless this is a
+     *         view
+     */
+    HandleTable owner() {
+        return table;
+    }
+
+    /**
+     * Accessor method for the stable id of the record
+     * 
+     * @return id
+     */
+    public int getId() {
+        return id;
     }
 
     /**
@@ -40,7 +115,7 @@ public class Handle implements Comparable<Handle> {
      * @return length
      */
     public int getLength() {
-        return length;
+        return table == null ? length : table.length(id);
     }
 
     /**
@@ -49,15 +124,17 @@ public class Handle implements Comparable<Handle> {
      * @return offset
      */
     public int getOffset() {
-        return offset;
+        return table == null ? offset : table.offset(id);
     }
     
     /**
      * Accessor method for the byte array
-     * @return reference to the byte array
+     * @return reference to the byte array, null if the record
+     *         does not live in one
      */
     public byte[] getMemory() {
-        return memory;
+        ByteBuffer mem = this.getBuffer();
+        return mem.hasArray() ? mem.array() : null;
     }
 
     /**
@@ -65,6 +142,24 @@ public class Handle implements Comparable<Handle> {
      * @param mem -- new byte array to point to
      */
     public void setMemory(byte[] mem) {
+        this.detach();
+        memory = ByteBuffer.wrap(mem);
+    }
+
+    /**
+     * Accessor method for the buffer holding the record
+     * @return reference to the buffer
+     */
+    public ByteBuffer getBuffer() {
+        return table == null ? memory : table.buffer();
+    }
+
+    /**
+     * Modifier method for the buffer holding the record
+     * @param mem -- new buffer to point to
+     */
+    public void setBuffer(ByteBuffer mem) {
+        this.detach();
         memory = mem;
     }
     
@@ -73,6 +168,7 @@ public class Handle implements Comparable<Handle> {
      * @param len -- new length
      */
     public void setLength(int len) {
+        this.detach();
         length = len;
     }
     
@@ -81,9 +177,49 @@ public class Handle implements Comparable<Handle> {
      * @param off -- new offset
      */
     public void setOffset(int off) {
+        this.detach();
         offset = off;
     }
     
+    /**
+     * Accessor method for the cached hash of the record. Only
+     * meaningful once the handle has been inserted into a
+     * HashTable.
+     * 
+     * @return cached hash of the record
+     */
+    public long getHash() {
+        return table == null ? hash : table.hash(id);
+    }
+
+    /**
+     * Modifier method for the cached hash of the record
+     * @param h -- precomputed hash of the record
+     */
+    public void setHash(long h) {
+        if (table == null) {
+            hash = h;
+        }
+        else {
+            table.setHash(id, h);
+        }
+    }
+
+    /**
+     * Turns a view into a plain handle which keeps the current
+     * location, length and hash of its record for good. Does
+     * nothing to a plain handle. Used by HandleTable.
+     */
+    void detach() {
+        if (table != null) {
+            offset = table.offset(id);
+            length = table.length(id);
+            memory = table.buffer();
+            hash = table.hash(id);
+            table = null;
+        }
+    } // end detach
+
     /**
      * Accessor method for the data pointed to by Handle.
      * Equivalent to the *(pointer) functionality in C.
@@ -91,17 +227,48 @@ public class Handle implements Comparable<Handle> {
      * @return data pointed to by Handle
      */
     public String getStringAt() {
-        return new String(Arrays.copyOfRange(memory,
-                offset, offset + length));
+        ByteBuffer mem = this.getBuffer();
+        int start = this.getOffset();
+        int len = this.getLength();
+        if (mem.hasArray()) {
+            return new String(mem.array(),
+                    mem.arrayOffset() + start, len);
+        }
+        byte[] bytes = new byte[len];
+        for (int i = 0; i < len; i++) {
+            bytes[i] = mem.get(start + i);
+        }
+        return new String(bytes);
+    }
+
+    /**
+     * Compares the record pointed to by this Handle against a
+     * sequence of bytes without materializing a String. The
+     * lengths are checked first so that most mismatches are
+     * rejected before any bytes are read.
+     * 
+     * @param bytes
+     *            -- encoded name to compare against
+     * @return True if the record holds exactly these bytes
+     */
+    public boolean matches(byte[] bytes) {
+        ByteBuffer mem = this.getBuffer();
+        int start = this.getOffset();
+        int len = this.getLength();
+        if (bytes.length != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (mem.get(start + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int compareTo(Handle other) {
-//        String thisName = this.getStringAt();
-//        String otherName = other.getStringAt();
-//
-//        return thisName.compareTo(otherName);
-        return this.getOffset() - other.getOffset();
+        return Integer.compare(id, other.id);
     }
 
     @Override
@@ -115,18 +282,23 @@ public class Handle implements Comparable<Handle> {
             return false;
         }
         else {
-            // if handles point to same record, they are likely equal
+            // handles of the same record share its id, wherever
+            // the record has moved since
             Handle otherHandle = (Handle) other;
             return this.getLength() == otherHandle.getLength()
-                    && this.getOffset() == otherHandle
-                    .getOffset();
+                    && id == otherHandle.id;
         } // end else
     } // end equals
+
+    @Override
+    public int hashCode() {
+        // equal handles point to the same record
+        return id;
+    }
     
     @Override
     public String toString() {
-        return String.format("%d", offset);
-//        return this.getStringAt();
+        return String.format("%d", this.getOffset());
     }
 
 } // end Handle class
@@ -0,0 +1,323 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Central table of the records of a pool, indexed by record id.
+ * The offset, length, and cached hash of every record are kept
+ * in parallel primitive arrays, and every record lives in the
+ * one buffer of the table. The pool refers to its records by id
+ * alone, so moving a record is a single update of its offset
+ * here, and moving memory a single update of the buffer.
+ *
+ * Handles are only views of the table: the view of a record
+ * (see handle) reads its location from the table on every call,
+ * so it follows the record wherever the pool moves it without
+ * ever being patched. Each record has at most one view, created
+ * the first time it is asked for and shared from then on. When
+ * a record is removed its view is detached, i.e. it keeps the
+ * last location of the record for good, so that the name of a
+ * deleted record can still be read until its bytes are reused.
+ *
+ * Hash tables and trees hold the ids themselves (see
+ * NameTable.insert and PackedPairTree), so no view is created
+ * for a record unless a caller of the public API asks for one.
+ *
+ * The table also keeps the degree of every record, i.e. the
+ * number of pairs indexing it as their key, as its users keep
+ * it up to date. A record whose degree drops to 0 is no longer
+ * paired with any other.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ */
+public class HandleTable {
+
+    // ---------------- PRIVATE VARIABLES ----------------
+
+    private ByteBuffer memory; // buffer holding every record
+    private int[] offsets; // offset of the bytes of each record
+    private int[] lengths; // length of each record, -1 once removed
+    private long[] hashes; // hash of each record, cached by tables
+    private int[] degrees; // pairs with each record as key
+    private Handle[] views; // shared view of each record, if any
+    private int nextId; // id of the next record added
+
+    // ---------------- CONSTRUCTOR ---------------------
+
+    /**
+     * Constructor for an empty table of records living in the
+     * given buffer
+     *
+     * @param mem
+     *            -- buffer holding the records
+     */
+    public HandleTable(ByteBuffer mem) {
+        memory = mem;
+        offsets = new int[16];
+        lengths = new int[16];
+        hashes = new long[16];
+        degrees = new int[16];
+        views = new Handle[16];
+        nextId = 0;
+    }
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Adds a record under the next id
+     *
+     * @param offset
+     *            -- offset of the bytes of the record
+     * @param length
+     *            -- length of the record
+     * @return id of the record
+     */
+    public int add(int offset, int length) {
+        this.put(nextId, offset, length);
+        return nextId - 1;
+    }
+
+    /**
+     * Adds a record under the given id, e.g. one restored from a
+     * snapshot. Ids below it which were never added count as
+     * removed.
+     *
+     * @param id
+     *            -- id of the record, not yet in use
+     * @param offset
+     *            -- offset of the bytes of the record
+     * @param length
+     *            -- length of the record
+     */
+    public void put(int id, int offset, int length) {
+        this.skipTo(id + 1);
+        offsets[id] = offset;
+        lengths[id] = length;
+        hashes[id] = 0;
+        degrees[id] = 0;
+    }
+
+    /**
+     * Makes sure the next record added is given at least the
+     * given id
+     *
+     * @param id
+     *            -- lowest id of the next record
+     */
+    public void skipTo(int id) {
+        if (id > offsets.length) {
+            int size = Math.max(id, offsets.length * 2);
+            offsets = Arrays.copyOf(offsets, size);
+            lengths = Arrays.copyOf(lengths, size);
+            hashes = Arrays.copyOf(hashes, size);
+            degrees = Arrays.copyOf(degrees, size);
+            views = Arrays.copyOf(views, size);
+        }
+        for (; nextId < id; nextId++) {
+            lengths[nextId] = -1;
+        }
+    } // end skipTo
+
+    /**
+     * Removes a record, detaching its view (if any) at the
+     * record's current location
+     *
+     * @param id
+     *            -- id of the record
+     */
+    public void remove(int id) {
+        if (!this.isLive(id)) {
+            return;
+        }
+        if (views[id] != null) {
+            views[id].detach();
+            views[id] = null;
+        }
+        // the offset is kept, so that ids stay in order of
+        // offset for our pool until it next moves memory
+        lengths[id] = -1;
+    } // end remove
+
+    /**
+     * Indicates whether a record with the given id is in the
+     * table
+     *
+     * @param id
+     *            -- id of a record
+     * @return True if the record was added and not removed
+     */
+    public boolean isLive(int id) {
+        return id >= 0 && id < nextId && lengths[id] >= 0;
+    }
+
+    /**
+     * Gives the shared view of a record, creating it the first
+     * time
+     *
+     * @param id
+     *            -- id of the record
+     * @return view of the record, null if it is not in the table
+     */
+    public Handle handle(int id) {
+        if (!this.isLive(id)) {
+            return null;
+        }
+        if (views[id] == null) {
+            views[id] = new Handle(this, id);
+        }
+        return views[id];
+    } // end handle
+
+    /**
+     * Compares a record against a sequence of bytes without
+     * creating a handle or a String, checking the lengths first
+     *
+     * @param id
+     *            -- id of the record
+     * @param bytes
+     *            -- encoded name to compare against
+     * @return True if the record holds exactly these bytes
+     */
+    public boolean matches(int id, byte[] bytes) {
+        if (lengths[id] != bytes.length) {
+            return false;
+        }
+        int start = offsets[id];
+        for (int i = 0; i < bytes.length; i++) {
+            if (memory.get(start + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    } // end matches
+
+    /**
+     * Reads the name held by a record without creating a handle
+     *
+     * @param id
+     *            -- id of the record
+     * @return name of the record, null if it is not in the table
+     */
+    public String name(int id) {
+        if (!this.isLive(id)) {
+            return null;
+        }
+        byte[] bytes = new byte[lengths[id]];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = memory.get(offsets[id] + i);
+        }
+        return new String(bytes);
+    } // end name
+
+    /**
+     * Accessor method for the offset of a record
+     *
+     * @param id
+     *            -- id of the record
+     * @return offset of the bytes of the record
+     */
+    public int offset(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * Accessor method for the length of a record
+     *
+     * @param id
+     *            -- id of the record
+     * @return length of the record, -1 if it was removed
+     */
+    public int length(int id) {
+        return lengths[id];
+    }
+
+    /**
+     * Accessor method for the cached hash of a record
+     *
+     * @param id
+     *            -- id of the record
+     * @return cached hash of the record
+     */
+    public long hash(int id) {
+        return hashes[id];
+    }
+
+    /**
+     * Modifier method for the cached hash of a record
+     *
+     * @param id
+     *            -- id of the record
+     * @param h
+     *            -- precomputed hash of the record
+     */
+    public void setHash(int id, long h) {
+        hashes[id] = h;
+    }
+
+    /**
+     * Accessor method for the degree of a record
+     *
+     * @param id
+     *            -- id of the record
+     * @return number of pairs with the record as key
+     */
+    public int degree(int id) {
+        return degrees[id];
+    }
+
+    /**
+     * Adds to the degree of a record, e.g. 1 once a pair with
+     * the record as key is indexed and -1 once it is removed
+     *
+     * @param id
+     *            -- id of the record
+     * @param delta
+     *            -- change of the degree
+     * @return new degree of the record
+     */
+    public int addDegree(int id, int delta) {
+        degrees[id] += delta;
+        return degrees[id];
+    }
+
+    /**
+     * Notes that a record now sits at another offset
+     *
+     * @param id
+     *            -- id of the record
+     * @param offset
+     *            -- new offset of the bytes of the record
+     */
+    public void move(int id, int offset) {
+        offsets[id] = offset;
+    }
+
+    /**
+     * Accessor method for the buffer holding every record
+     *
+     * @return reference to the buffer
+     */
+    public ByteBuffer buffer() {
+        return memory;
+    }
+
+    /**
+     * Modifier method for the buffer holding every record, e.g.
+     * once the pool has moved them into a new one
+     *
+     * @param mem
+     *            -- new buffer
+     */
+    public void setBuffer(ByteBuffer mem) {
+        memory = mem;
+    }
+
+    /**
+     * Accessor method for the id the next record will be given
+     *
+     * @return next id, i.e. the number of ids handed out
+     */
+    public int nextId() {
+        return nextId;
+    }
+} // end HandleTable
@@ -0,0 +1,152 @@
+import java.nio.ByteBuffer;
+import student.TestCase;
+
+/**
+ * Tests the functionality of our handle table, and that the
+ * views it hands out follow their records until detached
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ */
+public class HandleTableTest extends TestCase {
+
+    // ------------------- PRIVATE VARIABLES -------------------
+
+    private ByteBuffer memory;
+    private HandleTable table;
+
+    // ------------------- PUBLIC METHODS ----------------------
+
+    @Override
+    public void setUp() {
+        memory = ByteBuffer.wrap("xxxNumbxxxFaint".getBytes());
+        table = new HandleTable(memory);
+    }
+
+    /**
+     * Tests adding and removing records
+     */
+    public void testAdd() {
+        assertEquals(0, table.nextId());
+        assertEquals(0, table.add(3, 4));
+        assertEquals(1, table.add(10, 5));
+        assertEquals(2, table.nextId());
+        assertTrue(table.isLive(1));
+        assertEquals(10, table.offset(1));
+        assertEquals(5, table.length(1));
+
+        table.remove(0);
+        assertFalse(table.isLive(0));
+        assertEquals(-1, table.length(0));
+        // the offset is kept
+        assertEquals(3, table.offset(0));
+        assertNull(table.handle(0));
+        table.remove(0);
+        assertFalse(table.isLive(2));
+        assertFalse(table.isLive(-1));
+
+        // ids are never handed out twice
+        assertEquals(2, table.add(3, 4));
+    } // end testAdd
+
+    /**
+     * Tests restoring records under given ids
+     */
+    public void testPut() {
+        table.put(20, 10, 5);
+        assertEquals(21, table.nextId());
+        assertTrue(table.isLive(20));
+        assertFalse(table.isLive(19));
+        table.put(4, 3, 4);
+        assertTrue(table.isLive(4));
+        table.skipTo(30);
+        assertEquals(30, table.add(3, 4));
+        table.skipTo(5);
+        assertEquals(31, table.nextId());
+    } // end testPut
+
+    /**
+     * Tests keeping the degree of a record up to date
+     */
+    public void testDegree() {
+        int numb = table.add(3, 4);
+        assertEquals(0, table.degree(numb));
+        assertEquals(1, table.addDegree(numb, 1));
+        assertEquals(2, table.addDegree(numb, 1));
+        assertEquals(1, table.addDegree(numb, -1));
+        assertEquals(1, table.degree(numb));
+
+        // restored records start over
+        table.put(numb, 3, 4);
+        assertEquals(0, table.degree(numb));
+    } // end testDegree
+
+    /**
+     * Tests reading and comparing records without a view
+     */
+    public void testName() {
+        int numb = table.add(3, 4);
+        int faint = table.add(10, 5);
+        assertEquals("Numb", table.name(numb));
+        assertEquals("Faint", table.name(faint));
+        assertTrue(table.matches(numb, "Numb".getBytes()));
+        assertFalse(table.matches(numb, "Numbx".getBytes()));
+        assertFalse(table.matches(faint, "Fains".getBytes()));
+
+        table.remove(faint);
+        assertNull(table.name(faint));
+        assertNull(table.name(-1));
+    } // end testName
+
+    /**
+     * Tests that a view reads its record from the table, so that
+     * moving the record only updates the table
+     */
+    public void testView() {
+        int numb = table.add(3, 4);
+        Handle view = table.handle(numb);
+        assertTrue(view == table.handle(numb));
+        assertEquals(numb, view.getId());
+        assertEquals("Numb", view.getStringAt());
+
+        view.setHash(42);
+        assertEquals(42, table.hash(numb));
+
+        ByteBuffer moved = ByteBuffer.wrap("Numb".getBytes());
+        table.setBuffer(moved);
+        table.move(numb, 0);
+        assertEquals(0, view.getOffset());
+        assertTrue(view.getBuffer() == moved);
+        assertEquals("Numb", view.getStringAt());
+        assertTrue(view.matches("Numb".getBytes()));
+        assertEquals("0", view.toString());
+    } // end testView
+
+    /**
+     * Tests that removing a record detaches its view at the last
+     * location, and that modifiers detach a view as well
+     */
+    public void testDetach() {
+        int numb = table.add(3, 4);
+        int faint = table.add(10, 5);
+        Handle numbView = table.handle(numb);
+        Handle faintView = table.handle(faint);
+        numbView.setHash(7);
+
+        table.remove(numb);
+        table.setBuffer(ByteBuffer.wrap(new byte[4]));
+        table.move(numb, 0);
+        assertEquals(3, numbView.getOffset());
+        assertEquals(4, numbView.getLength());
+        assertEquals(7, numbView.getHash());
+        assertEquals("Numb", numbView.getStringAt());
+
+        // a detached view no longer touches the table
+        table.setBuffer(memory);
+        faintView.setOffset(3);
+        faintView.setLength(4);
+        assertEquals(10, table.offset(faint));
+        assertEquals("Numb", faintView.getStringAt());
+        assertTrue(faintView == table.handle(faint));
+    } // end testDetach
+} // end HandleTableTest
@@ -29,6 +29,7 @@ public class HandleTest extends TestCase {
         byte[] temp; // temporary pointer to the bytes of our
                      // strings
         int offset = 0;
+        int id = 0; // ids count up as a pool hands them out
         memory = new byte[96];
 
         // inserts 1 artist and 6 songs into our byte array
@@ -36,37 +37,38 @@ public class HandleTest extends TestCase {
         // of SongSearch
         temp = "Nickelback".getBytes();
         System.arraycopy(temp, 0, memory, offset, temp.length);
-        nickelback = new Handle(memory, offset, temp.length);
+        nickelback = new Handle(memory, offset, temp.length, id++);
         offset += temp.length;
 
         temp = "Photograph".getBytes();
         System.arraycopy(temp, 0, memory, offset, temp.length);
-        photograph = new Handle(memory, offset, temp.length);
+        photograph = new Handle(memory, offset, temp.length, id++);
         offset += temp.length;
 
         temp = "Rockstar".getBytes();
         System.arraycopy(temp, 0, memory, offset, temp.length);
-        rockstar = new Handle(memory, offset, temp.length);
+        rockstar = new Handle(memory, offset, temp.length, id++);
         offset += temp.length;
 
         temp = "Savin' Me".getBytes();
         System.arraycopy(temp, 0, memory, offset, temp.length);
-        savinMe = new Handle(memory, offset, temp.length);
+        savinMe = new Handle(memory, offset, temp.length, id++);
         offset += temp.length;
 
         temp = "How You Remind Me".getBytes();
         System.arraycopy(temp, 0, memory, offset, temp.length);
-        howYouRemindMe = new Handle(memory, offset, temp.length);
+        howYouRemindMe =
+                new Handle(memory, offset, temp.length, id++);
         offset += temp.length;
 
         temp = "Far Away".getBytes();
         System.arraycopy(temp, 0, memory, offset, temp.length);
-        farAway = new Handle(memory, offset, temp.length);
+        farAway = new Handle(memory, offset, temp.length, id++);
         offset += temp.length;
 
         temp = "Animals".getBytes();
         System.arraycopy(temp, 0, memory, offset, temp.length);
-        animals = new Handle(memory, offset, temp.length);
+        animals = new Handle(memory, offset, temp.length, id++);
         offset += temp.length;
     } // end setUp
 
@@ -156,6 +158,29 @@ public class HandleTest extends TestCase {
         assertEquals("Animals", animals.getStringAt());
     }
 
+    /**
+     * Tests the accessor and modifier for the hash cached by
+     * the hash table
+     */
+    public void testHash() {
+        assertEquals(0, nickelback.getHash());
+        nickelback.setHash(1234567890123L);
+        assertEquals(1234567890123L, nickelback.getHash());
+    }
+
+    /**
+     * Tests the byte level comparison used by the hash table on
+     * matching names, names of different lengths, and names of
+     * equal length but different contents
+     */
+    public void testMatches() {
+        assertTrue(nickelback.matches("Nickelback".getBytes()));
+        assertTrue(savinMe.matches("Savin' Me".getBytes()));
+        assertFalse(nickelback.matches("Nickel".getBytes()));
+        assertFalse(photograph.matches("Phonograph".getBytes()));
+        assertFalse(animals.matches(new byte[0]));
+    }
+
     /**
      * Tests the functionality of the compareTo method based off
      * the strings stored by the handles
@@ -169,6 +194,27 @@ public class HandleTest extends TestCase {
         assertTrue(farAway.compareTo(animals) < 0);
     }
 
+    /**
+     * Tests that handles given ids are ordered and compared by
+     * id, wherever their records sit
+     */
+    public void testId() {
+        assertEquals(6, animals.getId());
+        Handle first = new Handle(animals.getBuffer(), 62, 7, 5);
+        Handle second = new Handle(animals.getBuffer(), 0, 10, 6);
+        assertEquals(5, first.getId());
+        assertTrue(first.compareTo(second) < 0);
+        assertTrue(second.compareTo(first) > 0);
+
+        // moving a record keeps its id
+        first.setOffset(37);
+        assertTrue(first.compareTo(second) < 0);
+        assertEquals(first,
+                new Handle(animals.getBuffer(), 62, 7, 5));
+        assertEquals(5, first.hashCode());
+        assertNotEquals(first, animals);
+    }
+
     /**
      * tests the functionality of Equals in the 4 cases that the
      * other object is null, the other object is not of the same
@@ -182,10 +228,10 @@ public class HandleTest extends TestCase {
         Integer notHandle = 1;
         assertNotEquals(animals, notHandle);
 
-        Handle animalsCopy = new Handle(memory, 62, 7);
+        Handle animalsCopy = new Handle(memory, 62, 7, 6);
         assertEquals(animals, animalsCopy);
 
-        Handle animalsUnequal = new Handle(memory, 63, 8);
+        Handle animalsUnequal = new Handle(memory, 63, 8, 7);
         assertNotEquals(animals, animalsUnequal);
         
         assertNotEquals(animals, howYouRemindMe);
@@ -0,0 +1,26 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Hash function used by our hash tables to place a record. The
+ * function reads the bytes of the record directly out of the
+ * buffer holding it, so no String has to be built. Results
+ * must be non-negative.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/23/2017
+ */
+public interface HashFunction {
+
+    /**
+     * Hashes a sequence of bytes
+     *
+     * @param bytes
+     *            -- buffer containing the record we wish to hash
+     * @param start
+     *            -- offset of the first byte of the record
+     * @param len
+     *            -- number of bytes in the record
+     * @return non-negative hash of the record
+     */
+    long hash(ByteBuffer bytes, int start, int len);
+} // end HashFunction
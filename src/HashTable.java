@@ -1,40 +1,90 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
- * Handle implementation of a dynamic hash table. Uses the string
- * folding method provided by OpenDSA 10.03.03 to hash the
- * strings pointed to by the handles and then find the correct
- * placement using quadratic probing. Supports insertion,
- * deletion, and searching using a String representing either an
- * artists name or a song. Dynamically resizes whenever the table
- * becomes half full by reallocating a table of twice the size
- * and rehashing all elements.
+ * Handle implementation of a dynamic hash table. Hashes the bytes
+ * of the records pointed to by the handles (so no Strings are
+ * built while probing) with a HashFunction, MurmurHash unless
+ * another is given, and then finds the correct placement using
+ * quadratic probing (or another ProbeStrategy). The hash of
+ * every record is computed once on insertion and cached next to
+ * it in our slots, so probing and resizing never rescan the
+ * record bytes.
+ * 
+ * Records of our DynamicByteArray are held as their ids in a
+ * flat int array and resolved through the HandleTable of the
+ * pool, so the table keeps no Handle per record and never has to
+ * follow a record the pool moves. Plain handles, i.e. those not
+ * handed out by a HandleTable (e.g. the records of a
+ * SegmentedByteArray), are held by their ids just the same and
+ * resolved through a single adapter keeping each of them under
+ * its id. Since the ids of two sources could collide, a table
+ * holds the records of one pool or plain handles, never both.
+ * Supports insertion, deletion, and searching using a String
+ * representing either an artists name or a song. Dynamically
+ * resizes whenever the table becomes half full by reallocating a
+ * table of twice the size and rehashing all elements, either all
+ * at once or, in incremental mode, a few slots per operation.
  * 
  * @author Chris Dare (cdare77@vt.edu)
  * @version 11/23/2017
  */
-public class HashTable {
+public class HashTable implements NameTable {
 
     // ---------------- PRIVATE VARIABLES ----------------
 
-    private Handle[] table; // array containing data
+    private Slots table; // ids and hashes of our records
     private int logicalSize; // current number of elements
+    private int gravestones; // slots holding GRAVESTONE_SLOT
     private int defaultSize;
-    private static final Handle GRAVESTONE =
-            new Handle(new byte[0], -1, -1); // Gravestone
-                                             // pointer
+    private boolean reclaimGravestones; // rebuild and shrink
+    // table being migrated into 'table' during an incremental
+    // resize, or null if no resize is in progress
+    private Slots oldTable;
+    private int migrated; // slots of oldTable already moved
+    private int migrationStep; // slots moved per operation
+    private ProbeStrategy probing; // collision resolution policy
+    private HashFunction hashFunction; // hashes record bytes
+    private HandleTable records; // resolves the ids we hold
+    private PlainHandles plain; // or resolves them, if not null
+    // markers of slots without the id of a record, also given by
+    // slotOffsets for slots without a record
+    static final int EMPTY_SLOT = -1;
+    static final int GRAVESTONE_SLOT = -2;
 
     // ---------------- CONSTRUCTOR ---------------------
     /**
      * Constructor for our hash table. Requires a default size to
-     * be specified.
+     * be specified. Records are hashed with MurmurHash.
      * 
      * @param size
      *            -- default size of our hash table
      */
     public HashTable(int size) {
+        this(size, new MurmurHash());
+    }
+
+    /**
+     * Constructor for our hash table which also specifies how
+     * records are hashed. FoldHash reproduces the slots of the
+     * reference output.
+     * 
+     * @param size
+     *            -- default size of our hash table
+     * @param function
+     *            -- hash function applied to record bytes
+     */
+    public HashTable(int size, HashFunction function) {
+        hashFunction = function;
         logicalSize = 0;
+        gravestones = 0;
         defaultSize = size;
-        table = new Handle[size];
+        reclaimGravestones = false;
+        table = new Slots(size);
+        oldTable = null;
+        migrated = 0;
+        migrationStep = 0;
+        probing = ProbeStrategy.QUADRATIC;
     }
 
     // ---------------- PUBLIC METHODS -------------------
@@ -43,9 +93,99 @@ public class HashTable {
      * Dereferences all objects in our table and creates a new
      * table with the same initial size as the previous table
      */
+    @Override
     public void clear() {
-        table = new Handle[defaultSize];
+        table = new Slots(defaultSize);
+        oldTable = null;
+        records = null;
+        plain = null;
+        migrated = 0;
         logicalSize = 0;
+        gravestones = 0;
+    }
+
+    /**
+     * Turns gravestone reclamation on or off. When on, the table
+     * is rebuilt at its current size once gravestones fill a
+     * quarter of it, and shrinks by half (never below the
+     * default size) once fewer than an eighth of its slots are
+     * in use. Both thresholds are a constant fraction of the
+     * table away from the state right after a rebuild, so the
+     * cost of rebuilding is amortized over the operations that
+     * made it necessary. Off by default, since rebuilding moves
+     * records to different slots than the reference output.
+     * 
+     * @param reclaim
+     *            -- True to rebuild and shrink the table
+     */
+    public void setReclaimGravestones(boolean reclaim) {
+        reclaimGravestones = reclaim;
+        this.reclaim();
+    }
+
+    /**
+     * Turns incremental resizing on or off. When on, a resize
+     * only allocates the new table; both tables then live
+     * together and every following search, insert, or delete
+     * moves at most the given number of slots from the old
+     * table into the new one, so no single operation pays for
+     * the full rehash. Searches consult both tables until the
+     * migration finishes. A step of 0 (the default) rehashes the
+     * whole table at once.
+     * 
+     * @param step
+     *            -- slots migrated per operation, 0 to resize
+     *            all at once
+     */
+    public void setIncrementalResize(int step) {
+        migrationStep = step;
+        if (step == 0) {
+            this.finishMigration();
+        }
+    }
+
+    /**
+     * Selects the collision resolution policy of the table. Any
+     * records already in the table are rehashed under the new
+     * policy. QUADRATIC is the default.
+     * 
+     * @param strategy
+     *            -- probing policy to use from now on
+     */
+    public void setProbeStrategy(ProbeStrategy strategy) {
+        this.finishMigration();
+        probing = strategy;
+        table = this.rebuildTable(table, table.length());
+    }
+
+    /**
+     * Expands the table at once so that it holds the given
+     * number of records before it has to expand again, e.g.
+     * ahead of a bulk load. Does nothing if the table is large
+     * enough already.
+     * 
+     * @param records
+     *            -- number of records the table should hold
+     */
+    public void reserve(int records) {
+        int newLength = table.length();
+        while (records > newLength / 2) {
+            newLength *= 2;
+        }
+        if (newLength > table.length()) {
+            this.finishMigration();
+            table = this.rebuildTable(table, newLength);
+        }
+    } // end reserve
+
+    /**
+     * Indicates whether an incremental resize is still moving
+     * records out of the old table
+     * 
+     * @return True if both tables are currently in use
+     */
+    public boolean isMigrating() {
+        return oldTable != null;
     }
 
     /**
@@ -55,47 +195,122 @@ public class HashTable {
      * along our probe sequence. If the string is found we return
      * a reference to the Handle pointing to that string. If the
      * string is not found, then we simply return a null
-     * reference.
+     * reference. The query is encoded once and every probe
+     * compares bytes directly against the record in memory.
      * 
      * @param name
      *            -- string to hash
      * @return reference to handle found, null if not found
      */
+    @Override
     public Handle search(String name) {
-        int homePos = hash(table, name);
-        int pos;
+        this.migrate();
+        byte[] query = name.getBytes();
+        long hash = hashFunction.hash(ByteBuffer.wrap(query), 0,
+                query.length);
 
-        // QUADRATIC PROBE
-        for (int i = 0; i < table.length; i++) {
-            // possibly iterate over entire table, but will
-            // likely stop before then
-            pos = (homePos + i * i) % table.length;
-            if (table[pos] == null) {
-                break;
-            }
-            else if (table[pos] != GRAVESTONE
-                    && table[pos].getStringAt().equals(name)) {
-                return table[pos];
+        int pos = this.searchHelper(table, 0, hash, query);
+        if (pos >= 0) {
+            return this.handleAt(table, pos);
+        }
+        if (oldTable != null) {
+            // record may not have been migrated yet
+            pos = this.searchHelper(oldTable, migrated, hash,
+                    query);
+            if (pos >= 0) {
+                return this.handleAt(oldTable, pos);
             }
-        } // end for
-
+        }
         return null;
     }
 
     /**
-     * Public method to insert into our table. If the number of
-     * elements exceeds half the logical size of our current
-     * table, we expand the table by a factor of 2.
+     * Searches our hashtable for the id of the record holding a
+     * specific string, exactly as search does, but without
+     * creating a handle for it
+     * 
+     * @param name
+     *            -- string to hash
+     * @return id of the record, -1 if not found
+     */
+    @Override
+    public int find(String name) {
+        this.migrate();
+        byte[] query = name.getBytes();
+        long hash = hashFunction.hash(ByteBuffer.wrap(query), 0,
+                query.length);
+
+        int pos = this.searchHelper(table, 0, hash, query);
+        if (pos >= 0) {
+            return table.ids[pos];
+        }
+        if (oldTable != null) {
+            // record may not have been migrated yet
+            pos = this.searchHelper(oldTable, migrated, hash,
+                    query);
+            if (pos >= 0) {
+                return oldTable.ids[pos];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Public method to insert into our table. A view handed out
+     * by a HandleTable is inserted by its id, any other handle
+     * is kept by our adapter under its own id.
      * 
      * @param handle
      *            -- handle we wish to insert
+     * @throws IllegalArgumentException
+     *             if the handle does not come from the same
+     *             source as the records already held
      */
+    @Override
     public void insert(Handle handle) {
-        if (logicalSize + 1 > table.length / 2) {
-            table = this.expandTable(table);
+        HandleTable owner = handle.owner();
+        if (owner != null) {
+            this.insert(owner, handle.getId());
+            return;
         }
-        table = this.insertHelper(table, handle);
-        logicalSize++;
+        if (records != null) {
+            throw new IllegalArgumentException(
+                    "table holds the records of a pool");
+        }
+        if (plain == null) {
+            plain = new PlainHandles();
+        }
+        handle.setHash(hashFunction.hash(handle.getBuffer(),
+                handle.getOffset(), handle.getLength()));
+        plain.put(handle);
+        this.place(handle.getId(), handle.getHash());
+    }
+
+    /**
+     * Inserts the record with the given id, reading its location
+     * from the table of its pool. Only the id and hash of the
+     * record are stored, and the hash is cached in the table of
+     * the pool as well.
+     * 
+     * @param owner
+     *            -- table of the pool holding the record
+     * @param id
+     *            -- id of the record
+     * @throws IllegalArgumentException
+     *             if the table holds plain handles or the
+     *             records of another pool
+     */
+    @Override
+    public void insert(HandleTable owner, int id) {
+        if (!this.adopt(owner)) {
+            // ids of two sources could collide
+            throw new IllegalArgumentException(
+                    "table holds records of another source");
+        }
+        long hash = hashFunction.hash(owner.buffer(),
+                owner.offset(id), owner.length(id));
+        owner.setHash(id, hash);
+        this.place(id, hash);
     }
 
     /**
@@ -108,30 +323,81 @@ public class HashTable {
      *            -- handle to search for
      * @return reference to removed handle. Null if not found
      */
+    @Override
     public Handle delete(Handle handle) {
+        HandleTable owner = handle.owner();
+        if (owner != null) {
+            return this.delete(owner, handle.getId()) ? handle
+                    : null;
+        }
+        int id = handle.getId();
+        if (plain == null || !handle.equals(plain.get(id))) {
+            // null if we could not find element
+            return null;
+        }
+        long hash = hashFunction.hash(handle.getBuffer(),
+                handle.getOffset(), handle.getLength());
+        if (!this.remove(id, hash)) {
+            return null;
+        }
+        plain.remove(id);
+        return handle;
+    } // end delete()
 
-        int homePos = hash(table, handle.getStringAt());
-        int pos;
-
-        // QUADRATIC PROBE
-        for (int i = 0; i < table.length; i++) {
-            pos = (homePos + i * i) % table.length;
+    /**
+     * Removes the record with the given id, using the hash
+     * cached for it in the table of its pool
+     * 
+     * @param owner
+     *            -- table of the pool holding the record
+     * @param id
+     *            -- id of the record
+     * @return True if the record was found and removed
+     */
+    @Override
+    public boolean delete(HandleTable owner, int id) {
+        if (owner != records) {
+            // we never held records of this pool
+            return false;
+        }
+        return this.remove(id, owner.hash(id));
+    } // end delete()
 
-            if (table[pos] == null) {
-                // element not in table
-                break;
-            }
-            else if (table[pos].equals(handle)) {
-                // we are currently at the element
-                Handle toRet = table[pos];
-                table[pos] = GRAVESTONE;
-                logicalSize--;
-                return toRet;
-            }
-        } // end for-loop
+    /**
+     * Nothing to do, since our adapter keeps the very handle the
+     * byte array has already pointed at the new location
+     * 
+     * @param handle
+     *            -- handle of the moved record
+     * @param oldMemory
+     *            -- buffer the record used to live in
+     * @param oldOffset
+     *            -- offset the record used to live at
+     */
+    @Override
+    public void relocate(Handle handle, ByteBuffer oldMemory,
+            int oldOffset) {
+        // handle was updated in place
+    }
 
-        return null; // could not find element
-    } // end delete()
+    /**
+     * Nothing to do, since our table only holds the id of the
+     * record and its pool has already noted the new location
+     * 
+     * @param owner
+     *            -- table of the pool holding the record
+     * @param id
+     *            -- id of the moved record
+     * @param oldMemory
+     *            -- buffer the record used to live in
+     * @param oldOffset
+     *            -- offset the record used to live at
+     */
+    @Override
+    public void relocate(HandleTable owner, int id,
+            ByteBuffer oldMemory, int oldOffset) {
+        // ids are resolved through the pool
+    }
 
     /**
      * Accessor method for our logicalSize
@@ -139,20 +405,141 @@ public class HashTable {
      * @return logicalSize (i.e. number of elements currently in
      *         hash table)
      */
+    @Override
     public int size() {
         return logicalSize;
     }
 
+    /**
+     * Accessor method for the number of gravestones left behind
+     * by deletions
+     * 
+     * @return number of slots currently holding a gravestone
+     */
+    public int gravestones() {
+        return gravestones;
+    }
+
+    /**
+     * Gives the average number of slots a successful search
+     * visits, over every record currently in the table
+     * 
+     * @return average probe length, 0 if the table is empty
+     */
+    public double averageProbeLength() {
+        this.finishMigration();
+        long total = 0;
+        for (int i = 0; i < table.length(); i++) {
+            if (table.holdsRecord(i)) {
+                total += this.probeLength(i);
+            }
+        }
+        return logicalSize == 0 ? 0 : (double) total / logicalSize;
+    }
+
+    /**
+     * Gives the largest number of slots a successful search
+     * visits, over every record currently in the table
+     * 
+     * @return maximum probe length, 0 if the table is empty
+     */
+    public int maxProbeLength() {
+        this.finishMigration();
+        int max = 0;
+        for (int i = 0; i < table.length(); i++) {
+            if (table.holdsRecord(i)) {
+                max = Math.max(max, this.probeLength(i));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Accessor method for the current size of the table
+     * 
+     * @return number of slots in the table
+     */
+    public int capacity() {
+        return table.length();
+    }
+
+    /**
+     * Gives the offset of the record in every slot, EMPTY_SLOT
+     * for slots never used and GRAVESTONE_SLOT for slots left
+     * behind by deletions. Any resize in progress is finished
+     * first. Used by Snapshot.
+     * 
+     * @return offsets indexed by slot
+     */
+    int[] slotOffsets() {
+        this.finishMigration();
+        int[] toRet = new int[table.length()];
+        for (int i = 0; i < table.length(); i++) {
+            if (table.ids[i] >= 0) {
+                toRet[i] = this.offset(table.ids[i]);
+            }
+            else {
+                // EMPTY_SLOT or GRAVESTONE_SLOT
+                toRet[i] = table.ids[i];
+            }
+        } // end for
+        return toRet;
+    } // end slotOffsets
+
+    /**
+     * Replaces our table with slots saved by slotOffsets,
+     * placing the id of every record directly into its old slot.
+     * Only the hashes of the records are computed again, so the
+     * table must use the same hash function and probing policy
+     * as the one saved. Used by Snapshot.
+     * 
+     * @param offsets
+     *            -- offsets indexed by slot
+     * @param owner
+     *            -- table of the pool holding the records
+     * @param ids
+     *            -- id of the record in every slot with a
+     *            nonnegative offset
+     */
+    void restoreSlots(int[] offsets, HandleTable owner,
+            int[] ids) {
+        table = new Slots(offsets.length);
+        oldTable = null;
+        records = owner;
+        plain = null;
+        migrated = 0;
+        logicalSize = 0;
+        gravestones = 0;
+
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] == GRAVESTONE_SLOT) {
+                table.ids[i] = GRAVESTONE_SLOT;
+                gravestones++;
+            }
+            else if (offsets[i] >= 0) {
+                int id = ids[i];
+                long hash = hashFunction.hash(owner.buffer(),
+                        owner.offset(id), owner.length(id));
+                owner.setHash(id, hash);
+                table.put(i, id, hash);
+                logicalSize++;
+            }
+        } // end for
+    } // end restoreSlots
+
     @Override
     public String toString() {
+        // slots are only meaningful once every record lives in
+        // the same table
+        this.finishMigration();
         StringBuilder builder = new StringBuilder();
-        int length = table.length;
+        int length = table.length();
 
         for (int i = 0; i < length; i++) {
-            if (table[i] != null && table[i] != GRAVESTONE) {
+            if (table.ids[i] >= 0) {
                 builder.append(String.format("|%s| %d\n",
-                        table[i].getStringAt(), i));
-            } // end outer if
+                        this.name(table.ids[i]), i));
+            } // end if
         } // end for loop
 
         return builder.toString();
@@ -161,60 +548,284 @@ public class HashTable {
     // ---------------- PRIVATE METHODS -------------------
 
     /**
-     * Uses a modified string folding method on the string
-     * pointed to by our handle class. Looks at the size of our
-     * table in order to determine proper wrapping.
+     * Starts resolving ids through the table of a pool, unless
+     * we already resolve them through another one or hold plain
+     * handles
+     * 
+     * @param owner
+     *            -- table of the pool of a record to insert
+     * @return True if ids of the pool can be stored
+     */
+    private boolean adopt(HandleTable owner) {
+        if (records == null && plain == null) {
+            records = owner;
+        }
+        return records == owner;
+    } // end adopt
+
+    /**
+     * Places a record into our table. If the number of elements
+     * exceeds half the logical size of our current table, we
+     * expand the table by a factor of 2.
+     * 
+     * @param id
+     *            -- id of the record
+     * @param hash
+     *            -- hash of the record
+     */
+    private void place(int id, long hash) {
+        if (logicalSize + 1 > table.length() / 2) {
+            this.resize(table.length() * 2);
+        }
+        this.migrate();
+        table = this.insertHelper(table, id, hash);
+        logicalSize++;
+        this.reclaim();
+    } // end place
+
+    /**
+     * Removes a record from our table, or from the old table if
+     * it has not been migrated yet
+     * 
+     * @param id
+     *            -- id of the record
+     * @param hash
+     *            -- hash of the record
+     * @return True if the record was found and removed
+     */
+    private boolean remove(int id, long hash) {
+        this.migrate();
+        boolean removed = this.deleteHelper(table, 0, id, hash);
+        if (!removed && oldTable != null) {
+            // record may not have been migrated yet
+            removed = this.deleteHelper(oldTable, migrated, id,
+                    hash);
+        }
+        if (removed) {
+            logicalSize--;
+            this.reclaim();
+        }
+        return removed;
+    } // end remove
+
+    /**
+     * Gives the handle of the record in a slot, i.e. the plain
+     * handle kept under the id stored there or the view of that
+     * id in the table of our pool
+     * 
+     * @param myTable
+     *            -- table holding the record
+     * @param pos
+     *            -- slot of the record
+     * @return handle of the record
+     */
+    private Handle handleAt(Slots myTable, int pos) {
+        if (plain != null) {
+            return plain.get(myTable.ids[pos]);
+        }
+        return records.handle(myTable.ids[pos]);
+    } // end handleAt
+
+    /**
+     * Gives the offset of the record with the given id
+     * 
+     * @param id
+     *            -- id of a record in the table
+     * @return offset of the bytes of the record
+     */
+    private int offset(int id) {
+        if (plain != null) {
+            return plain.get(id).getOffset();
+        }
+        return records.offset(id);
+    } // end offset
+
+    /**
+     * Reads the name held by the record with the given id
+     * 
+     * @param id
+     *            -- id of a record in the table
+     * @return name of the record
+     */
+    private String name(int id) {
+        if (plain != null) {
+            return plain.get(id).getStringAt();
+        }
+        return records.name(id);
+    } // end name
+
+    /**
+     * Compares the record in a slot against a sequence of bytes
+     * 
+     * @param myTable
+     *            -- table holding the record
+     * @param pos
+     *            -- slot of the record
+     * @param query
+     *            -- encoded name to compare against
+     * @return True if the record holds exactly these bytes
+     */
+    private boolean matches(Slots myTable, int pos, byte[] query) {
+        if (plain != null) {
+            return plain.get(myTable.ids[pos]).matches(query);
+        }
+        return records.matches(myTable.ids[pos], query);
+    } // end matches
+
+    /**
+     * Counts the slots a search for the record in a slot visits
+     * before reaching it
+     * 
+     * @param pos
+     *            -- slot of the record
+     * @return number of slots visited, including pos
+     */
+    private int probeLength(int pos) {
+        int homePos = homePosition(table, table.hashes[pos]);
+        int i = 0;
+        while (probing.position(homePos, i, table.length())
+                != pos) {
+            i++;
+        }
+        return i + 1;
+    } // end probeLength
+
+    /**
+     * Walks the probe sequence of a hash in the given table
+     * until an empty slot, skipping gravestones and slots that
+     * were already migrated out of an old table.
+     * 
+     * @param myTable
+     *            -- table to search
+     * @param firstLive
+     *            -- slots below this index are ignored
+     * @param hash
+     *            -- hash of the query
+     * @param query
+     *            -- encoded name to look for
+     * @return slot of the record holding the name, -1 if not
+     *         found
+     */
+    private int searchHelper(Slots myTable, int firstLive,
+            long hash, byte[] query) {
+        int homePos = homePosition(myTable, hash);
+        int pos;
+
+        // walk the probe sequence
+        for (int i = 0; i < myTable.length(); i++) {
+            // possibly iterate over entire table, but will
+            // likely stop before then
+            pos = probing.position(homePos, i, myTable.length());
+            if (myTable.ids[pos] == EMPTY_SLOT
+                    || this.passedHome(myTable, pos, i)) {
+                break;
+            }
+            else if (pos >= firstLive && myTable.holdsRecord(pos)
+                    && myTable.hashes[pos] == hash
+                    && this.matches(myTable, pos, query)) {
+                return pos;
+            }
+        } // end for
+
+        return -1;
+    } // end searchHelper
+
+    /**
+     * Removes a record from the given table by moving along the
+     * probe sequence until either the element or null is found,
+     * leaving a gravestone behind.
+     * 
+     * @param myTable
+     *            -- table to remove from
+     * @param firstLive
+     *            -- slots below this index are ignored
+     * @param id
+     *            -- id of the record
+     * @param hash
+     *            -- hash of the record
+     * @return True if the record was found and removed
+     */
+    private boolean deleteHelper(Slots myTable, int firstLive,
+            int id, long hash) {
+        int homePos = homePosition(myTable, hash);
+        int pos;
+
+        // walk the probe sequence
+        for (int i = 0; i < myTable.length(); i++) {
+            pos = probing.position(homePos, i, myTable.length());
+
+            if (myTable.ids[pos] == EMPTY_SLOT
+                    || this.passedHome(myTable, pos, i)) {
+                // element not in table
+                break;
+            }
+            else if (pos >= firstLive && myTable.ids[pos] == id) {
+                // we are currently at the element
+                if (myTable != table) {
+                    // shifting records inside the old table
+                    // could move them behind the migration, so
+                    // a gravestone is left regardless of policy
+                    myTable.put(pos, GRAVESTONE_SLOT, 0);
+                }
+                else if (probing == ProbeStrategy.ROBIN_HOOD) {
+                    this.shiftBackward(pos);
+                }
+                else {
+                    myTable.put(pos, GRAVESTONE_SLOT, 0);
+                    gravestones++;
+                }
+                return true;
+            }
+        } // end for-loop
+
+        return false;
+    } // end deleteHelper
+
+    /**
+     * Wraps a precomputed hash into the given table. Looks at
+     * the size of our table in order to determine proper
+     * wrapping.
      * 
      * @param myTable
      *            -- pointer to table to hash into
-     * @param toHash
-     *            -- String we wish to hash
+     * @param hash
+     *            -- cached hash of the record
      * @return home position in table we should insert at
      */
-    private int hash(Handle[] myTable,
-            String toHash) {
-
-        int intLength = toHash.length() / 4;
-        long sum = 0;
-        for (int j = 0; j < intLength; j++) {
-            char[] c = toHash.substring(j * 4, (j * 4) + 4)
-                    .toCharArray();
-            long mult = 1;
-            for (int k = 0; k < c.length; k++) {
-                sum += c[k] * mult;
-                mult *= 256;
-            } // end inner for
-        } // end outer for
-        char[] c = toHash.substring(intLength * 4).toCharArray();
-        long mult = 1;
-        for (int k = 0; k < c.length; k++) {
-            sum += c[k] * mult;
-            mult *= 256;
-        }
-        return (int) (Math.abs(sum) % myTable.length);
-    } // end hash()
-
-    /**
-     * Simply inserts a handle into the hash table. The function
-     * will continue probing until the handle is inserted into
-     * the table specified, expanding if necessary
+    private int homePosition(Slots myTable, long hash) {
+        return (int) (hash % myTable.length());
+    } // end homePosition()
+
+    /**
+     * Simply inserts a record into the hash table. The function
+     * will continue probing until the record is inserted into
+     * the table specified, expanding if necessary. Relies on the
+     * cached hash, so rehashing never touches the record bytes.
      * 
-     * @param handle
-     *            -- handle to insert
+     * @param myTable
+     *            -- table to insert into
+     * @param id
+     *            -- id of the record
+     * @param hash
+     *            -- cached hash of the record
      * @return reference to table after successful insertion
      */
-    private Handle[] insertHelper(Handle[] myTable,
-            Handle handle) {
+    private Slots insertHelper(Slots myTable, int id, long hash) {
 
-        int homePos = hash(myTable, handle.getStringAt());
+        if (probing == ProbeStrategy.ROBIN_HOOD) {
+            return this.robinHoodInsert(myTable, id, hash);
+        }
+        int homePos = homePosition(myTable, hash);
         int pos;
 
-        // QUADRATIC PROBE
-        for (int i = 0; i < myTable.length; i++) {
-            pos = (homePos + i * i) % myTable.length;
-            if (myTable[pos] == null
-                    || myTable[pos] == GRAVESTONE) {
-                myTable[pos] = handle;
+        // walk the probe sequence
+        for (int i = 0; i < myTable.length(); i++) {
+            pos = probing.position(homePos, i, myTable.length());
+            if (!myTable.holdsRecord(pos)) {
+                if (myTable.ids[pos] == GRAVESTONE_SLOT) {
+                    gravestones--;
+                }
+                myTable.put(pos, id, hash);
                 // break from loop
                 return myTable;
             } // end if
@@ -225,9 +836,111 @@ public class HashTable {
         // the table and retry
         myTable = this.expandTable(myTable);
 
-        return insertHelper(myTable, handle);
+        return insertHelper(myTable, id, hash);
     }
 
+    /**
+     * Inserts a record by Robin Hood linear probing. Whenever the
+     * record being placed is further from its home than the
+     * record occupying the current slot, the two are swapped and
+     * we continue placing the displaced record instead.
+     * 
+     * @param myTable
+     *            -- table to insert into
+     * @param id
+     *            -- id of the record
+     * @param hash
+     *            -- cached hash of the record
+     * @return reference to table after successful insertion
+     */
+    private Slots robinHoodInsert(Slots myTable, int id,
+            long hash) {
+        int toPlace = id;
+        long toPlaceHash = hash;
+        int pos = homePosition(myTable, toPlaceHash);
+        int distance = 0;
+
+        for (int i = 0; i < myTable.length(); i++) {
+            if (!myTable.holdsRecord(pos)) {
+                myTable.put(pos, toPlace, toPlaceHash);
+                return myTable;
+            }
+            int occupant = this.distance(myTable, pos);
+            if (occupant < distance) {
+                // take the slot from the record closer to home
+                int displaced = myTable.ids[pos];
+                long displacedHash = myTable.hashes[pos];
+                myTable.put(pos, toPlace, toPlaceHash);
+                toPlace = displaced;
+                toPlaceHash = displacedHash;
+                distance = occupant;
+            }
+            pos = (pos + 1) % myTable.length();
+            distance++;
+        } // end for
+
+        // table is full; expand and place the record still in
+        // hand
+        myTable = this.expandTable(myTable);
+        return this.robinHoodInsert(myTable, toPlace,
+                toPlaceHash);
+    } // end robinHoodInsert
+
+    /**
+     * Removes the record at a slot of our table under Robin
+     * Hood probing by shifting every following record that is
+     * not at its home one slot back, so no gravestone is needed.
+     * 
+     * @param pos
+     *            -- slot of the record to remove
+     */
+    private void shiftBackward(int pos) {
+        int next = (pos + 1) % table.length();
+        while (table.ids[next] != EMPTY_SLOT
+                && this.distance(table, next) > 0) {
+            table.put(pos, table.ids[next], table.hashes[next]);
+            pos = next;
+            next = (next + 1) % table.length();
+        }
+        table.put(pos, EMPTY_SLOT, 0);
+    } // end shiftBackward
+
+    /**
+     * Gives how far the record in a slot is from its home
+     * position along a linear probe sequence
+     * 
+     * @param myTable
+     *            -- table holding the record
+     * @param pos
+     *            -- slot of the record
+     * @return number of steps from home to pos
+     */
+    private int distance(Slots myTable, int pos) {
+        int homePos = homePosition(myTable, myTable.hashes[pos]);
+        return (pos - homePos + myTable.length())
+                % myTable.length();
+    } // end distance
+
+    /**
+     * Under Robin Hood probing, a search can stop as soon as it
+     * reaches a record closer to its home than the search is to
+     * its own, since an insertion would have displaced it.
+     * 
+     * @param myTable
+     *            -- table being searched
+     * @param pos
+     *            -- slot currently visited
+     * @param steps
+     *            -- steps taken from home to reach pos
+     * @return True if the searched record cannot be further on
+     */
+    private boolean passedHome(Slots myTable, int pos,
+            int steps) {
+        return probing == ProbeStrategy.ROBIN_HOOD
+                && myTable.ids[pos] != GRAVESTONE_SLOT
+                && this.distance(myTable, pos) < steps;
+    } // end passedHome
+
     /**
      * Private helper method which creates a new table twice the
      * size of our previous table and inserts all valid records.
@@ -237,18 +950,232 @@ public class HashTable {
      *            -- table we wish to expand
      * @return reference to new expanded table
      */
-    private Handle[] expandTable(Handle[] myTable) {
-        Handle[] newTable = new Handle[myTable.length * 2];
+    private Slots expandTable(Slots myTable) {
+        return this.rebuildTable(myTable, myTable.length() * 2);
+    } // end expandTable
+
+    /**
+     * Private helper method which creates a new table of the
+     * given size and inserts all valid records using their
+     * cached hashes. Gravestones are not copied, so the new
+     * table has none.
+     * 
+     * @param myTable
+     *            -- table we wish to rebuild
+     * @param newLength
+     *            -- size of the new table
+     * @return reference to new table
+     */
+    private Slots rebuildTable(Slots myTable, int newLength) {
+        Slots newTable = new Slots(newLength);
         // iterate sequentially through previous table
-        for (int i = 0; i < myTable.length; i++) {
-            // copy over all non-null elements that are not our
-            // gravestone
-            if (myTable[i] != null && myTable[i] != GRAVESTONE) {
+        for (int i = 0; i < myTable.length(); i++) {
+            // copy over all slots holding a record
+            if (myTable.holdsRecord(i)) {
                 // valid element to copy over
-                newTable =
-                        this.insertHelper(newTable, myTable[i]);
+                newTable = this.insertHelper(newTable,
+                        myTable.ids[i], myTable.hashes[i]);
             }
         } // end for-loop
+        gravestones = 0;
         return newTable;
-    } // end expandTable
+    } // end rebuildTable
+
+    /**
+     * Rebuilds the table in place once gravestones fill a
+     * quarter of it, or at half the size once fewer than an
+     * eighth of its slots hold records. Does nothing unless
+     * gravestone reclamation is turned on.
+     */
+    private void reclaim() {
+        if (!reclaimGravestones || oldTable != null) {
+            // let a resize in progress finish first
+            return;
+        }
+        if (table.length() / 2 >= defaultSize
+                && logicalSize < table.length() / 8) {
+            // mass removal; shrink back toward default size
+            this.resize(table.length() / 2);
+        }
+        else if (gravestones > table.length() / 4) {
+            // gravestones dominate; rebuild at the same size
+            this.resize(table.length());
+        }
+    } // end reclaim
+
+    /**
+     * Replaces our table with one of the given size. Outside of
+     * incremental mode every record is rehashed right away.
+     * Otherwise the current table becomes the old table and its
+     * records are moved over by later operations.
+     * 
+     * @param newLength
+     *            -- size of the new table
+     */
+    private void resize(int newLength) {
+        if (migrationStep == 0) {
+            table = this.rebuildTable(table, newLength);
+            return;
+        }
+        // only one resize may be in progress at a time
+        this.finishMigration();
+        oldTable = table;
+        migrated = 0;
+        table = new Slots(newLength);
+        gravestones = 0;
+    } // end resize
+
+    /**
+     * Moves at most migrationStep slots from the old table into
+     * our table. Called at the start of every operation.
+     */
+    private void migrate() {
+        this.migrate(migrationStep);
+    } // end migrate
+
+    /**
+     * Moves every remaining slot of the old table into our
+     * table, ending any resize in progress.
+     */
+    private void finishMigration() {
+        if (oldTable != null) {
+            this.migrate(oldTable.length() - migrated);
+        }
+    } // end finishMigration
+
+    /**
+     * Moves up to the given number of slots from the old table
+     * into our table, dropping the old table once it is
+     * exhausted. Migrated slots are left in place so that probe
+     * sequences through the old table stay intact.
+     * 
+     * @param slots
+     *            -- maximum number of slots to move
+     */
+    private void migrate(int slots) {
+        for (int i = 0; i < slots && oldTable != null; i++) {
+            int pos = migrated++;
+            if (oldTable.holdsRecord(pos)) {
+                table = this.insertHelper(table, oldTable.ids[pos],
+                        oldTable.hashes[pos]);
+            }
+            if (migrated == oldTable.length()) {
+                // every record has been moved
+                oldTable = null;
+                migrated = 0;
+            }
+        } // end for
+    } // end migrate
+
+    /**
+     * The slots of a table, as parallel arrays: the id (or a
+     * marker such as EMPTY_SLOT) and cached hash of the record
+     * in every slot
+     */
+    private static class Slots {
+        private int[] ids; // id of each record, or a marker
+        private long[] hashes; // cached hash of each record
+
+        /**
+         * Constructor for a table of empty slots
+         *
+         * @param size
+         *            -- number of slots
+         */
+        Slots(int size) {
+            ids = new int[size];
+            Arrays.fill(ids, EMPTY_SLOT);
+            hashes = new long[size];
+        }
+
+        /**
+         * Accessor method for the number of slots
+         *
+         * @return number of slots
+         */
+        int length() {
+            return ids.length;
+        }
+
+        /**
+         * Indicates whether a slot holds a record, i.e. it is
+         * neither empty nor a gravestone
+         *
+         * @param pos
+         *            -- slot to look at
+         * @return True if the slot holds a record
+         */
+        boolean holdsRecord(int pos) {
+            return ids[pos] >= 0;
+        }
+
+        /**
+         * Fills a slot
+         *
+         * @param pos
+         *            -- slot to fill
+         * @param id
+         *            -- id of the record, or a marker
+         * @param hash
+         *            -- cached hash of the record
+         */
+        void put(int pos, int id, long hash) {
+            ids[pos] = id;
+            hashes[pos] = hash;
+        } // end put
+    } // end Slots
+
+    /**
+     * Adapter resolving the ids of plain handles, i.e. those not
+     * handed out by a HandleTable, the way the table of a pool
+     * resolves the ids of its records. Every plain handle in our
+     * table is kept here under its own id, so that the slots
+     * hold nothing but ids.
+     */
+    private static class PlainHandles {
+        private Handle[] byId; // plain handle with each id
+
+        /**
+         * Constructor for an adapter holding no handles
+         */
+        PlainHandles() {
+            byId = new Handle[16];
+        }
+
+        /**
+         * Accessor method for the plain handle with an id
+         *
+         * @param id
+         *            -- id of the handle
+         * @return plain handle with that id, null if none
+         */
+        Handle get(int id) {
+            return id < byId.length ? byId[id] : null;
+        }
+
+        /**
+         * Keeps a plain handle under its id
+         *
+         * @param handle
+         *            -- handle to keep
+         */
+        void put(Handle handle) {
+            int id = handle.getId();
+            if (id >= byId.length) {
+                byId = Arrays.copyOf(byId,
+                        Math.max(id + 1, byId.length * 2));
+            }
+            byId[id] = handle;
+        } // end put
+
+        /**
+         * Forgets the plain handle with an id
+         *
+         * @param id
+         *            -- id of the handle
+         */
+        void remove(int id) {
+            byId[id] = null;
+        }
+    } // end PlainHandles
 } // end HashTable
@@ -1,3 +1,4 @@
+import java.nio.ByteBuffer;
 import student.TestCase;
 
 /**
@@ -30,46 +31,67 @@ public class HashTableTest extends TestCase {
     public void setUp() {
         byte[] temp;
         int offset = 0;
+        int id = 0;
         byte[] memory = new byte[96];
 
         temp = "Nickelback".getBytes();
         System.arraycopy(temp, 0, memory, offset, temp.length);
-        nickelback = new Handle(memory, offset, temp.length);
+        nickelback = new Handle(memory, offset, temp.length, id++);
         offset += temp.length;
 
         temp = "Photograph".getBytes();
         System.arraycopy(temp, 0, memory, offset, temp.length);
-        photograph = new Handle(memory, offset, temp.length);
+        photograph = new Handle(memory, offset, temp.length, id++);
         offset += temp.length;
 
         temp = "Rockstar".getBytes();
         System.arraycopy(temp, 0, memory, offset, temp.length);
-        rockstar = new Handle(memory, offset, temp.length);
+        rockstar = new Handle(memory, offset, temp.length, id++);
         offset += temp.length;
 
         temp = "Savin' Me".getBytes();
         System.arraycopy(temp, 0, memory, offset, temp.length);
-        savinMe = new Handle(memory, offset, temp.length);
+        savinMe = new Handle(memory, offset, temp.length, id++);
         offset += temp.length;
 
         temp = "How You Remind Me".getBytes();
         System.arraycopy(temp, 0, memory, offset, temp.length);
-        howYouRemindMe = new Handle(memory, offset, temp.length);
+        howYouRemindMe =
+                new Handle(memory, offset, temp.length, id++);
         offset += temp.length;
 
         temp = "Far Away".getBytes();
         System.arraycopy(temp, 0, memory, offset, temp.length);
-        farAway = new Handle(memory, offset, temp.length);
+        farAway = new Handle(memory, offset, temp.length, id++);
         offset += temp.length;
 
         temp = "Animals".getBytes();
         System.arraycopy(temp, 0, memory, offset, temp.length);
-        animals = new Handle(memory, offset, temp.length);
+        animals = new Handle(memory, offset, temp.length, id++);
         offset += temp.length;
 
-        table = new HashTable(2);
+        table = new HashTable(2, new FoldHash());
     } // end setUp
 
+    /**
+     * Tests that reserving room expands the table once, up
+     * front, and keeps its records
+     */
+    public void testReserve() {
+        table.insert(nickelback);
+        table.reserve(5);
+        assertEquals(16, table.capacity());
+        assertEquals(nickelback, table.search("Nickelback"));
+
+        table.insert(photograph);
+        table.insert(rockstar);
+        table.insert(savinMe);
+        table.insert(animals);
+        assertEquals(16, table.capacity());
+        table.reserve(3);
+        assertEquals(16, table.capacity());
+    }
+
     /**
      * Tests insert against desired functionality and asserts
      * that table is properly expanded
@@ -161,6 +183,9 @@ public class HashTableTest extends TestCase {
 
         // try to search for invalid element
         assertNull(table.search("Only the Good Die Young"));
+
+        // the fold is cached in each handle on insertion
+        assertEquals(3435544854L, nickelback.getHash());
     }
 
     /**
@@ -199,6 +224,192 @@ public class HashTableTest extends TestCase {
         assertNull(table.delete(howYouRemindMe));
     }
 
+    /**
+     * Tests that gravestones are counted, that the table is
+     * rebuilt at the same size once they dominate, and that it
+     * shrinks back toward its default size after mass removals
+     */
+    public void testReclaimGravestones() {
+        table = new HashTable(16, new FoldHash());
+        table.setReclaimGravestones(true);
+        table.insert(nickelback);
+        table.insert(savinMe);
+        table.insert(animals);
+        table.insert(farAway);
+        table.insert(howYouRemindMe);
+        table.insert(photograph);
+        table.insert(rockstar);
+
+        table.delete(nickelback);
+        table.delete(savinMe);
+        table.delete(animals);
+        table.delete(farAway);
+        assertEquals(4, table.gravestones());
+
+        // a fifth gravestone fills over a quarter of the table
+        table.delete(howYouRemindMe);
+        assertEquals(0, table.gravestones());
+        assertEquals(16, table.capacity());
+        assertEquals(photograph, table.search("Photograph"));
+        assertEquals(rockstar, table.search("Rockstar"));
+
+        // grow the table, then remove nearly everything
+        table = new HashTable(2, new FoldHash());
+        table.setReclaimGravestones(true);
+        table.insert(nickelback);
+        table.insert(savinMe);
+        table.insert(animals);
+        table.insert(farAway);
+        table.insert(howYouRemindMe);
+        table.insert(photograph);
+        table.insert(rockstar);
+        assertEquals(16, table.capacity());
+
+        table.delete(nickelback);
+        table.delete(savinMe);
+        table.delete(animals);
+        table.delete(farAway);
+        table.delete(howYouRemindMe);
+        assertEquals(16, table.capacity());
+        // under an eighth of the table is in use
+        table.delete(photograph);
+        assertEquals(8, table.capacity());
+        assertEquals(1, table.size());
+        assertEquals(rockstar, table.search("Rockstar"));
+
+        // without reclamation gravestones are left behind
+        table = new HashTable(16, new FoldHash());
+        table.insert(nickelback);
+        table.delete(nickelback);
+        table.insert(savinMe);
+        table.delete(savinMe);
+        assertEquals(16, table.capacity());
+        assertTrue(table.gravestones() > 0);
+    }
+
+    /**
+     * Tests that an incremental resize keeps every record
+     * reachable while both tables are in use, and that deletes
+     * reach records which have not been migrated yet
+     */
+    public void testIncrementalResize() {
+        table = new HashTable(8, new FoldHash());
+        table.setIncrementalResize(1);
+        table.insert(nickelback);
+        table.insert(savinMe);
+        table.insert(animals);
+        table.insert(farAway);
+        assertFalse(table.isMigrating());
+
+        // fifth record starts moving records into a table of 16
+        table.insert(howYouRemindMe);
+        assertTrue(table.isMigrating());
+        assertEquals(16, table.capacity());
+        assertEquals(nickelback, table.search("Nickelback"));
+        assertEquals(savinMe, table.search("Savin' Me"));
+        assertEquals(animals, table.search("Animals"));
+        assertEquals(farAway, table.search("Far Away"));
+        assertEquals(howYouRemindMe,
+                table.search("How You Remind Me"));
+        assertNull(table.search("Photograph"));
+
+        assertEquals(farAway, table.delete(farAway));
+        assertNull(table.search("Far Away"));
+        assertEquals(4, table.size());
+
+        // the migration finishes after at most eight operations
+        for (int i = 0; i < 8; i++) {
+            table.search("Rockstar");
+        }
+        assertFalse(table.isMigrating());
+        assertEquals(nickelback, table.search("Nickelback"));
+        assertEquals(4, table.size());
+        assertEquals(16, table.capacity());
+
+        table.insert(photograph);
+        table.insert(rockstar);
+        table.insert(farAway);
+        assertEquals(7, table.size());
+        assertEquals(farAway, table.search("Far Away"));
+
+        // toString finishes any migration before printing
+        table = new HashTable(2, new FoldHash());
+        table.setIncrementalResize(1);
+        table.insert(nickelback);
+        table.insert(savinMe);
+        assertTrue(table.isMigrating());
+        assertEquals(2, table.toString().split("\n").length);
+        assertFalse(table.isMigrating());
+    }
+
+    /**
+     * Tests Robin Hood probing, checking that every record stays
+     * reachable and that deletions shift records back rather
+     * than leaving gravestones
+     */
+    public void testRobinHood() {
+        table = new HashTable(16, new FoldHash());
+        table.setProbeStrategy(ProbeStrategy.ROBIN_HOOD);
+        table.insert(nickelback);
+        table.insert(savinMe);
+        table.insert(animals);
+        table.insert(farAway);
+        table.insert(howYouRemindMe);
+        table.insert(photograph);
+        table.insert(rockstar);
+
+        assertEquals(nickelback, table.search("Nickelback"));
+        assertEquals(savinMe, table.search("Savin' Me"));
+        assertEquals(animals, table.search("Animals"));
+        assertEquals(farAway, table.search("Far Away"));
+        assertEquals(howYouRemindMe,
+                table.search("How You Remind Me"));
+        assertEquals(photograph, table.search("Photograph"));
+        assertEquals(rockstar, table.search("Rockstar"));
+        assertNull(table.search("Only the Good Die Young"));
+
+        // Nickelback, Savin' Me, and How You Remind Me share
+        // home slot 6 with Far Away at 7, so deleting Savin' Me
+        // shifts the two records after it back one slot
+        assertEquals(savinMe, table.delete(savinMe));
+        assertEquals(0, table.gravestones());
+        assertNull(table.search("Savin' Me"));
+        assertEquals(nickelback, table.search("Nickelback"));
+        assertEquals(farAway, table.search("Far Away"));
+        assertNull(table.delete(savinMe));
+        assertEquals(6, table.size());
+        assertEquals(2, table.maxProbeLength());
+    }
+
+    /**
+     * Tests the probe length statistics under quadratic and
+     * linear probing, and that switching policies rehashes the
+     * records already in the table
+     */
+    public void testProbeLength() {
+        assertEquals(0.0, table.averageProbeLength(), 0.001);
+        assertEquals(0, table.maxProbeLength());
+
+        table.insert(savinMe);
+        table.insert(farAway);
+        table.insert(nickelback);
+        table.insert(animals);
+        // Nickelback collides with Savin' Me and Far Away and
+        // lands on its third probe, where Animals then collides
+        assertEquals(7.0 / 4, table.averageProbeLength(), 0.001);
+        assertEquals(3, table.maxProbeLength());
+
+        table.setProbeStrategy(ProbeStrategy.LINEAR);
+        assertEquals(nickelback, table.search("Nickelback"));
+        assertEquals(4, table.size());
+        assertEquals(
+                "|Far Away| 0\n" +
+                        "|Animals| 2\n" +
+                        "|Nickelback| 6\n" +
+                        "|Savin' Me| 7\n",
+                table.toString());
+    }
+
     /**
      * Tests functionality of toString on an empty table and
      * nonempty table
@@ -226,6 +437,121 @@ public class HashTableTest extends TestCase {
 
     }
 
+    /**
+     * Tests that names beyond ASCII are folded by character,
+     * landing in the same slots as before records were hashed
+     * by their bytes
+     */
+    public void testNonAscii() {
+        table = new HashTable(64, new FoldHash());
+        byte[] memory = new byte[64];
+        int offset = 0;
+        int id = 0;
+        String[] names = { "Bj\u00f6rk", "J\u00f3ga",
+            "Hopp\u00edpolla", "Savin\u2019 Me" };
+        for (String name : names) {
+            byte[] temp = name.getBytes();
+            System.arraycopy(temp, 0, memory, offset, temp.length);
+            table.insert(
+                    new Handle(memory, offset, temp.length, id++));
+            offset += temp.length;
+        }
+
+        assertEquals("|J\u00f3ga| 10\n" +
+                "|Hopp\u00edpolla| 33\n" +
+                "|Savin\u2019 Me| 38\n" +
+                "|Bj\u00f6rk| 45\n",
+                table.toString());
+        assertNotNull(table.search("Bj\u00f6rk"));
+    }
+
+    /**
+     * Tests that records of a handle table are held by id, are
+     * found and removed by id, and cannot share the table with
+     * plain handles
+     */
+    public void testIds() {
+        ByteBuffer memory =
+                ByteBuffer.wrap("NumbFaintCrawling".getBytes());
+        HandleTable records = new HandleTable(memory);
+        int numb = records.add(0, 4);
+        int faint = records.add(4, 5);
+        int crawling = records.add(9, 8);
+
+        table.setIncrementalResize(1);
+        table.insert(records, numb);
+        table.insert(records.handle(faint));
+        table.insert(records, crawling);
+        try {
+            table.insert(nickelback);
+            fail("plain handle mixed with the records of a pool");
+        }
+        catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+        assertNull(table.delete(nickelback));
+        assertEquals(3, table.size());
+        assertEquals(faint, table.find("Faint"));
+        assertEquals(crawling, table.find("Crawling"));
+        assertEquals(-1, table.find("Nickelback"));
+        assertTrue(records.handle(numb) == table.search("Numb"));
+        assertEquals(records.hash(numb),
+                new FoldHash().hash(memory, 0, 4));
+
+        // records move without the table noticing
+        ByteBuffer moved =
+                ByteBuffer.wrap("xxCrawlingFaintNumb".getBytes());
+        records.setBuffer(moved);
+        records.move(crawling, 2);
+        records.move(faint, 10);
+        records.move(numb, 15);
+        assertEquals(crawling, table.find("Crawling"));
+        assertEquals("Numb", table.search("Numb").getStringAt());
+
+        assertTrue(table.delete(records, faint));
+        assertFalse(table.delete(records, faint));
+        assertEquals(records.handle(numb),
+                table.delete(records.handle(numb)));
+        assertEquals(-1, table.find("Faint"));
+        assertEquals(1, table.size());
+        assertEquals("|Crawling| 7\n", table.toString());
+    } // end testIds
+
+    /**
+     * Tests that plain handles are held by their ids, and cannot
+     * share the table with the records of a pool
+     */
+    public void testPlainIds() {
+        ByteBuffer memory = ByteBuffer.wrap("Numb".getBytes());
+        HandleTable records = new HandleTable(memory);
+        int numb = records.add(0, 4);
+
+        table.insert(nickelback);
+        table.insert(photograph);
+        try {
+            table.insert(records, numb);
+            fail("record of a pool mixed with plain handles");
+        }
+        catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+        assertFalse(table.delete(records, numb));
+        assertEquals(2, table.size());
+        assertEquals(nickelback.getId(), table.find("Nickelback"));
+        assertTrue(photograph == table.search("Photograph"));
+
+        // a handle equal to nickelback, but with another id
+        Handle other = new Handle(nickelback.getBuffer(),
+                nickelback.getOffset(), nickelback.getLength(),
+                nickelback.getId() + 100);
+        assertNull(table.delete(other));
+        assertEquals(nickelback, table.delete(nickelback));
+        assertNull(table.delete(nickelback));
+        assertEquals(1, table.size());
+        assertEquals(-1, table.find("Nickelback"));
+        assertEquals(photograph.getId(), table.find("Photograph"));
+    }
+
     /**
      * Tests the functionality of the clear method to assure
      * there are no values in our table
@@ -0,0 +1,50 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Keeps the records of our DynamicByteArray in byte arrays on
+ * the heap. Nothing survives the run, and handles to the records
+ * can still hand out the byte array holding them. This is the
+ * default storage.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/30/2017
+ */
+public class HeapStorage implements PoolStorage {
+
+    /**
+     * Nothing is ever stored between runs
+     *
+     * @return null
+     */
+    @Override
+    public ByteBuffer reopen() {
+        return null;
+    }
+
+    @Override
+    public int used() {
+        return 0;
+    }
+
+    /**
+     * Creates a buffer wrapping a new byte array
+     *
+     * @param length
+     *            -- size of the buffer
+     * @return new buffer
+     */
+    @Override
+    public ByteBuffer allocate(int length) {
+        return ByteBuffer.wrap(new byte[length]);
+    }
+
+    @Override
+    public void commit(ByteBuffer buffer, int usedBytes) {
+        // the array already holds every change
+    }
+
+    @Override
+    public void flush() {
+        // nothing to write
+    }
+} // end HeapStorage
@@ -0,0 +1,28 @@
+import java.nio.ByteBuffer;
+import student.TestCase;
+
+/**
+ * Tests that our heap storage hands out array backed buffers and
+ * keeps nothing between runs
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/30/2017
+ */
+public class HeapStorageTest extends TestCase {
+
+    /**
+     * Tests allocation and reopening
+     */
+    public void testAllocate() {
+        HeapStorage storage = new HeapStorage();
+        assertNull(storage.reopen());
+        assertEquals(0, storage.used());
+
+        ByteBuffer buffer = storage.allocate(32);
+        assertEquals(32, buffer.capacity());
+        assertTrue(buffer.hasArray());
+        storage.commit(buffer, 10);
+        storage.flush();
+        assertNull(storage.reopen());
+    }
+} // end HeapStorageTest
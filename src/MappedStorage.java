@@ -0,0 +1,175 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Keeps the records of our DynamicByteArray in a memory-mapped
+ * file. The operating system pages records in as they are read,
+ * so the pool may grow far beyond the heap (up to the 2 GB an
+ * int offset can address), and the records survive the run: a
+ * byte array created over the same file reopens them.
+ *
+ * The file starts with a magic number and the number of bytes in
+ * use, followed by the records exactly as laid out in memory.
+ * Growing or shrinking the pool fills a second file which then
+ * atomically replaces the first, so the file always holds either
+ * the old or the new records. Appends and deletions write
+ * straight into the mapping and reach the disk whenever the
+ * operating system writes the pages back, or when flush is
+ * called.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/30/2017
+ */
+public class MappedStorage implements PoolStorage {
+
+    // ---------------- PRIVATE VARIABLES ----------------
+
+    private static final int MAGIC = 0x53534442; // "SSDB"
+    private static final int HEADER = 8; // magic and used bytes
+
+    private File file; // file holding the records
+    private File nextFile; // file filled while resizing
+    private MappedByteBuffer mapped; // mapping of file
+    private MappedByteBuffer nextMapped; // mapping of nextFile
+    private ByteBuffer next; // records of nextMapped
+
+    // ---------------- CONSTRUCTOR ---------------------
+
+    /**
+     * Constructor for a storage backed by the given file. The
+     * file is created once records are first committed.
+     *
+     * @param poolFile
+     *            -- file holding the records
+     */
+    public MappedStorage(File poolFile) {
+        file = poolFile;
+        nextFile = new File(poolFile.getPath() + ".tmp");
+    }
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Maps the records already stored in our file
+     *
+     * @return buffer of stored records, null if the file does
+     *         not exist or does not hold a pool
+     */
+    @Override
+    public ByteBuffer reopen() {
+        if (!file.exists() || file.length() < HEADER) {
+            return null;
+        }
+        MappedByteBuffer map = map(file, file.length());
+        if (map.getInt(0) != MAGIC) {
+            return null;
+        }
+        mapped = map;
+        return records(map);
+    }
+
+    @Override
+    public int used() {
+        return mapped == null ? 0 : mapped.getInt(4);
+    }
+
+    /**
+     * Maps a new, zeroed file for the records to move into
+     *
+     * @param length
+     *            -- size of the buffer
+     * @return new buffer
+     */
+    @Override
+    public ByteBuffer allocate(int length) {
+        nextFile.delete();
+        nextMapped = map(nextFile, HEADER + (long) length);
+        nextMapped.putInt(0, MAGIC);
+        next = records(nextMapped);
+        return next;
+    }
+
+    /**
+     * Records the number of bytes in use. Once the records have
+     * moved into a newly allocated buffer, its file is written
+     * out and replaces our file.
+     *
+     * @param buffer
+     *            -- buffer holding the records
+     * @param usedBytes
+     *            -- offset following the last record
+     */
+    @Override
+    public void commit(ByteBuffer buffer, int usedBytes) {
+        if (buffer != next) {
+            mapped.putInt(4, usedBytes);
+            return;
+        }
+
+        nextMapped.putInt(4, usedBytes);
+        nextMapped.force();
+        try {
+            Files.move(nextFile.toPath(), file.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        mapped = nextMapped;
+        nextMapped = null;
+        next = null;
+    } // end commit
+
+    /**
+     * Forces every change to our file out to the disk
+     */
+    @Override
+    public void flush() {
+        if (mapped != null) {
+            mapped.force();
+        }
+    }
+
+    // ---------------- PRIVATE METHODS -------------------
+
+    /**
+     * Maps the first bytes of a file, growing the file if it is
+     * shorter. The mapping stays valid after the file is closed.
+     *
+     * @param target
+     *            -- file to map
+     * @param size
+     *            -- number of bytes to map
+     * @return mapping of the file
+     */
+    private static MappedByteBuffer map(File target, long size) {
+        try (RandomAccessFile raf =
+                new RandomAccessFile(target, "rw")) {
+            return raf.getChannel().map(
+                    FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    } // end map
+
+    /**
+     * Gives the part of a mapping following the header
+     *
+     * @param map
+     *            -- mapping of a whole file
+     * @return buffer of the records
+     */
+    private static ByteBuffer records(ByteBuffer map) {
+        ByteBuffer toRet = map.duplicate();
+        toRet.position(HEADER);
+        return toRet.slice();
+    }
+} // end MappedStorage
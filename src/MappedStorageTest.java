@@ -0,0 +1,97 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import student.TestCase;
+
+/**
+ * Tests that our memory-mapped storage keeps records in its file
+ * across runs and replaces the file when records move
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/30/2017
+ */
+public class MappedStorageTest extends TestCase {
+
+    // ----------------PRIVATE VARIABLES------------------
+    private File file;
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Sets up the test fixture.
+     */
+    @Override
+    public void setUp() {
+        file = new File(System.getProperty("java.io.tmpdir"),
+                "pool" + System.nanoTime() + ".bin");
+    }
+
+    @Override
+    public void tearDown() {
+        file.delete();
+    }
+
+    /**
+     * Tests that committed bytes are reopened by a new storage
+     */
+    public void testReopen() {
+        MappedStorage storage = new MappedStorage(file);
+        assertNull(storage.reopen());
+
+        ByteBuffer buffer = storage.allocate(16);
+        assertEquals(16, buffer.capacity());
+        storage.commit(buffer, 0);
+        assertEquals(24, file.length());
+
+        buffer.put(0, (byte) 7);
+        buffer.put(15, (byte) 9);
+        storage.commit(buffer, 16);
+        storage.flush();
+
+        MappedStorage reopened = new MappedStorage(file);
+        ByteBuffer stored = reopened.reopen();
+        assertEquals(16, reopened.used());
+        assertEquals(16, stored.capacity());
+        assertEquals(7, stored.get(0));
+        assertEquals(9, stored.get(15));
+    }
+
+    /**
+     * Tests that the file only changes over to a new buffer once
+     * it is committed
+     */
+    public void testResize() {
+        MappedStorage storage = new MappedStorage(file);
+        ByteBuffer buffer = storage.allocate(8);
+        storage.commit(buffer, 0);
+        buffer.put(0, (byte) 1);
+        storage.commit(buffer, 1);
+
+        ByteBuffer bigger = storage.allocate(64);
+        bigger.put(0, (byte) 2);
+        assertEquals(1, new MappedStorage(file).reopen().get(0));
+
+        storage.commit(bigger, 1);
+        assertEquals(72, file.length());
+        assertEquals(2, new MappedStorage(file).reopen().get(0));
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    /**
+     * Tests that files not holding a pool are not reopened
+     *
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void testForeignFile() throws IOException {
+        FileWriter writer = new FileWriter(file);
+        writer.write("insert Nickelback<SEP>Rockstar\n");
+        writer.close();
+        assertNull(new MappedStorage(file).reopen());
+
+        file.delete();
+        file.createNewFile();
+        assertNull(new MappedStorage(file).reopen());
+    }
+} // end MappedStorageTest
@@ -0,0 +1,95 @@
+import java.nio.ByteBuffer;
+
+/**
+ * MurmurHash3 (32 bit variant) over the bytes of a record. Every
+ * four byte block is mixed into the hash before the next one is
+ * read and the result goes through a final avalanche step, so
+ * names which differ in a single byte or only in the order of
+ * their blocks land far apart. Allocates nothing, and is the
+ * default function of our hash tables.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/23/2017
+ */
+public class MurmurHash implements HashFunction {
+
+    // ---------------- PRIVATE VARIABLES ----------------
+
+    private static final int C1 = 0xcc9e2d51;
+    private static final int C2 = 0x1b873593;
+    private static final int SEED = 0x9747b28c;
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Hashes the bytes of a record
+     *
+     * @param bytes
+     *            -- buffer containing the record we wish to hash
+     * @param start
+     *            -- offset of the first byte of the record
+     * @param len
+     *            -- number of bytes in the record
+     * @return hash of the record as an unsigned 32 bit value
+     */
+    @Override
+    public long hash(ByteBuffer bytes, int start, int len) {
+        int h = SEED;
+        int blockEnd = start + (len & ~3);
+
+        // mix in every full block of four bytes
+        for (int i = start; i < blockEnd; i += 4) {
+            int k = (bytes.get(i) & 0xff)
+                    | (bytes.get(i + 1) & 0xff) << 8
+                    | (bytes.get(i + 2) & 0xff) << 16
+                    | (bytes.get(i + 3) & 0xff) << 24;
+            h ^= mixBlock(k);
+            h = Integer.rotateLeft(h, 13);
+            h = h * 5 + 0xe6546b64;
+        } // end for
+
+        // mix in the remaining one to three bytes
+        int tail = len & 3;
+        if (tail > 0) {
+            int k = 0;
+            if (tail == 3) {
+                k ^= (bytes.get(blockEnd + 2) & 0xff) << 16;
+            }
+            if (tail >= 2) {
+                k ^= (bytes.get(blockEnd + 1) & 0xff) << 8;
+            }
+            k ^= bytes.get(blockEnd) & 0xff;
+            h ^= mixBlock(k);
+        } // end if
+
+        // final avalanche
+        h ^= len;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h & 0xffffffffL;
+    } // end hash()
+
+    @Override
+    public String toString() {
+        return "murmur";
+    }
+
+    // ---------------- PRIVATE METHODS -------------------
+
+    /**
+     * Scrambles one block of four bytes before it is combined
+     * with the hash
+     *
+     * @param block
+     *            -- four bytes read as a little endian integer
+     * @return scrambled block
+     */
+    private static int mixBlock(int block) {
+        int k = block * C1;
+        k = Integer.rotateLeft(k, 15);
+        return k * C2;
+    } // end mixBlock
+} // end MurmurHash
@@ -0,0 +1,65 @@
+import java.nio.ByteBuffer;
+import student.TestCase;
+
+/**
+ * Tests our MurmurHash against the published MurmurHash3 x86_32
+ * values for our seed
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/23/2017
+ */
+public class MurmurHashTest extends TestCase {
+
+    // ----------------PRIVATE VARIABLES------------------
+    private MurmurHash murmur;
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Sets up the test fixture.
+     */
+    @Override
+    public void setUp() {
+        murmur = new MurmurHash();
+    }
+
+    /**
+     * Tests full blocks and every length of trailing bytes
+     */
+    public void testHash() {
+        assertEquals(0x7fa09ea6L, this.hash("a"));
+        assertEquals(0x5d211726L, this.hash("aa"));
+        assertEquals(0x283e0130L, this.hash("aaa"));
+        assertEquals(0x5a97808aL, this.hash("aaaa"));
+        assertEquals(0x24884cbaL, this.hash("Hello, world!"));
+        assertEquals(0x2fa826cdL, this.hash(
+                "The quick brown fox jumps over the lazy dog"));
+        assertEquals(0xebb6c228L, this.hash(""));
+    }
+
+    /**
+     * Tests that only the record bytes are hashed, and that
+     * reordered blocks no longer collide
+     */
+    public void testRange() {
+        ByteBuffer bytes =
+                ByteBuffer.wrap("xxHello, world!xx".getBytes());
+        assertEquals(0x24884cbaL, murmur.hash(bytes, 2, 13));
+
+        assertFalse(this.hash("abcdwxyz") == this.hash("wxyzabcd"));
+    }
+
+    // ---------------- PRIVATE METHODS -------------------
+
+    /**
+     * Hashes every byte of a string
+     *
+     * @param name
+     *            -- string to hash
+     * @return hash of its bytes
+     */
+    private long hash(String name) {
+        byte[] bytes = name.getBytes();
+        return murmur.hash(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+} // end MurmurHashTest
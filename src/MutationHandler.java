@@ -0,0 +1,41 @@
+/**
+ * Receives the operations read back from a WriteAheadLog, in the
+ * order they were logged. Implemented by whatever applies the
+ * operations to the song database.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ */
+public interface MutationHandler {
+
+    /**
+     * Applies an insert command
+     *
+     * @param artist
+     *            -- name of the artist
+     * @param song
+     *            -- name of the song
+     */
+    void insert(String artist, String song);
+
+    /**
+     * Applies a remove command
+     *
+     * @param isArtist
+     *            -- True if an artist is removed, false if a
+     *            song is
+     * @param name
+     *            -- name of the artist or song
+     */
+    void remove(boolean isArtist, String name);
+
+    /**
+     * Applies a delete command
+     *
+     * @param artist
+     *            -- name of the artist
+     * @param song
+     *            -- name of the song
+     */
+    void delete(String artist, String song);
+} // end MutationHandler
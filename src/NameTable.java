@@ -0,0 +1,126 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Common contract for the tables which index the artist and song
+ * records held in our DynamicByteArray. A table maps the name
+ * stored in a record to a Handle pointing at that record, and
+ * must follow the record whenever the byte array moves it.
+ *
+ * Our DynamicByteArray refers to its records by id, and inserts,
+ * finds, deletes and moves them by id as well, reading their
+ * locations from its HandleTable. Handles are then only created
+ * when a caller asks for one (see search).
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/23/2017
+ */
+public interface NameTable {
+
+    /**
+     * Searches the table for the record holding a specific name
+     *
+     * @param name
+     *            -- name to look for
+     * @return handle pointing to the record, null if not found
+     */
+    Handle search(String name);
+
+    /**
+     * Inserts a handle pointing to a record into the table
+     *
+     * @param handle
+     *            -- handle we wish to insert
+     */
+    void insert(Handle handle);
+
+    /**
+     * Inserts the record with the given id, reading its location
+     * from the table of its pool, without creating a handle
+     *
+     * @param records
+     *            -- table of the pool holding the record
+     * @param id
+     *            -- id of the record
+     */
+    void insert(HandleTable records, int id);
+
+    /**
+     * Searches the table for the id of the record holding a
+     * specific name, without creating a handle
+     *
+     * @param name
+     *            -- name to look for
+     * @return id of the record, -1 if not found
+     */
+    int find(String name);
+
+    /**
+     * Removes the record pointed to by a handle from the table
+     *
+     * @param handle
+     *            -- handle to remove
+     * @return reference to removed handle, null if not found
+     */
+    Handle delete(Handle handle);
+
+    /**
+     * Removes the record with the given id from the table. The
+     * record must still be in the table of its pool.
+     *
+     * @param records
+     *            -- table of the pool holding the record
+     * @param id
+     *            -- id of the record
+     * @return True if the record was found and removed
+     */
+    boolean delete(HandleTable records, int id);
+
+    /**
+     * Called by the byte array after it has moved a record of
+     * this table and pointed the handle given to insert at the
+     * new location. Tables storing that handle have nothing left
+     * to do, while tables keeping their own copy of the location
+     * must update it.
+     *
+     * @param handle
+     *            -- handle of the moved record, already pointing
+     *            to its new location
+     * @param oldMemory
+     *            -- buffer the record used to live in
+     * @param oldOffset
+     *            -- offset the record used to live at
+     */
+    void relocate(Handle handle, ByteBuffer oldMemory,
+            int oldOffset);
+
+    /**
+     * Called by the byte array after it has moved a record which
+     * was inserted by id and noted its new location in the table
+     * of the pool. Tables holding the id have nothing left to do,
+     * while tables keeping their own copy of the location must
+     * update it.
+     *
+     * @param records
+     *            -- table of the pool holding the record
+     * @param id
+     *            -- id of the moved record
+     * @param oldMemory
+     *            -- buffer the record used to live in
+     * @param oldOffset
+     *            -- offset the record used to live at
+     */
+    void relocate(HandleTable records, int id,
+            ByteBuffer oldMemory, int oldOffset);
+
+    /**
+     * Accessor method for the number of records in the table
+     *
+     * @return number of records in the table
+     */
+    int size();
+
+    /**
+     * Removes every record from the table
+     */
+    void clear();
+} // end NameTable
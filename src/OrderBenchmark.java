@@ -0,0 +1,108 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares trees of 2-3+ nodes against trees of B-tree nodes of
+ * larger orders. The same random keys are inserted into a TTTree
+ * of every order, after which we report the height of the tree,
+ * the memory its nodes take per key, and the average time of a
+ * lookup. The keys themselves are created up front, so only the
+ * memory of the nodes is counted. Lookups are timed over a few
+ * passes, after a warm-up pass, and the best pass is reported.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ */
+public class OrderBenchmark {
+
+    // ------------------- PRIVATE VARIABLES -------------------
+
+    private static final int[] DEFAULT_ORDERS = { 3, 32, 64, 128 };
+    private static final int PASSES = 4;
+    private static final long SEED = 8;
+
+    // ------------------- PUBLIC METHODS ----------------------
+
+    /**
+     * Builds a tree of each order and prints a table of their
+     * height, memory, and lookup time
+     *
+     * @param args
+     *            - args[0]: number of keys, args[1...]: orders
+     *            to compare (3, 32, 64, and 128 by default)
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println(
+                    "Improper invocation\n\n\t\tjava"
+                            + " OrderBenchmark {number-of-keys}"
+                            + " [order ...]");
+            return;
+        }
+        int count = Integer.parseInt(args[0]);
+        int[] orders = DEFAULT_ORDERS;
+        if (args.length > 1) {
+            orders = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                orders[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        Random random = new Random(SEED);
+        List<Long> keys = new ArrayList<Long>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add(random.nextLong());
+        }
+        List<Long> probes = new ArrayList<Long>(keys);
+        Collections.shuffle(probes, random);
+
+        System.out.printf("%-6s %6s %10s %12s\n", "order", "height",
+                "bytes/key", "lookup ns");
+        for (int order : orders) {
+            long before = usedMemory();
+            TTTree<Long> tree = new TTTree<Long>(order);
+            for (Long key : keys) {
+                tree.insert(key);
+            }
+            double bytesPerKey =
+                    (double) (usedMemory() - before) / count;
+
+            long best = Long.MAX_VALUE;
+            for (int pass = 0; pass <= PASSES; pass++) {
+                long start = System.nanoTime();
+                for (Long probe : probes) {
+                    if (tree.search(probe) == null) {
+                        throw new IllegalStateException(
+                                "lookup missed " + probe);
+                    }
+                }
+                long time = System.nanoTime() - start;
+                if (pass > 0) {
+                    // the first pass only warms up
+                    best = Math.min(best, time);
+                }
+            } // end for
+
+            System.out.printf("%-6d %6d %10.1f %12.1f\n", order,
+                    tree.height(), bytesPerKey,
+                    (double) best / count);
+        } // end for
+    } // end main()
+
+    // ------------------- PRIVATE METHODS ----------------------
+
+    /**
+     * Gives the memory currently in use after collecting garbage
+     *
+     * @return bytes of the heap in use
+     */
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+} // end OrderBenchmark
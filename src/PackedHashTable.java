@@ -0,0 +1,473 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Alternative implementation of our dynamic hash table which
+ * keeps the offset, length, id, and cached hash of every record
+ * in parallel primitive arrays rather than in an array of Handle
+ * objects. Probing therefore only walks flat int and long arrays
+ * instead of chasing a pointer into a separate Handle per slot,
+ * and each entry costs 20 bytes instead of a reference plus a
+ * whole Handle object. Handles are only created at the API
+ * boundary (i.e. when search or delete return), so they are
+ * views of the record: they are not updated when the byte array
+ * later moves the record, and should be looked up again after
+ * an insertion which may have expanded memory.
+ *
+ * Quadratic probing and resizing follow HashTable exactly, so
+ * given the same HashFunction both tables place every record in
+ * the same slot.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/23/2017
+ */
+public class PackedHashTable implements NameTable {
+
+    // ---------------- PRIVATE VARIABLES ----------------
+
+    private static final int EMPTY = -1; // offset of empty slot
+    private static final int GRAVESTONE = -2; // offset of
+                                              // removed slot
+
+    private int[] offsets; // offset of each record in memory
+    private int[] lengths; // length of each record
+    private int[] ids; // stable id of each record
+    private long[] hashes; // cached hash of each record
+    private ByteBuffer memory; // buffer all records live in
+    private int logicalSize; // current number of elements
+    private int defaultSize;
+    private HashFunction hashFunction; // hashes record bytes
+
+    // ---------------- CONSTRUCTOR ---------------------
+
+    /**
+     * Constructor for our packed hash table. Requires a default
+     * size to be specified. Records are hashed with MurmurHash.
+     *
+     * @param size
+     *            -- default size of our hash table
+     */
+    public PackedHashTable(int size) {
+        this(size, new MurmurHash());
+    }
+
+    /**
+     * Constructor for our packed hash table which also specifies
+     * how records are hashed
+     *
+     * @param size
+     *            -- default size of our hash table
+     * @param function
+     *            -- hash function applied to record bytes
+     */
+    public PackedHashTable(int size, HashFunction function) {
+        defaultSize = size;
+        hashFunction = function;
+        this.clear();
+    }
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Dereferences all records in our table and creates new
+     * arrays with the same initial size as the previous table
+     */
+    @Override
+    public void clear() {
+        offsets = newOffsets(defaultSize);
+        lengths = new int[defaultSize];
+        ids = new int[defaultSize];
+        hashes = new long[defaultSize];
+        logicalSize = 0;
+    }
+
+    /**
+     * Searches our table for a specific string by hashing its
+     * bytes and walking the probe sequence, comparing cached
+     * hashes and then bytes directly against memory.
+     *
+     * @param name
+     *            -- string to hash
+     * @return new handle pointing to the record, null if not
+     *         found
+     */
+    @Override
+    public Handle search(String name) {
+        byte[] query = name.getBytes();
+        long hash = hashFunction.hash(ByteBuffer.wrap(query), 0,
+                query.length);
+        int pos = this.find(hash, query, -1);
+        if (pos < 0) {
+            return null;
+        }
+        return this.handleAt(pos);
+    }
+
+    /**
+     * Copies the location of the record pointed to by the handle
+     * into our arrays. If the number of elements exceeds half
+     * the size of our current table, we expand the table by a
+     * factor of 2.
+     *
+     * @param handle
+     *            -- handle we wish to insert
+     */
+    @Override
+    public void insert(Handle handle) {
+        handle.setHash(this.add(handle.getBuffer(),
+                handle.getOffset(), handle.getLength(),
+                handle.getId()));
+    }
+
+    /**
+     * Copies the location of the record with the given id from
+     * the table of its pool into our arrays
+     *
+     * @param records
+     *            -- table of the pool holding the record
+     * @param id
+     *            -- id of the record
+     */
+    @Override
+    public void insert(HandleTable records, int id) {
+        records.setHash(id, this.add(records.buffer(),
+                records.offset(id), records.length(id), id));
+    }
+
+    /**
+     * Searches our table for the id of the record holding a
+     * specific string
+     *
+     * @param name
+     *            -- string to hash
+     * @return id of the record, -1 if not found
+     */
+    @Override
+    public int find(String name) {
+        byte[] query = name.getBytes();
+        long hash = hashFunction.hash(ByteBuffer.wrap(query), 0,
+                query.length);
+        int pos = this.find(hash, query, -1);
+        return pos < 0 ? -1 : ids[pos];
+    }
+
+    /**
+     * Removes the record pointed to by the handle, leaving a
+     * gravestone in its slot.
+     *
+     * @param handle
+     *            -- handle to search for
+     * @return new handle pointing to the removed record, null if
+     *         not found
+     */
+    @Override
+    public Handle delete(Handle handle) {
+        long hash = hashFunction.hash(handle.getBuffer(),
+                handle.getOffset(), handle.getLength());
+        int pos = this.find(hash, null, handle.getId());
+        if (pos < 0) {
+            return null;
+        }
+
+        Handle toRet = this.handleAt(pos);
+        offsets[pos] = GRAVESTONE;
+        logicalSize--;
+        return toRet;
+    } // end delete()
+
+    /**
+     * Removes the record with the given id, using the hash
+     * cached for it in the table of its pool
+     *
+     * @param records
+     *            -- table of the pool holding the record
+     * @param id
+     *            -- id of the record
+     * @return True if the record was found and removed
+     */
+    @Override
+    public boolean delete(HandleTable records, int id) {
+        int pos = this.find(records.hash(id), null, id);
+        if (pos < 0) {
+            return false;
+        }
+        offsets[pos] = GRAVESTONE;
+        logicalSize--;
+        return true;
+    } // end delete()
+
+    /**
+     * Finds the slot of the record by its id, using the hash
+     * cached in its handle, and stores its new offset.
+     * Since every record in the table lives in the same byte
+     * array, the table simply switches over to the new byte
+     * array.
+     *
+     * @param handle
+     *            -- handle of the moved record, already pointing
+     *            to its new location
+     * @param oldMemory
+     *            -- buffer the record used to live in
+     * @param oldOffset
+     *            -- offset the record used to live at, unused
+     *            since the record is matched by id
+     */
+    @Override
+    public void relocate(Handle handle, ByteBuffer oldMemory,
+            int oldOffset) {
+        if (oldMemory != memory && handle.getBuffer() != memory) {
+            // record was never stored in this table
+            return;
+        }
+        int pos = this.find(handle.getHash(), null,
+                handle.getId());
+        if (pos >= 0) {
+            offsets[pos] = handle.getOffset();
+            memory = handle.getBuffer();
+        }
+    } // end relocate()
+
+    /**
+     * Finds the slot of the record by its id and copies its new
+     * offset from the table of its pool
+     *
+     * @param records
+     *            -- table of the pool holding the record, already
+     *            noting its new location
+     * @param id
+     *            -- id of the moved record
+     * @param oldMemory
+     *            -- buffer the record used to live in
+     * @param oldOffset
+     *            -- offset the record used to live at, unused
+     *            since the record is matched by id
+     */
+    @Override
+    public void relocate(HandleTable records, int id,
+            ByteBuffer oldMemory, int oldOffset) {
+        if (oldMemory != memory && records.buffer() != memory) {
+            // record was never stored in this table
+            return;
+        }
+        int pos = this.find(records.hash(id), null, id);
+        if (pos >= 0) {
+            offsets[pos] = records.offset(id);
+            memory = records.buffer();
+        }
+    } // end relocate()
+
+    /**
+     * Accessor method for our logicalSize
+     *
+     * @return logicalSize (i.e. number of elements currently in
+     *         hash table)
+     */
+    @Override
+    public int size() {
+        return logicalSize;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] >= 0) {
+                builder.append(String.format("|%s| %d\n",
+                        this.handleAt(i).getStringAt(), i));
+            }
+        } // end for loop
+
+        return builder.toString();
+    } // end toString()
+
+    // ---------------- PRIVATE METHODS -------------------
+
+    /**
+     * Copies the location of a record into our arrays. If the
+     * number of elements exceeds half the size of our current
+     * table, we expand the table by a factor of 2.
+     *
+     * @param mem
+     *            -- buffer holding the record
+     * @param offset
+     *            -- offset of the record
+     * @param length
+     *            -- length of the record
+     * @param id
+     *            -- stable id of the record
+     * @return hash of the record
+     */
+    private long add(ByteBuffer mem, int offset, int length,
+            int id) {
+        long hash = hashFunction.hash(mem, offset, length);
+        memory = mem;
+
+        if (logicalSize + 1 > offsets.length / 2) {
+            this.expandTable();
+        }
+        this.insertHelper(offset, length, id, hash);
+        logicalSize++;
+        return hash;
+    } // end add
+
+    /**
+     * Walks the quadratic probe sequence of a hash until it
+     * reaches an empty slot. A slot matches either when its
+     * bytes equal the query, or, if no query is given, when it
+     * holds the record with the given id. Ids are matched rather
+     * than locations, since the slot of a record which has just
+     * moved may still hold its old offset.
+     *
+     * @param hash
+     *            -- hash of the record we are looking for
+     * @param query
+     *            -- bytes to compare against, or null to match
+     *            by id
+     * @param id
+     *            -- stable id to match when query is null
+     * @return slot holding the record, -1 if not found
+     */
+    private int find(long hash, byte[] query, int id) {
+        int homePos = (int) (hash % offsets.length);
+        int pos;
+
+        // QUADRATIC PROBE
+        for (int i = 0; i < offsets.length; i++) {
+            pos = (int) ((homePos + (long) i * i) % offsets.length);
+            if (offsets[pos] == EMPTY) {
+                break;
+            }
+            else if (offsets[pos] == GRAVESTONE
+                    || hashes[pos] != hash) {
+                continue;
+            }
+            else if (query == null) {
+                if (ids[pos] == id) {
+                    return pos;
+                }
+            }
+            else if (this.matches(pos, query)) {
+                return pos;
+            }
+        } // end for
+
+        return -1;
+    } // end find()
+
+    /**
+     * Compares the record in a slot against a sequence of bytes,
+     * checking the lengths first
+     *
+     * @param pos
+     *            -- slot of the record
+     * @param query
+     *            -- bytes to compare against
+     * @return True if the record holds exactly these bytes
+     */
+    private boolean matches(int pos, byte[] query) {
+        if (lengths[pos] != query.length) {
+            return false;
+        }
+        int start = offsets[pos];
+        for (int i = 0; i < query.length; i++) {
+            if (memory.get(start + i) != query[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds a handle pointing to the record stored in a slot
+     *
+     * @param pos
+     *            -- slot of the record
+     * @return new handle pointing to the record
+     */
+    private Handle handleAt(int pos) {
+        Handle toRet = new Handle(memory, offsets[pos],
+                lengths[pos], ids[pos]);
+        toRet.setHash(hashes[pos]);
+        return toRet;
+    }
+
+    /**
+     * Places a record into the first empty slot or gravestone
+     * along its probe sequence, expanding the table and retrying
+     * whenever the probe sequence is exhausted.
+     *
+     * @param offset
+     *            -- offset of the record
+     * @param length
+     *            -- length of the record
+     * @param id
+     *            -- stable id of the record
+     * @param hash
+     *            -- cached hash of the record
+     */
+    private void insertHelper(int offset, int length, int id,
+            long hash) {
+        while (true) {
+            int homePos = (int) (hash % offsets.length);
+            int pos;
+
+            // QUADRATIC PROBE
+            for (int i = 0; i < offsets.length; i++) {
+                pos = (int) ((homePos + (long) i * i)
+                        % offsets.length);
+                if (offsets[pos] < 0) {
+                    offsets[pos] = offset;
+                    lengths[pos] = length;
+                    ids[pos] = id;
+                    hashes[pos] = hash;
+                    return;
+                } // end if
+            } // end for loop
+
+            // we have gone through an entire iteration of the
+            // table and still cannot find a spot. Thus, we
+            // expand the table and retry
+            this.expandTable();
+        } // end while
+    } // end insertHelper
+
+    /**
+     * Creates arrays twice the size of our current ones and
+     * reinserts all valid records using their cached hashes.
+     * Gravestones do not count as valid records.
+     */
+    private void expandTable() {
+        int[] oldOffsets = offsets;
+        int[] oldLengths = lengths;
+        int[] oldIds = ids;
+        long[] oldHashes = hashes;
+
+        offsets = newOffsets(oldOffsets.length * 2);
+        lengths = new int[oldOffsets.length * 2];
+        ids = new int[oldOffsets.length * 2];
+        hashes = new long[oldOffsets.length * 2];
+
+        // iterate sequentially through previous table
+        for (int i = 0; i < oldOffsets.length; i++) {
+            if (oldOffsets[i] >= 0) {
+                this.insertHelper(oldOffsets[i], oldLengths[i],
+                        oldIds[i], oldHashes[i]);
+            }
+        } // end for-loop
+    } // end expandTable
+
+    /**
+     * Creates an array of offsets with every slot marked empty
+     *
+     * @param size
+     *            -- number of slots
+     * @return new array of empty slots
+     */
+    private static int[] newOffsets(int size) {
+        int[] toRet = new int[size];
+        for (int i = 0; i < size; i++) {
+            toRet[i] = EMPTY;
+        }
+        return toRet;
+    }
+} // end PackedHashTable
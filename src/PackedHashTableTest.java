@@ -0,0 +1,310 @@
+import java.nio.ByteBuffer;
+import student.TestCase;
+
+/**
+ * Tests the functionality of our packed hash table, checking
+ * that it places records exactly where HashTable would and that
+ * it follows records moved by the byte array
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/24/2017
+ */
+public class PackedHashTableTest extends TestCase {
+
+    // ----------------PRIVATE VARIABLES------------------
+    private PackedHashTable table;
+    private byte[] memory;
+    private ByteBuffer buffer; // wraps memory
+    private Handle nickelback;
+    private Handle photograph;
+    private Handle rockstar;
+    private Handle savinMe;
+    private Handle howYouRemindMe;
+    private Handle farAway;
+    private Handle animals;
+    private int nextId; // id of the next stored name
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Sets up the test fixture.
+     */
+    @Override
+    public void setUp() {
+        memory = new byte[96];
+        buffer = ByteBuffer.wrap(memory);
+        int offset = 0;
+
+        nickelback = this.store("Nickelback", offset);
+        offset += nickelback.getLength();
+        photograph = this.store("Photograph", offset);
+        offset += photograph.getLength();
+        rockstar = this.store("Rockstar", offset);
+        offset += rockstar.getLength();
+        savinMe = this.store("Savin' Me", offset);
+        offset += savinMe.getLength();
+        howYouRemindMe = this.store("How You Remind Me", offset);
+        offset += howYouRemindMe.getLength();
+        farAway = this.store("Far Away", offset);
+        offset += farAway.getLength();
+        animals = this.store("Animals", offset);
+
+        table = new PackedHashTable(2, new FoldHash());
+    } // end setUp
+
+    /**
+     * Tests insert against desired functionality and asserts
+     * that the table expands into the same slots as HashTable
+     */
+    public void testInsert() {
+        assertEquals(0, table.size());
+        table.insert(animals);
+        table.insert(farAway);
+        table.insert(howYouRemindMe);
+
+        assertEquals(
+                "|Animals| 2\n" +
+                        "|How You Remind Me| 6\n" +
+                        "|Far Away| 7\n",
+                table.toString());
+
+        // Force an unsuccessful quadratic probe
+        table.insert(nickelback);
+        table.insert(photograph);
+        table.insert(rockstar);
+        table.insert(savinMe);
+
+        assertEquals(7, table.size());
+        assertEquals(
+                "|Animals| 2\n" +
+                        "|Rockstar| 5\n" +
+                        "|How You Remind Me| 6\n" +
+                        "|Far Away| 7\n" +
+                        "|Savin' Me| 10\n" +
+                        "|Photograph| 15\n" +
+                        "|Nickelback| 22\n",
+                table.toString());
+    } // end testInsert
+
+    /**
+     * Tests that search returns handles equal to the ones
+     * inserted, and null for names not in the table
+     */
+    public void testSearch() {
+        table.insert(nickelback);
+        table.insert(savinMe);
+        table.insert(animals);
+        table.insert(farAway);
+        table.insert(howYouRemindMe);
+        table.insert(photograph);
+        table.insert(rockstar);
+
+        assertEquals(nickelback, table.search("Nickelback"));
+        assertEquals(howYouRemindMe,
+                table.search("How You Remind Me"));
+        assertEquals(photograph, table.search("Photograph"));
+        assertEquals(rockstar, table.search("Rockstar"));
+        assertEquals(farAway, table.search("Far Away"));
+        assertEquals(animals, table.search("Animals"));
+        assertEquals(savinMe, table.search("Savin' Me"));
+        assertEquals(savinMe.getHash(),
+                table.search("Savin' Me").getHash());
+
+        assertNull(table.search("Only the Good Die Young"));
+    }
+
+    /**
+     * Tests delete on elements in the table, elements reached by
+     * quadratic probing, and elements not in the table
+     */
+    public void testDelete() {
+        table.insert(savinMe);
+        table.insert(farAway);
+        table.insert(nickelback);
+        table.insert(animals);
+
+        assertEquals(
+                "|Nickelback| 2\n" +
+                        "|Animals| 3\n" +
+                        "|Savin' Me| 6\n" +
+                        "|Far Away| 7\n",
+                table.toString());
+        assertEquals(nickelback, table.delete(nickelback));
+        assertEquals(3, table.size());
+        assertNull(table.search("Nickelback"));
+        assertEquals(animals, table.search("Animals"));
+
+        assertNull(table.delete(nickelback));
+        assertNull(table.delete(howYouRemindMe));
+
+        // insert over the gravestone
+        table.insert(nickelback);
+        assertEquals(nickelback, table.search("Nickelback"));
+        assertEquals(4, table.size());
+    }
+
+    /**
+     * Tests that relocating a record updates only the table
+     * holding it, and that lookups then read the new memory
+     */
+    public void testRelocate() {
+        table.insert(nickelback);
+        table.insert(animals);
+
+        byte[] newMemory = new byte[96];
+        System.arraycopy(memory, animals.getOffset(), newMemory,
+                0, animals.getLength());
+        System.arraycopy(memory, nickelback.getOffset(),
+                newMemory, 10, nickelback.getLength());
+
+        ByteBuffer newBuffer = ByteBuffer.wrap(newMemory);
+        this.move(rockstar, newBuffer, 40);
+        this.move(animals, newBuffer, 0);
+        this.move(nickelback, newBuffer, 10);
+
+        Handle found = table.search("Animals");
+        assertEquals(0, found.getOffset());
+        assertEquals(newMemory, found.getMemory());
+        assertEquals(10, table.search("Nickelback").getOffset());
+        // rockstar was never stored in the table
+        assertNull(table.search("Rockstar"));
+        assertEquals(2, table.size());
+
+        // a table with no records does not own anything
+        PackedHashTable empty = new PackedHashTable(4);
+        empty.relocate(animals, buffer, 0);
+        assertNull(empty.search("Animals"));
+    }
+
+    /**
+     * Tests that relocating a record finds it by id, even when
+     * another record shares its offset, length and hash
+     */
+    public void testRelocateById() {
+        // a record reusing the space of an older one, holding
+        // the same bytes
+        Handle older = new Handle(buffer, animals.getOffset(),
+                animals.getLength(), 1);
+        Handle newer = new Handle(buffer, animals.getOffset(),
+                animals.getLength(), 2);
+        table.insert(older);
+        table.insert(newer);
+
+        System.arraycopy(memory, animals.getOffset(), memory, 80,
+                animals.getLength());
+        this.move(newer, buffer, 80);
+        assertEquals(80, table.delete(newer).getOffset());
+        assertEquals(1, table.search("Animals").getId());
+        assertEquals(animals.getOffset(),
+                table.search("Animals").getOffset());
+    }
+
+    /**
+     * Tests inserting, finding, relocating and removing records
+     * of a handle table by id
+     */
+    public void testIds() {
+        HandleTable records = new HandleTable(buffer);
+        int numb = records.add(animals.getOffset(), 0);
+        int animalsId = records.add(animals.getOffset(),
+                animals.getLength());
+        int rockstarId = records.add(rockstar.getOffset(),
+                rockstar.getLength());
+        table.insert(records, animalsId);
+        table.insert(records, rockstarId);
+        assertEquals(2, table.size());
+        assertEquals(animalsId, table.find("Animals"));
+        assertEquals(-1, table.find("Numb"));
+        assertFalse(table.delete(records, numb));
+
+        System.arraycopy(memory, animals.getOffset(), memory, 80,
+                animals.getLength());
+        records.move(animalsId, 80);
+        table.relocate(records, animalsId, buffer,
+                animals.getOffset());
+        assertEquals(80, table.search("Animals").getOffset());
+
+        assertTrue(table.delete(records, animalsId));
+        assertEquals(-1, table.find("Animals"));
+        assertEquals(rockstarId, table.find("Rockstar"));
+        assertEquals(1, table.size());
+    }
+
+    /**
+     * Tests that the packed table can back our byte array
+     */
+    public void testWithMemory() {
+        PackedHashTable songTable =
+                new PackedHashTable(8, new FoldHash());
+        DynamicByteArray pool =
+                new DynamicByteArray(32, table, songTable);
+
+        pool.insert("Nickelback", true);
+        pool.insert("Animals", false);
+        pool.insert("Savin' Me", false);
+        pool.insert("Nickelback", true);
+        // forces memory to expand and relocate every record
+        pool.insert("How You Remind Me", false);
+
+        assertEquals(1, table.size());
+        assertEquals(3, songTable.size());
+        assertEquals(3, table.search("Nickelback").getOffset());
+        assertEquals("How You Remind Me",
+                songTable.search("How You Remind Me")
+                        .getStringAt());
+
+        pool.delete(songTable.search("Animals"), false);
+        assertNull(songTable.search("Animals"));
+        assertEquals("[Nickelback, Savin' Me, How You Remind Me]",
+                pool.toString());
+    }
+
+    /**
+     * Tests the functionality of the clear method
+     */
+    public void testClear() {
+        table.insert(nickelback);
+        table.insert(savinMe);
+
+        table.clear();
+        assertEquals(0, table.size());
+        assertEquals("", table.toString());
+        assertNull(table.search("Nickelback"));
+    }
+
+    // ---------------- PRIVATE METHODS -------------------
+
+    /**
+     * Points a handle at a new location, as the byte array does
+     * when it moves a record, and tells our table about it
+     *
+     * @param handle
+     *            -- handle of the moved record
+     * @param newBuffer
+     *            -- buffer the record is moved to
+     * @param newOffset
+     *            -- new offset of the record
+     */
+    private void move(Handle handle, ByteBuffer newBuffer,
+            int newOffset) {
+        int oldOffset = handle.getOffset();
+        handle.setBuffer(newBuffer);
+        handle.setOffset(newOffset);
+        table.relocate(handle, buffer, oldOffset);
+    }
+
+    /**
+     * Copies a name into our memory and creates a handle to it
+     *
+     * @param name
+     *            -- name to store
+     * @param offset
+     *            -- offset to store name at
+     * @return handle pointing to the stored name
+     */
+    private Handle store(String name, int offset) {
+        byte[] temp = name.getBytes();
+        System.arraycopy(temp, 0, memory, offset, temp.length);
+        return new Handle(buffer, offset, temp.length, nextId++);
+    }
+} // end PackedHashTableTest
@@ -0,0 +1,736 @@
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Ordered index of (key, value) pairs of record ids, specialized
+ * for primitives. Where our 2-3+ tree keeps every pair as a
+ * KVPair object pointing at two Handles, and compares pairs
+ * through KVPair.compareTo and Handle.compareTo, this tree packs
+ * each pair into a single long, the key id in the high 32 bits
+ * and the value id in the low 32 bits. Pairs sort by key id and
+ * then by value id, exactly as a KVPair of handles with those
+ * ids would, so every comparison is a single Long.compare and
+ * all pairs sharing a key form one contiguous run.
+ *
+ * The tree is a B+ tree: the pairs sit in long arrays in the
+ * leaves, the inner nodes hold long separators, and the leaves
+ * are linked so that the pairs of one key are found with a
+ * single descent followed by a walk along the leaves. A pair
+ * takes a little over 8 bytes instead of a KVPair object, its
+ * reference, and the share of a node pointing at it.
+ *
+ * Ids must not be negative, and each pair is stored at most
+ * once.
+ *
+ * SongSearch keeps its pairs in a 2-3+ tree all the same, since
+ * print tree shows the keys of every 2-3+ node in preorder and
+ * is checked against that exact layout. The leaves and
+ * separators of this tree cannot be printed that way.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ */
+public class PackedPairTree {
+
+    // ---------------- PRIVATE VARIABLES ----------------
+
+    private static final int DEFAULT_FANOUT = 64;
+
+    private int fanout; // most children of an inner node
+    private int minLeafKeys; // fewest pairs in a leaf but the root
+    private int minInnerKeys; // fewest separators likewise
+    private Node root; // null when the tree is empty
+    private int height;
+    private int size;
+
+    // ---------------- CONSTRUCTOR ---------------------
+
+    /**
+     * Default constructor for a tree with a fanout of 64
+     */
+    public PackedPairTree() {
+        this(DEFAULT_FANOUT);
+    }
+
+    /**
+     * Constructor for a tree with the specified fanout
+     *
+     * @param treeFanout
+     *            -- most children of an inner node, at least 3
+     */
+    public PackedPairTree(int treeFanout) {
+        if (treeFanout < 3) {
+            throw new IllegalArgumentException(
+                    "fanout must be at least 3: " + treeFanout);
+        }
+        fanout = treeFanout;
+        minLeafKeys = fanout / 2;
+        minInnerKeys = (fanout - 1) / 2;
+        this.clear();
+    } // end constructor
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Packs a pair of ids into the long stored by the tree
+     *
+     * @param key
+     *            -- id of the key record
+     * @param value
+     *            -- id of the value record
+     * @return packed pair
+     */
+    public static long pack(int key, int value) {
+        return ((long) key << 32) | (value & 0xffffffffL);
+    }
+
+    /**
+     * Gives the key id of a packed pair
+     *
+     * @param pair
+     *            -- packed pair
+     * @return id of the key record
+     */
+    public static int keyOf(long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    /**
+     * Gives the value id of a packed pair
+     *
+     * @param pair
+     *            -- packed pair
+     * @return id of the value record
+     */
+    public static int valueOf(long pair) {
+        return (int) pair;
+    }
+
+    /**
+     * Inserts a pair into the tree, splitting full nodes on the
+     * way back up to the root
+     *
+     * @param key
+     *            -- id of the key record
+     * @param value
+     *            -- id of the value record
+     * @return True if the pair was inserted, false if the tree
+     *         already held it
+     */
+    public boolean insert(int key, int value) {
+        long pair = pack(key, value);
+        if (root == null) {
+            root = new Node(fanout, true);
+            root.keys[0] = pair;
+            root.count = 1;
+            height = 1;
+            size = 1;
+            return true;
+        }
+
+        Node[] path = new Node[height];
+        int[] index = new int[height];
+        Node node = this.descend(pair, path, index);
+        int pos = lowerBound(node, pair);
+        if (pos < node.count && node.keys[pos] == pair) {
+            return false;
+        }
+        System.arraycopy(node.keys, pos, node.keys, pos + 1,
+                node.count - pos);
+        node.keys[pos] = pair;
+        node.count++;
+        size++;
+        if (node.count < fanout) {
+            return true;
+        }
+
+        // split our way up until a parent has room
+        Node right = this.splitLeaf(node);
+        long separator = right.keys[0];
+        for (int depth = height - 2; depth >= 0; depth--) {
+            Node parent = path[depth];
+            int child = index[depth];
+            System.arraycopy(parent.keys, child, parent.keys,
+                    child + 1, parent.count - child);
+            System.arraycopy(parent.children, child + 1,
+                    parent.children, child + 2, parent.count - child);
+            parent.keys[child] = separator;
+            parent.children[child + 1] = right;
+            parent.count++;
+            if (parent.count < fanout) {
+                return true;
+            }
+            separator = parent.keys[fanout / 2];
+            right = this.splitInner(parent);
+        } // end for
+
+        // the root itself was split
+        Node newRoot = new Node(fanout, false);
+        newRoot.keys[0] = separator;
+        newRoot.children[0] = root;
+        newRoot.children[1] = right;
+        newRoot.count = 1;
+        root = newRoot;
+        height++;
+        return true;
+    } // end insert
+
+    /**
+     * Removes a pair from the tree, letting every node left less
+     * than half full borrow from or merge with a sibling on the
+     * way back up to the root
+     *
+     * @param key
+     *            -- id of the key record
+     * @param value
+     *            -- id of the value record
+     * @return True if the pair was removed, false if the tree
+     *         did not hold it
+     */
+    public boolean remove(int key, int value) {
+        if (root == null) {
+            return false;
+        }
+        long pair = pack(key, value);
+        Node[] path = new Node[height];
+        int[] index = new int[height];
+        Node node = this.descend(pair, path, index);
+        int pos = lowerBound(node, pair);
+        if (pos == node.count || node.keys[pos] != pair) {
+            return false;
+        }
+        System.arraycopy(node.keys, pos + 1, node.keys, pos,
+                node.count - pos - 1);
+        node.count--;
+        size--;
+
+        for (int depth = height - 2; depth >= 0; depth--) {
+            int min = node.isLeaf() ? minLeafKeys : minInnerKeys;
+            if (node.count >= min) {
+                break;
+            }
+            this.rebalance(path[depth], index[depth]);
+            node = path[depth];
+        }
+
+        if (root.count == 0) {
+            // the root ran out of keys, so its only child (if
+            // any) takes its place
+            root = root.isLeaf() ? null : root.children[0];
+            height--;
+        }
+        return true;
+    } // end remove
+
+    /**
+     * Indicates whether the tree holds a pair
+     *
+     * @param key
+     *            -- id of the key record
+     * @param value
+     *            -- id of the value record
+     * @return True if the pair is in the tree
+     */
+    public boolean contains(int key, int value) {
+        if (root == null) {
+            return false;
+        }
+        long pair = pack(key, value);
+        Node node = this.descend(pair, null, null);
+        int pos = lowerBound(node, pair);
+        return pos < node.count && node.keys[pos] == pair;
+    } // end contains
+
+    /**
+     * Indicates whether any pair of the tree has the given key
+     *
+     * @param key
+     *            -- id of the key record
+     * @return True if a pair with this key is in the tree
+     */
+    public boolean hasKey(int key) {
+        return this.values(key).hasNext();
+    }
+
+    /**
+     * Walks the value ids of every pair with the given key, in
+     * ascending order. The tree must not be modified during the
+     * walk.
+     *
+     * @param key
+     *            -- id of the key record
+     * @return iterator over the value ids
+     */
+    public PrimitiveIterator.OfInt values(int key) {
+        final PrimitiveIterator.OfLong pairs =
+                this.rangeIterator(pack(key, 0),
+                        pack(key, Integer.MAX_VALUE));
+        return new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return pairs.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                return valueOf(pairs.nextLong());
+            }
+        };
+    } // end values
+
+    /**
+     * Walks the packed pairs within a range (inclusive), in
+     * ascending order, along the leaves. The tree must not be
+     * modified during the walk.
+     *
+     * @param low
+     *            -- lowest packed pair
+     * @param high
+     *            -- highest packed pair
+     * @return iterator over the packed pairs
+     */
+    public PrimitiveIterator.OfLong rangeIterator(long low,
+            long high) {
+        return new LeafIterator(low, high);
+    }
+
+    /**
+     * Accessor method for the fanout of the tree
+     *
+     * @return most children of an inner node
+     */
+    public int fanout() {
+        return fanout;
+    }
+
+    /**
+     * Gives the number of levels of the tree, 0 if it is empty
+     *
+     * @return height of the tree
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Accessor method for the number of pairs in the tree
+     *
+     * @return number of pairs in the tree
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Indicates whether the tree holds no pairs
+     *
+     * @return True if tree is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Removes every pair from the tree
+     */
+    public void clear() {
+        root = null;
+        height = 0;
+        size = 0;
+    }
+
+    /**
+     * Gets the String representation of this tree: every node
+     * in preorder, one per line and indented by its depth, with
+     * each pair (or separator) shown as its key and value ids
+     *
+     * @return A String.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        if (root != null) {
+            this.printPreOrder(root, 0, builder);
+        }
+        return builder.toString();
+    }
+
+    // ---------------- PRIVATE METHODS -------------------
+
+    /**
+     * Walks down to the leaf where a pair belongs, optionally
+     * recording the path taken
+     *
+     * @param pair
+     *            -- packed pair
+     * @param path
+     *            -- receives the inner nodes passed, or null
+     * @param index
+     *            -- receives the child taken in each, or null
+     * @return the leaf
+     */
+    private Node descend(long pair, Node[] path, int[] index) {
+        Node node = root;
+        for (int depth = 0; !node.isLeaf(); depth++) {
+            int child = upperBound(node, pair);
+            if (path != null) {
+                path[depth] = node;
+                index[depth] = child;
+            }
+            node = node.children[child];
+        }
+        return node;
+    } // end descend
+
+    /**
+     * Binary searches a node for the first key not below a pair
+     *
+     * @param node
+     *            -- node to search
+     * @param pair
+     *            -- packed pair
+     * @return number of keys below the pair
+     */
+    private static int lowerBound(Node node, long pair) {
+        int low = 0;
+        int high = node.count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (node.keys[mid] < pair) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        } // end while
+        return low;
+    } // end lowerBound
+
+    /**
+     * Binary searches a node for the first key above a pair
+     *
+     * @param node
+     *            -- node to search
+     * @param pair
+     *            -- packed pair
+     * @return number of keys no greater than the pair
+     */
+    private static int upperBound(Node node, long pair) {
+        int low = 0;
+        int high = node.count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (node.keys[mid] <= pair) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        } // end while
+        return low;
+    } // end upperBound
+
+    /**
+     * Moves the upper half of a full leaf into a new leaf
+     * following it
+     *
+     * @param leaf
+     *            -- leaf holding fanout pairs
+     * @return new right half
+     */
+    private Node splitLeaf(Node leaf) {
+        int keep = fanout / 2;
+        Node right = new Node(fanout, true);
+        right.count = leaf.count - keep;
+        System.arraycopy(leaf.keys, keep, right.keys, 0, right.count);
+        leaf.count = keep;
+        right.next = leaf.next;
+        leaf.next = right;
+        return right;
+    } // end splitLeaf
+
+    /**
+     * Moves the separators and children above the middle
+     * separator of a full inner node into a new node. The middle
+     * separator itself goes up to the parent and must be read
+     * before the split.
+     *
+     * @param node
+     *            -- inner node holding fanout separators
+     * @return new right half
+     */
+    private Node splitInner(Node node) {
+        int keep = fanout / 2;
+        Node right = new Node(fanout, false);
+        right.count = node.count - keep - 1;
+        System.arraycopy(node.keys, keep + 1, right.keys, 0,
+                right.count);
+        System.arraycopy(node.children, keep + 1, right.children, 0,
+                right.count + 1);
+        for (int i = keep + 1; i <= node.count; i++) {
+            node.children[i] = null;
+        }
+        node.count = keep;
+        return right;
+    } // end splitInner
+
+    /**
+     * Fixes a child left less than half full by moving a key
+     * over from a sibling with keys to spare, or else by merging
+     * it with a sibling
+     *
+     * @param parent
+     *            -- parent of the child
+     * @param child
+     *            -- position of the child in the parent
+     */
+    private void rebalance(Node parent, int child) {
+        Node node = parent.children[child];
+        int min = node.isLeaf() ? minLeafKeys : minInnerKeys;
+        Node left = child > 0 ? parent.children[child - 1] : null;
+        Node right = child < parent.count
+                ? parent.children[child + 1] : null;
+
+        if (left != null && left.count > min) {
+            this.borrowFromLeft(parent, child - 1, left, node);
+        }
+        else if (right != null && right.count > min) {
+            this.borrowFromRight(parent, child, node, right);
+        }
+        else if (left != null) {
+            this.merge(parent, child - 1, left, node);
+        }
+        else {
+            this.merge(parent, child, node, right);
+        }
+    } // end rebalance
+
+    /**
+     * Moves the last key of a node into its right sibling
+     *
+     * @param parent
+     *            -- parent of both nodes
+     * @param sep
+     *            -- position of the separator between them
+     * @param left
+     *            -- node giving up a key
+     * @param node
+     *            -- right sibling receiving it
+     */
+    private void borrowFromLeft(Node parent, int sep, Node left,
+            Node node) {
+        System.arraycopy(node.keys, 0, node.keys, 1, node.count);
+        if (node.isLeaf()) {
+            node.keys[0] = left.keys[left.count - 1];
+            parent.keys[sep] = node.keys[0];
+        }
+        else {
+            System.arraycopy(node.children, 0, node.children, 1,
+                    node.count + 1);
+            node.keys[0] = parent.keys[sep];
+            node.children[0] = left.children[left.count];
+            parent.keys[sep] = left.keys[left.count - 1];
+            left.children[left.count] = null;
+        }
+        left.count--;
+        node.count++;
+    } // end borrowFromLeft
+
+    /**
+     * Moves the first key of a node into its left sibling
+     *
+     * @param parent
+     *            -- parent of both nodes
+     * @param sep
+     *            -- position of the separator between them
+     * @param node
+     *            -- left sibling receiving a key
+     * @param right
+     *            -- node giving it up
+     */
+    private void borrowFromRight(Node parent, int sep, Node node,
+            Node right) {
+        if (node.isLeaf()) {
+            node.keys[node.count] = right.keys[0];
+            System.arraycopy(right.keys, 1, right.keys, 0,
+                    right.count - 1);
+            parent.keys[sep] = right.keys[0];
+        }
+        else {
+            node.keys[node.count] = parent.keys[sep];
+            node.children[node.count + 1] = right.children[0];
+            parent.keys[sep] = right.keys[0];
+            System.arraycopy(right.keys, 1, right.keys, 0,
+                    right.count - 1);
+            System.arraycopy(right.children, 1, right.children, 0,
+                    right.count);
+            right.children[right.count] = null;
+        }
+        right.count--;
+        node.count++;
+    } // end borrowFromRight
+
+    /**
+     * Merges a node into its left sibling and removes it, along
+     * with the separator between them, from their parent
+     *
+     * @param parent
+     *            -- parent of both nodes
+     * @param sep
+     *            -- position of the separator between them
+     * @param left
+     *            -- node receiving the keys
+     * @param right
+     *            -- node being merged away
+     */
+    private void merge(Node parent, int sep, Node left, Node right) {
+        if (left.isLeaf()) {
+            System.arraycopy(right.keys, 0, left.keys, left.count,
+                    right.count);
+            left.count += right.count;
+            left.next = right.next;
+        }
+        else {
+            left.keys[left.count] = parent.keys[sep];
+            System.arraycopy(right.keys, 0, left.keys,
+                    left.count + 1, right.count);
+            System.arraycopy(right.children, 0, left.children,
+                    left.count + 1, right.count + 1);
+            left.count += right.count + 1;
+        }
+
+        System.arraycopy(parent.keys, sep + 1, parent.keys, sep,
+                parent.count - sep - 1);
+        System.arraycopy(parent.children, sep + 2, parent.children,
+                sep + 1, parent.count - sep - 1);
+        parent.children[parent.count] = null;
+        parent.count--;
+    } // end merge
+
+    /**
+     * Prints a subtree in preorder
+     *
+     * @param node
+     *            -- root of the subtree
+     * @param level
+     *            -- depth of the node, for indentation
+     * @param builder
+     *            -- receives the representation
+     */
+    private void printPreOrder(Node node, int level,
+            StringBuilder builder) {
+        for (int i = 0; i < 2 * level; i++) {
+            builder.append(" ");
+        }
+        for (int i = 0; i < node.count; i++) {
+            builder.append(i == 0 ? "" : " ");
+            builder.append(keyOf(node.keys[i]));
+            builder.append(":");
+            builder.append(valueOf(node.keys[i]));
+        }
+        builder.append("\n");
+        if (!node.isLeaf()) {
+            for (int i = 0; i <= node.count; i++) {
+                this.printPreOrder(node.children[i], level + 1,
+                        builder);
+            }
+        }
+    } // end printPreOrder
+
+    /**
+     * Node of the tree. A leaf holds packed pairs and a link to
+     * the next leaf, an inner node separators and one more child
+     * than it has separators. Both have room for one key (and
+     * child) more than they may keep, so that a node can be
+     * split after it overflows.
+     */
+    private static class Node {
+        private long[] keys; // pairs or separators, in order
+        private Node[] children; // null for a leaf
+        private Node next; // leaf to the right, null if last
+        private int count; // keys in use
+
+        /**
+         * Constructor for an empty node
+         *
+         * @param fanout
+         *            -- fanout of the tree
+         * @param leaf
+         *            -- True for a leaf, false for an inner node
+         */
+        Node(int fanout, boolean leaf) {
+            keys = new long[fanout];
+            children = leaf ? null : new Node[fanout + 1];
+        }
+
+        /**
+         * Indicates whether the node is a leaf
+         *
+         * @return True if the node is a leaf
+         */
+        boolean isLeaf() {
+            return children == null;
+        }
+    } // end Node
+
+    /**
+     * Walks the pairs of a range along the linked leaves, from
+     * the first pair not below the lower bound until the first
+     * pair above the upper bound
+     */
+    private class LeafIterator implements PrimitiveIterator.OfLong {
+        private long higher; // upper bound of range
+        private Node leaf; // leaf of the next pair, null when done
+        private int pos; // position of the next pair in leaf
+
+        /**
+         * Constructor which finds the first pair in range
+         *
+         * @param low
+         *            -- lower bound of range
+         * @param high
+         *            -- upper bound of range
+         */
+        LeafIterator(long low, long high) {
+            higher = high;
+            if (root != null) {
+                leaf = PackedPairTree.this.descend(low, null, null);
+                pos = lowerBound(leaf, low);
+                if (pos == leaf.count) {
+                    leaf = leaf.next;
+                    pos = 0;
+                }
+            }
+            this.check();
+        } // end constructor
+
+        @Override
+        public boolean hasNext() {
+            return leaf != null;
+        }
+
+        @Override
+        public long nextLong() {
+            if (leaf == null) {
+                throw new NoSuchElementException();
+            }
+            long toRet = leaf.keys[pos++];
+            if (pos == leaf.count) {
+                leaf = leaf.next;
+                pos = 0;
+            }
+            this.check();
+            return toRet;
+        } // end nextLong
+
+        /**
+         * Ends the walk once the next pair is above the upper
+         * bound
+         */
+        private void check() {
+            if (leaf != null && leaf.keys[pos] > higher) {
+                leaf = null;
+            }
+        }
+    } // end LeafIterator
+} // end PackedPairTree
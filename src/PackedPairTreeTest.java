@@ -0,0 +1,205 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+import student.TestCase;
+
+/**
+ * Tests the functionality of the packed pair tree against a
+ * sorted set holding the same pairs, for small and large
+ * fanouts, including splits and merges all the way up to the
+ * root
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ */
+public class PackedPairTreeTest extends TestCase {
+
+    // ------------------- PRIVATE VARIABLES -------------------
+
+    private PackedPairTree tree;
+
+    // ------------------- PUBLIC METHODS ----------------------
+
+    @Override
+    public void setUp() {
+        tree = new PackedPairTree(3);
+    }
+
+    /**
+     * Tests that pairs pack into longs which sort by key and then
+     * by value
+     */
+    public void testPack() {
+        long pair = PackedPairTree.pack(7, 300);
+        assertEquals(7, PackedPairTree.keyOf(pair));
+        assertEquals(300, PackedPairTree.valueOf(pair));
+        long big = PackedPairTree.pack(Integer.MAX_VALUE,
+                Integer.MAX_VALUE);
+        assertEquals(Integer.MAX_VALUE, PackedPairTree.keyOf(big));
+        assertEquals(Integer.MAX_VALUE, PackedPairTree.valueOf(big));
+
+        assertTrue(Long.compare(PackedPairTree.pack(1, 900),
+                PackedPairTree.pack(2, 0)) < 0);
+        assertTrue(Long.compare(PackedPairTree.pack(2, 3),
+                PackedPairTree.pack(2, 4)) < 0);
+        assertTrue(Long.compare(PackedPairTree.pack(0, 0),
+                big) < 0);
+    } // end testPack
+
+    /**
+     * Tests an empty tree and the smallest fanout allowed
+     */
+    public void testEmpty() {
+        assertTrue(tree.isEmpty());
+        assertEquals(0, tree.height());
+        assertFalse(tree.contains(1, 1));
+        assertFalse(tree.remove(1, 1));
+        assertFalse(tree.hasKey(1));
+        assertFalse(tree.values(1).hasNext());
+        assertEquals("", tree.toString());
+        assertEquals(64, new PackedPairTree().fanout());
+
+        Exception thrown = null;
+        try {
+            new PackedPairTree(2);
+        }
+        catch (IllegalArgumentException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+    } // end testEmpty
+
+    /**
+     * Tests that splits keep pairs in the leaves and that a pair
+     * is only stored once
+     */
+    public void testSplit() {
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(tree.insert(1, 10 * i));
+        }
+        assertFalse(tree.insert(1, 30));
+        assertEquals(5, tree.size());
+        assertEquals(3, tree.height());
+        assertEquals("1:30\n  1:20\n    1:10\n    1:20\n"
+                + "  1:40\n    1:30\n    1:40 1:50\n",
+                tree.toString());
+
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(tree.remove(1, 10 * i));
+        }
+        assertFalse(tree.remove(1, 10));
+        assertTrue(tree.isEmpty());
+        assertEquals(0, tree.height());
+    } // end testSplit
+
+    /**
+     * Tests walking the values of one key, which may span
+     * several leaves
+     */
+    public void testValues() {
+        for (int key = 0; key < 5; key++) {
+            for (int value = 9; value >= 0; value--) {
+                tree.insert(key, value * key);
+            }
+        }
+        assertTrue(tree.hasKey(4));
+        assertFalse(tree.hasKey(5));
+
+        PrimitiveIterator.OfInt values = tree.values(3);
+        for (int value = 0; value < 10; value++) {
+            assertTrue(values.hasNext());
+            assertEquals(value * 3, values.nextInt());
+        }
+        assertFalse(values.hasNext());
+
+        // every pair of key 0 has value 0
+        values = tree.values(0);
+        assertEquals(0, values.nextInt());
+        assertFalse(values.hasNext());
+
+        Exception thrown = null;
+        try {
+            values.nextInt();
+        }
+        catch (java.util.NoSuchElementException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+    } // end testValues
+
+    /**
+     * Tests random inserts and removes against a sorted set, for
+     * a small and a large fanout
+     */
+    public void testRandom() {
+        for (int fanout : new int[] {3, 4, 64}) {
+            tree = new PackedPairTree(fanout);
+            TreeSet<Long> expected = new TreeSet<Long>();
+            Random random = new Random(fanout);
+            List<long[]> pairs = new ArrayList<long[]>();
+            for (int i = 0; i < 3000; i++) {
+                int key = random.nextInt(200);
+                int value = random.nextInt(Integer.MAX_VALUE);
+                assertEquals(expected.add(
+                        PackedPairTree.pack(key, value)),
+                        tree.insert(key, value));
+                pairs.add(new long[] {key, value});
+            }
+            assertEquals(expected.size(), tree.size());
+            this.assertMatches(expected);
+
+            Collections.shuffle(pairs, random);
+            for (int i = 0; i < pairs.size(); i += 2) {
+                int key = (int) pairs.get(i)[0];
+                int value = (int) pairs.get(i)[1];
+                assertEquals(expected.remove(
+                        PackedPairTree.pack(key, value)),
+                        tree.remove(key, value));
+                assertFalse(tree.contains(key, value));
+            }
+            assertEquals(expected.size(), tree.size());
+            this.assertMatches(expected);
+
+            for (long[] pair : pairs) {
+                tree.remove((int) pair[0], (int) pair[1]);
+            }
+            assertTrue(tree.isEmpty());
+        } // end for
+    } // end testRandom
+
+    // ------------------- PRIVATE METHODS ----------------------
+
+    /**
+     * Checks the tree holds exactly the pairs of a sorted set,
+     * walking both whole and key by key
+     *
+     * @param expected
+     *            -- packed pairs the tree should hold
+     */
+    private void assertMatches(TreeSet<Long> expected) {
+        PrimitiveIterator.OfLong all =
+                tree.rangeIterator(Long.MIN_VALUE, Long.MAX_VALUE);
+        for (long pair : expected) {
+            assertTrue(all.hasNext());
+            assertEquals(pair, all.nextLong());
+            assertTrue(tree.contains(PackedPairTree.keyOf(pair),
+                    PackedPairTree.valueOf(pair)));
+        }
+        assertFalse(all.hasNext());
+
+        for (int key = 0; key < 200; key++) {
+            PrimitiveIterator.OfInt values = tree.values(key);
+            for (long pair : expected.subSet(
+                    PackedPairTree.pack(key, 0), true,
+                    PackedPairTree.pack(key, Integer.MAX_VALUE),
+                    true)) {
+                assertEquals(PackedPairTree.valueOf(pair),
+                        values.nextInt());
+            }
+            assertFalse(values.hasNext());
+        }
+    } // end assertMatches
+} // end PackedPairTreeTest
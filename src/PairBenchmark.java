@@ -0,0 +1,182 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the 2-3+ tree of KVPair objects we index artists and
+ * songs with against a 2-3+ tree of boxed packed pairs and the
+ * packed tree of long pairs. The same random pairs of record ids
+ * go into all three: as KVPairs of two Handles with those ids,
+ * as Longs, and as packed longs. We report the memory each tree
+ * takes per pair and the average time of a lookup. The Handles
+ * are created up front, as their records exist whichever tree
+ * indexes them, so only the pairs and the nodes are counted.
+ * Lookups are timed over a few passes, after a warm-up pass, and
+ * the best pass is reported.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ */
+public class PairBenchmark {
+
+    // ------------------- PRIVATE VARIABLES -------------------
+
+    private static final int PASSES = 4;
+    private static final long SEED = 21;
+
+    // ------------------- PUBLIC METHODS ----------------------
+
+    /**
+     * Builds both trees and prints a table of their memory and
+     * lookup time
+     *
+     * @param args
+     *            - args[0]: number of pairs
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println(
+                    "Improper invocation\n\n\t\tjava"
+                            + " PairBenchmark {number-of-pairs}");
+            return;
+        }
+        int count = Integer.parseInt(args[0]);
+
+        // one record per id, and pairs between random records
+        Random random = new Random(SEED);
+        int records = Math.max(2, count / 4);
+        Handle[] handles = new Handle[records];
+        for (int i = 0; i < records; i++) {
+            handles[i] = new Handle((ByteBuffer) null, 0, 1, i);
+        }
+        List<int[]> pairs = new ArrayList<int[]>(count);
+        for (int i = 0; i < count; i++) {
+            pairs.add(new int[] {random.nextInt(records),
+                random.nextInt(records)});
+        }
+        Collections.shuffle(pairs, random);
+
+        System.out.printf("%-8s %6s %10s %12s\n", "tree", "pairs",
+                "bytes/pair", "lookup ns");
+
+        long before = usedMemory();
+        TTTree<KVPair<Handle, Handle>> objects =
+                new TTTree<KVPair<Handle, Handle>>();
+        List<KVPair<Handle, Handle>> probes =
+                new ArrayList<KVPair<Handle, Handle>>(count);
+        for (int[] pair : pairs) {
+            KVPair<Handle, Handle> kv = new KVPair<Handle, Handle>(
+                    handles[pair[0]], handles[pair[1]]);
+            if (objects.search(kv) == null) {
+                objects.insert(kv);
+            }
+        }
+        double objectBytes =
+                (double) (usedMemory() - before) / objects.size();
+        for (int[] pair : pairs) {
+            probes.add(new KVPair<Handle, Handle>(handles[pair[0]],
+                    handles[pair[1]]));
+        }
+
+        long best = Long.MAX_VALUE;
+        for (int pass = 0; pass <= PASSES; pass++) {
+            long start = System.nanoTime();
+            for (KVPair<Handle, Handle> probe : probes) {
+                if (objects.search(probe) == null) {
+                    throw new IllegalStateException(
+                            "lookup missed " + probe);
+                }
+            }
+            long time = System.nanoTime() - start;
+            if (pass > 0) {
+                // the first pass only warms up
+                best = Math.min(best, time);
+            }
+        } // end for
+        System.out.printf("%-8s %6d %10.1f %12.1f\n", "kvpair",
+                objects.size(), objectBytes, (double) best / count);
+        int objectSize = objects.size();
+        probes = null;
+        objects = null;
+
+        before = usedMemory();
+        TTTree<Long> longs = new TTTree<Long>();
+        for (int[] pair : pairs) {
+            Long key = PackedPairTree.pack(pair[0], pair[1]);
+            if (longs.search(key) == null) {
+                longs.insert(key);
+            }
+        }
+        double longBytes =
+                (double) (usedMemory() - before) / longs.size();
+        List<Long> longProbes = new ArrayList<Long>(count);
+        for (int[] pair : pairs) {
+            longProbes.add(PackedPairTree.pack(pair[0], pair[1]));
+        }
+
+        best = Long.MAX_VALUE;
+        for (int pass = 0; pass <= PASSES; pass++) {
+            long start = System.nanoTime();
+            for (Long probe : longProbes) {
+                if (longs.search(probe) == null) {
+                    throw new IllegalStateException(
+                            "lookup missed " + probe);
+                }
+            }
+            long time = System.nanoTime() - start;
+            if (pass > 0) {
+                best = Math.min(best, time);
+            }
+        } // end for
+        System.out.printf("%-8s %6d %10.1f %12.1f\n", "long",
+                longs.size(), longBytes, (double) best / count);
+        longProbes = null;
+        longs = null;
+
+        before = usedMemory();
+        PackedPairTree packed = new PackedPairTree();
+        for (int[] pair : pairs) {
+            packed.insert(pair[0], pair[1]);
+        }
+        double packedBytes =
+                (double) (usedMemory() - before) / packed.size();
+        if (packed.size() != objectSize) {
+            throw new IllegalStateException("trees differ in size");
+        }
+
+        best = Long.MAX_VALUE;
+        for (int pass = 0; pass <= PASSES; pass++) {
+            long start = System.nanoTime();
+            for (int[] pair : pairs) {
+                if (!packed.contains(pair[0], pair[1])) {
+                    throw new IllegalStateException(
+                            "lookup missed " + pair[0] + " "
+                                    + pair[1]);
+                }
+            }
+            long time = System.nanoTime() - start;
+            if (pass > 0) {
+                best = Math.min(best, time);
+            }
+        } // end for
+        System.out.printf("%-8s %6d %10.1f %12.1f\n", "packed",
+                packed.size(), packedBytes, (double) best / count);
+    } // end main()
+
+    // ------------------- PRIVATE METHODS ----------------------
+
+    /**
+     * Gives the memory currently in use after collecting garbage
+     *
+     * @return bytes of the heap in use
+     */
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+} // end PairBenchmark
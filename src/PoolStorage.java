@@ -0,0 +1,58 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Provides the memory our DynamicByteArray keeps its records in.
+ * The byte array only ever reads and writes the buffers handed
+ * out here, so the records may live on the heap or in a file
+ * without the byte array, its handles, or the hash tables
+ * noticing. A storage may also keep the records of a previous
+ * run, in which case the byte array reopens them instead of
+ * starting empty.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/30/2017
+ */
+public interface PoolStorage {
+
+    /**
+     * Gives the buffer holding the records stored by a previous
+     * run
+     *
+     * @return buffer of stored records, null if there are none
+     */
+    ByteBuffer reopen();
+
+    /**
+     * Accessor method for the number of bytes used by the
+     * reopened records
+     *
+     * @return offset following the last reopened record
+     */
+    int used();
+
+    /**
+     * Creates a zeroed buffer for the records to move into
+     *
+     * @param length
+     *            -- size of the buffer
+     * @return new buffer
+     */
+    ByteBuffer allocate(int length);
+
+    /**
+     * Called after every change to the records. From now on the
+     * records live in the given buffer, and every previous
+     * buffer is no longer used.
+     *
+     * @param buffer
+     *            -- buffer holding the records
+     * @param usedBytes
+     *            -- offset following the last record
+     */
+    void commit(ByteBuffer buffer, int usedBytes);
+
+    /**
+     * Writes every committed change to durable storage
+     */
+    void flush();
+} // end PoolStorage
@@ -0,0 +1,153 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Compares the collision resolution policies and hash functions
+ * of HashTable on the artists and songs of a command file. Every
+ * insert command of the file is loaded into a separate byte array
+ * and pair of hash tables for each combination of ProbeStrategy
+ * and HashFunction, after which we report the
+ * average and maximum probe length of each table and the time
+ * taken to search for every name it holds.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/29/2017
+ */
+public class ProbeBenchmark {
+
+    // ------------------- PRIVATE VARIABLES -------------------
+
+    private static final int BLOCK_SIZE = 1 << 20;
+    private static final int SEARCH_ROUNDS = 20;
+    private static final HashFunction[] HASH_FUNCTIONS =
+            { new FoldHash(), new MurmurHash() };
+
+    // ------------------- PUBLIC METHODS ----------------------
+
+    /**
+     * Loads the command file under each probing policy and hash
+     * function and prints a table of probe statistics
+     *
+     * @param args
+     *            - args[0]: initial hash size, args[1]: command
+     *            file
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println(
+                    "Improper invocation\n\n\t\tjava"
+                            + " ProbeBenchmark {initial-hash-size}"
+                            + " {command-file}");
+            return;
+        }
+        int initialHashSize = Integer.parseInt(args[0]);
+        List<String> artists = new ArrayList<String>();
+        List<String> songs = new ArrayList<String>();
+
+        try {
+            readPairs(new File(args[1]), artists, songs);
+        }
+        catch (FileNotFoundException e) {
+            System.out.printf("Command file %s does not exist\n",
+                    args[1]);
+            return;
+        }
+
+        System.out.printf(
+                "%-10s %-6s %-6s %8s %8s %9s %9s %10s\n",
+                "strategy", "hash", "table", "records", "slots",
+                "avg probe", "max probe", "search ms");
+
+        for (ProbeStrategy strategy : ProbeStrategy.values()) {
+            for (HashFunction function : HASH_FUNCTIONS) {
+                HashTable artistTable =
+                        new HashTable(initialHashSize, function);
+                HashTable songTable =
+                        new HashTable(initialHashSize, function);
+                artistTable.setProbeStrategy(strategy);
+                songTable.setProbeStrategy(strategy);
+                DynamicByteArray memory = new DynamicByteArray(
+                        BLOCK_SIZE, artistTable, songTable);
+
+                for (int i = 0; i < artists.size(); i++) {
+                    memory.insert(artists.get(i), true);
+                    memory.insert(songs.get(i), false);
+                }
+
+                report(strategy, function, "artist", artistTable,
+                        artists);
+                report(strategy, function, "song", songTable,
+                        songs);
+            } // end for
+        } // end for
+    } // end main()
+
+    // ------------------- PRIVATE METHODS ----------------------
+
+    /**
+     * Collects the artist and song of every insert command in
+     * the command file, ignoring all other commands
+     *
+     * @param commandFile
+     *            -- file to read
+     * @param artists
+     *            -- list receiving the artist of each insert
+     * @param songs
+     *            -- list receiving the song of each insert
+     * @throws FileNotFoundException
+     *             if the command file does not exist
+     */
+    private static void readPairs(File commandFile,
+            List<String> artists, List<String> songs)
+            throws FileNotFoundException {
+        Scanner scan = new Scanner(commandFile);
+
+        while (scan.hasNextLine()) {
+            String line = scan.nextLine().trim();
+            if (line.startsWith("insert")) {
+                String[] artistSong =
+                        line.substring(7).split("<SEP>");
+                artists.add(artistSong[0]);
+                songs.add(artistSong[1]);
+            }
+        } // end while
+        scan.close();
+    } // end readPairs
+
+    /**
+     * Prints the probe statistics of one table, and times
+     * repeated searches for every name loaded into it
+     *
+     * @param strategy
+     *            -- probing policy of the table
+     * @param function
+     *            -- hash function of the table
+     * @param label
+     *            -- name of the table
+     * @param table
+     *            -- table to report on
+     * @param names
+     *            -- names loaded into the table
+     */
+    private static void report(ProbeStrategy strategy,
+            HashFunction function, String label, HashTable table,
+            List<String> names) {
+        long start = System.nanoTime();
+        for (int round = 0; round < SEARCH_ROUNDS; round++) {
+            for (String name : names) {
+                table.search(name);
+            }
+        }
+        double millis = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf(
+                "%-10s %-6s %-6s %8d %8d %9.3f %9d %10.3f\n",
+                strategy, function, label, table.size(),
+                table.capacity(),
+                table.averageProbeLength(),
+                table.maxProbeLength(), millis);
+    } // end report
+} // end ProbeBenchmark
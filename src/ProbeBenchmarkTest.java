@@ -0,0 +1,74 @@
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import student.TestCase;
+
+/**
+ * Tests that our probing benchmark loads a command file under
+ * every probing policy and hash function and reports on both
+ * tables
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/29/2017
+ */
+public class ProbeBenchmarkTest extends TestCase {
+
+    // ------------------- PRIVATE VARIABLES -------------------
+
+    private ByteArrayOutputStream baos;
+    private static final PrintStream OLD = System.out;
+
+    // ------------------- PUBLIC METHODS ----------------------
+
+    @Override
+    public void setUp() {
+        baos = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(baos));
+    }
+
+    /**
+     * Tests the report produced for a small command file
+     *
+     * @throws IOException
+     *             if the command file cannot be written
+     */
+    public void testReport() throws IOException {
+        File commandFile =
+                File.createTempFile("commandFile", ".txt");
+        FileWriter writer = new FileWriter(commandFile);
+        writer.write("insert Nickelback<SEP>Rockstar\n"
+                + "print artist\n"
+                + "insert Nickelback<SEP>Photograph\n"
+                + "insert Linkin Park<SEP>Numb\n");
+        writer.close();
+
+        ProbeBenchmark.main(new String[] {"4",
+            commandFile.getAbsolutePath()});
+        System.setOut(OLD);
+
+        String[] lines = baos.toString().split("\n");
+        assertEquals(13, lines.length);
+        assertTrue(lines[1].startsWith(
+                "QUADRATIC  fold   artist        2"));
+        assertTrue(lines[2].startsWith(
+                "QUADRATIC  fold   song          3"));
+        assertTrue(lines[3].startsWith(
+                "QUADRATIC  murmur artist        2"));
+        assertTrue(lines[12].startsWith("ROBIN_HOOD murmur song"));
+    }
+
+    /**
+     * Tests the messages for missing arguments and files
+     */
+    public void testInvocation() {
+        ProbeBenchmark.main(new String[0]);
+        ProbeBenchmark.main(new String[] {"4", "missing.txt"});
+        System.setOut(OLD);
+
+        assertTrue(baos.toString().startsWith("Improper"));
+        assertTrue(baos.toString().contains(
+                "Command file missing.txt does not exist"));
+    }
+} // end ProbeBenchmarkTest
@@ -0,0 +1,40 @@
+/**
+ * Collision resolution policies supported by HashTable. Each
+ * policy defines the probe sequence walked from a record's home
+ * position.
+ *
+ * QUADRATIC visits home + i * i and is what the reference output
+ * is based on. Since table sizes are not prime it is not
+ * guaranteed to visit every slot, in which case the table
+ * expands. LINEAR visits home + i, which always finds an empty
+ * slot. ROBIN_HOOD walks the same sequence as LINEAR, but an
+ * inserted record takes the slot of any record closer to its own
+ * home (keeping probe lengths even), searches stop as soon as
+ * they pass such a record, and deletions shift the following
+ * records back instead of leaving a gravestone.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/23/2017
+ */
+public enum ProbeStrategy {
+    QUADRATIC, LINEAR, ROBIN_HOOD;
+
+    /**
+     * Gives the slot visited at a given step of the probe
+     * sequence
+     *
+     * @param homePos
+     *            -- home position of the record
+     * @param i
+     *            -- step along the probe sequence, starting at 0
+     * @param length
+     *            -- size of the table
+     * @return slot to visit
+     */
+    public int position(int homePos, int i, int length) {
+        if (this == QUADRATIC) {
+            return (int) ((homePos + (long) i * i) % length);
+        }
+        return (homePos + i) % length;
+    } // end position
+} // end ProbeStrategy
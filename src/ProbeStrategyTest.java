@@ -0,0 +1,36 @@
+import student.TestCase;
+
+/**
+ * Tests the probe sequences walked by each probing policy
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/24/2017
+ */
+public class ProbeStrategyTest extends TestCase {
+
+    /**
+     * Tests the quadratic probe sequence, including wrapping and
+     * steps large enough to overflow an int when squared
+     */
+    public void testQuadratic() {
+        assertEquals(6, ProbeStrategy.QUADRATIC.position(6, 0, 8));
+        assertEquals(7, ProbeStrategy.QUADRATIC.position(6, 1, 8));
+        assertEquals(2, ProbeStrategy.QUADRATIC.position(6, 2, 8));
+        assertEquals(7, ProbeStrategy.QUADRATIC.position(6, 3, 8));
+
+        int position = ProbeStrategy.QUADRATIC.position(5, 50000,
+                3000017);
+        assertTrue(position >= 0 && position < 3000017);
+    }
+
+    /**
+     * Tests that linear and Robin Hood probing both walk
+     * consecutive slots
+     */
+    public void testLinear() {
+        assertEquals(6, ProbeStrategy.LINEAR.position(6, 0, 8));
+        assertEquals(7, ProbeStrategy.LINEAR.position(6, 1, 8));
+        assertEquals(0, ProbeStrategy.LINEAR.position(6, 2, 8));
+        assertEquals(1, ProbeStrategy.ROBIN_HOOD.position(6, 3, 8));
+    }
+} // end ProbeStrategyTest
@@ -0,0 +1,172 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily walks the keys of a 2-3+ tree within a range of keys
+ * (inclusive), in ascending order. Instead of collecting every
+ * key in range into a list up front, the iterator keeps the path
+ * from the root to its current position on a stack, along with
+ * how far the traversal of each node on it has got, and only
+ * moves on to the next key when asked to. The stack is as deep
+ * as the tallest possible tree, so the iterator takes the same
+ * small amount of memory however many keys are in range, and
+ * stops walking the tree once it passes the upper bound.
+ *
+ * The tree must not be modified while the iterator is in use.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ * @param <Key>
+ *            -- generic reference for comparable
+ */
+public class RangeIterator<Key extends Comparable<? super Key>>
+        implements Iterator<Key> {
+
+    // ---------------- PRIVATE VARIABLES ----------------
+
+    // how far the traversal of a node on the stack has got
+    private static final int UNVISITED = 0;
+    private static final int AFTER_LEFT_KEY = 1; // leaves only
+    private static final int AFTER_LEFT = 2;
+    private static final int AFTER_CENTER = 3;
+
+    private Key lower; // lower bound of range
+    private Key higher; // upper bound of range
+    private TTNode<Key>[] path; // nodes from the root down
+    private int[] stage; // progress through each node of path
+    private int top; // index of the current node, -1 when done
+    private Key next; // next key to return, null when done
+
+    // ---------------- CONSTRUCTOR ---------------------
+
+    /**
+     * Constructor for an iterator over the keys of a subtree
+     * which fall within the range of lower and higher
+     *
+     * @param root
+     *            -- root of the subtree, null if it is empty
+     * @param low
+     *            -- lower bound of range
+     * @param high
+     *            -- upper bound of range
+     */
+    public RangeIterator(TTNode<Key> root, Key low, Key high) {
+        lower = low;
+        higher = high;
+        path = TTNode.newStack();
+        stage = new int[TTNode.MAX_HEIGHT];
+        top = root == null ? -1 : 0;
+        path[0] = root;
+        this.advance();
+    } // end constructor
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public Key next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        Key toRet = next;
+        this.advance();
+        return toRet;
+    } // end next
+
+    // ---------------- PRIVATE METHODS -------------------
+
+    /**
+     * Walks the tree in order up to the next key within range,
+     * along the path rangeSearchHelper of TTNode takes, but
+     * giving up as soon as a key past the upper bound is seen
+     */
+    private void advance() {
+        next = null;
+        while (top >= 0) {
+            TTNode<Key> node = path[top];
+            switch (stage[top]) {
+                case AFTER_LEFT_KEY:
+                    top--;
+                    if (node.rkey() == null) {
+                        break;
+                    }
+                    else if (higher.compareTo(node.rkey()) < 0) {
+                        top = -1;
+                        return;
+                    }
+                    else if (lower.compareTo(node.rkey()) <= 0) {
+                        next = node.rkey();
+                        return;
+                    }
+                    break;
+                case AFTER_LEFT:
+                    if (higher.compareTo(node.lkey()) < 0) {
+                        // every key left is out of range
+                        top = -1;
+                        return;
+                    }
+                    stage[top] = AFTER_CENTER;
+                    this.push(node.centerChild());
+                    next = node.lkey();
+                    return;
+                case AFTER_CENTER:
+                    if (node.rkey() == null) {
+                        top--;
+                    }
+                    else if (higher.compareTo(node.rkey()) < 0) {
+                        top = -1;
+                        return;
+                    }
+                    else {
+                        // nothing is left to do in this node, so
+                        // the right child takes its place
+                        path[top] = node.rightChild();
+                        stage[top] = UNVISITED;
+                        next = node.rkey();
+                        return;
+                    }
+                    break;
+                default:
+                    if (node.isLeaf()) {
+                        if (higher.compareTo(node.lkey()) < 0) {
+                            top = -1;
+                            return;
+                        }
+                        stage[top] = AFTER_LEFT_KEY;
+                        if (lower.compareTo(node.lkey()) <= 0) {
+                            next = node.lkey();
+                            return;
+                        }
+                    }
+                    else if (lower.compareTo(node.lkey()) <= 0) {
+                        stage[top] = AFTER_LEFT;
+                        this.push(node.leftChild());
+                    }
+                    else if (node.rkey() == null
+                            || lower.compareTo(node.rkey()) <= 0) {
+                        stage[top] = AFTER_CENTER;
+                        this.push(node.centerChild());
+                    }
+                    else {
+                        path[top] = node.rightChild();
+                    }
+                    break;
+            } // end switch
+        } // end while
+    } // end advance
+
+    /**
+     * Places a child at the top of the stack, not yet visited
+     *
+     * @param child
+     *            -- child of the node at the top of the stack
+     */
+    private void push(TTNode<Key> child) {
+        path[++top] = child;
+        stage[top] = UNVISITED;
+    }
+} // end RangeIterator
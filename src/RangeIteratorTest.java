@@ -0,0 +1,100 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import student.TestCase;
+
+/**
+ * Tests that the range iterator walks the same keys, in the same
+ * order, as a range search, and that it handles empty trees and
+ * ranges
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ */
+public class RangeIteratorTest extends TestCase {
+
+    // ------------------- PRIVATE VARIABLES -------------------
+
+    private TTTree<Integer> tree;
+
+    // ------------------- PUBLIC METHODS ----------------------
+
+    @Override
+    public void setUp() {
+        tree = new TTTree<Integer>();
+    }
+
+    /**
+     * Tests that an empty tree or range gives no keys, and that
+     * next fails once the keys run out
+     */
+    public void testEmpty() {
+        Iterator<Integer> it = tree.rangeIterator(0, 100);
+        assertFalse(it.hasNext());
+
+        tree.insert(10);
+        tree.insert(20);
+        it = tree.rangeIterator(11, 19);
+        assertFalse(it.hasNext());
+        Exception thrown = null;
+        try {
+            it.next();
+        }
+        catch (NoSuchElementException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+
+        it = tree.rangeIterator(20, 20);
+        assertTrue(it.hasNext());
+        assertEquals(20, (int) it.next());
+        assertFalse(it.hasNext());
+    } // end testEmpty
+
+    /**
+     * Tests random ranges of a tree holding duplicate keys
+     * against rangeSearch
+     */
+    public void testMatchesRangeSearch() {
+        Random random = new Random(11);
+        for (int i = 0; i < 500; i++) {
+            tree.insert(random.nextInt(300));
+        }
+        for (int i = 0; i < 200; i++) {
+            int low = random.nextInt(320) - 10;
+            int high = low + random.nextInt(60);
+            List<Integer> walked = new ArrayList<Integer>();
+            for (Integer k : tree.range(low, high)) {
+                walked.add(k);
+            }
+            assertEquals(tree.rangeSearch(low, high), walked);
+        }
+
+        List<Integer> all = new ArrayList<Integer>();
+        for (Integer k : tree.range(-1, 300)) {
+            all.add(k);
+        }
+        assertEquals(500, all.size());
+    } // end testMatchesRangeSearch
+
+    /**
+     * Tests that walking can stop after the first key, and that
+     * each loop over a range starts from the beginning
+     */
+    public void testStopEarly() {
+        for (int i = 0; i < 100; i++) {
+            tree.insert(i);
+        }
+        Iterable<Integer> range = tree.range(40, 60);
+        assertEquals(40, (int) range.iterator().next());
+
+        int count = 0;
+        for (Integer k : range) {
+            assertEquals(40 + count, (int) k);
+            count++;
+        }
+        assertEquals(21, count);
+    } // end testStopEarly
+} // end RangeIteratorTest
@@ -0,0 +1,111 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of the records our record pools keep in memory. Every
+ * record starts with a flag, which is 0x00 once the record is
+ * deleted and otherwise names the table owning the record,
+ * followed by the length of the name in two little endian bytes
+ * and then the bytes of the name.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/30/2017
+ */
+public final class RecordFormat {
+
+    // ---------------- PUBLIC VARIABLES ----------------
+
+    public static final int HEADER = 3; // flag and length bytes
+    public static final byte FREE = 0x00; // flag of deleted records
+    public static final byte ARTIST = 0x01; // flag of artists
+    public static final byte SONG = 0x02; // flag of songs
+
+    // ---------------- CONSTRUCTOR ---------------------
+
+    /**
+     * Only holds static methods
+     */
+    private RecordFormat() {
+    }
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Writes the flag and length of a record
+     *
+     * @param memory
+     *            -- buffer holding the record
+     * @param start
+     *            -- position of the flag
+     * @param flag
+     *            -- FREE, ARTIST, or SONG
+     * @param length
+     *            -- number of bytes following the header
+     */
+    public static void writeHeader(ByteBuffer memory, int start,
+            byte flag, int length) {
+        memory.put(start, flag);
+        // store length in little endian order
+        memory.put(start + 1, (byte) (length & 0xff));
+        memory.put(start + 2, (byte) ((length >> 8) & 0xff));
+    }
+
+    /**
+     * Reads the length stored in the header of a record
+     *
+     * @param memory
+     *            -- buffer holding the record
+     * @param start
+     *            -- position of the flag of the record
+     * @return length of the record, in little endian order
+     */
+    public static short lengthAt(ByteBuffer memory, int start) {
+        return (short) ((memory.get(start + 1) & 0xff)
+                | (memory.get(start + 2) & 0xff) << 8);
+    }
+
+    /**
+     * Reads the name of a record
+     *
+     * @param memory
+     *            -- buffer holding the record
+     * @param start
+     *            -- position of the flag of the record
+     * @return name following the header of the record
+     */
+    public static String nameAt(ByteBuffer memory, int start) {
+        byte[] name = new byte[lengthAt(memory, start)];
+        copy(memory, start + HEADER, ByteBuffer.wrap(name), 0,
+                name.length);
+        return new String(name);
+    }
+
+    /**
+     * Copies bytes between two buffers, directly between their
+     * arrays when both are on the heap
+     *
+     * @param src
+     *            -- buffer to copy from
+     * @param from
+     *            -- position of the first byte to copy
+     * @param dst
+     *            -- buffer to copy to
+     * @param to
+     *            -- position to copy the first byte to
+     * @param length
+     *            -- number of bytes to copy
+     */
+    public static void copy(ByteBuffer src, int from,
+            ByteBuffer dst, int to, int length) {
+        if (src.hasArray() && dst.hasArray()) {
+            System.arraycopy(src.array(), src.arrayOffset() + from,
+                    dst.array(), dst.arrayOffset() + to, length);
+            return;
+        }
+        ByteBuffer source = src.duplicate();
+        source.limit(from + length);
+        source.position(from);
+        ByteBuffer target = dst.duplicate();
+        target.position(to);
+        target.put(source);
+    } // end copy
+} // end RecordFormat
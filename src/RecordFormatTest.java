@@ -0,0 +1,64 @@
+import java.nio.ByteBuffer;
+import student.TestCase;
+
+/**
+ * Tests the record layout shared by our record pools
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/30/2017
+ */
+public class RecordFormatTest extends TestCase {
+
+    /**
+     * Tests that headers are written in little endian order and
+     * read back unchanged
+     */
+    public void testHeader() {
+        ByteBuffer memory = ByteBuffer.allocate(8);
+        RecordFormat.writeHeader(memory, 2, RecordFormat.SONG, 300);
+
+        assertEquals(RecordFormat.SONG, memory.get(2));
+        assertEquals(44, memory.get(3));
+        assertEquals(1, memory.get(4));
+        assertEquals(300, RecordFormat.lengthAt(memory, 2));
+    }
+
+    /**
+     * Tests reading the name of a record, from a heap and a
+     * direct buffer
+     */
+    public void testNameAt() {
+        byte[] name = "Animals".getBytes();
+        ByteBuffer heap = ByteBuffer.allocate(12);
+        RecordFormat.writeHeader(heap, 1, RecordFormat.SONG,
+                name.length);
+        RecordFormat.copy(ByteBuffer.wrap(name), 0, heap,
+                1 + RecordFormat.HEADER, name.length);
+        ByteBuffer direct = ByteBuffer.allocateDirect(12);
+        RecordFormat.copy(heap, 0, direct, 0, 12);
+
+        assertEquals("Animals", RecordFormat.nameAt(heap, 1));
+        assertEquals("Animals", RecordFormat.nameAt(direct, 1));
+    }
+
+    /**
+     * Tests copying between heap buffers and between a heap and a
+     * direct buffer, which has no backing array
+     */
+    public void testCopy() {
+        ByteBuffer src = ByteBuffer.wrap("Nickelback".getBytes());
+        ByteBuffer heap = ByteBuffer.allocate(12);
+        ByteBuffer direct = ByteBuffer.allocateDirect(12);
+
+        RecordFormat.copy(src, 0, heap, 2, 6);
+        RecordFormat.copy(heap, 2, direct, 0, 6);
+
+        assertEquals("Nickel",
+                new Handle(heap, 2, 6, 0).getStringAt());
+        assertEquals("Nickel",
+                new Handle(direct, 0, 6, 1).getStringAt());
+        // positions and limits are left untouched
+        assertEquals(0, direct.position());
+        assertEquals(12, direct.limit());
+    }
+} // end RecordFormatTest
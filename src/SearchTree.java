@@ -0,0 +1,105 @@
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Common contract for the ordered trees which index our
+ * artist-song and song-artist pairs. A tree keeps its keys in
+ * ascending order, may hold several equal keys, and answers
+ * searches for a single key as well as for every key within a
+ * range.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ * @param <Key>
+ *            -- generic reference for comparable
+ */
+public interface SearchTree<Key extends Comparable<? super Key>> {
+
+    /**
+     * Inserts a key into the tree
+     *
+     * @param k
+     *            -- key to insert
+     */
+    void insert(Key k);
+
+    /**
+     * Removes one key equal to the specified key from the tree
+     *
+     * @param k
+     *            -- key we wish to remove
+     * @return reference to the removed key, null if not found
+     */
+    Key remove(Key k);
+
+    /**
+     * Searches the tree for a key equal to the specified key
+     *
+     * @param toFind
+     *            -- key we wish to search for
+     * @return reference to key if in tree, null otherwise
+     */
+    Key search(Key toFind);
+
+    /**
+     * Inclusively searches the tree given a range of keys
+     *
+     * @param low
+     *            -- the low key
+     * @param high
+     *            -- the high key
+     * @return list of the matching tree keys, in order
+     */
+    List<Key> rangeSearch(Key low, Key high);
+
+    /**
+     * Lazily walks the keys within a range of keys (inclusive),
+     * in ascending order. The tree must not be modified while
+     * the keys are being walked.
+     *
+     * @param low
+     *            -- the low key
+     * @param high
+     *            -- the high key
+     * @return iterator over the matching tree keys
+     */
+    Iterator<Key> rangeIterator(Key low, Key high);
+
+    /**
+     * Gives the keys within a range of keys (inclusive) so that
+     * they can be walked by a for-each loop
+     *
+     * @param low
+     *            -- the low key
+     * @param high
+     *            -- the high key
+     * @return the matching tree keys, found as they are walked
+     */
+    Iterable<Key> range(Key low, Key high);
+
+    /**
+     * Gives the number of levels of the tree, 0 if it is empty
+     *
+     * @return height of the tree
+     */
+    int height();
+
+    /**
+     * Accessor method for the number of keys in the tree
+     *
+     * @return number of keys in the tree
+     */
+    int size();
+
+    /**
+     * Indicates whether the tree holds no keys
+     *
+     * @return True if tree is empty, false otherwise
+     */
+    boolean isEmpty();
+
+    /**
+     * Removes every key from the tree
+     */
+    void clear();
+} // end SearchTree
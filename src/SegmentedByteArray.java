@@ -0,0 +1,374 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Record pool made of fixed-size chunks, offering the same
+ * insert and delete as our DynamicByteArray. Records use the same
+ * layout (see RecordFormat) and a handle points into the buffer
+ * of its chunk, so a handle is effectively a (chunk, offset)
+ * pair. Running out of space allocates a new chunk instead of
+ * copying the pool, and existing handles never move when the
+ * pool grows.
+ *
+ * Deleting records leaves holes in their chunks. A chunk whose
+ * records fill less than half of it is queued for compaction, and
+ * each call to compact moves the records of one queued chunk to
+ * the end of the pool and frees that chunk. Compaction is never
+ * done by insert or delete, so callers can run it whenever they
+ * are idle, e.g. between commands. Chunks left without any
+ * records are freed right away.
+ *
+ * Records are given stable ids counting up from 0, like those
+ * of DynamicByteArray, so handles in different chunks are still
+ * ordered by when their records were written, and a compacted
+ * record keeps its place in the trees.
+ *
+ * Since records live in several buffers, the tables must store
+ * the handles themselves (i.e. HashTable rather than
+ * PackedHashTable).
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/30/2017
+ */
+public class SegmentedByteArray {
+
+    // ---------------- PRIVATE VARIABLES ----------------
+
+    private int chunkSize; // size of a regular chunk
+    private PoolStorage storage; // allocates our chunks
+    // references to the hash tables we will be affecting
+    private NameTable artistTable;
+    private NameTable songTable;
+    private List<Chunk> chunks; // chunks in allocation order
+    private Map<ByteBuffer, Chunk> byBuffer; // chunk of a buffer
+    private Chunk current; // chunk records are appended to
+    private LinkedList<Chunk> sparse; // chunks to be compacted
+    private int nextId; // id of the next record written
+
+    // ---------------- CONSTRUCTOR ---------------------
+
+    /**
+     * Constructor for a segmented pool keeping its chunks on the
+     * heap
+     *
+     * @param size
+     *            -- size of each chunk
+     * @param aTable
+     *            -- reference to artist hash table
+     * @param sTable
+     *            -- reference to song hash table
+     */
+    public SegmentedByteArray(int size, NameTable aTable,
+            NameTable sTable) {
+        this(size, aTable, sTable, new HeapStorage());
+    }
+
+    /**
+     * Constructor for a segmented pool allocating its chunks from
+     * the given storage. Only allocate is used, so the records
+     * are not reopened by a later run.
+     *
+     * @param size
+     *            -- size of each chunk
+     * @param aTable
+     *            -- reference to artist hash table
+     * @param sTable
+     *            -- reference to song hash table
+     * @param pool
+     *            -- storage providing our chunks
+     */
+    public SegmentedByteArray(int size, NameTable aTable,
+            NameTable sTable, PoolStorage pool) {
+        chunkSize = size;
+        storage = pool;
+        artistTable = aTable;
+        songTable = sTable;
+        chunks = new ArrayList<Chunk>();
+        byBuffer = new IdentityHashMap<ByteBuffer, Chunk>();
+        sparse = new LinkedList<Chunk>();
+        current = this.newChunk(chunkSize);
+    }
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Appends a given string to the current chunk, or to a new
+     * chunk if it does not fit, unless the name is already in
+     * the respective table.
+     *
+     * @param name
+     *            -- string to insert into memory
+     * @param isArtist
+     *            -- flag which indicates whether current record
+     *            being inserted is an artist
+     * @return a handle reference pointing to the record
+     */
+    public Handle insert(String name, boolean isArtist) {
+        NameTable table = isArtist ? artistTable : songTable;
+        Handle toRet = table.search(name);
+        if (toRet != null) {
+            // the name is already stored
+            return toRet;
+        }
+
+        byte[] nameArr = name.getBytes();
+        int size = nameArr.length + RecordFormat.HEADER;
+        this.makeRoom(size);
+
+        int start = current.offset;
+        RecordFormat.writeHeader(current.buffer, start,
+                isArtist ? RecordFormat.ARTIST : RecordFormat.SONG,
+                nameArr.length);
+        RecordFormat.copy(ByteBuffer.wrap(nameArr), 0,
+                current.buffer, start + RecordFormat.HEADER,
+                nameArr.length);
+
+        toRet = new Handle(current.buffer,
+                start + RecordFormat.HEADER, nameArr.length,
+                nextId++);
+        table.insert(toRet);
+        current.append(toRet, size);
+        return toRet;
+    } // end insert
+
+    /**
+     * Marks the record pointed to by the handle as deleted and
+     * removes it from the respective table. Frees its chunk if
+     * no records are left in it, or queues the chunk for
+     * compaction once it is less than half full.
+     *
+     * @param handle
+     *            -- pointer to record we wish to remove
+     * @param isArtist
+     *            -- flag which indicates whether record we are
+     *            removing is an artist
+     */
+    public void delete(Handle handle, boolean isArtist) {
+        int flagPos = handle.getOffset() - RecordFormat.HEADER;
+        Chunk chunk = byBuffer.get(handle.getBuffer());
+        if (chunk != null
+                && chunk.buffer.get(flagPos) != RecordFormat.FREE) {
+            chunk.buffer.put(flagPos, RecordFormat.FREE);
+            chunk.liveBytes -= handle.getLength()
+                    + RecordFormat.HEADER;
+
+            if (chunk != current && chunk.liveBytes == 0) {
+                this.free(chunk);
+            }
+            else if (chunk != current && !chunk.queued
+                    && chunk.liveBytes * 2 < chunk.capacity()) {
+                chunk.queued = true;
+                sparse.add(chunk);
+            }
+        } // end if
+
+        if (isArtist) {
+            artistTable.delete(handle);
+        }
+        else {
+            songTable.delete(handle);
+        }
+    } // end delete
+
+    /**
+     * Compacts the next queued chunk by moving its records to
+     * the end of the pool, pointing their handles at the new
+     * location, and freeing the chunk
+     *
+     * @return True if a chunk was compacted, false if none was
+     *         queued
+     */
+    public boolean compact() {
+        Chunk chunk = sparse.poll();
+        while (chunk != null && !byBuffer.containsKey(chunk.buffer)) {
+            // chunk was freed after it was queued
+            chunk = sparse.poll();
+        }
+        if (chunk == null) {
+            return false;
+        }
+
+        int next = 0; // next owner to look at
+        short length;
+        for (int i = 0; i < chunk.offset; i += length
+                + RecordFormat.HEADER) {
+            length = RecordFormat.lengthAt(chunk.buffer, i);
+            byte flag = chunk.buffer.get(i);
+            if (flag != RecordFormat.FREE) {
+                int size = length + RecordFormat.HEADER;
+                this.makeRoom(size);
+                RecordFormat.copy(chunk.buffer, i, current.buffer,
+                        current.offset, size);
+
+                // the owners of a chunk are in order of offset
+                while (chunk.owners[next].getOffset()
+                        != i + RecordFormat.HEADER) {
+                    next++;
+                }
+                Handle owner = chunk.owners[next++];
+                owner.setBuffer(current.buffer);
+                owner.setOffset(current.offset + RecordFormat.HEADER);
+                if (flag == RecordFormat.ARTIST) {
+                    artistTable.relocate(owner, chunk.buffer,
+                            i + RecordFormat.HEADER);
+                }
+                else {
+                    songTable.relocate(owner, chunk.buffer,
+                            i + RecordFormat.HEADER);
+                }
+                current.append(owner, size);
+            } // end if
+        } // end for
+
+        this.free(chunk);
+        return true;
+    } // end compact
+
+    /**
+     * Accessor method for the number of chunks waiting to be
+     * compacted
+     *
+     * @return number of queued chunks
+     */
+    public int sparseChunks() {
+        return sparse.size();
+    }
+
+    /**
+     * Accessor method for the number of chunks in the pool
+     *
+     * @return number of chunks
+     */
+    public int chunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Accessor method for the total size of our chunks
+     *
+     * @return number of bytes allocated for the pool
+     */
+    public int capacity() {
+        int toRet = 0;
+        for (Chunk chunk : chunks) {
+            toRet += chunk.capacity();
+        }
+        return toRet;
+    }
+
+    @Override
+    public String toString() {
+        List<String> stringList = new LinkedList<String>();
+        short length;
+
+        for (Chunk chunk : chunks) {
+            for (int i = 0; i < chunk.offset; i += length
+                    + RecordFormat.HEADER) {
+                length = RecordFormat.lengthAt(chunk.buffer, i);
+                if (chunk.buffer.get(i) != RecordFormat.FREE) {
+                    stringList.add(
+                            RecordFormat.nameAt(chunk.buffer, i));
+                }
+            } // end for
+        } // end for
+
+        return stringList.toString();
+    } // end toString()
+
+    // ---------------- PRIVATE METHODS -------------------
+
+    /**
+     * Starts a new chunk unless a record of the given size still
+     * fits into the current one. Records larger than a chunk get
+     * a chunk of their own size.
+     *
+     * @param size
+     *            -- size of the record, header included
+     */
+    private void makeRoom(int size) {
+        if (current.offset + size > current.capacity()) {
+            current = this.newChunk(Math.max(chunkSize, size));
+        }
+    }
+
+    /**
+     * Allocates a chunk and adds it to the pool
+     *
+     * @param size
+     *            -- size of the chunk
+     * @return new chunk
+     */
+    private Chunk newChunk(int size) {
+        Chunk toRet = new Chunk(storage.allocate(size));
+        chunks.add(toRet);
+        byBuffer.put(toRet.buffer, toRet);
+        return toRet;
+    }
+
+    /**
+     * Removes a chunk from the pool, leaving its buffer to the
+     * garbage collector
+     *
+     * @param chunk
+     *            -- chunk to free
+     */
+    private void free(Chunk chunk) {
+        chunks.remove(chunk);
+        byBuffer.remove(chunk.buffer);
+    }
+
+    /**
+     * A single chunk of the pool, together with the handles of
+     * its records in order of offset
+     */
+    private static class Chunk {
+        private ByteBuffer buffer; // records of the chunk
+        private int offset; // where the next record is appended
+        private int liveBytes; // bytes held by active records
+        private Handle[] owners; // handles of appended records
+        private int ownerCount;
+        private boolean queued; // waiting to be compacted
+
+        /**
+         * Constructor for an empty chunk
+         *
+         * @param mem
+         *            -- buffer of the chunk
+         */
+        Chunk(ByteBuffer mem) {
+            buffer = mem;
+            owners = new Handle[16];
+        }
+
+        /**
+         * Accessor method for the size of the chunk
+         *
+         * @return size of the buffer
+         */
+        int capacity() {
+            return buffer.capacity();
+        }
+
+        /**
+         * Accounts for a record just written at our offset
+         *
+         * @param owner
+         *            -- handle of the record
+         * @param size
+         *            -- size of the record, header included
+         */
+        void append(Handle owner, int size) {
+            if (ownerCount == owners.length) {
+                owners = Arrays.copyOf(owners, owners.length * 2);
+            }
+            owners[ownerCount++] = owner;
+            offset += size;
+            liveBytes += size;
+        }
+    } // end Chunk
+} // end SegmentedByteArray
@@ -0,0 +1,140 @@
+import student.TestCase;
+
+/**
+ * Tests the functionality of our segmented record pool, and in
+ * particular that handles stay valid while chunks are added,
+ * freed, and compacted
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/30/2017
+ */
+public class SegmentedByteArrayTest extends TestCase {
+
+    // ---------------- PRIVATE VARIABLES ----------------
+
+    private SegmentedByteArray memory;
+    private HashTable artistTable;
+    private HashTable songTable;
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    @Override
+    public void setUp() {
+        artistTable = new HashTable(8, new FoldHash());
+        songTable = new HashTable(8, new FoldHash());
+        memory = new SegmentedByteArray(32, artistTable, songTable);
+    }
+
+    /**
+     * Tests that insertions fill chunks in order without moving
+     * the records of earlier chunks
+     */
+    public void testInsert() {
+        Handle nickelback = memory.insert("Nickelback", true);
+        memory.insert("Animals", false);
+        assertEquals(nickelback, memory.insert("Nickelback", true));
+        assertEquals(1, memory.chunkCount());
+
+        // does not fit into the first chunk
+        memory.insert("Savin' Me", false);
+        assertEquals(2, memory.chunkCount());
+        assertEquals(64, memory.capacity());
+        assertEquals(3, nickelback.getOffset());
+
+        memory.insert("How You Remind Me", false);
+        assertEquals(
+                "[Nickelback, Animals, Savin' Me, How You Remind Me]",
+                memory.toString());
+        assertEquals(1, artistTable.size());
+        assertEquals(3, songTable.size());
+        assertEquals("Savin' Me",
+                songTable.search("Savin' Me").getStringAt());
+    }
+
+    /**
+     * Tests that a record larger than a chunk gets a chunk of its
+     * own size
+     */
+    public void testLongName() {
+        String name = "The Long and Winding Road to Nowhere";
+        memory.insert("Numb", false);
+        Handle handle = memory.insert(name, false);
+
+        assertEquals(name, handle.getStringAt());
+        assertEquals(2, memory.chunkCount());
+        assertEquals(32 + name.length() + 3, memory.capacity());
+    }
+
+    /**
+     * Tests that deleting every record of a chunk frees it, and
+     * that deleting some queues it for compaction
+     */
+    public void testDelete() {
+        Handle numb = memory.insert("Numb", false);
+        Handle animals = memory.insert("Animals", false);
+        Handle rockstar = memory.insert("Rockstar", false);
+        memory.insert("Photograph", false); // second chunk
+        assertEquals(2, memory.chunkCount());
+
+        memory.delete(numb, false);
+        assertEquals(0, memory.sparseChunks());
+        memory.delete(animals, false);
+        // 11 of 32 bytes left
+        assertEquals(1, memory.sparseChunks());
+        memory.delete(animals, false);
+        assertNull(songTable.search("Animals"));
+
+        memory.delete(rockstar, false);
+        assertEquals(1, memory.chunkCount());
+        assertEquals("[Photograph]", memory.toString());
+        // the queued chunk is gone already
+        assertFalse(memory.compact());
+    }
+
+    /**
+     * Tests that compaction moves the records of a sparse chunk
+     * and updates their handles and tables
+     */
+    public void testCompact() {
+        Handle numb = memory.insert("Numb", false);
+        Handle linkinPark = memory.insert("Linkin Park", true);
+        Handle animals = memory.insert("Animals", false);
+        memory.insert("Photograph", false);
+        assertEquals(2, memory.chunkCount());
+        assertFalse(memory.compact());
+
+        memory.delete(numb, false);
+        memory.delete(animals, false);
+        assertEquals(1, memory.sparseChunks());
+        assertTrue(memory.compact());
+
+        assertEquals(1, memory.chunkCount());
+        assertEquals(0, memory.sparseChunks());
+        assertEquals("[Photograph, Linkin Park]",
+                memory.toString());
+        assertEquals(16, linkinPark.getOffset());
+        assertEquals("Linkin Park", linkinPark.getStringAt());
+        assertEquals(linkinPark, artistTable.search("Linkin Park"));
+
+        // moved records can still be deleted
+        memory.delete(linkinPark, true);
+        assertNull(artistTable.search("Linkin Park"));
+        assertEquals("[Photograph]", memory.toString());
+    }
+
+    /**
+     * Tests the pool with chunks kept outside of the heap
+     */
+    public void testDirectStorage() {
+        memory = new SegmentedByteArray(16, artistTable, songTable,
+                new DirectStorage());
+        Handle numb = memory.insert("Numb", false);
+        memory.insert("Cry", false);
+        memory.insert("Linkin Park", true);
+        memory.delete(numb, false);
+
+        assertTrue(memory.compact());
+        assertEquals("[Linkin Park, Cry]", memory.toString());
+        assertEquals("Cry", songTable.search("Cry").getStringAt());
+    }
+} // end SegmentedByteArrayTest
@@ -0,0 +1,338 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Saves the whole song database (the records of our
+ * DynamicByteArray, the slots of both hash tables, and the 2-3+
+ * tree) into a binary file, and restores it without replaying
+ * any commands: records are copied back in bulk from a mapping
+ * of the file, handles go straight into their old slots, and the
+ * tree is rebuilt node by node in its old shape. Nothing is
+ * compared, probed, or split, and every record keeps its offset,
+ * so a restored database prints exactly like the saved one.
+ *
+ * The file starts with a magic number, followed by the size of
+ * memory, the number of bytes in use and the records themselves,
+ * then the next record id, the number of active records and the
+ * id of each in order of offset (trees order handles by id, so
+ * every record must keep its id as well as its offset), then the
+ * offset held by every slot of the artist and the song
+ * table, and last the size of the tree and its nodes in
+ * preorder. Every pair of the tree is stored as the offsets of
+ * its two records, and packed again from their ids (see
+ * PackedPairTree) when it is read. The degree of every record is not
+ * stored but counted again as the pairs are read.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/30/2017
+ */
+public final class Snapshot {
+
+    // ---------------- PRIVATE VARIABLES ----------------
+
+    private static final int MAGIC = 0x53534e32; // "SSN2"
+    // bits describing the shape of a node
+    private static final int RIGHT_KEY = 0x01;
+    private static final int LEFT_CHILD = 0x02;
+    private static final int CENTER_CHILD = 0x04;
+    private static final int RIGHT_CHILD = 0x08;
+
+    // ---------------- CONSTRUCTOR ---------------------
+
+    /**
+     * Only holds static methods
+     */
+    private Snapshot() {
+    }
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Writes the database into a file. The snapshot is written
+     * to a second file first which then atomically replaces the
+     * given one, so the file always holds a whole snapshot.
+     *
+     * @param file
+     *            -- file to write
+     * @param memory
+     *            -- byte array holding every record
+     * @param artistTable
+     *            -- table of artists
+     * @param songTable
+     *            -- table of songs
+     * @param tree
+     *            -- tree of packed artist-song and song-artist
+     *            pairs
+     * @throws IOException
+     *             if the file cannot be written
+     * @throws IllegalArgumentException
+     *             if the tree is not made of 2-3+ nodes
+     */
+    public static void save(File file, DynamicByteArray memory,
+            HashTable artistTable, HashTable songTable,
+            TTTree<Long> tree) throws IOException {
+        if (tree.order() != 3) {
+            throw new IllegalArgumentException(
+                    "only trees of 2-3+ nodes can be saved");
+        }
+        File tempFile = new File(file.getPath() + ".tmp");
+        FileOutputStream fileOut = new FileOutputStream(tempFile);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(fileOut, 1 << 16))) {
+            out.writeInt(MAGIC);
+
+            ByteBuffer records = memory.records();
+            out.writeInt(memory.capacity());
+            out.writeInt(records.limit());
+            byte[] chunk = new byte[1 << 16];
+            while (records.hasRemaining()) {
+                int count = Math.min(chunk.length,
+                        records.remaining());
+                records.get(chunk, 0, count);
+                out.write(chunk, 0, count);
+            }
+
+            int[] ids = memory.recordIds();
+            out.writeInt(memory.nextId());
+            out.writeInt(ids.length);
+            for (int id : ids) {
+                out.writeInt(id);
+            }
+
+            writeSlots(out, artistTable.slotOffsets());
+            writeSlots(out, songTable.slotOffsets());
+
+            out.writeInt(tree.size());
+            if (!tree.isEmpty()) {
+                writeNode(out, tree.root(), memory);
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        } // end try
+
+        Files.move(tempFile.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    } // end save
+
+    /**
+     * Restores a database written by save, replacing whatever
+     * the byte array, tables, and tree held before. The tables
+     * must use the same hash function and probing policy as the
+     * ones saved.
+     *
+     * @param file
+     *            -- file to read
+     * @param memory
+     *            -- byte array to restore the records into
+     * @param artistTable
+     *            -- table to restore the artists into
+     * @param songTable
+     *            -- table to restore the songs into
+     * @param tree
+     *            -- tree to restore the pairs into
+     * @throws IOException
+     *             if the file cannot be read or does not hold a
+     *             snapshot
+     * @throws IllegalArgumentException
+     *             if the tree is not made of 2-3+ nodes
+     */
+    public static void load(File file, DynamicByteArray memory,
+            HashTable artistTable, HashTable songTable,
+            TTTree<Long> tree) throws IOException {
+        if (tree.order() != 3) {
+            throw new IllegalArgumentException(
+                    "only trees of 2-3+ nodes can be restored");
+        }
+        MappedByteBuffer map;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            map = raf.getChannel().map(
+                    FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        }
+        if (map.remaining() < 12 || map.getInt() != MAGIC) {
+            throw new IOException(
+                    file + " does not hold a snapshot");
+        }
+
+        int capacity = map.getInt();
+        int used = map.getInt();
+        ByteBuffer records = map.slice();
+        records.limit(used);
+        map.position(map.position() + used);
+        int nextId = map.getInt();
+        int[] ids = new int[map.getInt()];
+        map.asIntBuffer().get(ids);
+        map.position(map.position() + ids.length * 4);
+        memory.restore(records, capacity, ids, nextId);
+
+        readSlots(map, memory, artistTable);
+        readSlots(map, memory, songTable);
+
+        int size = map.getInt();
+        tree.restore(size == 0 ? null : readNode(map, memory),
+                size);
+    } // end load
+
+    // ---------------- PRIVATE METHODS -------------------
+
+    /**
+     * Writes the number of slots of a table followed by the
+     * offset held by each slot
+     *
+     * @param out
+     *            -- stream to write to
+     * @param offsets
+     *            -- slot offsets of the table
+     * @throws IOException
+     *             if the stream cannot be written
+     */
+    private static void writeSlots(DataOutputStream out,
+            int[] offsets) throws IOException {
+        out.writeInt(offsets.length);
+        for (int offset : offsets) {
+            out.writeInt(offset);
+        }
+    }
+
+    /**
+     * Reads the slots of a table and places the ids of their
+     * records back into them
+     *
+     * @param map
+     *            -- snapshot, positioned at the slots
+     * @param memory
+     *            -- byte array holding the restored records
+     * @param table
+     *            -- table to restore
+     */
+    private static void readSlots(ByteBuffer map,
+            DynamicByteArray memory, HashTable table) {
+        int[] offsets = new int[map.getInt()];
+        map.asIntBuffer().get(offsets);
+        map.position(map.position() + offsets.length * 4);
+
+        int[] ids = new int[offsets.length];
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] >= 0) {
+                ids[i] = memory.idAt(offsets[i]);
+            }
+        }
+        table.restoreSlots(offsets, memory.handleTable(), ids);
+    } // end readSlots
+
+    /**
+     * Writes a subtree in preorder: the shape of each node,
+     * then its keys, then its children
+     *
+     * @param out
+     *            -- stream to write to
+     * @param node
+     *            -- root of the subtree
+     * @param memory
+     *            -- byte array holding every record
+     * @throws IOException
+     *             if the stream cannot be written
+     */
+    private static void writeNode(DataOutputStream out,
+            TTNode<Long> node, DynamicByteArray memory)
+            throws IOException {
+        int shape = 0;
+        shape |= node.rkey() == null ? 0 : RIGHT_KEY;
+        shape |= node.leftChild() == null ? 0 : LEFT_CHILD;
+        shape |= node.centerChild() == null ? 0 : CENTER_CHILD;
+        shape |= node.rightChild() == null ? 0 : RIGHT_CHILD;
+        out.writeByte(shape);
+
+        writeKey(out, node.lkey(), memory);
+        if (node.rkey() != null) {
+            writeKey(out, node.rkey(), memory);
+        }
+        if (node.leftChild() != null) {
+            writeNode(out, node.leftChild(), memory);
+        }
+        if (node.centerChild() != null) {
+            writeNode(out, node.centerChild(), memory);
+        }
+        if (node.rightChild() != null) {
+            writeNode(out, node.rightChild(), memory);
+        }
+    } // end writeNode
+
+    /**
+     * Reads a subtree written by writeNode
+     *
+     * @param map
+     *            -- snapshot, positioned at the subtree
+     * @param memory
+     *            -- byte array holding the restored records
+     * @return root of the subtree
+     */
+    private static TTNode<Long> readNode(ByteBuffer map,
+            DynamicByteArray memory) {
+        int shape = map.get();
+        Long lkey = readKey(map, memory);
+        Long rkey = null;
+        if ((shape & RIGHT_KEY) != 0) {
+            rkey = readKey(map, memory);
+        }
+
+        TTNode<Long> left = null;
+        TTNode<Long> center = null;
+        TTNode<Long> right = null;
+        if ((shape & LEFT_CHILD) != 0) {
+            left = readNode(map, memory);
+        }
+        if ((shape & CENTER_CHILD) != 0) {
+            center = readNode(map, memory);
+        }
+        if ((shape & RIGHT_CHILD) != 0) {
+            right = readNode(map, memory);
+        }
+        return new TTNode<Long>(lkey, rkey, left, center, right);
+    } // end readNode
+
+    /**
+     * Writes a packed pair as the offsets of its two records
+     *
+     * @param out
+     *            -- stream to write to
+     * @param pair
+     *            -- pair to write
+     * @param memory
+     *            -- byte array holding every record
+     * @throws IOException
+     *             if the stream cannot be written
+     */
+    private static void writeKey(DataOutputStream out, long pair,
+            DynamicByteArray memory) throws IOException {
+        out.writeInt(memory.locate(PackedPairTree.keyOf(pair)));
+        out.writeInt(memory.locate(PackedPairTree.valueOf(pair)));
+    }
+
+    /**
+     * Reads a pair written by writeKey, packing the ids of the
+     * restored records
+     *
+     * @param map
+     *            -- snapshot, positioned at the pair
+     * @param memory
+     *            -- byte array holding the restored records
+     * @return restored pair
+     */
+    private static Long readKey(ByteBuffer map,
+            DynamicByteArray memory) {
+        int key = memory.idAt(map.getInt());
+        int value = memory.idAt(map.getInt());
+        memory.addDegree(key, 1);
+        return PackedPairTree.pack(key, value);
+    }
+} // end Snapshot
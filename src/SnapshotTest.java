@@ -0,0 +1,161 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import student.TestCase;
+
+/**
+ * Tests that a snapshot restores the byte array, both hash
+ * tables, and the tree exactly as they were saved
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 11/30/2017
+ */
+public class SnapshotTest extends TestCase {
+
+    // ----------------PRIVATE VARIABLES------------------
+    private File file;
+    private DynamicByteArray memory;
+    private HashTable artistTable;
+    private HashTable songTable;
+    private TTTree<Long> tree;
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Sets up the test fixture.
+     */
+    @Override
+    public void setUp() {
+        file = new File(System.getProperty("java.io.tmpdir"),
+                "snapshot" + System.nanoTime() + ".bin");
+        artistTable = new HashTable(4, new FoldHash());
+        songTable = new HashTable(4, new FoldHash());
+        memory = new DynamicByteArray(32, artistTable, songTable);
+        tree = new TTTree<Long>();
+    }
+
+    @Override
+    public void tearDown() {
+        file.delete();
+    }
+
+    /**
+     * Tests that every structure prints the same after being
+     * restored, and keeps behaving the same afterwards
+     *
+     * @throws IOException
+     *             if the snapshot cannot be written or read
+     */
+    public void testRoundTrip() throws IOException {
+        this.insert("Nickelback", "Rockstar");
+        this.insert("Nickelback", "Photograph");
+        this.insert("Linkin Park", "Numb");
+        this.insert("Linkin Park", "Faint");
+        this.insert("Pearl Jam", "Alive");
+        Handle photograph = songTable.search("Photograph");
+        tree.remove(this.pair(artistTable.search("Nickelback"),
+                photograph));
+        tree.remove(this.pair(photograph,
+                artistTable.search("Nickelback")));
+        memory.delete(photograph, false);
+        Snapshot.save(file, memory, artistTable, songTable, tree);
+
+        HashTable artists = new HashTable(4, new FoldHash());
+        HashTable songs = new HashTable(4, new FoldHash());
+        DynamicByteArray restored =
+                new DynamicByteArray(32, artists, songs);
+        TTTree<Long> pairs = new TTTree<Long>();
+        Snapshot.load(file, restored, artists, songs, pairs);
+
+        assertEquals(memory.toString(), restored.toString());
+        assertEquals(memory.capacity(), restored.capacity());
+        assertEquals(artistTable.toString(), artists.toString());
+        assertEquals(songTable.toString(), songs.toString());
+        assertEquals(songTable.gravestones(), songs.gravestones());
+        assertEquals(tree.toString(), pairs.toString());
+        assertEquals(8, pairs.size());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        // restored pairs refer to the restored records
+        Handle numb = songs.search("Numb");
+        assertNotNull(pairs.search(this.pair(numb,
+                artists.search("Linkin Park"))));
+
+        // both databases grow the same way
+        Handle original = memory.insert("Breaking Benjamin", true);
+        Handle copy = restored.insert("Breaking Benjamin", true);
+        assertEquals(original.getOffset(), copy.getOffset());
+        assertEquals(original.getId(), copy.getId());
+        assertEquals("Numb", numb.getStringAt());
+        assertEquals(artistTable.toString(), artists.toString());
+    }
+
+    /**
+     * Tests restoring an empty database
+     *
+     * @throws IOException
+     *             if the snapshot cannot be written or read
+     */
+    public void testEmpty() throws IOException {
+        Snapshot.save(file, memory, artistTable, songTable, tree);
+        this.insert("Nickelback", "Rockstar");
+
+        Snapshot.load(file, memory, artistTable, songTable, tree);
+        assertEquals("[]", memory.toString());
+        assertEquals(0, artistTable.size());
+        assertNull(songTable.search("Rockstar"));
+        assertTrue(tree.isEmpty());
+    }
+
+    /**
+     * Tests that files not holding a snapshot are rejected
+     *
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void testForeignFile() throws IOException {
+        FileWriter writer = new FileWriter(file);
+        writer.write("insert Nickelback<SEP>Rockstar\n");
+        writer.close();
+
+        try {
+            Snapshot.load(file, memory, artistTable, songTable,
+                    tree);
+            fail("expected an IOException");
+        }
+        catch (IOException e) {
+            assertTrue(e.getMessage().contains("snapshot"));
+        }
+    }
+
+    // ---------------- PRIVATE METHODS -------------------
+
+    /**
+     * Stores an artist and a song along with both of their pairs,
+     * as SongSearch does
+     *
+     * @param artist
+     *            -- name of the artist
+     * @param song
+     *            -- name of the song
+     */
+    private void insert(String artist, String song) {
+        Handle artistHandle = memory.insert(artist, true);
+        Handle songHandle = memory.insert(song, false);
+        tree.insert(this.pair(artistHandle, songHandle));
+        tree.insert(this.pair(songHandle, artistHandle));
+    }
+
+    /**
+     * Packs the pair of two records, as SongSearch does
+     *
+     * @param key
+     *            -- handle of the key record
+     * @param value
+     *            -- handle of the value record
+     * @return packed pair of their ids
+     */
+    private long pair(Handle key, Handle value) {
+        return PackedPairTree.pack(key.getId(), value.getId());
+    }
+} // end SnapshotTest
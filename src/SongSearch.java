@@ -23,6 +23,11 @@
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
@@ -31,14 +36,23 @@ import java.util.Scanner;
  * as instructions for our database, supporting:
  * 
  * insert {artist-name}<SEP>{song-name}; remove {artist|song}
- * {name}; print {artist|song}; list {artist|song} {name}; delete
- * {artist-name}<SEP>{song-name}; print tree
+ * {name}; print {artist|song}; list {artist|song} {name}; count
+ * {artist|song} {name}; delete {artist-name}<SEP>{song-name};
+ * print tree
  * 
  * Our database is built off two 2-3+ Trees and two hash tables,
  * one of each for keeping track of artists and one of each for
  * keeping track of songs. Each 2-3+ Tree is primarily used for
  * range query purposes, whereas the hash table is intended
- * primarily for regular name-based queries.
+ * primarily for regular name-based queries. The tree holds each
+ * artist-song pair as a single long packing the ids of its two
+ * records (see PackedPairTree.pack), rather than as a KVPair of
+ * two Handles, so comparing pairs compares two longs. Every
+ * record also
+ * keeps its degree in memory, i.e. the number of pairs in the
+ * tree with it as key, so we know at once how many songs an
+ * artist has (and vice versa) and when a record is left without
+ * any.
  *
  * @author Chris Dare (cdare77@vt.edu)
  * @version 11/26/2017
@@ -53,24 +67,21 @@ public class SongSearch {
     private static DynamicByteArray memory;
     private static HashTable artistTable;
     private static HashTable songTable;
-    private static TTTree<KVPair<Handle, Handle>> tree;
+    private static TTTree<Long> tree; // packed pairs of ids
+    private static WriteAheadLog log; // null unless logging
+    private static final long GROUP_MILLIS = 10;
 
     /*
-     * Used in range searches for one particular artist. Low
-     * string lets us use the lexicographically smallest string
-     * in the value reference of a KVPair in order to find all
-     * instances matching a particular artist name. For example,
+     * Used in range searches for one particular artist. Pairs
+     * sort by the id of their key and then by the id of their
+     * value, and ids are never negative, so
      * 
-     * tree.rangeSearch(new KVPair<Handle, Handle>(artist,
-     * LOW_HANDLE), new KVPair<Handle, Handle>(artist,
-     * HIGH_HANDLE))
+     * tree.range(pair(artist, LOW_ID), pair(artist, HIGH_ID))
      * 
-     * returns all KVPairs with Key value artist.
+     * returns all pairs with key artist.
      */
-    private static final Handle LOW_HANDLE =
-            new Handle("".getBytes(), -10, 0);
-    private static final Handle HIGH_HANDLE =
-            new Handle("".getBytes(), Integer.MAX_VALUE, 0);
+    private static final int LOW_ID = 0;
+    private static final int HIGH_ID = Integer.MAX_VALUE;
 
     // ------------------- PUBLIC METHODS ----------------------
 
@@ -80,7 +91,11 @@ public class SongSearch {
      * 
      * @param args
      *            - args[0]: initial hash size, args[1]:
-     *            block size, args[2]: command file
+     *            block size, args[2]: command file, args[3]
+     *            (optional): snapshot file or "" for none,
+     *            args[4] (optional):
+     *            log file, args[5] (optional): "op", "none", or
+     *            group commit interval in milliseconds
      */
     public static void main(String[] args) {
         if (args.length < 3) {
@@ -100,22 +115,164 @@ public class SongSearch {
             return;
         }
 
-        // Create our hash tables
-        artistTable = new HashTable(initialHashSize);
-        songTable = new HashTable(initialHashSize);
+        // Create our hash tables. Folding keeps the slot numbers
+        // of print artist and print song
+        artistTable = new HashTable(initialHashSize,
+                new FoldHash());
+        songTable = new HashTable(initialHashSize, new FoldHash());
 
         // link our memory to both hash tables
         memory = new DynamicByteArray(blockSize, artistTable,
                 songTable);
 
         // Create our 2-3+ tree
-        tree = new TTTree<KVPair<Handle, Handle>>();
+        tree = new TTTree<Long>();
 
-        parseCommandFile();
+        // an optional snapshot restores the database of an
+        // earlier run before our commands, and saves it after
+        File snapshot = args.length > 3 && !args[3].isEmpty()
+                ? new File(args[3]) : null;
+        // an optional log keeps the commands run since then
+        try {
+            log = args.length > 4
+                    ? new WriteAheadLog(new File(args[4]),
+                            syncPolicy(args), groupMillis(args))
+                    : null;
+        }
+        catch (UncheckedIOException e) {
+            logFailed(args[4], e);
+            return;
+        }
+        try {
+            if (snapshot != null && snapshot.exists()) {
+                Snapshot.load(snapshot, memory, artistTable,
+                        songTable, tree);
+            }
+            if (log != null) {
+                recover();
+            }
+            parseCommandFile();
+            if (snapshot != null) {
+                Snapshot.save(snapshot, memory, artistTable,
+                        songTable, tree);
+                if (log != null) {
+                    // every logged command is in the snapshot
+                    log.reset();
+                }
+            }
+        }
+        catch (IOException e) {
+            System.out.printf("Snapshot %s could not be used: %s\n",
+                    args[3], e.getMessage());
+        }
+        catch (UncheckedIOException e) {
+            // only our log reads and writes files past startup
+            logFailed(args[4], e);
+        }
+        finally {
+            if (log != null) {
+                try {
+                    log.close();
+                }
+                catch (UncheckedIOException e) {
+                    logFailed(args[4], e);
+                }
+                log = null;
+            }
+        }
     } // end main()
 
     // ------------------- PRIVATE METHODS ----------------------
 
+    /**
+     * Reports that our log could not be opened, replayed, written,
+     * or closed
+     * 
+     * @param file
+     *            -- name of the log file
+     * @param e
+     *            -- error of the log
+     */
+    private static void logFailed(String file,
+            UncheckedIOException e) {
+        System.out.printf("Log %s could not be used: %s\n", file,
+                e.getCause().getMessage());
+    }
+
+    /**
+     * Reads the sync policy of our log from the arguments: "op"
+     * forces every command to the disk, "none" never forces, and
+     * a number (or nothing) asks for group commit
+     * 
+     * @param args
+     *            -- arguments of main
+     * @return policy of the log
+     */
+    private static SyncPolicy syncPolicy(String[] args) {
+        if (args.length < 6) {
+            return SyncPolicy.GROUP;
+        }
+        else if (args[5].equals("op")) {
+            return SyncPolicy.EVERY_OP;
+        }
+        else if (args[5].equals("none")) {
+            return SyncPolicy.NONE;
+        }
+        return SyncPolicy.GROUP;
+    } // end syncPolicy
+
+    /**
+     * Reads the group commit interval of our log from the
+     * arguments
+     * 
+     * @param args
+     *            -- arguments of main
+     * @return milliseconds between flushes, GROUP_MILLIS unless
+     *         args[5] is a number
+     */
+    private static long groupMillis(String[] args) {
+        if (args.length < 6 || !args[5].matches("\\d+")) {
+            return GROUP_MILLIS;
+        }
+        return Long.parseLong(args[5]);
+    } // end groupMillis
+
+    /**
+     * Replays the commands of our log on top of the restored
+     * snapshot, if any. Their messages were already printed by
+     * the run which logged them, so they are not printed again.
+     */
+    private static void recover() {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                // drop the output of recovered commands
+            }
+        }));
+        try {
+            log.recover(new MutationHandler() {
+                @Override
+                public void insert(String artist, String song) {
+                    SongSearch.insert(artist, song);
+                }
+
+                @Override
+                public void remove(boolean isArtist, String name) {
+                    SongSearch.remove(isArtist, name);
+                }
+
+                @Override
+                public void delete(String artist, String song) {
+                    SongSearch.delete(artist, song);
+                }
+            });
+        }
+        finally {
+            System.setOut(out);
+        }
+    } // end recover
+
     /**
      * Private helper method which ties together the
      * functionality of all our other parse private helper
@@ -139,6 +296,9 @@ public class SongSearch {
                 else if (command.contains("list")) {
                     parseList(scan);
                 }
+                else if (command.contains("count")) {
+                    parseCount(scan);
+                }
                 else if (command.contains("remove")) {
                     parseRemove(scan);
                 }
@@ -173,71 +333,86 @@ public class SongSearch {
         String toInsert = scan.nextLine().substring(1);
         String[] artistSongString = toInsert.split("<SEP>");
 
-        Handle artist;
-        Handle song;
+        if (log != null) {
+            log.logInsert(artistSongString[0], artistSongString[1]);
+        }
+        insert(artistSongString[0], artistSongString[1]);
+    } // end parseInsert
+
+    /**
+     * Applies an insert command, whether read from our command
+     * file or recovered from our log
+     * 
+     * @param artistName
+     *            -- name of the artist
+     * @param songName
+     *            -- name of the song
+     */
+    private static void insert(String artistName, String songName) {
+        int artist;
+        int song;
 
-        artist = artistTable.search(artistSongString[0]);
-        song = songTable.search(artistSongString[1]);
+        artist = artistTable.find(artistName);
+        song = songTable.find(songName);
 
-        if (artist == null) {
-            artist = memory.insert(artistSongString[0], true);
+        if (artist < 0) {
+            artist = memory.insertRecord(artistName, true);
             System.out.printf(
                     "|%s| is added to the Artist database.\n",
-                    artistSongString[0]);
+                    artistName);
         }
         else {
             System.out.printf(
                     "|%s| duplicates a record already in the"
                             + " Artist database.\n",
-                    artistSongString[0]);
+                    artistName);
         }
-        if (song == null) {
-            song = memory.insert(artistSongString[1], false);
+        if (song < 0) {
+            song = memory.insertRecord(songName, false);
             System.out.printf(
                     "|%s| is added to the Song database.\n",
-                    artistSongString[1]);
+                    songName);
         }
         else {
             System.out.printf(
                     "|%s| duplicates a record already in the"
                             + " Song database.\n",
-                    artistSongString[1]);
+                    songName);
         }
 
-        KVPair<Handle, Handle> artistSong =
-                new KVPair<Handle, Handle>(artist, song);
-        KVPair<Handle, Handle> songArtist =
-                new KVPair<Handle, Handle>(song, artist);
+        long artistSong = PackedPairTree.pack(artist, song);
+        long songArtist = PackedPairTree.pack(song, artist);
+        // inserting the song may have moved the artist
+        int artistOffset = memory.locate(artist) - 3;
+        int songOffset = memory.locate(song) - 3;
 
         if (tree.search(artistSong) == null) {
             // insert into tree
             tree.insert(artistSong);
             tree.insert(songArtist);
+            memory.addDegree(artist, 1);
+            memory.addDegree(song, 1);
             System.out.printf(
                     "The KVPair (|%s|,|%s|),(%d,%d) is added to"
                             + " the tree.\n",
-                    artist.getStringAt(), song.getStringAt(),
-                    artist.getOffset() - 3, song.getOffset() - 3);
+                    artistName, songName, artistOffset, songOffset);
             System.out.printf(
                     "The KVPair (|%s|,|%s|),(%d,%d) is added to"
                             + " the tree.\n",
-                    song.getStringAt(), artist.getStringAt(),
-                    song.getOffset() - 3, artist.getOffset() - 3);
+                    songName, artistName, songOffset, artistOffset);
         }
         else {
             // duplicate artist-song pair; do not insert.
             System.out.printf(
                     "The KVPair (|%s|,|%s|),(%d,%d) duplicates a"
                             + " record already in the tree.\n",
-                    artist.getStringAt(), song.getStringAt(),
-                    artist.getOffset() - 3, song.getOffset() - 3);
+                    artistName, songName, artistOffset, songOffset);
             System.out.printf(
                     "The KVPair (|%s|,|%s|),(%d,%d) duplicates a"
                             + " record already in the tree.\n",
-                    song.getStringAt(), artist.getStringAt(),
-                    song.getOffset() - 3, artist.getOffset() - 3);
+                    songName, artistName, songOffset, artistOffset);
         } // end else
-    } // end parseInsert
+    } // end insert
 
     /**
      * Removes an artist or song from memory, making corrections
@@ -261,13 +436,29 @@ public class SongSearch {
         // flag which indicates whether our argument was
         // artist or song
         boolean isArtist = argument.contains("artist");
-        Handle key;
-        Handle value;
+        if (log != null) {
+            log.logRemove(isArtist, name);
+        }
+        remove(isArtist, name);
+    } // end parseRemove
+
+    /**
+     * Applies a remove command, whether read from our command
+     * file or recovered from our log
+     * 
+     * @param isArtist
+     *            -- True if an artist is removed, false if a
+     *            song is
+     * @param name
+     *            -- name of the artist or song
+     */
+    private static void remove(boolean isArtist, String name) {
+        int key;
 
         if (isArtist) {
-            // search our artist table for the handle
-            key = artistTable.search(name);
-            if (key == null) {
+            // search our artist table for the record
+            key = artistTable.find(name);
+            if (key < 0) {
                 // artist not in artistTable
                 System.out.printf(
                         "|%s| does not exist in the artist database.\n",
@@ -276,9 +467,9 @@ public class SongSearch {
             } // end inner if
         } // end outer if
         else {
-            // search our song table for the handle
-            key = songTable.search(name);
-            if (key == null) {
+            // search our song table for the record
+            key = songTable.find(name);
+            if (key < 0) {
                 // song not in songTable
                 System.out.printf(
                         "|%s| does not exist in the song database.\n",
@@ -287,67 +478,73 @@ public class SongSearch {
             } // end if
         } // end else
 
-        // Get a list of all pairs in our tree with the same key
-        List<KVPair<Handle, Handle>> withThisKey =
-                allWithKey(key);
-        List<KVPair<Handle, Handle>> withSameValue;
-
-        for (KVPair<Handle, Handle> pair : withThisKey) {
-            // iterate over list, remove both permutations
-            // of this pair
-            value = pair.getValue();
+        // Cut all pairs in our tree with the same key out as one
+        // range, then their permutations in one batch, so that an
+        // artist with many songs does not cost a rebalancing
+        // delete per pair
+        List<Integer> withThisKey = new ArrayList<Integer>();
+        List<Long> permutations = new ArrayList<Long>();
+        List<Long> cut = tree.removeRange(
+                PackedPairTree.pack(key, LOW_ID),
+                PackedPairTree.pack(key, HIGH_ID));
+        for (long pair : cut) {
+            int paired = PackedPairTree.valueOf(pair);
+            withThisKey.add(paired);
+            permutations.add(PackedPairTree.pack(paired, key));
+        }
+        tree.removeAll(permutations);
 
-            tree.remove(pair);
-            tree.remove(new KVPair<Handle, Handle>(value, key));
+        for (int value : withThisKey) {
+            memory.addDegree(key, -1);
+            String valueName = memory.nameOf(value);
 
             // report that the permutations are removed from the
             // tree
             if (isArtist) {
                 System.out.printf(
                         "The KVPair (|%s|,|%s|) is deleted from the tree.\n",
-                        key.getStringAt(), value.getStringAt());
+                        name, valueName);
                 System.out.printf(
                         "The KVPair (|%s|,|%s|) is deleted from the tree.\n",
-                        value.getStringAt(), key.getStringAt());
+                        valueName, name);
             }
             else {
                 System.out.printf(
                         "The KVPair (|%s|,|%s|) is deleted from the tree.\n",
-                        value.getStringAt(), key.getStringAt());
+                        valueName, name);
                 System.out.printf(
                         "The KVPair (|%s|,|%s|) is deleted from the tree.\n",
-                        key.getStringAt(), value.getStringAt());
+                        name, valueName);
             }
 
-            withSameValue = allWithKey(value);
-            if (withSameValue.size() == 0) {
-                memory.delete(value, !isArtist);
+            if (memory.addDegree(value, -1) == 0) {
+                memory.deleteRecord(value, !isArtist);
                 if (isArtist) {
                     System.out.printf(
                             "|%s| is deleted from the song database.\n",
-                            value.getStringAt());
+                            valueName);
                 }
                 else {
                     System.out.printf(
                             "|%s| is deleted from the artist database.\n",
-                            value.getStringAt());
+                            valueName);
                 } // end else
             } // end if
         } // end for loop
 
-        memory.delete(key, isArtist);
+        memory.deleteRecord(key, isArtist);
         if (isArtist) {
             System.out.printf(
                     "|%s| is deleted from the artist database.\n",
-                    key.getStringAt());
+                    name);
         }
         else {
             System.out.printf(
                     "|%s| is deleted from the song database.\n",
-                    key.getStringAt());
+                    name);
         } // end else
 
-    } // end parseRemove
+    } // end remove
 
     /**
      * Prints the contents of one or two of our data structures
@@ -384,7 +581,9 @@ public class SongSearch {
         else {
             // only thing left is print tree
             System.out.println("Printing 2-3 tree:");
-            System.out.print(tree);
+            if (!tree.isEmpty()) {
+                System.out.print(printPreOrder(tree.root(), 0));
+            }
         }
     } // end parsePrint
 
@@ -392,8 +591,8 @@ public class SongSearch {
      * Calls upon the functionality of our range search to find
      * all songs by a particular artist or find all artists
      * associated with the name of a certain song. Our private
-     * helper method allWithKey already returns a list, so we
-     * simply print the list returned.
+     * helper method allWithKey walks the matching pairs lazily,
+     * so we simply print each pair as it is found.
      * 
      * format: list {artist|song} {name}
      * 
@@ -403,13 +602,12 @@ public class SongSearch {
     private static void parseList(Scanner scan) {
         String argument = scan.next();
         String name = scan.nextLine().substring(1);
-        Handle toList;
-        List<KVPair<Handle, Handle>> list;
+        int toList;
 
         if (argument.contains("artist")) {
             // current argument specifies artist
-            toList = artistTable.search(name);
-            if (toList == null) {
+            toList = artistTable.find(name);
+            if (toList < 0) {
                 // artist not in hash table
                 System.out.printf(
                         "|%s| does not exist in the artist database.\n",
@@ -419,8 +617,8 @@ public class SongSearch {
         } // end outer if
         else {
             // current argument specifies song
-            toList = songTable.search(name);
-            if (toList == null) {
+            toList = songTable.find(name);
+            if (toList < 0) {
                 // song not in hash table
                 System.out.printf(
                         "|%s| does not exist in the song database.\n",
@@ -428,14 +626,50 @@ public class SongSearch {
                 return;
             }
         } // end else
-        list = allWithKey(toList);
-
-        for (KVPair<Handle, Handle> pair : list) {
+        for (long pair : allWithKey(toList)) {
             System.out.printf("|%s|\n",
-                    pair.getValue().getStringAt());
+                    memory.nameOf(PackedPairTree.valueOf(pair)));
         }
     } // end parseList
 
+    /**
+     * Reports how many songs an artist has, or how many artists
+     * have a song of the given name, straight from the degree of
+     * its record
+     * 
+     * format: count {artist|song} {name}
+     * 
+     * @param scan
+     *            -- scanner currently used to read command file
+     */
+    private static void parseCount(Scanner scan) {
+        String argument = scan.next();
+        String name = scan.nextLine().substring(1);
+
+        if (argument.contains("artist")) {
+            int artist = artistTable.find(name);
+            if (artist < 0) {
+                System.out.printf(
+                        "|%s| does not exist in the artist database.\n",
+                        name);
+                return;
+            }
+            System.out.printf("|%s| has %d songs.\n", name,
+                    memory.degree(artist));
+        }
+        else {
+            int song = songTable.find(name);
+            if (song < 0) {
+                System.out.printf(
+                        "|%s| does not exist in the song database.\n",
+                        name);
+                return;
+            }
+            System.out.printf("|%s| has %d artists.\n", name,
+                    memory.degree(song));
+        } // end else
+    } // end parseCount
+
     /**
      * Deletes a single artist-song pair from memory. We must
      * first check if the song and artist are both valid. If
@@ -462,35 +696,49 @@ public class SongSearch {
         String toInsert = scan.nextLine().substring(1);
         String[] artistSong = toInsert.split("<SEP>");
 
-        Handle artistHandle = artistTable.search(artistSong[0]);
-        Handle songHandle = songTable.search(artistSong[1]);
+        if (log != null) {
+            log.logDelete(artistSong[0], artistSong[1]);
+        }
+        delete(artistSong[0], artistSong[1]);
+    } // end parseDelete
+
+    /**
+     * Applies a delete command, whether read from our command
+     * file or recovered from our log
+     * 
+     * @param artistName
+     *            -- name of the artist
+     * @param songName
+     *            -- name of the song
+     */
+    private static void delete(String artistName, String songName) {
+        int artist = artistTable.find(artistName);
+        int song = songTable.find(songName);
 
         // Check to make sure song-artist pair exist. If not,
         // report and exit
-        if (artistHandle == null) {
+        if (artist < 0) {
             // artist not in artist hash table
             System.out.printf(
                     "|%s| does not exist in the artist database.\n",
-                    artistSong[0]);
+                    artistName);
             return;
         }
-        else if (songHandle == null) {
+        else if (song < 0) {
             // song not in song hash table
             System.out.printf(
                     "|%s| does not exist in the song database.\n",
-                    artistSong[1]);
+                    songName);
             return;
         }
 
 
         // remove this specific combination from both
         // trees
-        KVPair<Handle, Handle> removedArtist =
-                tree.remove(new KVPair<Handle, Handle>(artistHandle,
-                songHandle));
-        KVPair<Handle, Handle> removedSong = 
-                tree.remove(new KVPair<Handle, Handle>(songHandle,
-                artistHandle));
+        Long removedArtist =
+                tree.remove(PackedPairTree.pack(artist, song));
+        Long removedSong = 
+                tree.remove(PackedPairTree.pack(song, artist));
 
         // If this call was invalid in any way
         boolean invalidCall = false;
@@ -499,15 +747,13 @@ public class SongSearch {
         if (removedArtist == null) {
             System.out.printf(
                     "The KVPair (|%s|,|%s|) was not found in the database.\n",
-                    artistHandle.getStringAt(),
-                    songHandle.getStringAt());
+                    artistName, songName);
             invalidCall = true;
         }
         if (removedSong == null) {
             System.out.printf(
                     "The KVPair (|%s|,|%s|) was not found in the database.\n",
-                    songHandle.getStringAt(),
-                    artistHandle.getStringAt());
+                    songName, artistName);
             invalidCall = true;
         }
         
@@ -518,58 +764,105 @@ public class SongSearch {
         
         System.out.printf(
                 "The KVPair (|%s|,|%s|) is deleted from the tree.\n",
-                artistHandle.getStringAt(),
-                songHandle.getStringAt());
+                artistName, songName);
         System.out.printf(
                 "The KVPair (|%s|,|%s|) is deleted from the tree.\n",
-                songHandle.getStringAt(),
-                artistHandle.getStringAt());
+                songName, artistName);
         
-        // likely does not have any worse efficiency than
-        // O(log n) unless this artist or song takes up a
-        // significant portion of the table
-        int thisSongLeft =
-                allWithKey(songHandle).size();
-        int thisArtistLeft =
-                allWithKey(artistHandle).size();
-
-        if (thisArtistLeft == 0) {
+        // the degrees tell us at once whether any other pairs
+        // are left
+        boolean thisSongLeft = memory.addDegree(song, -1) > 0;
+        boolean thisArtistLeft = memory.addDegree(artist, -1) > 0;
+
+        if (!thisArtistLeft) {
             // there are no more instances of this artist
             // having any other songs, so we remove all
             // references to it
-            memory.delete(artistHandle, true);
+            memory.deleteRecord(artist, true);
             System.out.printf(
                     "|%s| is deleted from the artist database.\n",
-                    artistHandle.getStringAt());
+                    artistName);
         }
-        if (thisSongLeft == 0) {
+        if (!thisSongLeft) {
             // there are no more instances of this song
             // attached to any other artist, so we remove all
             // references to it
-            memory.delete(songHandle, false);
+            memory.deleteRecord(song, false);
             System.out.printf(
                     "|%s| is deleted from the song database.\n",
-                    songHandle.getStringAt());
+                    songName);
         }
-    } // end parseDelete
+    } // end delete
     
     /**
      * Calls on the functionality of range search to look for all
-     * song-artist pairs with the specified song / artist,
-     * returning found pairs in the format of a list
+     * song-artist pairs with the specified song / artist. Pairs
+     * are found lazily as they are walked, so the tree must not
+     * be modified during the walk.
      * 
-     * @param handle
-     *            -- artist/song pointer. If an artist handle,
-     *            this will return all songs by artist. If a song
-     *            handle, this will return all artists with this
-     *            song
-     * @return list of all song-artist pairs matching artist/song
-     *         in handle
+     * @param id
+     *            -- artist/song record id. If an artist, this
+     *            will return all songs by artist. If a song,
+     *            this will return all artists with this song
+     * @return all song-artist pairs matching artist/song in
+     *         id
      */
-    private static List<KVPair<Handle, Handle>> allWithKey(
-            Handle handle) {
-        return tree.rangeSearch(
-                new KVPair<Handle, Handle>(handle, LOW_HANDLE),
-                new KVPair<Handle, Handle>(handle, HIGH_HANDLE));
+    private static Iterable<Long> allWithKey(int id) {
+        return tree.range(PackedPairTree.pack(id, LOW_ID),
+                PackedPairTree.pack(id, HIGH_ID));
     } // end allWithKey
+
+    /**
+     * Prints a subtree of our tree along a preorder traversal,
+     * like TTNode.printPreOrder, showing every pair as the
+     * offsets of its two records rather than the long packing
+     * their ids
+     * 
+     * @param node
+     *            -- root of the subtree
+     * @param level
+     *            -- depth of node, which sets its indentation
+     * @return string representation of the subtree
+     */
+    private static String printPreOrder(TTNode<Long> node,
+            int level) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 2 * level; i++) {
+            builder.append(" ");
+        }
+        builder.append(offsets(node.lkey()));
+        if (node.rkey() != null) {
+            builder.append(" ");
+            builder.append(offsets(node.rkey()));
+        }
+        builder.append("\n");
+
+        if (node.leftChild() != null) {
+            builder.append(printPreOrder(node.leftChild(),
+                    level + 1));
+        }
+        if (node.centerChild() != null) {
+            builder.append(printPreOrder(node.centerChild(),
+                    level + 1));
+        }
+        if (node.rightChild() != null) {
+            builder.append(printPreOrder(node.rightChild(),
+                    level + 1));
+        }
+        return builder.toString();
+    } // end printPreOrder
+
+    /**
+     * Shows a packed pair as the offsets of its two records
+     * 
+     * @param pair
+     *            -- packed pair of the tree
+     * @return offset of the key record and of the value record
+     */
+    private static String offsets(long pair) {
+        return String.format("%d %d",
+                memory.locate(PackedPairTree.keyOf(pair)),
+                memory.locate(PackedPairTree.valueOf(pair)));
+    }
+
 } // end SongSearch
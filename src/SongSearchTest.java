@@ -252,6 +252,131 @@ public class SongSearchTest extends TestCase {
         
     }
     
+    /**
+     * Tests that count reports the number of pairs of an artist
+     * or song as they are inserted, deleted, and removed
+     * 
+     * @throws IOException
+     *             if the command file cannot be written
+     */
+    public void testCount() throws IOException {
+        writer.write("insert Nickelback<SEP>Rockstar\n"
+                + "insert Nickelback<SEP>Animals\n"
+                + "insert Nickelback<SEP>Animals\n"
+                + "insert Pearl Jam<SEP>Animals\n"
+                + "count artist Nickelback\n"
+                + "count song Animals\n"
+                + "delete Nickelback<SEP>Animals\n"
+                + "count artist Nickelback\n"
+                + "count song Animals\n"
+                + "remove artist Pearl Jam\n"
+                + "count song Animals\n"
+                + "count artist Pearl Jam\n");
+        writer.close();
+        SongSearch.main(args);
+        ps.close();
+        System.setOut(OLD);
+
+        String output = baos.toString();
+        assertTrue(output.contains("|Nickelback| has 2 songs.\n"
+                + "|Animals| has 2 artists.\n"));
+        assertTrue(output.contains("|Nickelback| has 1 songs.\n"
+                + "|Animals| has 1 artists.\n"));
+        // Animals went with the last artist it had
+        assertTrue(output.contains(
+                "|Animals| is deleted from the song database.\n"));
+        assertTrue(output.endsWith(
+                "|Animals| does not exist in the song database.\n"
+                        + "|Pearl Jam| does not exist in the artist"
+                        + " database.\n"));
+    }
+
+    /**
+     * Tests that a second run restored from the snapshot of the
+     * first prints the same database as a single run
+     * 
+     * @throws IOException
+     *             if a command file cannot be written
+     */
+    public void testSnapshot() throws IOException {
+        String inserts = "insert Nickelback<SEP>Rockstar\n"
+                + "insert Nickelback<SEP>Animals\n"
+                + "insert Linkin Park<SEP>Numb\n"
+                + "insert Pearl Jam<SEP>Animals\n"
+                + "remove song Rockstar\n";
+        String prints = "insert Pearl Jam<SEP>Alive\n"
+                + "print artist\nprint song\nprint tree\n"
+                + "count artist Pearl Jam\n";
+        writer.write(inserts + prints);
+        writer.close();
+        SongSearch.main(args);
+        String expected = baos.toString();
+
+        File snapshot = File.createTempFile("snapshot", ".bin");
+        snapshot.delete();
+        String[] snapshotArgs = {args[0], args[1], args[2],
+            snapshot.getPath()};
+        writer = new FileWriter(args[2]);
+        writer.write(inserts);
+        writer.close();
+        SongSearch.main(snapshotArgs);
+
+        baos.reset();
+        writer = new FileWriter(args[2]);
+        writer.write(prints);
+        writer.close();
+        SongSearch.main(snapshotArgs);
+        ps.close();
+        System.setOut(OLD);
+        snapshot.delete();
+
+        assertTrue(expected.endsWith(baos.toString()));
+        assertTrue(baos.toString().contains("total songs: 3\n"));
+        // degrees are counted again from the restored tree
+        assertTrue(baos.toString().endsWith(
+                "|Pearl Jam| has 2 songs.\n"));
+    }
+
+    /**
+     * Tests that a run without a snapshot recovers the commands
+     * logged by the previous run
+     * 
+     * @throws IOException
+     *             if a command file cannot be written
+     */
+    public void testLog() throws IOException {
+        String inserts = "insert Nickelback<SEP>Rockstar\n"
+                + "insert Linkin Park<SEP>Numb\n"
+                + "insert Linkin Park<SEP>Faint\n"
+                + "delete Linkin Park<SEP>Numb\n";
+        String prints = "print song\nprint tree\n";
+        writer.write(inserts + prints);
+        writer.close();
+        SongSearch.main(args);
+        String expected = baos.toString();
+
+        File logFile = File.createTempFile("songs", ".log");
+        String[] logArgs = {args[0], args[1], args[2], "",
+            logFile.getPath(), "op"};
+        writer = new FileWriter(args[2]);
+        writer.write(inserts);
+        writer.close();
+        SongSearch.main(logArgs);
+
+        baos.reset();
+        writer = new FileWriter(args[2]);
+        writer.write(prints);
+        writer.close();
+        SongSearch.main(logArgs);
+        ps.close();
+        System.setOut(OLD);
+        logFile.delete();
+
+        assertTrue(expected.endsWith(baos.toString()));
+        assertTrue(baos.toString().contains("|Faint|"));
+        assertFalse(baos.toString().contains("|Numb|"));
+    }
+
     /**
      * Tests that our program must be called correctly.
      */
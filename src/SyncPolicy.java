@@ -0,0 +1,20 @@
+/**
+ * Policies deciding when a WriteAheadLog forces its records out
+ * to the disk.
+ *
+ * EVERY_OP forces the log after every record, so no acknowledged
+ * operation is ever lost, at the price of one disk flush per
+ * operation. GROUP forces the log once the group interval has
+ * passed since the first record written after the last flush,
+ * so a single flush covers every operation of the interval. NONE
+ * never forces the log and leaves writing it back to the
+ * operating system. Records are written to the log file right
+ * away under every policy, so only a crash of the machine, not
+ * of our program, can lose records which were not forced.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ */
+public enum SyncPolicy {
+    EVERY_OP, GROUP, NONE
+} // end SyncPolicy
@@ -24,6 +24,14 @@ public class TTNode<Key extends Comparable<? super Key>> {
     private TTNode<Key> center; // Pointer to middle child
     private TTNode<Key> right; // Pointer to right child
 
+    // every node has at least two children, so a tree of at most
+    // Integer.MAX_VALUE keys is never taller than this
+    static final int MAX_HEIGHT = 32;
+    // how far rangeSearch has got in a node on its stack
+    private static final int UNVISITED = 0;
+    private static final int AFTER_LEFT = 1;
+    private static final int AFTER_CENTER = 2;
+
     // -------------------CONSTRUCTOR------------------
 
     /**
@@ -192,7 +200,7 @@ public class TTNode<Key extends Comparable<? super Key>> {
                 return this;
             }
             else {
-                return this.add(retval);
+                return this.add(retval, 0);
             }
         }
         else if (right == null || k.compareTo(rkey) <= 0) {
@@ -203,7 +211,7 @@ public class TTNode<Key extends Comparable<? super Key>> {
                 return this;
             }
             else {
-                return this.add(retval);
+                return this.add(retval, 1);
             }
         }
         else { // Insert right
@@ -212,7 +220,7 @@ public class TTNode<Key extends Comparable<? super Key>> {
                 return this;
             }
             else {
-                return this.add(retval);
+                return this.add(retval, 2);
             }
         }
 
@@ -312,6 +320,130 @@ public class TTNode<Key extends Comparable<? super Key>> {
         return toRet;
     } // end removeHelper
 
+    /**
+     * Inserts a key into the specified sub-tree like insertHelp,
+     * but without recursion: the nodes passed on the way down to
+     * the leaf are kept on a stack, and each node popped on the
+     * way back up takes the node split off below it, until a node
+     * has room for it.
+     * 
+     * @param k
+     *            -- key to insert
+     * @return reference to node after key is inserted into
+     *         subtree
+     */
+    public TTNode<Key> insert(Key k) {
+        TTNode<Key>[] path = newStack();
+        int[] index = new int[MAX_HEIGHT];
+        int depth = 0;
+        TTNode<Key> node = this;
+        while (!node.isLeaf()) {
+            path[depth] = node;
+            if (k.compareTo(node.lkey) <= 0) {
+                index[depth++] = 0;
+                node = node.left;
+            }
+            else if (node.right == null
+                    || k.compareTo(node.rkey) <= 0) {
+                index[depth++] = 1;
+                node = node.center;
+            }
+            else {
+                index[depth++] = 2;
+                node = node.right;
+            }
+        } // end while
+
+        TTNode<Key> retval =
+                node.add(new TTNode<Key>(k, null, null, null, null));
+        while (depth > 0) {
+            if (retval == node) {
+                // the split was absorbed below this node
+                return this;
+            }
+            node = path[--depth];
+            retval = node.add(retval, index[depth]);
+        }
+        return retval;
+    } // end insert
+
+    /**
+     * Removes a key from the specified sub-tree like
+     * removeHelper, but without recursion: the nodes passed on
+     * the way down are kept on a stack, and every one of them
+     * rebalances its children on the way back up.
+     * 
+     * @param k
+     *            -- key to remove
+     * @return -- reference to KV pair removed, null if the key is
+     *         not in the subtree
+     */
+    public Key remove(Key k) {
+        TTNode<Key>[] path = newStack();
+        int depth = 0;
+        Key toRet = null;
+        TTNode<Key> node = this;
+        while (node != null) {
+            path[depth++] = node;
+            TTNode<Key> next;
+            if (k.compareTo(node.lkey) == 0) {
+                if (node.isLeaf()) {
+                    toRet = node.lkey;
+                    node.lkey = node.rkey;
+                    node.rkey = null;
+                    break;
+                }
+                // swap with the successor and carry on down to
+                // the leaf holding it
+                TTNode<Key> successor = node.center;
+                while (!successor.isLeaf()) {
+                    successor = successor.left;
+                }
+                Key found = node.lkey;
+                node.lkey = successor.lkey;
+                successor.lkey = found;
+                next = node.center;
+            }
+            else if (node.rkey != null
+                    && k.compareTo(node.rkey) == 0) {
+                if (node.isLeaf()) {
+                    toRet = node.rkey;
+                    node.rkey = null;
+                    break;
+                }
+                TTNode<Key> successor = node.right;
+                while (!successor.isLeaf()) {
+                    successor = successor.left;
+                }
+                Key found = node.rkey;
+                node.rkey = successor.lkey;
+                successor.lkey = found;
+                next = node.right;
+            }
+            else if (node.isLeaf()) {
+                // key is not in subtree
+                depth--;
+                next = null;
+            }
+            else if (k.compareTo(node.lkey) < 0) {
+                next = node.left;
+            }
+            else if (node.rkey == null
+                    || k.compareTo(node.rkey) < 0) {
+                next = node.center;
+            }
+            else {
+                next = node.right;
+            }
+            node = next;
+        } // end while
+
+        while (depth > 0) {
+            path[--depth].rebalanceChildren();
+        }
+        return toRet;
+    } // end remove
+
     /**
      * Finds the hight of our given subtree by recursively
      * summing the hights of its children and finding the maximum
@@ -372,6 +504,41 @@ public class TTNode<Key extends Comparable<? super Key>> {
         } // end else
     } // end searchHelper()
 
+    /**
+     * Searches the specified sub-tree for a key like
+     * searchHelper, walking down in a loop instead of recursing
+     * 
+     * @param toFind
+     *            -- key to search tree for
+     * @return reference to key if found, null otherwise
+     */
+    public Key search(Key toFind) {
+        TTNode<Key> node = this;
+        while (true) {
+            int cmp = toFind.compareTo(node.lkey);
+            if (cmp == 0) {
+                return node.lkey;
+            }
+            int rcmp = node.rkey == null ? -1
+                    : toFind.compareTo(node.rkey);
+            if (rcmp == 0) {
+                return node.rkey;
+            }
+            else if (node.isLeaf()) {
+                return null;
+            }
+            else if (cmp < 0) {
+                node = node.left;
+            }
+            else if (rcmp < 0) {
+                node = node.center;
+            }
+            else {
+                node = node.right;
+            }
+        } // end while
+    } // end search
+
     /**
      * Recursive helper method which traverses the tree and
      * returns all keys within the range of lower and higher
@@ -436,6 +603,81 @@ public class TTNode<Key extends Comparable<? super Key>> {
         } // end else
     } // end findRangeHelper
 
+    /**
+     * Collects the keys of the sub-tree within the range of
+     * lower and higher (inclusive) like rangeSearchHelper, in the
+     * same order, but without recursion. Every node on the way
+     * down is kept on a stack along with how far its traversal
+     * has got, i.e. whether its left or center child has been
+     * traversed.
+     * 
+     * @param lower
+     *            -- lower bound of range
+     * @param higher
+     *            -- upper bound of range
+     * @param list
+     *            -- list of elements that fall within range
+     */
+    public void rangeSearch(Key lower, Key higher, List<Key> list) {
+        TTNode<Key>[] path = newStack();
+        int[] stage = new int[MAX_HEIGHT];
+        int top = 0;
+        path[0] = this;
+        while (top >= 0) {
+            TTNode<Key> node = path[top];
+            if (stage[top] == AFTER_LEFT) {
+                if (higher.compareTo(node.lkey) >= 0) {
+                    list.add(node.lkey);
+                    stage[top] = AFTER_CENTER;
+                    path[++top] = node.center;
+                    stage[top] = UNVISITED;
+                }
+                else {
+                    top--;
+                }
+            }
+            else if (stage[top] == AFTER_CENTER) {
+                if (node.rkey != null
+                        && higher.compareTo(node.rkey) >= 0) {
+                    // nothing is left to do in this node, so the
+                    // right child takes its place
+                    list.add(node.rkey);
+                    path[top] = node.right;
+                    stage[top] = UNVISITED;
+                }
+                else {
+                    top--;
+                }
+            }
+            else if (node.isLeaf()) {
+                if (lower.compareTo(node.lkey) <= 0
+                        && higher.compareTo(node.lkey) >= 0) {
+                    list.add(node.lkey);
+                }
+                if (node.rkey != null
+                        && lower.compareTo(node.rkey) <= 0
+                        && higher.compareTo(node.rkey) >= 0) {
+                    list.add(node.rkey);
+                }
+                top--;
+            }
+            else if (lower.compareTo(node.lkey) <= 0) {
+                stage[top] = AFTER_LEFT;
+                path[++top] = node.left;
+                stage[top] = UNVISITED;
+            }
+            else if (node.rkey == null
+                    || lower.compareTo(node.rkey) <= 0) {
+                stage[top] = AFTER_CENTER;
+                path[++top] = node.center;
+                stage[top] = UNVISITED;
+            }
+            else {
+                path[top] = node.right;
+            }
+        } // end while
+    } // end rangeSearch
+
     /**
      * Prints the subtree along a preorder traversal
      * 
@@ -482,21 +724,46 @@ public class TTNode<Key extends Comparable<? super Key>> {
 
     // -------------------PRIVATE METHODS------------------------
 
+    /**
+     * Add a new key/value pair to a leaf. The new key has no
+     * subtree, so where it goes follows from comparing it with
+     * the keys already here.
+     * 
+     * @param node
+     *            -- reference of node to add to current node
+     * @return reference to new root with node in subtree.
+     *         Subtree is no deeper than 3 nodes
+     */
+    private TTNode<Key> add(TTNode<Key> node) {
+        if (lkey.compareTo(node.lkey()) >= 0) {
+            return this.add(node, 0);
+        }
+        else if (rkey == null || rkey.compareTo(node.lkey()) >= 0) {
+            return this.add(node, 1);
+        }
+        return this.add(node, 2);
+    } // end add
+
     /**
      * Add a new key/value pair to the node. There might be a
      * subtree associated with the record being added. This
      * information comes in the form of a 2-3 tree node with one
      * key and a (possibly null) subtree through the center
-     * pointer field.
+     * pointer field. Which child it was split off from is passed
+     * in rather than found by comparing keys, since a child may
+     * hold keys equal to ours on either side of them.
      * 
      * @param node
      *            -- reference of node to add to current node
+     * @param child
+     *            -- 0, 1 or 2 if node was split off the left,
+     *            center or right child
      * @return reference to new root with node in subtree.
      *         Subtree is no deeper than 3 nodes
      */
-    private TTNode<Key> add(TTNode<Key> node) {
+    private TTNode<Key> add(TTNode<Key> node, int child) {
         if (rkey == null) { // Only one key, add here
-            if (lkey.compareTo(node.lkey()) < 0) {
+            if (child > 0) {
                 rkey = node.lkey();
                 center = node.leftChild();
                 right = node.centerChild();
@@ -511,8 +778,7 @@ public class TTNode<Key extends Comparable<? super Key>> {
             return this;
         } // end else
           // node to add's left key is smaller
-        else if (lkey.compareTo(node.lkey) >= 0) {
-
+        else if (child == 0) {
             // create new node with node to add as left child and
             // this node as center child
             TTNode<Key> newParent =
@@ -532,11 +798,14 @@ public class TTNode<Key extends Comparable<? super Key>> {
             // return new parent
             return newParent;
         }
-        else if (rkey.compareTo(node.lkey()) >= 0) {
+        else if (child == 1) {
             // Add center
             node.setCenterChild(
                     new TTNode<Key>(rkey, null,
                             node.centerChild(), right, null));
+            // the left half of the split center child stays
+            // below our left key
+            center = node.leftChild();
             node.setLeftChild(this);
             rkey = null;
             right = null;
@@ -546,13 +815,29 @@ public class TTNode<Key extends Comparable<? super Key>> {
             TTNode<Key> newParent =
                     new TTNode<Key>(rkey, null, this, node,
                             null);
-            node.setLeftChild(right);
+            // node keeps the left half of the split right child
+            // as its left child
             right = null;
             rkey = null;
             return newParent;
         }
     } // end add
 
+    /**
+     * Creates a stack deep enough to hold a path from the root
+     * of any 2-3+ tree to one of its leaves. Used by
+     * RangeIterator.
+     * 
+     * @param <Key>
+     *            -- generic reference for comparable
+     * @return empty stack of nodes
+     */
+    @SuppressWarnings("unchecked")
+    static <Key extends Comparable<? super Key>> TTNode<Key>[]
+            newStack() {
+        return (TTNode<Key>[]) new TTNode<?>[MAX_HEIGHT];
+    }
+
     /**
      * Private helper method which allows us to rebalance the
      * tree based on the circumstances of the children's data
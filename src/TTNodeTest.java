@@ -71,4 +71,150 @@ public class TTNodeTest extends TestCase {
         assertEquals(30, (int) root.removeHelper(30));        
         assertEquals(27, (int) root.removeHelper(27));
     }
+
+    /**
+     * Tests that a split coming up through the center or right
+     * child of a full node keeps the left half of the split
+     * node, so that no key below it is lost
+     */
+    public void testSplit() {
+        String expected = "40\n  20\n    10\n    30\n"
+                + "  60\n    50\n    70\n";
+        // 50 splits the right child of the full node 20 60
+        int[] right = { 40, 60, 20, 30, 70, 10, 50 };
+        // 30 splits the center child of the full node 20 60
+        int[] center = { 20, 10, 40, 60, 70, 50, 30 };
+        for (int[] keys : new int[][] { right, center }) {
+            TTNode<Integer> recursive = new TTNode<Integer>(
+                    keys[0], null, null, null, null);
+            TTNode<Integer> iterative = new TTNode<Integer>(
+                    keys[0], null, null, null, null);
+            for (int i = 1; i < keys.length; i++) {
+                recursive = recursive.insertHelp(keys[i]);
+                iterative = iterative.insert(keys[i]);
+            }
+            assertEquals(expected, recursive.printPreOrder(0));
+            assertEquals(expected, iterative.printPreOrder(0));
+            for (int k : keys) {
+                assertEquals(k, (int) recursive.searchHelper(k));
+                assertEquals(k, (int) iterative.search(k));
+            }
+        } // end for
+    }
+
+    /**
+     * Tests that the iterative methods leave the tree in exactly
+     * the shape the recursive helpers do, and find the same keys
+     */
+    public void testIterative() {
+        TTNode<Integer> iterative =
+                new TTNode<Integer>(50, null, null, null, null);
+        TTNode<Integer> recursive =
+                new TTNode<Integer>(50, null, null, null, null);
+        java.util.Random random = new java.util.Random(7);
+        java.util.List<Integer> keys =
+                new java.util.ArrayList<Integer>();
+        for (int i = 0; i < 300; i++) {
+            int k = random.nextInt(1000);
+            if (recursive.searchHelper(k) == null) {
+                keys.add(k);
+                iterative = iterative.insert(k);
+                recursive = recursive.insertHelp(k);
+            }
+        }
+        assertEquals(recursive.printPreOrder(0),
+                iterative.printPreOrder(0));
+        for (int k : keys) {
+            // no key may be lost by a split
+            assertEquals(k, (int) iterative.search(k));
+        }
+
+        for (int k = 0; k < 1000; k++) {
+            assertEquals(recursive.searchHelper(k),
+                    iterative.search(k));
+        }
+        java.util.List<Integer> expected =
+                new java.util.LinkedList<Integer>();
+        java.util.List<Integer> actual =
+                new java.util.LinkedList<Integer>();
+        recursive.rangeSearchHelper(100, 600, expected);
+        iterative.rangeSearch(100, 600, actual);
+        assertEquals(expected, actual);
+        assertFalse(actual.isEmpty());
+
+        assertNull(iterative.remove(1001));
+        for (int i = 0; i < keys.size() / 2; i++) {
+            int k = keys.get(i);
+            assertEquals(k, (int) iterative.remove(k));
+            assertEquals(k, (int) recursive.removeHelper(k));
+            if (iterative.lkey() == null) {
+                iterative = iterative.leftChild();
+                recursive = recursive.leftChild();
+            }
+            assertEquals(recursive.printPreOrder(0),
+                    iterative.printPreOrder(0));
+        }
+    }
+
+    /**
+     * Tests that the iterative and recursive methods agree on
+     * random trees of several sizes, down to an empty tree
+     */
+    public void testRandomTrees() {
+        for (int seed = 1; seed <= 4; seed++) {
+            java.util.Random random = new java.util.Random(seed);
+            int n = seed * 500;
+            java.util.List<Integer> keys =
+                    new java.util.ArrayList<Integer>();
+            TTNode<Integer> iterative = null;
+            TTNode<Integer> recursive = null;
+            while (keys.size() < n) {
+                int k = random.nextInt(10 * n);
+                if (recursive == null) {
+                    iterative = new TTNode<Integer>(k, null, null,
+                            null, null);
+                    recursive = new TTNode<Integer>(k, null, null,
+                            null, null);
+                    keys.add(k);
+                }
+                else if (recursive.searchHelper(k) == null) {
+                    iterative = iterative.insert(k);
+                    recursive = recursive.insertHelp(k);
+                    keys.add(k);
+                }
+            } // end while
+            assertEquals(recursive.printPreOrder(0),
+                    iterative.printPreOrder(0));
+
+            for (int i = 0; i < 20; i++) {
+                int low = random.nextInt(10 * n);
+                int high = low + random.nextInt(n);
+                java.util.List<Integer> expected =
+                        new java.util.LinkedList<Integer>();
+                java.util.List<Integer> actual =
+                        new java.util.LinkedList<Integer>();
+                recursive.rangeSearchHelper(low, high, expected);
+                iterative.rangeSearch(low, high, actual);
+                assertEquals(expected, actual);
+            }
+
+            java.util.Collections.shuffle(keys, random);
+            for (int i = 0; i < keys.size(); i++) {
+                int k = keys.get(i);
+                assertEquals(k, (int) iterative.search(k));
+                assertEquals(k, (int) iterative.remove(k));
+                assertEquals(k, (int) recursive.removeHelper(k));
+                if (iterative.lkey() == null) {
+                    iterative = iterative.leftChild();
+                    recursive = recursive.leftChild();
+                }
+                if (i % 100 == 0 && iterative != null) {
+                    assertEquals(recursive.printPreOrder(0),
+                            iterative.printPreOrder(0));
+                }
+            } // end for
+            assertNull(iterative);
+            assertNull(recursive);
+        } // end for
+    }
 }
@@ -1,3 +1,6 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -13,10 +16,13 @@ import java.util.List;
  * @param <Key>
  *            -- generic reference for comparable KVPair
  */
-public class TTTree<Key extends Comparable<? super Key>> {
+public class TTTree<Key extends Comparable<? super Key>>
+        implements SearchTree<Key> {
 
     // ---------------- PRIVATE VARIABLES---------------------
     private TTNode<Key> root;
+    private BTreeNode<Key> wideRoot; // root when order > 3
+    private int order; // most children of a node
     private int size;
 
     // ---------------- CONSTRUCTOR---------------------------
@@ -25,33 +31,694 @@ public class TTTree<Key extends Comparable<? super Key>> {
      * Default constructor for 2-3+ Tree
      */
     public TTTree() {
+        this(3);
+    }
+
+    /**
+     * Constructor for a tree whose nodes have up to the given
+     * number of children. An order of 3 builds the tree out of
+     * 2-3+ nodes (TTNode), while any larger order builds it out
+     * of B-tree nodes (BTreeNode) holding up to order - 1 keys
+     * each, which makes for a much shallower tree. Only trees of
+     * 2-3+ nodes can be saved in a Snapshot.
+     * 
+     * @param treeOrder
+     *            -- most children of a node, at least 3
+     */
+    public TTTree(int treeOrder) {
+        if (treeOrder < 3) {
+            throw new IllegalArgumentException(
+                    "order must be at least 3: " + treeOrder);
+        }
+        order = treeOrder;
         root = null;
+        wideRoot = null;
         size = 0;
-    }
+    } // end constructor
 
     // ---------------- PUBLIC METHODS------------------------
 
     /**
      * Inserts a specified Key-Value pair into the tree by
-     * calling the insertHelper method on the tree's root
+     * calling the iterative insert method on the tree's root
      * 
      * @param k
      *            -- key to insert corresponding to KV pair
      */
     public void insert(Key k) {
-        if (this.isEmpty()) {
+        if (order > 3) {
+            wideRoot = wideRoot == null
+                    ? new BTreeNode<Key>(order, k)
+                    : wideRoot.insert(k);
+        }
+        else if (this.isEmpty()) {
             // Empty tree: create a leaf node for root
             root = new TTNode<Key>(k, null, null, null, null);
         }
         else {
-            root = root.insertHelp(k);
+            root = root.insert(k);
         }
         size++;
     } // end insert
 
+    /**
+     * Replaces the contents of the tree with the given keys,
+     * building the tree bottom-up in linear time instead of
+     * inserting one key at a time. Keys are sorted first unless
+     * they already are in ascending order, and duplicates are
+     * only stored once. Leaves are filled with two keys each,
+     * with a single key between neighbouring leaves, and every
+     * level above is built the same way out of the keys between
+     * its children, so the tree is as densely packed as a 2-3
+     * tree can be. A tree of B-tree nodes is built the same way
+     * by BTreeNode.build, its nodes filled with up to order - 1
+     * keys.
+     * 
+     * @param keys
+     *            -- keys to store
+     */
+    public void bulkLoad(List<? extends Key> keys) {
+        List<Key> sorted = new ArrayList<Key>(keys);
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i - 1).compareTo(sorted.get(i)) > 0) {
+                Collections.sort(sorted);
+                break;
+            }
+        }
+
+        // drop duplicates
+        int distinct = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            if (distinct == 0 || sorted.get(distinct - 1)
+                    .compareTo(sorted.get(i)) != 0) {
+                sorted.set(distinct++, sorted.get(i));
+            }
+        }
+        this.clear();
+        if (order > 3) {
+            wideRoot = BTreeNode.build(order, sorted, distinct);
+            size = distinct;
+            return;
+        }
+        this.build(sorted, distinct);
+    } // end bulkLoad
+
+    /**
+     * Removes every key within a range of keys (inclusive) in
+     * one go. The range is cut out of the tree along the two
+     * paths leading to its ends: subtrees lying wholly within
+     * the range are detached whole, subtrees wholly outside it
+     * are kept as they are, and the pieces left on either side
+     * of the cut are joined back together. Each node along the
+     * paths costs a few joins (up to one per key for orders
+     * above 3) of O(log n) each, and the detached subtrees are
+     * still walked once to list the keys removed, so removing k
+     * keys out of n costs O(log^2 n + k) rather than k
+     * rebalancing deletes.
+     * 
+     * @param low
+     *            - the low key
+     * @param high
+     *            - the high key
+     * @return the removed keys, in ascending order
+     */
+    public List<Key> removeRange(Key low, Key high) {
+        List<Key> removed = new ArrayList<Key>();
+        this.cut(Collections.singletonList(low),
+                Collections.singletonList(high), removed);
+        return removed;
+    } // end removeRange
+
+    /**
+     * Removes every key equal to one of the given keys in one
+     * go. The keys are cut out of the tree like a range of keys
+     * in removeRange, all of them in a single pass from the
+     * root, so subtrees holding none of them are never entered.
+     * 
+     * @param keys
+     *            -- keys to remove, in any order
+     * @return number of keys removed
+     */
+    public int removeAll(List<? extends Key> keys) {
+        List<Key> sorted = new ArrayList<Key>(keys);
+        Collections.sort(sorted);
+
+        // the ranges to cut must not overlap
+        int distinct = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            if (distinct == 0 || sorted.get(distinct - 1)
+                    .compareTo(sorted.get(i)) != 0) {
+                sorted.set(distinct++, sorted.get(i));
+            }
+        }
+        sorted = sorted.subList(0, distinct);
+
+        List<Key> removed = new ArrayList<Key>();
+        this.cut(sorted, sorted, removed);
+        return removed.size();
+    } // end removeAll
+
+    /**
+     * Cuts every key within any of the given ranges (inclusive)
+     * out of the tree
+     * 
+     * @param lows
+     *            -- low key of each range, in ascending order
+     * @param highs
+     *            -- high key of each range. Ranges must not
+     *            overlap
+     * @param removed
+     *            -- receives the removed keys, in order
+     */
+    private void cut(List<Key> lows, List<Key> highs,
+            List<Key> removed) {
+        if (this.isEmpty() || lows.isEmpty()) {
+            return;
+        }
+        if (order > 3) {
+            wideRoot = this.cutWide(wideRoot, null, null, lows,
+                    highs, 0, lows.size(), removed);
+        }
+        else {
+            root = this.cut(root, null, null, lows, highs, 0,
+                    lows.size(), removed);
+        }
+        size -= removed.size();
+    } // end cut
+
+    /**
+     * Cuts the keys within the given ranges out of a subtree of
+     * 2-3+ nodes. Every key of the subtree lies within its
+     * bounds, so a subtree within a single range is dropped
+     * whole, only walked to list its keys, and one outside every
+     * range is returned as it is. Otherwise the subtree is
+     * taken apart at its root: each child is cut, and the pieces
+     * are joined back together with the keys of the root left.
+     * 
+     * @param node
+     *            -- root of the subtree
+     * @param lower
+     *            -- no key of the subtree is below this, null if
+     *            unbounded
+     * @param upper
+     *            -- no key of the subtree is above this, null if
+     *            unbounded
+     * @param lows
+     *            -- low key of each range, in ascending order
+     * @param highs
+     *            -- high key of each range
+     * @param from
+     *            -- first range which may reach into the subtree
+     * @param to
+     *            -- end of the ranges which may reach into it
+     * @param removed
+     *            -- receives the removed keys, in order
+     * @return root of the subtree left, null if it is empty
+     */
+    private TTNode<Key> cut(TTNode<Key> node, Key lower, Key upper,
+            List<Key> lows, List<Key> highs, int from, int to,
+            List<Key> removed) {
+        int first = firstRange(highs, from, to, lower);
+        int end = endRange(lows, first, to, upper);
+        if (first == end) {
+            return node;
+        }
+        else if (within(lower, upper, lows, highs, first, end)) {
+            this.inOrder(node, removed);
+            return null;
+        }
+
+        // cut the children and keys in order, so that removed
+        // stays sorted
+        int before = removed.size();
+        Key lk = node.lkey();
+        Key rk = node.rkey();
+        Key centerUpper = rk == null ? upper : rk;
+        TTNode<Key> left = null;
+        TTNode<Key> center = null;
+        TTNode<Key> right = null;
+        if (!node.isLeaf()) {
+            left = this.cut(node.leftChild(), lower, lk, lows,
+                    highs, first, end, removed);
+        }
+        boolean keepLeft = !covers(lk, lows, highs, first, end);
+        if (!keepLeft) {
+            removed.add(lk);
+        }
+        if (!node.isLeaf()) {
+            center = this.cut(node.centerChild(), lk, centerUpper,
+                    lows, highs, first, end, removed);
+        }
+        boolean keepRight = rk != null
+                && !covers(rk, lows, highs, first, end);
+        if (rk != null && !keepRight) {
+            removed.add(rk);
+        }
+        if (rk != null && !node.isLeaf()) {
+            right = this.cut(node.rightChild(), rk, upper, lows,
+                    highs, first, end, removed);
+        }
+        if (removed.size() == before) {
+            // the ranges fell between our keys
+            return node;
+        }
+
+        TTNode<Key> toRet = keepLeft ? this.join(left, lk, center)
+                : this.join(left, center);
+        if (keepRight) {
+            toRet = this.join(toRet, rk, right);
+        }
+        else if (rk != null) {
+            toRet = this.join(toRet, right);
+        }
+        return toRet;
+    } // end cut
+
+    /**
+     * Cuts the keys within the given ranges out of a subtree of
+     * B-tree nodes, exactly as cut does for 2-3+ nodes
+     * 
+     * @param node
+     *            -- root of the subtree
+     * @param lower
+     *            -- no key of the subtree is below this, null if
+     *            unbounded
+     * @param upper
+     *            -- no key of the subtree is above this, null if
+     *            unbounded
+     * @param lows
+     *            -- low key of each range, in ascending order
+     * @param highs
+     *            -- high key of each range
+     * @param from
+     *            -- first range which may reach into the subtree
+     * @param to
+     *            -- end of the ranges which may reach into it
+     * @param removed
+     *            -- receives the removed keys, in order
+     * @return root of the subtree left, null if it is empty
+     */
+    private BTreeNode<Key> cutWide(BTreeNode<Key> node, Key lower,
+            Key upper, List<Key> lows, List<Key> highs, int from,
+            int to, List<Key> removed) {
+        int first = firstRange(highs, from, to, lower);
+        int end = endRange(lows, first, to, upper);
+        if (first == end) {
+            return node;
+        }
+        else if (within(lower, upper, lows, highs, first, end)) {
+            node.collect(removed);
+            return null;
+        }
+
+        int before = removed.size();
+        int count = node.keyCount();
+        List<BTreeNode<Key>> pieces =
+                new ArrayList<BTreeNode<Key>>(count + 1);
+        boolean[] kept = new boolean[count];
+        for (int i = 0; i <= count; i++) {
+            if (!node.isLeaf()) {
+                pieces.add(this.cutWide(node.child(i),
+                        i == 0 ? lower : node.key(i - 1),
+                        i == count ? upper : node.key(i), lows,
+                        highs, first, end, removed));
+            }
+            else {
+                pieces.add(null);
+            }
+            if (i < count) {
+                kept[i] = !covers(node.key(i), lows, highs, first,
+                        end);
+                if (!kept[i]) {
+                    removed.add(node.key(i));
+                }
+            }
+        } // end for
+        if (removed.size() == before) {
+            return node;
+        }
+
+        BTreeNode<Key> toRet = pieces.get(0);
+        for (int i = 0; i < count; i++) {
+            toRet = kept[i]
+                    ? BTreeNode.join(toRet, node.key(i),
+                            pieces.get(i + 1), order)
+                    : BTreeNode.join(toRet, pieces.get(i + 1));
+        }
+        return toRet;
+    } // end cutWide
+
+    /**
+     * Joins two trees of 2-3+ nodes and a key between them, i.e.
+     * every key of left is no greater than k and every key of
+     * right no less. The shorter tree is hung off the spine of
+     * the taller one facing it, at the level where their heights
+     * match, splitting full nodes on the way back up as insert
+     * does.
+     * 
+     * @param left
+     *            -- root of the left tree, null if empty
+     * @param k
+     *            -- key between the trees
+     * @param right
+     *            -- root of the right tree, null if empty
+     * @return root of the joined tree
+     */
+    private TTNode<Key> join(TTNode<Key> left, Key k,
+            TTNode<Key> right) {
+        int leftHeight = left == null ? 0 : left.height();
+        int rightHeight = right == null ? 0 : right.height();
+        if (leftHeight == rightHeight) {
+            return new TTNode<Key>(k, null, left, right, null);
+        }
+        else if (leftHeight > rightHeight) {
+            return this.joinRight(left, leftHeight, k, right,
+                    rightHeight);
+        }
+        return this.joinLeft(left, leftHeight, k, right,
+                rightHeight);
+    } // end join
+
+    /**
+     * Joins two trees of 2-3+ nodes, every key of left being no
+     * greater than any key of right, by taking the smallest key
+     * of right out to go between them
+     * 
+     * @param left
+     *            -- root of the left tree, null if empty
+     * @param right
+     *            -- root of the right tree, null if empty
+     * @return root of the joined tree, null if both are empty
+     */
+    private TTNode<Key> join(TTNode<Key> left, TTNode<Key> right) {
+        if (left == null) {
+            return right;
+        }
+        else if (right == null) {
+            return left;
+        }
+        TTNode<Key> first = right;
+        while (!first.isLeaf()) {
+            first = first.leftChild();
+        }
+        Key k = first.lkey();
+        right.remove(k);
+        if (right.lkey() == null) {
+            // the root was emptied, as in remove
+            right = right.leftChild();
+        }
+        return this.join(left, k, right);
+    } // end join
+
+    /**
+     * Joins a shorter tree of 2-3+ nodes, and the key before it,
+     * onto the right spine of a taller one
+     * 
+     * @param left
+     *            -- root of the taller tree
+     * @param leftHeight
+     *            -- height of the taller tree
+     * @param k
+     *            -- key between the trees
+     * @param right
+     *            -- root of the shorter tree, null if empty
+     * @param rightHeight
+     *            -- height of the shorter tree
+     * @return root of the joined tree
+     */
+    private TTNode<Key> joinRight(TTNode<Key> left, int leftHeight,
+            Key k, TTNode<Key> right, int rightHeight) {
+        List<TTNode<Key>> path = new ArrayList<TTNode<Key>>();
+        TTNode<Key> node = left;
+        for (int h = leftHeight; h > rightHeight + 1; h--) {
+            path.add(node);
+            node = node.rkey() == null ? node.centerChild()
+                    : node.rightChild();
+        }
+
+        // node is one level above the shorter tree and takes it
+        // as its last child
+        Key up = k;
+        TTNode<Key> upChild = right;
+        while (node.rkey() != null) {
+            // a full node keeps its left key and first two
+            // children, and sends its right key up
+            TTNode<Key> sibling = new TTNode<Key>(up, null,
+                    node.rightChild(), upChild, null);
+            up = node.rkey();
+            upChild = sibling;
+            node.setRightKey(null);
+            node.setRightChild(null);
+            if (path.isEmpty()) {
+                return new TTNode<Key>(up, null, node, upChild,
+                        null);
+            }
+            node = path.remove(path.size() - 1);
+        } // end while
+        node.setRightKey(up);
+        node.setRightChild(upChild);
+        return left;
+    } // end joinRight
+
+    /**
+     * Joins a shorter tree of 2-3+ nodes, and the key after it,
+     * onto the left spine of a taller one
+     * 
+     * @param left
+     *            -- root of the shorter tree, null if empty
+     * @param leftHeight
+     *            -- height of the shorter tree
+     * @param k
+     *            -- key between the trees
+     * @param right
+     *            -- root of the taller tree
+     * @param rightHeight
+     *            -- height of the taller tree
+     * @return root of the joined tree
+     */
+    private TTNode<Key> joinLeft(TTNode<Key> left, int leftHeight,
+            Key k, TTNode<Key> right, int rightHeight) {
+        List<TTNode<Key>> path = new ArrayList<TTNode<Key>>();
+        TTNode<Key> node = right;
+        for (int h = rightHeight; h > leftHeight + 1; h--) {
+            path.add(node);
+            node = node.leftChild();
+        }
+
+        // node is one level above the shorter tree and takes it
+        // as its first child
+        Key up = k;
+        TTNode<Key> upChild = left;
+        while (node.rkey() != null) {
+            // a full node keeps its right key and last two
+            // children, and sends its left key up
+            TTNode<Key> sibling = new TTNode<Key>(up, null,
+                    upChild, node.leftChild(), null);
+            up = node.lkey();
+            upChild = sibling;
+            node.setLeftKey(node.rkey());
+            node.setLeftChild(node.centerChild());
+            node.setCenterChild(node.rightChild());
+            node.setRightKey(null);
+            node.setRightChild(null);
+            if (path.isEmpty()) {
+                return new TTNode<Key>(up, null, upChild, node,
+                        null);
+            }
+            node = path.remove(path.size() - 1);
+        } // end while
+        node.setRightKey(node.lkey());
+        node.setRightChild(node.centerChild());
+        node.setCenterChild(node.leftChild());
+        node.setLeftKey(up);
+        node.setLeftChild(upChild);
+        return right;
+    } // end joinLeft
+
+    /**
+     * Gives the first of a run of ranges which does not end
+     * below a key
+     * 
+     * @param <Key>
+     *            -- generic reference for comparable
+     * @param highs
+     *            -- high key of each range, in ascending order
+     * @param from
+     *            -- first range of the run
+     * @param to
+     *            -- end of the run
+     * @param lower
+     *            -- key to compare against, null for none
+     * @return first range ending at or above lower, to if none
+     */
+    private static <Key extends Comparable<? super Key>> int
+            firstRange(List<Key> highs, int from, int to,
+                    Key lower) {
+        if (lower == null) {
+            return from;
+        }
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (highs.get(mid).compareTo(lower) < 0) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        } // end while
+        return low;
+    } // end firstRange
+
+    /**
+     * Gives the end of the ranges of a run which do not start
+     * above a key
+     * 
+     * @param <Key>
+     *            -- generic reference for comparable
+     * @param lows
+     *            -- low key of each range, in ascending order
+     * @param from
+     *            -- first range of the run
+     * @param to
+     *            -- end of the run
+     * @param upper
+     *            -- key to compare against, null for none
+     * @return first range starting above upper, to if none
+     */
+    private static <Key extends Comparable<? super Key>> int
+            endRange(List<Key> lows, int from, int to, Key upper) {
+        if (upper == null) {
+            return to;
+        }
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (lows.get(mid).compareTo(upper) <= 0) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        } // end while
+        return low;
+    } // end endRange
+
+    /**
+     * Indicates whether a key lies within one of a run of ranges
+     * 
+     * @param <Key>
+     *            -- generic reference for comparable
+     * @param k
+     *            -- key to look for
+     * @param lows
+     *            -- low key of each range, in ascending order
+     * @param highs
+     *            -- high key of each range
+     * @param from
+     *            -- first range of the run
+     * @param to
+     *            -- end of the run
+     * @return True if some range of the run holds the key
+     */
+    private static <Key extends Comparable<? super Key>> boolean
+            covers(Key k, List<Key> lows, List<Key> highs, int from,
+                    int to) {
+        int last = endRange(lows, from, to, k) - 1;
+        return last >= from && highs.get(last).compareTo(k) >= 0;
+    } // end covers
+
+    /**
+     * Indicates whether a single range of a run holds every key
+     * between two bounds
+     * 
+     * @param <Key>
+     *            -- generic reference for comparable
+     * @param lower
+     *            -- lower bound, null if unbounded
+     * @param upper
+     *            -- upper bound, null if unbounded
+     * @param lows
+     *            -- low key of each range, in ascending order
+     * @param highs
+     *            -- high key of each range
+     * @param from
+     *            -- first range of the run
+     * @param to
+     *            -- end of the run
+     * @return True if the bounds lie within one range
+     */
+    private static <Key extends Comparable<? super Key>> boolean
+            within(Key lower, Key upper, List<Key> lows,
+                    List<Key> highs, int from, int to) {
+        return lower != null && upper != null && to - from == 1
+                && lows.get(from).compareTo(lower) <= 0
+                && highs.get(from).compareTo(upper) >= 0;
+    } // end within
+
+    /**
+     * Builds a tree of 2-3+ nodes out of distinct keys, replacing
+     * the (empty) contents of the tree
+     * 
+     * @param sorted
+     *            -- keys in ascending order, without duplicates
+     * @param count
+     *            -- number of keys to take from the list
+     */
+    private void build(List<Key> sorted, int count) {
+        if (count == 0) {
+            return;
+        }
+
+        // leaves hold two keys, except for up to two leaves at
+        // the end holding one, and are separated by one key
+        int leaves = (count + 3) / 3;
+        int singles = 3 * leaves - 1 - count;
+        List<TTNode<Key>> level = new ArrayList<TTNode<Key>>(leaves);
+        List<Key> between = new ArrayList<Key>(leaves);
+        int next = 0;
+        for (int i = 0; i < leaves; i++) {
+            if (i > 0) {
+                between.add(sorted.get(next++));
+            }
+            Key lk = sorted.get(next++);
+            Key rk = i < leaves - singles ? sorted.get(next++) : null;
+            level.add(new TTNode<Key>(lk, rk, null, null, null));
+        } // end for
+
+        while (level.size() > 1) {
+            level = this.buildLevel(level, between);
+        }
+        root = level.get(0);
+        size = count;
+    } // end build
+
+    /**
+     * Appends the keys of a subtree to a list, in order
+     * 
+     * @param node
+     *            -- root of the subtree, may be null
+     * @param keys
+     *            -- receives the keys
+     */
+    private void inOrder(TTNode<Key> node, List<Key> keys) {
+        if (node == null) {
+            return;
+        }
+        this.inOrder(node.leftChild(), keys);
+        keys.add(node.lkey());
+        this.inOrder(node.centerChild(), keys);
+        if (node.rkey() != null) {
+            keys.add(node.rkey());
+            this.inOrder(node.rightChild(), keys);
+        }
+    } // end inOrder
+
     /**
      * removes the specified key from the tree by calling the
-     * roots removeHelper method
+     * roots iterative remove method
      * 
      * @param k
      *            -- key of KV pair we wish to remove
@@ -62,11 +729,14 @@ public class TTTree<Key extends Comparable<? super Key>> {
         if (this.isEmpty()) {
             return null;
         }
+        if (order > 3) {
+            return this.removeWide(k);
+        }
 
-        Key toRet = root.removeHelper(k);
+        Key toRet = root.remove(k);
 
         if (toRet == null) {
-            // removeHelper returns null when instance
+            // remove returns null when instance
             // is not in tree. We continue this error handling
             // by throwing an exception
             return null;
@@ -84,7 +754,7 @@ public class TTTree<Key extends Comparable<? super Key>> {
     }
 
     /**
-     * Simply call our searchHelper method from the root to
+     * Simply call our iterative search method from the root to
      * ensure entire tree is traversed
      * 
      * @param toFind
@@ -95,7 +765,10 @@ public class TTTree<Key extends Comparable<? super Key>> {
         if (this.isEmpty()) {
             return null;
         }
-        return root.searchHelper(toFind);
+        else if (order > 3) {
+            return wideRoot.search(toFind);
+        }
+        return root.search(toFind);
     }
 
     /**
@@ -109,12 +782,54 @@ public class TTTree<Key extends Comparable<? super Key>> {
      */
     public List<Key> rangeSearch(Key low, Key high) {
         LinkedList<Key> toRet = new LinkedList<Key>();
-        if (!this.isEmpty()) {
+        if (order > 3 && wideRoot != null) {
+            wideRoot.rangeSearch(low, high, toRet);
+        }
+        else if (!this.isEmpty()) {
             root.rangeSearchHelper(low, high, toRet);
         }
         return toRet;
     }
 
+    /**
+     * Lazily walks the keys within a range of keys (inclusive),
+     * in ascending order, without collecting them into a list
+     * first. The tree must not be modified while the keys are
+     * being walked.
+     * 
+     * @param low
+     *            - the low key
+     * @param high
+     *            - the high key
+     * @return iterator over the matching tree keys
+     */
+    public Iterator<Key> rangeIterator(Key low, Key high) {
+        if (order > 3 && wideRoot != null) {
+            return wideRoot.rangeIterator(low, high);
+        }
+        return new RangeIterator<Key>(root, low, high);
+    }
+
+    /**
+     * Gives the keys within a range of keys (inclusive) so that
+     * they can be walked by a for-each loop, one rangeIterator
+     * per loop
+     * 
+     * @param low
+     *            - the low key
+     * @param high
+     *            - the high key
+     * @return the matching tree keys, found as they are walked
+     */
+    public Iterable<Key> range(final Key low, final Key high) {
+        return new Iterable<Key>() {
+            @Override
+            public Iterator<Key> iterator() {
+                return TTTree.this.rangeIterator(low, high);
+            }
+        };
+    } // end range
+
     /**
      * Gives the height of the tree by calling on the height of
      * the root. An empty tree is regarded as having height 0.
@@ -125,6 +840,9 @@ public class TTTree<Key extends Comparable<? super Key>> {
         if (this.isEmpty()) {
             return 0;
         }
+        else if (order > 3) {
+            return wideRoot.height();
+        }
         return root.height();
     } // end height
 
@@ -137,6 +855,38 @@ public class TTTree<Key extends Comparable<? super Key>> {
         return size;
     } // end size()
 
+    /**
+     * Accessor method for the order of the tree
+     * 
+     * @return most children of a node, 3 for 2-3+ nodes
+     */
+    public int order() {
+        return order;
+    }
+
+    /**
+     * Accessor method for the root of the tree. Used by Snapshot.
+     * 
+     * @return root node, null if the tree is empty
+     */
+    TTNode<Key> root() {
+        return root;
+    }
+
+    /**
+     * Replaces the contents of the tree with an already built
+     * tree of nodes. Used by Snapshot.
+     * 
+     * @param newRoot
+     *            -- root of the new contents, null for none
+     * @param newSize
+     *            -- number of keys below newRoot
+     */
+    void restore(TTNode<Key> newRoot, int newSize) {
+        root = newRoot;
+        size = newSize;
+    }
+
     /**
      * Gets the String representation of this tree.
      * 
@@ -147,6 +897,9 @@ public class TTTree<Key extends Comparable<? super Key>> {
         if (this.isEmpty()) {
             return "";
         }
+        else if (order > 3) {
+            return wideRoot.printPreOrder(0);
+        }
         return root.printPreOrder(0);
     }
 
@@ -156,16 +909,81 @@ public class TTTree<Key extends Comparable<? super Key>> {
      */
     public void clear() {
         root = null;
+        wideRoot = null;
         size = 0;
     }
 
+    /**
+     * Removes a key from a tree of B-tree nodes, throwing away a
+     * root left without keys
+     * 
+     * @param k
+     *            -- key we wish to remove
+     * @return reference to the removed key, null if not found
+     */
+    private Key removeWide(Key k) {
+        Key toRet = wideRoot.remove(k);
+        if (toRet == null) {
+            return null;
+        }
+        if (wideRoot.keyCount() == 0) {
+            wideRoot = wideRoot.child(0);
+        }
+        size--;
+        return toRet;
+    } // end removeWide
+
+    /**
+     * Groups the nodes of one level under parents with three
+     * children, except for up to two parents at the end with
+     * two. Each parent takes the keys between its children, and
+     * the keys between neighbouring parents are left in between
+     * for the next level.
+     * 
+     * @param children
+     *            -- nodes of the level, in order
+     * @param between
+     *            -- key between each pair of neighbouring
+     *            children; replaced by the keys between the
+     *            parents
+     * @return parents, in order
+     */
+    private List<TTNode<Key>> buildLevel(List<TTNode<Key>> children,
+            List<Key> between) {
+        int parents = (children.size() + 2) / 3;
+        int pairs = 3 * parents - children.size();
+        List<TTNode<Key>> toRet =
+                new ArrayList<TTNode<Key>>(parents);
+        List<Key> keys = new ArrayList<Key>(between);
+        between.clear();
+
+        int child = 0;
+        int key = 0;
+        for (int i = 0; i < parents; i++) {
+            if (i > 0) {
+                between.add(keys.get(key++));
+            }
+            TTNode<Key> left = children.get(child++);
+            Key lk = keys.get(key++);
+            TTNode<Key> center = children.get(child++);
+            Key rk = null;
+            TTNode<Key> right = null;
+            if (i < parents - pairs) {
+                rk = keys.get(key++);
+                right = children.get(child++);
+            }
+            toRet.add(new TTNode<Key>(lk, rk, left, center, right));
+        } // end for
+        return toRet;
+    } // end buildLevel
+
     /**
      * Indicates whether our tree is now empty
      * 
      * @return True if tree is empty, false otherwise
      */
     public boolean isEmpty() {
-        return root == null;
+        return root == null && wideRoot == null;
     } // end isEmpty
 
 } // end TTTree
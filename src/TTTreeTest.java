@@ -1,4 +1,8 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 import student.TestCase;
 
 /**
@@ -322,4 +326,426 @@ public class TTTreeTest extends TestCase {
                 .search(new KVPair<Integer, Integer>(21, 21)));
 
     } // end testSearch
+
+    /**
+     * Tests that bulk loading sorts, drops duplicates, and packs
+     * the leaves with two keys each
+     */
+    public void testBulkLoad() {
+        List<KVPair<Integer, Integer>> keys =
+                new ArrayList<KVPair<Integer, Integer>>();
+        for (int i = 7; i >= 1; i--) {
+            keys.add(new KVPair<Integer, Integer>(i, i));
+        }
+        keys.add(new KVPair<Integer, Integer>(4, 4));
+
+        tree.insert(new KVPair<Integer, Integer>(50, 50));
+        tree.bulkLoad(keys);
+        assertEquals(7, tree.size());
+        assertEquals("3 3 6 6\n"
+                + "  1 1 2 2\n"
+                + "  4 4 5 5\n"
+                + "  7 7\n", tree.toString());
+
+        tree.bulkLoad(new ArrayList<KVPair<Integer, Integer>>());
+        assertTrue(tree.isEmpty());
+    }
+
+    /**
+     * Tests that bulk loaded trees of every small size are valid
+     * 2-3 trees: searchable, balanced, and able to take later
+     * insertions and removals
+     */
+    public void testBulkLoadSizes() {
+        Random random = new Random(7);
+        for (int n = 1; n <= 60; n++) {
+            List<KVPair<Integer, Integer>> keys =
+                    new ArrayList<KVPair<Integer, Integer>>();
+            for (int i = 0; i < n; i++) {
+                keys.add(new KVPair<Integer, Integer>(2 * i, i));
+            }
+            tree.bulkLoad(keys);
+
+            assertEquals(n, tree.size());
+            assertEquals(keys, tree.rangeSearch(keys.get(0),
+                    keys.get(n - 1)));
+            // no taller than inserting the keys one at a time
+            assertTrue(tree.height() <= 1 + (int) Math.ceil(
+                    Math.log(n + 1) / Math.log(3)));
+
+            tree.insert(new KVPair<Integer, Integer>(2 * n - 3, 0));
+            Collections.shuffle(keys, random);
+            for (KVPair<Integer, Integer> key : keys) {
+                assertEquals(key, tree.remove(key));
+                assertNull(tree.search(key));
+            }
+            assertEquals(1, tree.size());
+        } // end for
+    }
+
+    /**
+     * Tests that bulk loading builds trees of B-tree nodes which
+     * are as shallow as their order allows, and able to take
+     * later insertions and removals
+     */
+    public void testBulkLoadOrders() {
+        Random random = new Random(5);
+        for (int order : new int[] { 4, 5, 32 }) {
+            for (int n = 1; n <= 400; n += 1 + n / 8) {
+                List<Long> keys = new ArrayList<Long>();
+                for (long i = 0; i < n; i++) {
+                    keys.add(2 * i);
+                }
+                TTTree<Long> wide = new TTTree<Long>(order);
+                wide.bulkLoad(keys);
+
+                assertEquals(n, wide.size());
+                assertEquals(keys, wide.rangeSearch(0L, 2L * n));
+                this.assertHeight(wide);
+                assertEquals((int) Math.ceil(Math.log(n + 1)
+                        / Math.log(order) - 1e-9), wide.height());
+
+                wide.insert(1L);
+                Collections.shuffle(keys, random);
+                for (Long key : keys) {
+                    assertEquals(key, wide.remove(key));
+                    assertNull(wide.search(key));
+                }
+                assertEquals(1, wide.size());
+            } // end for
+        } // end for
+    }
+
+    /**
+     * Tests a tree of B-tree nodes against a tree of 2-3+ nodes
+     * holding the same keys
+     */
+    public void testOrder() {
+        TTTree<KVPair<Integer, Integer>> wide =
+                new TTTree<KVPair<Integer, Integer>>(32);
+        assertEquals(32, wide.order());
+        assertEquals(3, tree.order());
+        assertTrue(wide.isEmpty());
+        assertNull(wide.remove(new KVPair<Integer, Integer>(1, 1)));
+
+        Random random = new Random(9);
+        for (int i = 0; i < 2000; i++) {
+            KVPair<Integer, Integer> pair =
+                    new KVPair<Integer, Integer>(
+                            random.nextInt(300), random.nextInt(5));
+            if (tree.search(pair) == null) {
+                tree.insert(pair);
+                wide.insert(pair);
+            }
+            else if (random.nextBoolean()) {
+                assertEquals(tree.remove(pair), wide.remove(pair));
+            }
+        } // end for
+        assertEquals(tree.size(), wide.size());
+        assertTrue(wide.height() < tree.height());
+
+        KVPair<Integer, Integer> low =
+                new KVPair<Integer, Integer>(50, 0);
+        KVPair<Integer, Integer> high =
+                new KVPair<Integer, Integer>(120, 4);
+        assertEquals(tree.rangeSearch(low, high),
+                wide.rangeSearch(low, high));
+        List<KVPair<Integer, Integer>> walked =
+                new ArrayList<KVPair<Integer, Integer>>();
+        for (KVPair<Integer, Integer> pair : wide.range(low, high)) {
+            walked.add(pair);
+        }
+        assertEquals(tree.rangeSearch(low, high), walked);
+
+        wide.bulkLoad(tree.rangeSearch(
+                new KVPair<Integer, Integer>(0, 0),
+                new KVPair<Integer, Integer>(300, 0)));
+        assertEquals(tree.size(), wide.size());
+        wide.clear();
+        assertEquals("", wide.toString());
+
+        Exception thrown = null;
+        try {
+            new TTTree<Integer>(2);
+        }
+        catch (IllegalArgumentException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+    } // end testOrder
+
+    /**
+     * Tests that the height of a tree of every order stays
+     * between that of a tree of full nodes and that of a tree
+     * of half-full nodes, while keys are inserted and removed
+     */
+    public void testHeightPerOrder() {
+        Random random = new Random(8);
+        List<Long> keys = new ArrayList<Long>();
+        for (int i = 0; i < 20000; i++) {
+            keys.add(random.nextLong());
+        }
+        int previous = Integer.MAX_VALUE;
+        for (int order : new int[] { 3, 4, 5, 32, 64, 128 }) {
+            TTTree<Long> wide = new TTTree<Long>(order);
+            for (Long key : keys) {
+                wide.insert(key);
+            }
+            this.assertHeight(wide);
+            // a wider node never makes the tree deeper
+            assertTrue(wide.height() <= previous);
+            previous = wide.height();
+
+            for (int i = 0; i < keys.size(); i += 2) {
+                assertEquals(keys.get(i), wide.remove(keys.get(i)));
+            }
+            this.assertHeight(wide);
+            for (int i = 0; i < keys.size(); i++) {
+                assertEquals(i % 2 == 0 ? null : keys.get(i),
+                        wide.search(keys.get(i)));
+            }
+        } // end for
+
+        TTTree<Long> small = new TTTree<Long>(64);
+        for (int i = 0; i < 1000; i++) {
+            small.insert(keys.get(i));
+        }
+        // 1000 keys fit in two levels of B-tree nodes
+        assertEquals(2, small.height());
+    } // end testHeightPerOrder
+
+    /**
+     * Tests cutting a range of keys out of the tree, both a few
+     * keys and most of the tree
+     */
+    public void testRemoveRange() {
+        for (int i = 0; i < 40; i++) {
+            tree.insert(new KVPair<Integer, Integer>(i / 4, i % 4));
+        }
+        // a range holding no keys
+        assertEquals(0, tree.removeRange(
+                new KVPair<Integer, Integer>(50, 0),
+                new KVPair<Integer, Integer>(60, 0)).size());
+        assertEquals(40, tree.size());
+
+        // a few keys
+        Iterator<KVPair<Integer, Integer>> removed =
+                tree.removeRange(new KVPair<Integer, Integer>(3, 0),
+                        new KVPair<Integer, Integer>(3, 3))
+                        .iterator();
+        for (int i = 0; i < 4; i++) {
+            assertEquals("3 " + i, removed.next().toString());
+        }
+        assertFalse(removed.hasNext());
+        assertEquals(36, tree.size());
+        assertNull(tree.search(new KVPair<Integer, Integer>(3, 1)));
+
+        // most of the tree
+        assertEquals(24, tree.removeRange(
+                new KVPair<Integer, Integer>(2, 0),
+                new KVPair<Integer, Integer>(8, 3)).size());
+        assertEquals(12, tree.size());
+        List<KVPair<Integer, Integer>> left = tree.rangeSearch(
+                new KVPair<Integer, Integer>(0, 0),
+                new KVPair<Integer, Integer>(9, 3));
+        assertEquals(12, left.size());
+        assertEquals("1 3", left.get(7).toString());
+        assertEquals("9 0", left.get(8).toString());
+        // still a valid tree
+        tree.insert(new KVPair<Integer, Integer>(5, 5));
+        assertEquals("0 2", tree.remove(
+                new KVPair<Integer, Integer>(0, 2)).toString());
+        assertEquals(12, tree.size());
+    } // end testRemoveRange
+
+    /**
+     * Tests removing a batch of keys against removing each key on
+     * its own, for batches of every share of the tree
+     */
+    public void testRemoveAll() {
+        Random random = new Random(11);
+        for (int n = 1; n <= 30; n++) {
+            TTTree<KVPair<Integer, Integer>> single =
+                    new TTTree<KVPair<Integer, Integer>>();
+            tree.clear();
+            List<KVPair<Integer, Integer>> batch =
+                    new ArrayList<KVPair<Integer, Integer>>();
+            for (int i = 0; i < 30; i++) {
+                KVPair<Integer, Integer> pair =
+                        new KVPair<Integer, Integer>(i, i);
+                tree.insert(pair);
+                single.insert(pair);
+                if (i < n) {
+                    batch.add(pair);
+                }
+            }
+            // keys missing from the tree are skipped
+            batch.add(new KVPair<Integer, Integer>(40, 0));
+            Collections.shuffle(batch, random);
+
+            assertEquals(n, tree.removeAll(batch));
+            for (KVPair<Integer, Integer> pair : batch) {
+                single.remove(pair);
+            }
+            assertEquals(single.size(), tree.size());
+            assertEquals(single.rangeSearch(
+                    new KVPair<Integer, Integer>(0, 0),
+                    new KVPair<Integer, Integer>(40, 0)),
+                    tree.rangeSearch(
+                            new KVPair<Integer, Integer>(0, 0),
+                            new KVPair<Integer, Integer>(40, 0)));
+        } // end for
+
+        // every key equal to one in the batch is removed
+        TTTree<Integer> equal = new TTTree<Integer>();
+        for (int i = 0; i < 8; i++) {
+            equal.insert(i % 2);
+        }
+        List<Integer> ones = new ArrayList<Integer>();
+        for (int i = 0; i < 4; i++) {
+            ones.add(1);
+        }
+        assertEquals(4, equal.removeAll(ones));
+        assertEquals(4, equal.size());
+        assertNull(equal.search(1));
+        assertEquals(Integer.valueOf(0), equal.search(0));
+
+        // wide trees are cut as well
+        TTTree<Integer> wide = new TTTree<Integer>(32);
+        for (int i = 0; i < 100; i++) {
+            wide.insert(i);
+        }
+        assertEquals(90, wide.removeRange(5, 94).size());
+        assertEquals(10, wide.size());
+        assertNull(wide.search(50));
+    } // end testRemoveAll
+
+    /**
+     * Tests cutting random ranges and batches of repeating keys
+     * out of trees of several orders, checking that the tree is
+     * left balanced and holding the right keys, and that it can
+     * still be inserted into
+     */
+    public void testCutShape() {
+        int[] orders = {3, 4, 5, 32};
+        Random random = new Random(17);
+        for (int order : orders) {
+            for (int round = 0; round < 30; round++) {
+                TTTree<Integer> cut = new TTTree<Integer>(order);
+                List<Integer> expected = new ArrayList<Integer>();
+                int n = random.nextInt(600);
+                for (int i = 0; i < n; i++) {
+                    int k = random.nextInt(300);
+                    cut.insert(k);
+                    expected.add(k);
+                }
+
+                // a range
+                int low = random.nextInt(320) - 10;
+                int high = low + random.nextInt(150);
+                Collections.sort(expected);
+                List<Integer> inRange = new ArrayList<Integer>();
+                for (Integer k : expected) {
+                    if (k >= low && k <= high) {
+                        inRange.add(k);
+                    }
+                }
+                expected.removeAll(inRange);
+                assertEquals(inRange,
+                        cut.removeRange(low, high));
+                assertCut(expected, cut, order);
+
+                // a batch
+                List<Integer> batch = new ArrayList<Integer>();
+                for (int i = 0; i < 40; i++) {
+                    batch.add(random.nextInt(300));
+                }
+                int before = expected.size();
+                expected.removeAll(batch);
+                assertEquals(before - expected.size(),
+                        cut.removeAll(batch));
+                assertCut(expected, cut, order);
+
+                for (int i = 0; i < 50; i++) {
+                    int k = random.nextInt(300);
+                    cut.insert(k);
+                    expected.add(k);
+                }
+                Collections.sort(expected);
+                assertCut(expected, cut, order);
+            } // end for
+        } // end for
+    } // end testCutShape
+
+    // ------------ PRIVATE METHODS -------------
+
+    /**
+     * Asserts that the height of a tree lies between that of a
+     * tree whose nodes are all full and that of a tree whose
+     * nodes are all half full
+     *
+     * @param wide
+     *            -- tree to check
+     */
+    private void assertHeight(TTTree<Long> wide) {
+        double keys = wide.size() + 1;
+        int order = wide.order();
+        // every node but the root has at least half its children
+        int half = (order + 1) / 2;
+        double lowest = Math.log(keys) / Math.log(order);
+        double highest = 1 + Math.log(keys / 2) / Math.log(half);
+        assertTrue(wide.height() >= Math.ceil(lowest - 1e-9));
+        assertTrue(wide.height() <= Math.floor(highest + 1e-9));
+    }
+
+    /**
+     * Checks that a tree holds the expected keys, that every
+     * node holds as many keys as its order allows and one child
+     * more than it has keys, and that every leaf is as deep as
+     * the tree is tall. The shape is read off the printed tree,
+     * where each level is indented by two more spaces.
+     *
+     * @param expected
+     *            -- keys the tree should hold, in order
+     * @param cut
+     *            -- tree to check
+     * @param order
+     *            -- order of the tree
+     */
+    private void assertCut(List<Integer> expected,
+            TTTree<Integer> cut, int order) {
+        assertEquals(expected.size(), cut.size());
+        if (expected.isEmpty()) {
+            assertTrue(cut.isEmpty());
+            return;
+        }
+        assertEquals(expected, cut.rangeSearch(-1, 400));
+
+        String[] lines = cut.toString().split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            int depth = line.length() - line.trim().length();
+            int keys = line.trim().split(" ").length;
+            assertTrue(keys < order);
+            assertTrue(depth == 0 || keys >= (order - 1) / 2);
+
+            int children = 0;
+            for (int j = i + 1; j < lines.length; j++) {
+                int below = lines[j].length()
+                        - lines[j].trim().length();
+                if (below <= depth) {
+                    break;
+                }
+                else if (below == depth + 2) {
+                    children++;
+                }
+            }
+            if (children == 0) {
+                assertEquals(cut.height(), depth / 2 + 1);
+            }
+            else {
+                assertEquals(keys + 1, children);
+            }
+        } // end for
+    } // end assertCut
 } // TTTreeTest
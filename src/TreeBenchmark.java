@@ -0,0 +1,161 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the recursive helpers of TTNode against their
+ * iterative counterparts. A tree of random integers is built by
+ * inserting them one at a time, searched for every key (and as
+ * many keys which are missing) over a number of rounds, range
+ * searched, and emptied again by removing every key, once with
+ * each implementation. Every measurement is repeated after a
+ * few untimed warm-up passes so that both versions are compiled
+ * before they are timed, and the best of the timed passes is
+ * reported.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ */
+public class TreeBenchmark {
+
+    // ------------------- PRIVATE VARIABLES -------------------
+
+    private static final int WARMUP_PASSES = 3;
+    private static final int TIMED_PASSES = 5;
+    private static final int SEARCH_ROUNDS = 10;
+    private static final int RANGE_WIDTH = 100;
+    private static final long SEED = 4;
+
+    // ------------------- PUBLIC METHODS ----------------------
+
+    /**
+     * Times every operation under both implementations and
+     * prints a table of the best times
+     *
+     * @param args
+     *            - args[0]: number of keys in the tree
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println(
+                    "Improper invocation\n\n\t\tjava"
+                            + " TreeBenchmark {number-of-keys}");
+            return;
+        }
+        int count = Integer.parseInt(args[0]);
+        Random random = new Random(SEED);
+        List<Integer> keys = new ArrayList<Integer>(count);
+        List<Integer> probes = new ArrayList<Integer>(2 * count);
+        for (int i = 0; i < count; i++) {
+            // even keys are stored, odd keys are missing
+            keys.add(2 * i);
+            probes.add(2 * i);
+            probes.add(2 * i + 1);
+        }
+        Collections.shuffle(keys, random);
+        Collections.shuffle(probes, random);
+
+        long[][] best = new long[4][2];
+        for (long[] row : best) {
+            row[0] = Long.MAX_VALUE;
+            row[1] = Long.MAX_VALUE;
+        }
+        for (int pass = 0; pass < WARMUP_PASSES + TIMED_PASSES;
+                pass++) {
+            for (int version = 0; version < 2; version++) {
+                long[] times = run(version == 1, keys, probes);
+                if (pass >= WARMUP_PASSES) {
+                    for (int op = 0; op < times.length; op++) {
+                        best[op][version] = Math.min(
+                                best[op][version], times[op]);
+                    }
+                }
+            } // end for
+        } // end for
+
+        String[] names = { "insert", "search", "range", "remove" };
+        System.out.printf("%-8s %12s %12s %8s\n", "op",
+                "recursive ms", "iterative ms", "speedup");
+        for (int op = 0; op < names.length; op++) {
+            System.out.printf("%-8s %12.3f %12.3f %8.2f\n",
+                    names[op], best[op][0] / 1e6,
+                    best[op][1] / 1e6,
+                    (double) best[op][0] / Math.max(1, best[op][1]));
+        }
+    } // end main()
+
+    // ------------------- PRIVATE METHODS ----------------------
+
+    /**
+     * Builds, searches, and empties one tree
+     *
+     * @param iterative
+     *            -- True to use the iterative methods of TTNode,
+     *            false for the recursive helpers
+     * @param keys
+     *            -- keys to insert and remove
+     * @param probes
+     *            -- keys to search for
+     * @return nanoseconds taken to insert, search, range search,
+     *         and remove
+     */
+    private static long[] run(boolean iterative, List<Integer> keys,
+            List<Integer> probes) {
+        long[] times = new long[4];
+
+        long start = System.nanoTime();
+        TTNode<Integer> root =
+                new TTNode<Integer>(keys.get(0), null, null, null,
+                        null);
+        for (int i = 1; i < keys.size(); i++) {
+            root = iterative ? root.insert(keys.get(i))
+                    : root.insertHelp(keys.get(i));
+        }
+        times[0] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int found = 0;
+        for (int round = 0; round < SEARCH_ROUNDS; round++) {
+            for (Integer probe : probes) {
+                Integer key = iterative ? root.search(probe)
+                        : root.searchHelper(probe);
+                found += key == null ? 0 : 1;
+            }
+        }
+        times[1] = System.nanoTime() - start;
+        if (found != SEARCH_ROUNDS * keys.size()) {
+            throw new IllegalStateException("search missed keys");
+        }
+
+        start = System.nanoTime();
+        for (int i = 0; i < keys.size(); i += RANGE_WIDTH) {
+            Integer low = keys.get(i);
+            Integer high = low + 2 * RANGE_WIDTH;
+            List<Integer> list = new LinkedList<Integer>();
+            if (iterative) {
+                root.rangeSearch(low, high, list);
+            }
+            else {
+                root.rangeSearchHelper(low, high, list);
+            }
+        } // end for
+        times[2] = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (Integer key : keys) {
+            Integer removed = iterative ? root.remove(key)
+                    : root.removeHelper(key);
+            if (removed == null) {
+                throw new IllegalStateException("remove missed "
+                        + key);
+            }
+            if (root.lkey() == null && root.leftChild() != null) {
+                root = root.leftChild();
+            }
+        }
+        times[3] = System.nanoTime() - start;
+        return times;
+    } // end run
+} // end TreeBenchmark
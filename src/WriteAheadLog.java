@@ -0,0 +1,392 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the commands changing our song database, so
+ * that changes made since the last Snapshot survive a crash.
+ * Every insert, remove, and delete command is appended as a
+ * compact binary record before it is applied, and recover hands
+ * the logged commands back to a MutationHandler after a restart.
+ * Once a snapshot covers every logged command the log is reset.
+ *
+ * Each record holds its length, a CRC32 checksum, an operation
+ * byte, and the names involved, each preceded by its length in
+ * two bytes. Recovery stops at the first record which is cut off
+ * or fails its checksum (i.e. was being written during the
+ * crash) and drops it from the log.
+ *
+ * Every record is written to the log file as soon as it is
+ * appended, so a crash of our process never loses a logged
+ * command. The SyncPolicy only decides when the file is forced
+ * to the disk, i.e. what survives a crash of the machine. Under
+ * group commit the first record written after a force starts a
+ * timer, and the log is forced once the group interval has
+ * passed, so the commands of one interval share a single disk
+ * flush and even the last command of a run is forced without
+ * waiting for another one.
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ */
+public class WriteAheadLog {
+
+    // ---------------- PRIVATE VARIABLES ----------------
+
+    private static final byte INSERT = 0x01;
+    private static final byte REMOVE_ARTIST = 0x02;
+    private static final byte REMOVE_SONG = 0x03;
+    private static final byte DELETE = 0x04;
+    private static final int HEADER = 8; // length and checksum
+    // longest name whose length fits in its two bytes
+    private static final int MAX_NAME = 0xffff;
+    // header, operation, and two names of the greatest length
+    private static final int BUFFER_SIZE =
+            HEADER + 1 + 2 * (2 + MAX_NAME);
+
+    private FileChannel channel; // open log file
+    private SyncPolicy policy; // when to force the log
+    private long interval; // of group commit, in milliseconds
+    private Timer timer; // forces groups, null unless GROUP
+    private int unforced; // records written since the last force
+    private ByteBuffer record; // record being written
+    private CRC32 checksum;
+
+    // ---------------- CONSTRUCTOR ---------------------
+
+    /**
+     * Constructor for a log appending to the given file, which
+     * is created if it does not exist. Commands already in the
+     * file are kept, and should be recovered before new ones are
+     * logged.
+     *
+     * @param file
+     *            -- file holding the log
+     * @param syncPolicy
+     *            -- when to force records to the disk
+     * @param groupMillis
+     *            -- interval between flushes under group commit
+     */
+    public WriteAheadLog(File file, SyncPolicy syncPolicy,
+            long groupMillis) {
+        policy = syncPolicy;
+        interval = groupMillis;
+        record = ByteBuffer.allocate(BUFFER_SIZE);
+        checksum = new CRC32();
+        try {
+            channel = FileChannel.open(file.toPath(),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (policy == SyncPolicy.GROUP) {
+            // a daemon, so that a log left open never keeps our
+            // program running
+            timer = new Timer("WriteAheadLog group commit", true);
+        }
+    } // end constructor
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Hands every command in the log to the handler, in the
+     * order they were logged. A damaged record at the end of the
+     * log, and anything following it, is cut off.
+     *
+     * @param handler
+     *            -- receives the logged commands
+     * @return number of commands recovered
+     */
+    public synchronized int recover(MutationHandler handler) {
+        try {
+            if (channel.size() > Integer.MAX_VALUE) {
+                // a single buffer cannot hold the log
+                throw new IOException("log of " + channel.size()
+                        + " bytes is too large to recover");
+            }
+            ByteBuffer log = ByteBuffer.allocate(
+                    (int) channel.size());
+            while (log.hasRemaining()
+                    && channel.read(log, log.position()) >= 0) {
+                // read the whole log
+            }
+            log.flip();
+
+            int count = 0;
+            int valid = 0; // end of the last recovered record
+            while (log.remaining() >= HEADER) {
+                int length = log.getInt();
+                int sum = log.getInt();
+                if (length <= 0 || length > log.remaining()) {
+                    // record was cut off by the crash
+                    break;
+                }
+                checksum.reset();
+                checksum.update(log.array(), log.position(), length);
+                if ((int) checksum.getValue() != sum) {
+                    break;
+                }
+                ByteBuffer next = log.slice();
+                next.limit(length);
+                apply(next, handler);
+                log.position(log.position() + length);
+                valid = log.position();
+                count++;
+            } // end while
+
+            // drop the damaged tail, and append after the last
+            // recovered command
+            channel.truncate(valid);
+            channel.position(valid);
+            return count;
+        } // end try
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    } // end recover
+
+    /**
+     * Logs an insert command
+     *
+     * @param artist
+     *            -- name of the artist
+     * @param song
+     *            -- name of the song
+     * @throws IllegalArgumentException
+     *             if a name is longer than 65535 bytes
+     */
+    public void logInsert(String artist, String song) {
+        this.append(INSERT, artist, song);
+    }
+
+    /**
+     * Logs a remove command
+     *
+     * @param isArtist
+     *            -- True if an artist is removed, false if a
+     *            song is
+     * @param name
+     *            -- name of the artist or song
+     * @throws IllegalArgumentException
+     *             if a name is longer than 65535 bytes
+     */
+    public void logRemove(boolean isArtist, String name) {
+        this.append(isArtist ? REMOVE_ARTIST : REMOVE_SONG, name,
+                null);
+    }
+
+    /**
+     * Logs a delete command
+     *
+     * @param artist
+     *            -- name of the artist
+     * @param song
+     *            -- name of the song
+     * @throws IllegalArgumentException
+     *             if a name is longer than 65535 bytes
+     */
+    public void logDelete(String artist, String song) {
+        this.append(DELETE, artist, song);
+    }
+
+    /**
+     * Forces every record written so far to the disk, whatever
+     * the policy
+     */
+    public synchronized void sync() {
+        try {
+            channel.force(false);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        unforced = 0;
+    } // end sync
+
+    /**
+     * Empties the log, once a snapshot holds the effect of every
+     * logged command
+     */
+    public synchronized void reset() {
+        try {
+            channel.truncate(0);
+            channel.position(0);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.sync();
+    } // end reset
+
+    /**
+     * Forces every record to the disk and closes the log file
+     */
+    public synchronized void close() {
+        if (timer != null) {
+            timer.cancel();
+        }
+        this.sync();
+        try {
+            channel.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    } // end close
+
+    // ---------------- PACKAGE METHODS -------------------
+
+    /**
+     * Accessor method for the number of records written since
+     * the log was last forced to the disk. Used by
+     * WriteAheadLogTest.
+     *
+     * @return records which a crash of the machine could lose
+     */
+    synchronized int unforced() {
+        return unforced;
+    }
+
+    // ---------------- PRIVATE METHODS -------------------
+
+    /**
+     * Writes a record to the end of the log file, and forces the
+     * log or schedules a group commit as our policy asks
+     *
+     * @param op
+     *            -- operation of the record
+     * @param first
+     *            -- first name of the record
+     * @param second
+     *            -- second name of the record, null if none
+     * @throws IllegalArgumentException
+     *             if a name is longer than MAX_NAME bytes
+     */
+    private synchronized void append(byte op, String first,
+            String second) {
+        byte[] firstBytes = first.getBytes();
+        byte[] secondBytes =
+                second == null ? null : second.getBytes();
+        if (firstBytes.length > MAX_NAME || (secondBytes != null
+                && secondBytes.length > MAX_NAME)) {
+            // its length would not fit in two bytes
+            throw new IllegalArgumentException(
+                    "name too long to log");
+        }
+        int length = 3 + firstBytes.length;
+        if (secondBytes != null) {
+            length += 2 + secondBytes.length;
+        }
+
+        record.clear();
+        record.position(HEADER);
+        record.put(op);
+        record.putShort((short) firstBytes.length);
+        record.put(firstBytes);
+        if (secondBytes != null) {
+            record.putShort((short) secondBytes.length);
+            record.put(secondBytes);
+        }
+        checksum.reset();
+        checksum.update(record.array(), HEADER, length);
+        record.putInt(0, length);
+        record.putInt(4, (int) checksum.getValue());
+
+        record.flip();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        unforced++;
+
+        if (policy == SyncPolicy.EVERY_OP) {
+            this.sync();
+        }
+        else if (policy == SyncPolicy.GROUP && unforced == 1) {
+            // the first record of a group schedules the one
+            // flush covering every record of the interval
+            timer.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    groupCommit();
+                }
+            }, interval);
+        }
+    } // end append
+
+    /**
+     * Forces the records of a group to the disk, once its
+     * interval has passed. The log is forced outside our lock,
+     * so that new commands are written while the disk flushes.
+     */
+    private void groupCommit() {
+        synchronized (this) {
+            if (unforced == 0 || !channel.isOpen()) {
+                return;
+            }
+            // records written from here on start the next group
+            unforced = 0;
+        }
+        try {
+            channel.force(false);
+        }
+        catch (ClosedChannelException e) {
+            // closing the log has forced it already
+            return;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    } // end groupCommit
+
+    /**
+     * Decodes a record and hands its command to the handler
+     *
+     * @param record
+     *            -- bytes of the record following its header
+     * @param handler
+     *            -- receives the command
+     */
+    private static void apply(ByteBuffer record,
+            MutationHandler handler) {
+        byte op = record.get();
+        String first = readName(record);
+        if (op == REMOVE_ARTIST || op == REMOVE_SONG) {
+            handler.remove(op == REMOVE_ARTIST, first);
+        }
+        else if (op == INSERT) {
+            handler.insert(first, readName(record));
+        }
+        else {
+            handler.delete(first, readName(record));
+        }
+    } // end apply
+
+    /**
+     * Reads a name preceded by its length
+     *
+     * @param record
+     *            -- record positioned at the length of the name
+     * @return the name
+     */
+    private static String readName(ByteBuffer record) {
+        byte[] bytes = new byte[record.getShort() & 0xffff];
+        record.get(bytes);
+        return new String(bytes);
+    }
+} // end WriteAheadLog
@@ -0,0 +1,225 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import student.TestCase;
+
+/**
+ * Tests that our write-ahead log hands back every logged command
+ * in order, and survives a record cut off by a crash
+ *
+ * @author Chris Dare (cdare77@vt.edu)
+ * @version 12/01/2017
+ */
+public class WriteAheadLogTest extends TestCase {
+
+    // ----------------PRIVATE VARIABLES------------------
+    private File file;
+    private List<String> replayed; // commands recovered
+    private MutationHandler recorder;
+
+    // ---------------- PUBLIC METHODS -------------------
+
+    /**
+     * Sets up the test fixture.
+     */
+    @Override
+    public void setUp() {
+        file = new File(System.getProperty("java.io.tmpdir"),
+                "wal" + System.nanoTime() + ".log");
+        replayed = new ArrayList<String>();
+        recorder = new MutationHandler() {
+            @Override
+            public void insert(String artist, String song) {
+                replayed.add("insert " + artist + "<SEP>" + song);
+            }
+
+            @Override
+            public void remove(boolean isArtist, String name) {
+                replayed.add("remove " + (isArtist ? "artist "
+                        : "song ") + name);
+            }
+
+            @Override
+            public void delete(String artist, String song) {
+                replayed.add("delete " + artist + "<SEP>" + song);
+            }
+        };
+    }
+
+    @Override
+    public void tearDown() {
+        file.delete();
+    }
+
+    /**
+     * Tests that every command comes back in order, under every
+     * sync policy
+     */
+    public void testRecover() {
+        for (SyncPolicy policy : SyncPolicy.values()) {
+            file.delete();
+            replayed.clear();
+            WriteAheadLog log = new WriteAheadLog(file, policy, 5);
+            assertEquals(0, log.recover(recorder));
+            log.logInsert("Nickelback", "Rockstar");
+            log.logRemove(false, "Rockstar");
+            log.logRemove(true, "Nickelback");
+            log.logDelete("Linkin Park", "Numb");
+            log.close();
+
+            log = new WriteAheadLog(file, policy, 5);
+            assertEquals(4, log.recover(recorder));
+            log.close();
+            assertEquals("[insert Nickelback<SEP>Rockstar, "
+                    + "remove song Rockstar, "
+                    + "remove artist Nickelback, "
+                    + "delete Linkin Park<SEP>Numb]",
+                    replayed.toString());
+        } // end for
+    }
+
+    /**
+     * Tests that records are written to the file right away under
+     * every policy, and forced as the policy asks
+     *
+     * @throws InterruptedException
+     *             if the wait for a group commit is interrupted
+     */
+    public void testSyncPolicy() throws InterruptedException {
+        WriteAheadLog log =
+                new WriteAheadLog(file, SyncPolicy.EVERY_OP, 0);
+        log.logInsert("Nickelback", "Rockstar");
+        assertEquals(31, file.length());
+        assertEquals(0, log.unforced());
+        log.close();
+
+        WriteAheadLog none =
+                new WriteAheadLog(file, SyncPolicy.NONE, 0);
+        none.logInsert("Nickelback", "Animals");
+        assertEquals(61, file.length());
+        assertEquals(1, none.unforced());
+        none.close();
+        assertEquals(0, none.unforced());
+
+        WriteAheadLog group =
+                new WriteAheadLog(file, SyncPolicy.GROUP, 20);
+        group.logInsert("Nickelback", "Photograph");
+        group.logDelete("Nickelback", "Animals");
+        assertEquals(124, file.length());
+        assertEquals(2, group.unforced());
+        // the last command is forced without waiting for another
+        for (int i = 0; i < 100 && group.unforced() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, group.unforced());
+        group.close();
+    }
+
+    /**
+     * Tests that commands logged by a run which never closed its
+     * log, e.g. one which crashed, are still recovered
+     */
+    public void testUnclosed() {
+        for (SyncPolicy policy : SyncPolicy.values()) {
+            file.delete();
+            replayed.clear();
+            WriteAheadLog crashed =
+                    new WriteAheadLog(file, policy, 60000);
+            crashed.logInsert("Nickelback", "Rockstar");
+            crashed.logRemove(false, "Rockstar");
+
+            WriteAheadLog log = new WriteAheadLog(file, policy, 5);
+            assertEquals(2, log.recover(recorder));
+            log.close();
+            crashed.close();
+        } // end for
+    }
+
+    /**
+     * Tests that a damaged record at the end of the log is cut
+     * off, and that later commands follow the last good one
+     *
+     * @throws IOException
+     *             if the log cannot be damaged
+     */
+    public void testTornRecord() throws IOException {
+        WriteAheadLog log =
+                new WriteAheadLog(file, SyncPolicy.NONE, 0);
+        log.logInsert("Nickelback", "Rockstar");
+        log.logInsert("Linkin Park", "Numb");
+        log.close();
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.setLength(raf.length() - 2);
+        raf.close();
+
+        log = new WriteAheadLog(file, SyncPolicy.NONE, 0);
+        assertEquals(1, log.recover(recorder));
+        assertEquals(31, file.length());
+        log.logRemove(true, "Nickelback");
+        log.close();
+
+        // flip a byte of the last record
+        raf = new RandomAccessFile(file, "rw");
+        raf.seek(file.length() - 1);
+        raf.write('x');
+        raf.close();
+
+        replayed.clear();
+        log = new WriteAheadLog(file, SyncPolicy.NONE, 0);
+        assertEquals(1, log.recover(recorder));
+        log.close();
+        assertEquals("[insert Nickelback<SEP>Rockstar]",
+                replayed.toString());
+    }
+
+    /**
+     * Tests that a reset log recovers nothing
+     */
+    public void testReset() {
+        WriteAheadLog log =
+                new WriteAheadLog(file, SyncPolicy.GROUP, 10);
+        log.logInsert("Nickelback", "Rockstar");
+        log.reset();
+        log.logDelete("Linkin Park", "Numb");
+        log.close();
+
+        log = new WriteAheadLog(file, SyncPolicy.GROUP, 10);
+        assertEquals(1, log.recover(recorder));
+        log.close();
+        assertEquals("[delete Linkin Park<SEP>Numb]",
+                replayed.toString());
+    }
+
+    /**
+     * Tests that names of the greatest length are logged, and
+     * that longer ones are rejected instead of being cut short
+     */
+    public void testLongNames() {
+        char[] longest = new char[65535];
+        Arrays.fill(longest, 'a');
+        String artist = new String(longest);
+        String song = artist.replace('a', 'b');
+        WriteAheadLog log =
+                new WriteAheadLog(file, SyncPolicy.NONE, 0);
+        log.logInsert(artist, song);
+        Exception thrown = null;
+        try {
+            log.logRemove(true, artist + "a");
+        }
+        catch (IllegalArgumentException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+        log.close();
+
+        log = new WriteAheadLog(file, SyncPolicy.NONE, 0);
+        assertEquals(1, log.recover(recorder));
+        log.close();
+        assertEquals("insert " + artist + "<SEP>" + song,
+                replayed.get(0));
+    }
+} // end WriteAheadLogTest